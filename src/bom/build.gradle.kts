@@ -79,6 +79,7 @@ dependencies {
         apiv("com.github.weisj:darklaf-theme", "darklaf")
         apiv("com.github.weisj:darklaf-property-loader", "darklaf")
         apiv("com.github.weisj:darklaf-extensions-rsyntaxarea", "darklaf.extensions")
+        apiv("com.google.re2j:re2j")
         apiv("com.helger.commons:ph-commons")
         apiv("com.helger:ph-css")
         apiv("com.jayway.jsonpath:json-path")
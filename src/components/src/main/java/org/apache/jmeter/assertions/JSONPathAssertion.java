@@ -22,6 +22,7 @@ import java.text.DecimalFormat;
 import java.util.Map;
 import java.util.Objects;
 
+import org.apache.jmeter.extractor.json.jsonpath.JSONManager;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.ThreadListener;
@@ -111,8 +112,9 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
         return getPropertyAsBoolean(ISREGEX, true);
     }
 
-    private void doAssert(String jsonString) {
-        Object value = JsonPath.read(jsonString, getJsonPath());
+    private void doAssert(SampleResult samplerResult) {
+        // the document is parsed once per sample and shared with the other JSON Path elements
+        Object value = JsonPath.read(JSONManager.parseResponseData(samplerResult), getJsonPath());
 
         if (!isJsonValidationBool()) {
             if (value instanceof JSONArray) {
@@ -192,7 +194,7 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
 
         if (!isInvert()) {
             try {
-                doAssert(responseData);
+                doAssert(samplerResult);
             } catch (Exception e) {
                 log.debug("Assertion failed", e);
                 result.setFailure(true);
@@ -200,7 +202,7 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
             }
         } else {
             try {
-                doAssert(responseData);
+                doAssert(samplerResult);
                 result.setFailure(true);
                 if (isJsonValidationBool()) {
                     if (isExpectNull()) {
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.assertions.gui.AssertionGui;
+import org.apache.jmeter.samplers.ResponseDataSearcher;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractScopedAssertion;
 import org.apache.jmeter.testelement.property.CollectionProperty;
@@ -33,6 +34,7 @@ import org.apache.jmeter.testelement.property.IntegerProperty;
 import org.apache.jmeter.testelement.property.JMeterProperty;
 import org.apache.jmeter.testelement.property.NullProperty;
 import org.apache.jmeter.testelement.property.StringProperty;
+import org.apache.jmeter.util.CompiledRegex;
 import org.apache.jmeter.util.Document;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.oro.text.MalformedCachePatternException;
@@ -95,8 +97,8 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
     private static final String DIFF_DELTA_END
             = JMeterUtils.getPropDefault("assertion.equals_diff_delta_end", "]]]");
 
-    private static final boolean USE_JAVA_REGEX = !JMeterUtils.getPropDefault(
-            "jmeter.regex.engine", "oro").equalsIgnoreCase("oro");
+    private static final boolean USE_JAVA_REGEX =
+            CompiledRegex.Engine.getDefault() != CompiledRegex.Engine.ORO;
 
     public ResponseAssertion() {
         setProperty(new CollectionProperty(TEST_STRINGS, new ArrayList<String>()));
@@ -299,8 +301,6 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
             response.setSuccessful(true);// Allow testing of failure codes
         }
 
-        String toCheck = getStringToCheck(response);
-
         result.setFailure(false);
         result.setError(false);
         int testType = getTestType();
@@ -312,7 +312,13 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
 
         log.debug("Test Type Info: contains={}, notTest={}, orTest={}", contains, notTest, orTest);
 
-        if (StringUtils.isEmpty(toCheck)) {
+        // Plain text is searched in the response bytes, the response is only decoded for failure messages
+        ResponseDataSearcher searcher = (equals || substring) && !isScopeVariable() && isTestFieldResponseData()
+                ? ResponseDataSearcher.of(response)
+                : null;
+        String toCheck = searcher == null ? getStringToCheck(response) : null;
+
+        if (searcher != null ? searcher.isEmpty() : StringUtils.isEmpty(toCheck)) {
             if (notTest) { // Not should always succeed against an empty result
                 return result;
             }
@@ -339,9 +345,9 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
                         found = localMatcher.contains(toCheck, pattern);
                     }
                 } else if (equals) {
-                    found = toCheck.equals(stringPattern);
+                    found = searcher != null ? searcher.contentEquals(stringPattern) : toCheck.equals(stringPattern);
                 } else if (substring) {
-                    found = toCheck.contains(stringPattern);
+                    found = searcher != null ? searcher.contains(stringPattern) : toCheck.contains(stringPattern);
                 } else { // this is the old `matches` part which means `isMatchType()` is true
                     if (USE_JAVA_REGEX) {
                         found = matchesWithJavaRegex(toCheck, stringPattern);
@@ -355,7 +361,8 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
                 if (orTest) {
                     if (!pass) {
                         log.debug("Failed: {}", stringPattern);
-                        allCheckMessage.add(getFailText(stringPattern, toCheck));
+                        allCheckMessage.add(
+                                getFailText(stringPattern, searcher != null ? searcher.getText() : toCheck));
                     } else {
                         hasTrue=true;
                         break;
@@ -366,7 +373,8 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
                         result.setFailure(true);
                         String customMsg = getCustomFailureMessage();
                         if (StringUtils.isEmpty(customMsg)) {
-                            result.setFailureMessage(getFailText(stringPattern, toCheck));
+                            result.setFailureMessage(
+                                    getFailText(stringPattern, searcher != null ? searcher.getText() : toCheck));
                         } else {
                             result.setFailureMessage(customMsg);
                         }
@@ -395,11 +403,11 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
     }
 
     private static boolean matchesWithJavaRegex(String toCheck, String stringPattern) {
-        return JMeterUtils.compilePattern(stringPattern).matcher(toCheck).matches();
+        return CompiledRegex.compile(stringPattern).matches(toCheck);
     }
 
     private static boolean containsWithJavaRegex(String toCheck, String stringPattern) {
-        return JMeterUtils.compilePattern(stringPattern).matcher(toCheck).find();
+        return CompiledRegex.compile(stringPattern).find(toCheck);
     }
 
     private String getStringToCheck(SampleResult response) {
@@ -95,11 +95,16 @@ public class XPathAssertion extends AbstractScopedAssertion implements Serializa
                 log.debug("Validation is set to {}, Whitespace is set to {}, Tolerant is set to {}", isValidating(),
                     isWhitespace(), isTolerant());
             }
-            boolean isXML = JOrphanUtils.isXML(responseData);
-
-            doc = XPathUtil.makeDocument(new ByteArrayInputStream(responseData), isValidating(),
-                    isWhitespace(), isNamespace(), isTolerant(), isQuiet(), showWarnings() , reportErrors(), isXML
-                    , isDownloadDTDs());
+            if (isScopeVariable()) {
+                boolean isXML = JOrphanUtils.isXML(responseData);
+                doc = XPathUtil.makeDocument(new ByteArrayInputStream(responseData), isValidating(),
+                        isWhitespace(), isNamespace(), isTolerant(), isQuiet(), showWarnings() , reportErrors(), isXML
+                        , isDownloadDTDs());
+            } else {
+                // the document is parsed once per sample and shared with the other XPath elements
+                doc = XPathUtil.makeDocument(response, false, isValidating(), isWhitespace(), isNamespace(),
+                        isTolerant(), isQuiet(), showWarnings(), reportErrors(), isDownloadDTDs());
+            }
         } catch (SAXException e) {
             log.debug("Caught sax exception.", e);
             result.setError(true);
@@ -66,13 +66,13 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
      * with the JMESPath query result
      *
      * @param assertionResult          {@link AssertionResult}
-     * @param responseDataAsJsonString the response data from the sender
+     * @param samplerResult            the sample whose response data is checked
      * @throws Exception
      */
-    private void doAssert(AssertionResult assertionResult, String responseDataAsJsonString, boolean invert)
+    private void doAssert(AssertionResult assertionResult, SampleResult samplerResult, boolean invert)
             throws Exception {
-        // cast the response data to JsonNode
-        JsonNode input = OBJECT_MAPPER.readValue(responseDataAsJsonString, JsonNode.class);
+        // cast the response data to JsonNode, it is parsed once per sample and shared with the other JMESPath elements
+        JsonNode input = JMESPathCache.parseResponseData(samplerResult);
         // get the JMESPath expression from the cache
         // if it does not exist, compile it.
         // Expression does not compile if JMESPath expression is empty or null
@@ -80,7 +80,7 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
         // get the result from the JMESPath query
         JsonNode currentValue = expression.search(input);
         log.debug("JMESPath query {} invoked on response {}. Query result is {}. ", expression,
-                responseDataAsJsonString, currentValue);
+                input, currentValue);
         boolean success = checkResult(OBJECT_MAPPER, currentValue);
         if (!invert) {
             if (!success) {
@@ -159,7 +159,7 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
         result.setFailureMessage("");
 
         try {
-            doAssert(result, responseData, isInvert());
+            doAssert(result, samplerResult, isInvert());
         } catch (Exception e) {
             if (!isInvert()) {
                 result.setError(true);
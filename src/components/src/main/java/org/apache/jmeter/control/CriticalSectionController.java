@@ -18,13 +18,19 @@
 package org.apache.jmeter.control;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.testelement.ThreadListener;
+import org.apache.jmeter.testelement.property.FunctionProperty;
 import org.apache.jmeter.testelement.property.StringProperty;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +61,16 @@ import org.slf4j.LoggerFactory;
  *    ... Other Controllers /Samplers }
  * </pre>
  *
+ * When the number of permits is greater than 1, the named lock is a semaphore
+ * that lets up to that number of threads execute the statements at the same time.
+ * Semaphores are not reentrant, so nested controllers must not use the same lock name.
+ * All the controllers using the same lock name share a single lock: the first controller that uses
+ * the name defines its number of permits and fairness, and a warning is logged if another controller
+ * is configured differently.
+ * <p>
+ * The time spent waiting for the lock is reported with {@link org.apache.jmeter.samplers.SampleResult#getLockWaitTime()}
+ * of the first sample executed in the section.
+ *
  * @since 2.12
  */
 public class CriticalSectionController extends GenericController implements
@@ -66,10 +82,19 @@ public class CriticalSectionController extends GenericController implements
 
     private static final String LOCK_NAME = "CriticalSectionController.lockName"; //$NON-NLS-1$
 
-    private static final ConcurrentHashMap<String, ReentrantLock> LOCK_MAP = new ConcurrentHashMap<>();
+    private static final String PERMITS = "CriticalSectionController.permits"; //$NON-NLS-1$
+
+    private static final String FAIR = "CriticalSectionController.fair"; //$NON-NLS-1$
+
+    private static final ConcurrentHashMap<String, NamedLock> LOCK_MAP = new ConcurrentHashMap<>();
 
     private transient volatile ReentrantLock currentLock;
 
+    private transient volatile Semaphore currentSemaphore;
+
+    /** Lock of a lock name without variables, looked up once by each thread */
+    private transient NamedLock cachedLock;
+
     /**
      * constructor
      */
@@ -95,21 +120,62 @@ public class CriticalSectionController extends GenericController implements
     }
 
     /**
-     * If lock exists returns it, otherwise creates one, puts it in LOCK_MAP
-     * then returns it
+     * @param permits number of threads allowed to execute the section at the same time,
+     *                1 means the section is guarded by a (reentrant) lock
+     * @since 5.5
+     */
+    public void setPermits(int permits) {
+        setProperty(PERMITS, permits, 1);
+    }
+
+    /**
+     * @return number of threads allowed to execute the section at the same time
+     * @since 5.5
+     */
+    public int getPermits() {
+        return Math.max(1, getPropertyAsInt(PERMITS, 1));
+    }
+
+    /**
+     * @param fair true if the lock should be granted to the threads in the order they requested it
+     * @since 5.5
+     */
+    public void setFair(boolean fair) {
+        setProperty(FAIR, fair, false);
+    }
+
+    /**
+     * @return true if the lock is granted to the threads in the order they requested it
+     * @since 5.5
+     */
+    public boolean isFair() {
+        return getPropertyAsBoolean(FAIR, false);
+    }
+
+    /**
+     * If lock exists returns it, otherwise creates one with the configured permits and fairness,
+     * puts it in LOCK_MAP then returns it.
+     * The lock is only looked up again on the next iterations when the lock name contains variables.
      *
-     * @return {@link ReentrantLock}
+     * @return {@link NamedLock}
      */
-    private ReentrantLock getOrCreateLock() {
+    private NamedLock getOrCreateLock() {
+        if (cachedLock != null) {
+            return cachedLock;
+        }
         String lockName = getLockName();
-        ReentrantLock lock = LOCK_MAP.get(lockName);
-        ReentrantLock prev;
-        if (lock != null) {
-            return lock;
+        int permits = getPermits();
+        boolean fair = isFair();
+        NamedLock lock = LOCK_MAP.computeIfAbsent(lockName, name -> new NamedLock(permits, fair));
+        if ((lock.permits != permits || lock.fair != fair) && lock.conflictReported.compareAndSet(false, true)) {
+            log.warn("Lock '{}' is used with {} permits (fair: {}) in Critical Section Controller {}, but was created"
+                            + " with {} permits (fair: {}) by another controller, the first settings are used",
+                    lockName, permits, fair, getName(), lock.permits, lock.fair);
+        }
+        if (!(getProperty(LOCK_NAME) instanceof FunctionProperty)) {
+            cachedLock = lock;
         }
-        lock = new ReentrantLock();
-        prev = LOCK_MAP.putIfAbsent(lockName, lock);
-        return prev == null ? lock : prev;
+        return lock;
     }
 
     /**
@@ -132,15 +198,27 @@ public class CriticalSectionController extends GenericController implements
         }
         if (isFirst()) {
             // Take the lock for first child element
-            long startTime = System.currentTimeMillis();
-            if (this.currentLock == null) {
-                this.currentLock = getOrCreateLock();
+            long startTime = System.nanoTime();
+            NamedLock namedLock = getOrCreateLock();
+            if (namedLock.semaphore != null) {
+                if (this.currentSemaphore == null) {
+                    this.currentSemaphore = namedLock.semaphore;
+                    this.currentSemaphore.acquireUninterruptibly();
+                }
+            } else {
+                if (this.currentLock == null) {
+                    this.currentLock = namedLock.lock;
+                }
+                this.currentLock.lock();
+            }
+            long waitTime = System.nanoTime() - startTime;
+            JMeterThread thread = JMeterContextService.getContext().getThread();
+            if (thread != null) {
+                thread.addLockWaitTime(waitTime);
             }
-            this.currentLock.lock();
-            long endTime = System.currentTimeMillis();
             if (log.isDebugEnabled()) {
                 log.debug("Thread ('{}') acquired lock: '{}' in Critical Section Controller {}  in: {} ms",
-                        Thread.currentThread(), getLockName(), getName(), endTime - startTime);
+                        Thread.currentThread(), getLockName(), getName(), TimeUnit.NANOSECONDS.toMillis(waitTime));
             }
         }
         return super.next();
@@ -159,12 +237,25 @@ public class CriticalSectionController extends GenericController implements
             }
             this.currentLock = null;
         }
+        releaseSemaphore();
         super.reInitialize();
     }
 
+    /**
+     * Semaphores have no owner, so the permit is released by the thread that acquired it, exactly once
+     */
+    private void releaseSemaphore() {
+        if (this.currentSemaphore != null) {
+            this.currentSemaphore.release();
+            this.currentSemaphore = null;
+        }
+    }
+
     @Override
     public void threadStarted() {
         this.currentLock = null;
+        this.currentSemaphore = null;
+        this.cachedLock = null;
     }
 
     @Override
@@ -177,6 +268,10 @@ public class CriticalSectionController extends GenericController implements
             this.currentLock.unlock();
         }
         this.currentLock = null;
+        if (this.currentSemaphore != null) {
+            log.warn("Permit of '{}' not released in: {}, releasing in threadFinished", getLockName(), getName());
+            releaseSemaphore();
+        }
     }
 
     @Override
@@ -198,4 +293,23 @@ public class CriticalSectionController extends GenericController implements
     public void testEnded(String host) {
         testEnded();
     }
+
+    /**
+     * Lock shared by the controllers using the same lock name: a reentrant lock when a single
+     * thread may execute the section, a semaphore otherwise
+     */
+    private static final class NamedLock {
+        private final int permits;
+        private final boolean fair;
+        private final ReentrantLock lock;
+        private final Semaphore semaphore;
+        private final AtomicBoolean conflictReported = new AtomicBoolean();
+
+        NamedLock(int permits, boolean fair) {
+            this.permits = permits;
+            this.fair = fair;
+            this.lock = permits > 1 ? null : new ReentrantLock(fair);
+            this.semaphore = permits > 1 ? new Semaphore(permits, fair) : null;
+        }
+    }
 }
@@ -18,8 +18,10 @@
 package org.apache.jmeter.control.gui;
 
 import java.awt.BorderLayout;
+import java.awt.FlowLayout;
 
 import javax.swing.Box;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
@@ -49,6 +51,16 @@ public class CriticalSectionControllerGui extends AbstractControllerGui {
      */
     private JTextField tfLockName;
 
+    /**
+     * A field allowing the user to specify the number of threads allowed in the section
+     */
+    private JTextField tfPermits;
+
+    /**
+     * A checkbox allowing the user to grant the lock in request order
+     */
+    private JCheckBox cbFair;
+
     /**
      * Boolean indicating whether or not this component should display its name.
      * If true, this is a standalone component. If false, this component is
@@ -93,6 +105,8 @@ public class CriticalSectionControllerGui extends AbstractControllerGui {
         if (element instanceof CriticalSectionController) {
             CriticalSectionController controller = (CriticalSectionController) element;
             tfLockName.setText(controller.getLockName());
+            tfPermits.setText(Integer.toString(controller.getPermits()));
+            cbFair.setSelected(controller.isFair());
         }
 
     }
@@ -116,6 +130,12 @@ public class CriticalSectionControllerGui extends AbstractControllerGui {
         if (controller instanceof CriticalSectionController) {
             CriticalSectionController csController = (CriticalSectionController) controller;
             csController.setLockName(tfLockName.getText());
+            try {
+                csController.setPermits(Integer.parseInt(tfPermits.getText().trim()));
+            } catch (NumberFormatException e) {
+                csController.setPermits(1);
+            }
+            csController.setFair(cbFair.isSelected());
         }
     }
 
@@ -126,6 +146,8 @@ public class CriticalSectionControllerGui extends AbstractControllerGui {
     public void clearGui() {
         super.clearGui();
         tfLockName.setText("global_lock"); // $NON-NLS-1$
+        tfPermits.setText("1"); // $NON-NLS-1$
+        cbFair.setSelected(false);
     }
 
     @Override
@@ -145,15 +167,39 @@ public class CriticalSectionControllerGui extends AbstractControllerGui {
 
             JPanel mainPanel = new JPanel(new BorderLayout());
             mainPanel.add(createCriticalSectionPanel(), BorderLayout.NORTH);
+            mainPanel.add(createPermitsPanel(), BorderLayout.CENTER);
             add(mainPanel, BorderLayout.CENTER);
 
         } else {
             // Embedded
             setLayout(new BorderLayout());
             add(createCriticalSectionPanel(), BorderLayout.NORTH);
+            add(createPermitsPanel(), BorderLayout.CENTER);
         }
     }
 
+    /**
+     * Create a GUI panel containing the number of permits and the fairness
+     *
+     * @return a GUI panel containing the permits components
+     */
+    private JPanel createPermitsPanel() {
+        JPanel permitsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+
+        JLabel permitsLabel = new JLabel(
+                JMeterUtils.getResString("critical_section_controller_permits")); // $NON-NLS-1$
+        permitsPanel.add(permitsLabel);
+
+        tfPermits = new JTextField("1", 5); // $NON-NLS-1$
+        permitsLabel.setLabelFor(tfPermits);
+        permitsPanel.add(tfPermits);
+
+        cbFair = new JCheckBox(JMeterUtils.getResString("critical_section_controller_fair")); // $NON-NLS-1$
+        permitsPanel.add(cbFair);
+
+        return permitsPanel;
+    }
+
     /**
      * Create a GUI panel containing the lockName
      *
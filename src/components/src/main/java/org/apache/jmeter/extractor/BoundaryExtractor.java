@@ -21,12 +21,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.jmeter.processor.PostProcessor;
+import org.apache.jmeter.samplers.ResponseDataSearcher;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractScopedTestElement;
 import org.apache.jmeter.testelement.property.IntegerProperty;
@@ -150,8 +149,7 @@ public class BoundaryExtractor extends AbstractScopedTestElement implements Post
             }
             return extract(getLeftBoundary(), getRightBoundary(), matchNumber, inputString);
         } else {
-            Stream<String> inputs = getSampleList(previousResult).stream().map(this::getInputString);
-            return extract(getLeftBoundary(), getRightBoundary(), matchNumber, inputs);
+            return extract(getLeftBoundary(), getRightBoundary(), matchNumber, getSampleList(previousResult));
         }
     }
 
@@ -237,13 +235,69 @@ public class BoundaryExtractor extends AbstractScopedTestElement implements Post
     }
 
     private List<String> extract(
-            String leftBoundary, String rightBoundary, int matchNumber, Stream<String> previousResults) {
+            String leftBoundary, String rightBoundary, int matchNumber, List<SampleResult> previousResults) {
         boolean allItems = matchNumber <= 0;
-        return previousResults
-                .flatMap(input -> extractAll(leftBoundary, rightBoundary, input).stream())
-                .skip(allItems ? 0L : matchNumber - 1)
-                .limit(allItems ? Long.MAX_VALUE : 1L)
-                .collect(Collectors.toList());
+        List<String> matches = new ArrayList<>();
+        for (SampleResult result : previousResults) {
+            ResponseDataSearcher searcher = useBody() ? ResponseDataSearcher.of(result) : null;
+            byte[] left = searcher == null ? null : searcher.encode(leftBoundary);
+            byte[] right = searcher == null ? null : searcher.encode(rightBoundary);
+            if (left != null && right != null) {
+                // Search the boundaries in the response bytes and only decode the matches
+                matches.addAll(extract(left, right, allItems ? -1 : matchNumber - matches.size(), searcher));
+            } else {
+                matches.addAll(extractAll(leftBoundary, rightBoundary, getInputString(result)));
+            }
+            if (!allItems && matches.size() >= matchNumber) {
+                // no need to process further
+                return Collections.singletonList(matches.get(matchNumber - 1));
+            }
+        }
+        return allItems ? matches : Collections.emptyList();
+    }
+
+    /**
+     * Same as {@link #extract(String, String, int, String)} on the response bytes.
+     *
+     * @param left encoded left boundary
+     * @param right encoded right boundary
+     * @param maxMatches maximum number of fragments to extract, all of them if {@code <=0}
+     * @param searcher response data to search
+     * @return the found text fragments
+     */
+    private static List<String> extract(byte[] left, byte[] right, int maxMatches, ResponseDataSearcher searcher) {
+        if (searcher.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (left.length == 0 && right.length == 0) {
+            return Collections.singletonList(searcher.getText());
+        }
+        if (left.length == 0) {
+            int rightBoundaryIndex = searcher.indexOf(right, 0);
+            if (rightBoundaryIndex != -1) {
+                return Collections.singletonList(searcher.decode(0, rightBoundaryIndex));
+            }
+        }
+        if (right.length == 0) {
+            int leftBoundaryIndex = searcher.indexOf(left, 0);
+            if (leftBoundaryIndex != -1) {
+                return Collections.singletonList(searcher.decode(leftBoundaryIndex + left.length, searcher.length()));
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (int startIndex = 0;
+             (startIndex = searcher.indexOf(left, startIndex)) != -1;
+             startIndex += left.length) {
+            int endIndex = searcher.indexOf(right, startIndex + left.length);
+            if (endIndex < 0) {
+                break;
+            }
+            matches.add(searcher.decode(startIndex + left.length, endIndex));
+            if (maxMatches > 0 && matches.size() == maxMatches) {
+                break;
+            }
+        }
+        return matches;
     }
 
     /**
@@ -20,6 +20,8 @@ package org.apache.jmeter.extractor;
 import java.io.Serializable;
 import java.util.List;
 
+import org.apache.jmeter.samplers.SampleResult;
+
 /**
  * CSS/JQuery based extractor for HTML pages
  * @since 2.9
@@ -44,4 +46,27 @@ public interface Extractor extends Serializable {
             List<String> result,
             int found,
             String cacheKey);
+
+    /**
+     * Extract from the response data of a sample. Implementations are encouraged to parse the response
+     * only once per sample with {@link SampleResult#getParsedResponseData(String, org.apache.jmeter.samplers.ResponseDataParser)}.
+     *
+     * @param expression Expression used for extraction of nodes
+     * @param attribute Attribute name to return
+     * @param matchNumber Match number
+     * @param sampleResult sample whose response data is the page
+     * @param result List of results
+     * @param found current matches found
+     * @return match found updated
+     * @since 5.5
+     */
+    default int extract(
+            String expression,
+            String attribute,
+            int matchNumber,
+            SampleResult sampleResult,
+            List<String> result,
+            int found) {
+        return extract(expression, attribute, matchNumber, sampleResult.getResponseDataAsString(), result, found, null);
+    }
 }
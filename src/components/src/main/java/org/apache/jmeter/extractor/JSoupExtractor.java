@@ -19,6 +19,7 @@ package org.apache.jmeter.extractor;
 
 import java.util.List;
 
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jorphan.util.JOrphanUtils;
 import org.jsoup.Jsoup;
@@ -59,6 +60,23 @@ public class JSoupExtractor implements Extractor {
         } else {
             document = Jsoup.parse(inputString);
         }
+        return select(document, expression, attribute, matchNumber, result, found);
+    }
+
+    /**
+     * The page is parsed once per sample and shared with the other CSS Selector Extractors of the sample
+     * @see Extractor#extract(String, String, int, SampleResult, List, int)
+     */
+    @Override
+    public int extract(String expression, String attribute, int matchNumber,
+            SampleResult sampleResult, List<String> result, int found) {
+        Document document = sampleResult.getParsedResponseData(CACHE_KEY_PREFIX,
+                r -> Jsoup.parse(r.getResponseDataAsString()));
+        return select(document, expression, attribute, matchNumber, result, found);
+    }
+
+    private int select(Document document, String expression, String attribute, int matchNumber,
+            List<String> result, int found) {
         Elements elements = document.select(expression);
         for (Element element : elements) {
             if (matchNumber <= 0 || found != matchNumber) {
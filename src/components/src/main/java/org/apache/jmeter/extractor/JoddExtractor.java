@@ -19,6 +19,7 @@ package org.apache.jmeter.extractor;
 
 import java.util.List;
 
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jorphan.util.JOrphanUtils;
@@ -78,7 +79,23 @@ public class JoddExtractor implements Extractor {
             jodd.lagarto.dom.Document doc = domBuilder.parse(inputString);
             nodeSelector = new NodeSelector(doc);
         }
+        return select(nodeSelector, expression, attribute, matchNumber, result, found);
+    }
+
+    /**
+     * The page is parsed once per sample and shared with the other CSS Selector Extractors of the sample
+     * @see Extractor#extract(String, String, int, SampleResult, List, int)
+     */
+    @Override
+    public int extract(String expression, String attribute, int matchNumber,
+            SampleResult sampleResult, List<String> result, int found) {
+        NodeSelector nodeSelector = sampleResult.getParsedResponseData(CACHE_KEY_PREFIX,
+                r -> new NodeSelector(new LagartoDOMBuilder().parse(r.getResponseDataAsString())));
+        return select(nodeSelector, expression, attribute, matchNumber, result, found);
+    }
 
+    private static int select(NodeSelector nodeSelector, String expression, String attribute, int matchNumber,
+            List<String> result, int found) {
         List<List<CssSelector>> cssSelectors = CSS_SELECTOR_CACHE.get(expression);
         List<Node> elements = nodeSelector.select(cssSelectors);
         for (Node element : elements) {
@@ -94,7 +111,7 @@ public class JoddExtractor implements Extractor {
     }
 
 
-    private String extractValue(String attribute, Node element) {
+    private static String extractValue(String attribute, Node element) {
         if (!JOrphanUtils.isBlank(attribute)) {
             return element.getAttribute(attribute);
         } else {
@@ -21,7 +21,6 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.text.StringEscapeUtils;
@@ -31,6 +30,7 @@ import org.apache.jmeter.testelement.AbstractScopedTestElement;
 import org.apache.jmeter.testelement.property.IntegerProperty;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.CompiledRegex;
 import org.apache.jmeter.util.Document;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.oro.text.MalformedCachePatternException;
@@ -83,11 +83,14 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
 
     private static final boolean DEFAULT_VALUE_FOR_DEFAULT_EMPTY_VALUE = false;
 
-    private static final boolean USE_JAVA_REGEX = !JMeterUtils.getPropDefault(
-            "jmeter.regex.engine", "oro").equalsIgnoreCase("oro");
+    private static final boolean USE_JAVA_REGEX =
+            CompiledRegex.Engine.getDefault() != CompiledRegex.Engine.ORO;
 
     private transient List<Object> template;
 
+    /** Last compiled expression, reused as long as the expression does not change */
+    private transient CompiledRegex compiledRegex;
+
     /**
      * Parses the response data using regular expressions and saving the results
      * into variables for use later in the test.
@@ -182,9 +185,8 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
 
     private void extractWithJavaRegex(SampleResult previousResult, JMeterVariables vars, String refName, int matchNumber) {
         String regex = getRegex();
-        java.util.regex.Pattern pattern = null;
         try {
-            pattern = JMeterUtils.compilePattern(regex);
+            CompiledRegex pattern = getCompiledRegex(regex);
             List<java.util.regex.MatchResult> matches = processMatches(pattern, previousResult, matchNumber, vars);
             int prevCount = 0;
             String prevString = vars.get(refName + REF_MATCH_NR);
@@ -236,6 +238,15 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
         }
     }
 
+    private CompiledRegex getCompiledRegex(String regex) {
+        CompiledRegex compiled = compiledRegex;
+        if (compiled == null || !compiled.pattern().equals(regex)) {
+            compiled = CompiledRegex.compile(regex);
+            compiledRegex = compiled;
+        }
+        return compiled;
+    }
+
     private String getInputString(SampleResult result) {
         String inputString = useUrl() ? result.getUrlAsString() // Bug 39707
                 : useHeaders() ? result.getResponseHeaders()
@@ -283,7 +294,7 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
     }
 
     private List<java.util.regex.MatchResult> processMatches(
-            java.util.regex.Pattern pattern, SampleResult result, int matchNumber, JMeterVariables vars) {
+            CompiledRegex pattern, SampleResult result, int matchNumber, JMeterVariables vars) {
         log.debug("Regex = '{}'", pattern.pattern());
 
         List<java.util.regex.MatchResult> matches = new ArrayList<>();
@@ -328,20 +339,15 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
         return found;
     }
 
-    private int matchStrings(int matchNumber, java.util.regex.Pattern pattern,
+    private int matchStrings(int matchNumber, CompiledRegex pattern,
                              List<java.util.regex.MatchResult> matches, int found,
                              String inputString) {
-        Matcher matcher = pattern.matcher(inputString);
-        while (matchNumber <=0 || found != matchNumber) {
-            if (matcher.find()) {
-                log.debug("RegexExtractor: Match found!");
-                matches.add(matcher.toMatchResult());
-                found++;
-            } else {
-                break;
-            }
+        if (matchNumber > 0 && found >= matchNumber) {
+            return found;
         }
-        return found;
+        int newMatches = pattern.findAll(inputString, matchNumber - found, matches);
+        log.debug("RegexExtractor: {} match(es) found", newMatches);
+        return found + newMatches;
     }
 
     /**
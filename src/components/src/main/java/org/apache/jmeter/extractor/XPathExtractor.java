@@ -35,6 +35,7 @@ import org.apache.jmeter.testelement.property.BooleanProperty;
 import org.apache.jmeter.testelement.property.IntegerProperty;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.StreamingXPath;
 import org.apache.jmeter.util.TidyException;
 import org.apache.jmeter.util.XPathUtil;
 import org.apache.jorphan.util.JMeterError;
@@ -89,6 +90,9 @@ public class XPathExtractor extends AbstractScopedTestElement implements
     private static final String MATCH_NUMBER    = "XPathExtractor.matchNumber"; // $NON-NLS-1$
     //- JMX file attributes
 
+    /** Query compiled for streaming evaluation, and its source */
+    private transient String streamingQuery;
+    private transient StreamingXPath streamingXPath;
 
     private String concat(String s1,String s2){
         return s1 + "_" + s2; // $NON-NLS-1$
@@ -130,8 +134,13 @@ public class XPathExtractor extends AbstractScopedTestElement implements
                 String inputString=vars.get(getVariableName());
                 if(inputString != null) {
                     if(inputString.length()>0) {
-                        Document d =  parseResponse(inputString);
-                        getValuesForXPath(d,getXPathQuery(), matches, matchNumber);
+                        List<String> streamed = getValuesForXPathStreaming(inputString, getXPathQuery(), matchNumber);
+                        if (streamed != null) {
+                            matches.addAll(streamed);
+                        } else {
+                            Document d =  parseResponse(inputString);
+                            getValuesForXPath(d,getXPathQuery(), matches, matchNumber);
+                        }
                     }
                 } else {
                     if (log.isWarnEnabled()) {
@@ -142,7 +151,15 @@ public class XPathExtractor extends AbstractScopedTestElement implements
             } else {
                 List<SampleResult> samples = getSampleList(previousResult);
                 for (SampleResult res : samples) {
-                    Document d = parseResponse(res.getResponseDataAsString());
+                    List<String> streamed =
+                            getValuesForXPathStreaming(res.getResponseDataAsString(), getXPathQuery(), matchNumber);
+                    if (streamed != null) {
+                        matches.addAll(streamed);
+                        continue;
+                    }
+                    // the document is parsed once per sample and shared with the other XPath elements
+                    Document d = XPathUtil.makeDocument(res, true, false, false, useNameSpace(), isTolerant(),
+                            isQuiet(), showWarnings(), reportErrors(), isDownloadDTDs());
                     getValuesForXPath(d,getXPathQuery(), matches, matchNumber);
                 }
             }
@@ -323,6 +340,24 @@ public class XPathExtractor extends AbstractScopedTestElement implements
         XPathUtil.putValuesForXPathInList(d, query, matchStrings, getFragment(), matchNumber);
     }
 
+    /**
+     * Extract values by XPath query on an event stream, without building the DOM tree.
+     * @param xml the document
+     * @param query the query to execute
+     * @param matchNumber int Match Number
+     * @return the matched strings, or null if the query or the document need the DOM tree
+     */
+    private List<String> getValuesForXPathStreaming(String xml, String query, int matchNumber) {
+        if (!StreamingXPath.isEnabled() || isTolerant() || getFragment()) {
+            return null;
+        }
+        if (!query.equals(streamingQuery)) {
+            streamingXPath = StreamingXPath.compile(query);
+            streamingQuery = query;
+        }
+        return streamingXPath == null ? null : streamingXPath.extract(xml, useNameSpace(), matchNumber);
+    }
+
     public void setWhitespace(boolean selected) {
         setProperty(WHITESPACE, selected, false);
     }
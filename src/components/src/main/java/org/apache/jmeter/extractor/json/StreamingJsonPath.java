@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.extractor.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Evaluates simple and definite JSON expressions, like {@code $.data.items[0].id} or {@code data.items[0].id},
+ * on a token stream read directly from the response data, so large responses do not need to be
+ * converted to a String and parsed to a full object tree.
+ * <p>
+ * Only a chain of property names and positive array indexes is supported, and only scalar values
+ * (strings, integers, booleans and null) are returned. The whole document is read, without building a tree,
+ * so invalid documents are still rejected and the last value of duplicate properties is returned,
+ * as the tree model does. In any other case {@link #extract(SampleResult)} returns {@code null}
+ * and the caller should use the tree model.
+ * <p>
+ * The streaming evaluation can be disabled with {@code json.extractor.streaming=false}.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class StreamingJsonPath {
+    private static final Logger log = LoggerFactory.getLogger(StreamingJsonPath.class);
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("json.extractor.streaming", true); // $NON-NLS-1$
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Whitespace and other ASCII characters which are single bytes in the charsets compatible with ASCII */
+    private static final byte[] ASCII_SAMPLE = "\0\t\n\r\u001f {}".getBytes(StandardCharsets.US_ASCII); // $NON-NLS-1$
+
+    private static final Pattern JSON_PATH_STEP =
+            Pattern.compile("\\.([\\w-]+)|\\['([^'\\\\,]*)']|\\[\"([^\"\\\\,]*)\"]|\\[(\\d+)]"); // $NON-NLS-1$
+
+    private static final Pattern JMES_PATH_STEP =
+            Pattern.compile("\\.?([A-Za-z_]\\w*)|\\.?\"([^\"\\\\]*)\"|\\[(\\d+)]"); // $NON-NLS-1$
+
+    /** Step of the path: the name of a property, or the index in an array if name is null */
+    private static final class Step {
+        private final String name;
+        private final int index;
+
+        Step(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+    }
+
+    private final Step[] steps;
+
+    /** Whether a JSON null is a match, as in JSON Path, or no match, as in JMESPath */
+    private final boolean nullIsMatch;
+
+    private StreamingJsonPath(List<Step> steps, boolean nullIsMatch) {
+        this.steps = steps.toArray(new Step[0]);
+        this.nullIsMatch = nullIsMatch;
+    }
+
+    /**
+     * @return {@code true} if simple expressions should be evaluated on a token stream
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Compile a JSON Path expression for streaming evaluation.
+     *
+     * @param jsonPath JSON Path expression
+     * @return the compiled expression, or {@code null} if it is not simple enough to be streamed
+     */
+    public static StreamingJsonPath compileJsonPath(String jsonPath) {
+        if (!jsonPath.startsWith("$")) { // $NON-NLS-1$
+            return null;
+        }
+        Matcher matcher = JSON_PATH_STEP.matcher(jsonPath);
+        List<Step> steps = new ArrayList<>();
+        int position = 1;
+        while (position < jsonPath.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            if (matcher.group(4) != null) {
+                steps.add(index(matcher.group(4)));
+            } else {
+                String name = matcher.group(1) != null ? matcher.group(1)
+                        : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+                steps.add(new Step(name, -1));
+            }
+            position = matcher.end();
+        }
+        return create(steps, true);
+    }
+
+    /**
+     * Compile a JMESPath expression for streaming evaluation.
+     *
+     * @param jmesPath JMESPath expression
+     * @return the compiled expression, or {@code null} if it is not simple enough to be streamed
+     */
+    public static StreamingJsonPath compileJmesPath(String jmesPath) {
+        Matcher matcher = JMES_PATH_STEP.matcher(jmesPath);
+        List<Step> steps = new ArrayList<>();
+        int position = 0;
+        while (position < jmesPath.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            boolean dotted = jmesPath.charAt(position) == '.';
+            if (dotted == steps.isEmpty() && matcher.group(3) == null) {
+                // the first property must not start with a dot, the next ones must
+                return null;
+            }
+            if (matcher.group(3) != null) {
+                steps.add(index(matcher.group(3)));
+            } else {
+                steps.add(new Step(matcher.group(1) != null ? matcher.group(1) : matcher.group(2), -1));
+            }
+            position = matcher.end();
+        }
+        return create(steps, false);
+    }
+
+    private static Step index(String digits) {
+        try {
+            return new Step(null, Integer.parseInt(digits));
+        } catch (NumberFormatException e) {
+            return new Step(null, Integer.MAX_VALUE);
+        }
+    }
+
+    private static StreamingJsonPath create(List<Step> steps, boolean nullIsMatch) {
+        return steps.isEmpty() ? null : new StreamingJsonPath(steps, nullIsMatch);
+    }
+
+    /**
+     * Evaluate the expression on the response data of a sample.
+     *
+     * @param result sample whose response data is the JSON document
+     * @return an empty list if the value does not exist, a list with the value if it is found,
+     * or {@code null} if the tree model must be used because the value is not a scalar
+     * or the document could not be read
+     */
+    public List<String> extract(SampleResult result) {
+        try (JsonParser parser = createParser(result)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            List<String> values = find(parser, 0);
+            if (parser.nextToken() != null) {
+                // trailing content, let the tree model decide whether the document is valid
+                return null;
+            }
+            return values;
+        } catch (IOException e) {
+            log.debug("Cannot stream response of {}, falling back to the tree model: {}",
+                    result.getSampleLabel(), e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    private static Charset getCharset(SampleResult result) {
+        try {
+            return Charset.forName(result.getDataEncodingWithDefault());
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    private static JsonParser createParser(SampleResult result) throws IOException {
+        byte[] data = result.getResponseData();
+        Charset charset = getCharset(result);
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return JSON_FACTORY.createParser(data);
+        }
+        return JSON_FACTORY.createParser(new InputStreamReader(new ByteArrayInputStream(data), charset));
+    }
+
+    /*
+     * Reads the current value up to its end, returning what the remaining steps select in it
+     */
+    private List<String> find(JsonParser parser, int depth) throws IOException {
+        if (depth == steps.length) {
+            List<String> value = value(parser);
+            parser.skipChildren();
+            return value;
+        }
+        Step step = steps[depth];
+        JsonToken token = parser.currentToken();
+        List<String> found = Collections.emptyList();
+        if (step.name != null && token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean matches = step.name.equals(parser.getCurrentName());
+                parser.nextToken();
+                if (matches) {
+                    // the tree models keep the last value of duplicate properties
+                    found = find(parser, depth + 1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (step.name == null && token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (nextArrayValue(parser)) {
+                if (index == step.index) {
+                    found = find(parser, depth + 1);
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return found;
+    }
+
+    private static boolean nextArrayValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of array"); // $NON-NLS-1$
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    private List<String> value(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return Collections.singletonList(parser.getText());
+            case VALUE_NUMBER_INT:
+                return Collections.singletonList(parser.getNumberValue().toString());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return Collections.singletonList(parser.getText());
+            case VALUE_NULL:
+                return nullIsMatch ? Collections.singletonList(null) : Collections.emptyList();
+            default:
+                // objects, arrays and floating point numbers are formatted by the tree model
+                return null;
+        }
+    }
+
+    /**
+     * Check whether the response data contains anything else than whitespace,
+     * without converting it to a String when it is made of ASCII characters.
+     * Other responses are decoded, so the result is the same as {@link StringUtils#isNotBlank(CharSequence)}.
+     *
+     * @param result sample to check
+     * @return {@code true} if the response data is not blank
+     */
+    public static boolean hasResponseData(SampleResult result) {
+        byte[] data = result.getResponseData();
+        if (!isAsciiCompatible(getCharset(result))) {
+            return StringUtils.isNotBlank(result.getResponseDataAsString());
+        }
+        for (byte b : data) {
+            if (b < 0) {
+                // multi-byte characters may be whitespace
+                return StringUtils.isNotBlank(result.getResponseDataAsString());
+            }
+            if (!Character.isWhitespace(b)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || Arrays.equals(ASCII_SAMPLE, new String(ASCII_SAMPLE, StandardCharsets.US_ASCII).getBytes(charset));
+    }
+}
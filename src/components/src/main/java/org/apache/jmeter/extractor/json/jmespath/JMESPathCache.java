@@ -17,9 +17,15 @@
 
 package org.apache.jmeter.extractor.json.jmespath;
 
+import java.io.IOException;
+import java.util.Optional;
+
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.util.JMeterUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -31,6 +37,11 @@ import io.burt.jmespath.function.FunctionRegistry;
 import io.burt.jmespath.jackson.JacksonRuntime;
 
 public class JMESPathCache {
+    /** Key of the JSON document in the parsed response data cache of {@link SampleResult} */
+    private static final String PARSED_JSON_KEY = "jackson"; // $NON-NLS-1$
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private static final class JMESPathCacheLoader implements CacheLoader<String, Expression<JsonNode>> {
         final JmesPath<JsonNode> runtime;
 
@@ -49,6 +60,10 @@ public class JMESPathCache {
             .maximumSize(JMeterUtils.getPropDefault("jmespath.parser.cache.size", 400))
             .build(new JMESPathCacheLoader());
 
+    private final LoadingCache<String, Optional<StreamingJsonPath>> STREAMING_PATH_CACHE = Caffeine.newBuilder()
+            .maximumSize(JMeterUtils.getPropDefault("jmespath.parser.cache.size", 400))
+            .build(jmesPathExpression -> Optional.ofNullable(StreamingJsonPath.compileJmesPath(jmesPathExpression)));
+
     private JMESPathCache() {
         super();
     }
@@ -71,7 +86,32 @@ public class JMESPathCache {
         return JMES_PATH_CACHE.get(key);
     }
 
+    /**
+     * @param key JMESPath expression
+     * @return the expression compiled for streaming evaluation,
+     * or {@code null} if streaming is disabled or the expression is not simple enough
+     * @since 5.5
+     */
+    public StreamingJsonPath getStreamingPath(String key) {
+        return StreamingJsonPath.isEnabled() ? STREAMING_PATH_CACHE.get(key).orElse(null) : null;
+    }
+
+    /**
+     * Parse the response data of a sample as JSON, using the document already parsed
+     * by another JMESPath element for the same sample if any.
+     *
+     * @param result sample whose response data is the JSON document
+     * @return the JSON document, must not be modified
+     * @throws IOException when the response data is not valid JSON
+     * @since 5.5
+     */
+    public static JsonNode parseResponseData(SampleResult result) throws IOException {
+        return result.getParsedResponseData(PARSED_JSON_KEY,
+                r -> OBJECT_MAPPER.readValue(r.getResponseDataAsString(), JsonNode.class));
+    }
+
     public void cleanUp() {
         JMES_PATH_CACHE.cleanUp();
+        STREAMING_PATH_CACHE.cleanUp();
     }
 }
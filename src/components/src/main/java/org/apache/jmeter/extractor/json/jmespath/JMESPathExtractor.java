@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
 import org.apache.jmeter.processor.PostProcessor;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractScopedTestElement;
@@ -65,7 +66,7 @@ public class JMESPathExtractor extends AbstractScopedTestElement
     public void process() {
         JMeterContext context = getThreadContext();
         JMeterVariables vars = context.getVariables();
-        List<String> jsonResponse = getData(vars, context);
+        List<?> jsonResponse = getData(vars, context);
         String refName = getRefName();
         String defaultValue = getDefaultValue();
         int matchNumber;
@@ -84,8 +85,20 @@ public class JMESPathExtractor extends AbstractScopedTestElement
         try {
             List<String> resultList = new ArrayList<>();
             Expression<JsonNode> searchExpression = JMESPathCache.getInstance().get(jsonPathExpression);
-            for (String response: jsonResponse) {
-                JsonNode actualObj = OBJECT_MAPPER.readValue(response, JsonNode.class);
+            StreamingJsonPath streamingPath = JMESPathCache.getInstance().getStreamingPath(jsonPathExpression);
+            for (Object response: jsonResponse) {
+                if (streamingPath != null && response instanceof SampleResult) {
+                    // Simple expressions are evaluated on a token stream of the response data
+                    List<String> values = streamingPath.extract((SampleResult) response);
+                    if (values != null) {
+                        resultList.addAll(values);
+                        continue;
+                    }
+                }
+                // Responses of samples are parsed once and shared with the other JMESPath elements
+                JsonNode actualObj = response instanceof SampleResult
+                        ? JMESPathCache.parseResponseData((SampleResult) response)
+                        : OBJECT_MAPPER.readValue((String) response, JsonNode.class);
                 JsonNode result = searchExpression.search(actualObj);
                 if (result.isNull()) {
                     continue;
@@ -164,7 +177,10 @@ public class JMESPathExtractor extends AbstractScopedTestElement
         vars.put(refName, defaultValue);
     }
 
-    private List<String> getData(JMeterVariables vars, JMeterContext context) {
+    /**
+     * @return the content of the variable, or the samples whose response data should be parsed
+     */
+    private List<?> getData(JMeterVariables vars, JMeterContext context) {
         if (isScopeVariable()) {
             String jsonResponse = vars.get(getVariableName());
             if (log.isDebugEnabled()) {
@@ -174,12 +190,12 @@ public class JMESPathExtractor extends AbstractScopedTestElement
         } else {
             SampleResult previousResult = context.getPreviousResult();
             if (previousResult != null) {
-                List<String> results = getSampleList(previousResult).stream()
-                        .map(SampleResult::getResponseDataAsString)
-                        .filter(StringUtils::isNotBlank)
+                List<SampleResult> results = getSampleList(previousResult).stream()
+                        .filter(StreamingJsonPath::hasResponseData)
                         .collect(Collectors.toList());
                 if (log.isDebugEnabled()) {
-                    log.debug("JMESExtractor {} working on Responses: {}", getName(), results);
+                    log.debug("JMESExtractor {} working on Responses: {}", getName(),
+                            results.stream().map(SampleResult::getResponseDataAsString).collect(Collectors.toList()));
                 }
                 return results;
             }
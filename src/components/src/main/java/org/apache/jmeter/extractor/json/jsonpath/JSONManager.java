@@ -23,7 +23,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
+import org.apache.jmeter.samplers.SampleResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +48,9 @@ public class JSONManager {
     private static final Logger log = LoggerFactory.getLogger(JSONManager.class);
     private static final Configuration DEFAULT_CONFIGURATION =
             Configuration.defaultConfiguration().addOptions(Option.ALWAYS_RETURN_LIST);
+
+    /** Key of the JSON document in the parsed response data cache of {@link SampleResult} */
+    private static final String PARSED_JSON_KEY = "json-smart"; // $NON-NLS-1$
     /**
      * This Map can hardly grow above 10 elements as it is used within JSONPostProcessor to
      * store the computed JsonPath for the set of JSON Path Expressions.
@@ -52,12 +58,16 @@ public class JSONManager {
      */
     private final Map<String, JsonPath> expressionToJsonPath = new HashMap<>(2);
 
+    /** Same as expressionToJsonPath for the expressions that can be evaluated on a token stream */
+    private final Map<String, Optional<StreamingJsonPath>> expressionToStreamingPath = new HashMap<>(2);
+
     private JsonPath getJsonPath(String jsonPathExpression) {
         return expressionToJsonPath.computeIfAbsent(jsonPathExpression, JsonPath::compile);
     }
 
     public void reset() {
         expressionToJsonPath.clear();
+        expressionToStreamingPath.clear();
     }
 
     /**
@@ -69,11 +79,55 @@ public class JSONManager {
      */
     public List<Object> extractWithJsonPath(String jsonString, String jsonPath)
             throws ParseException {
+        return extractWithJsonPath(jsonString, jsonPath, jsonString);
+    }
+
+    /**
+     * Extract from the response data of a sample, the JSON document is parsed once per sample
+     * and shared with the other JSON Path extractors and assertions of the sample.
+     * Simple and definite expressions are evaluated on a token stream of the response data instead,
+     * see {@link StreamingJsonPath}.
+     *
+     * @param result sample whose response data is the JSON document
+     * @param jsonPath JSON-PATH expression
+     * @return List of JSON Strings of the extracted data
+     * @throws ParseException when parsing fails
+     * @since 5.5
+     */
+    public List<Object> extractWithJsonPath(SampleResult result, String jsonPath)
+            throws ParseException {
+        if (StreamingJsonPath.isEnabled()) {
+            StreamingJsonPath streamingPath = expressionToStreamingPath
+                    .computeIfAbsent(jsonPath, path -> Optional.ofNullable(StreamingJsonPath.compileJsonPath(path)))
+                    .orElse(null);
+            List<String> values = streamingPath == null ? null : streamingPath.extract(result);
+            if (values != null) {
+                return Collections.<Object>unmodifiableList(values);
+            }
+        }
+        return extractWithJsonPath(parseResponseData(result), jsonPath, result.getResponseDataAsString());
+    }
+
+    /**
+     * Parse the response data of a sample as JSON, using the document already parsed
+     * by another element for the same sample if any.
+     *
+     * @param result sample whose response data is the JSON document
+     * @return the JSON document as parsed by the default JSON Path provider
+     * @since 5.5
+     */
+    public static Object parseResponseData(SampleResult result) {
+        return result.getParsedResponseData(PARSED_JSON_KEY,
+                r -> DEFAULT_CONFIGURATION.jsonProvider().parse(r.getResponseDataAsString()));
+    }
+
+    private List<Object> extractWithJsonPath(Object json, String jsonPath, String jsonString) {
         JsonPath jsonPathParser = getJsonPath(jsonPath);
         List<Object> extractedObjects;
         try {
-            extractedObjects = jsonPathParser.read(jsonString,
-                    DEFAULT_CONFIGURATION);
+            extractedObjects = json instanceof String
+                    ? jsonPathParser.read((String) json, DEFAULT_CONFIGURATION)
+                    : jsonPathParser.read(json, DEFAULT_CONFIGURATION);
         } catch (PathNotFoundException e) {
             if(log.isDebugEnabled()) {
                 log.debug("Could not find JSON Path {} in [{}]: {}", jsonPath, jsonString, e.getLocalizedMessage());
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
 import org.apache.jmeter.processor.PostProcessor;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractScopedTestElement;
@@ -66,7 +67,7 @@ public class JSONPostProcessor
     public void process() {
         JMeterContext context = getThreadContext();
         JMeterVariables vars = context.getVariables();
-        List<String> jsonResponses = extractJsonResponse(context, vars);
+        List<?> jsonResponses = extractJsonResponse(context, vars);
         String[] refNames = getRefNames().split(SEPARATOR);
         String[] jsonPathExpressions = getJsonPathExpressions().split(SEPARATOR);
         String[] defaultValues = getDefaultValues().split(SEPARATOR);
@@ -108,10 +109,14 @@ public class JSONPostProcessor
         }
     }
 
-    private List<Object> extractValues(List<String> jsonResponses, String currentJsonPath) throws ParseException {
+    private List<Object> extractValues(List<?> jsonResponses, String currentJsonPath) throws ParseException {
+        JSONManager matcher = localMatcher.get();
         List<Object> extractedValues = new ArrayList<>();
-        for (String jsonResponse: jsonResponses) {
-            extractedValues.addAll(localMatcher.get().extractWithJsonPath(jsonResponse, currentJsonPath));
+        for (Object jsonResponse: jsonResponses) {
+            // Responses of samples are parsed once and shared with the other extractors and assertions
+            extractedValues.addAll(jsonResponse instanceof SampleResult
+                    ? matcher.extractWithJsonPath((SampleResult) jsonResponse, currentJsonPath)
+                    : matcher.extractWithJsonPath((String) jsonResponse, currentJsonPath));
         }
         return extractedValues;
     }
@@ -213,7 +218,10 @@ public class JSONPostProcessor
         vars.put(currentRefName, defaultValue);
     }
 
-    private List<String> extractJsonResponse(JMeterContext context, JMeterVariables vars) {
+    /**
+     * @return the content of the variable, or the samples whose response data should be parsed
+     */
+    private List<?> extractJsonResponse(JMeterContext context, JMeterVariables vars) {
         String jsonResponse = "";
         if (isScopeVariable()) {
             if (log.isDebugEnabled()) {
@@ -223,12 +231,12 @@ public class JSONPostProcessor
         } else {
             SampleResult previousResult = context.getPreviousResult();
             if (previousResult != null) {
-                List<String> results = getSampleList(previousResult).stream()
-                        .map(SampleResult::getResponseDataAsString)
-                        .filter(StringUtils::isNotBlank)
+                List<SampleResult> results = getSampleList(previousResult).stream()
+                        .filter(StreamingJsonPath::hasResponseData)
                         .collect(Collectors.toList());
                 if (log.isDebugEnabled()) {
-                    log.debug("JSON Extractor {} working on Responses: {}", getName(), results);
+                    log.debug("JSON Extractor {} working on Responses: {}", getName(),
+                            results.stream().map(SampleResult::getResponseDataAsString).collect(Collectors.toList()));
                 }
                 return results;
             }
@@ -36,6 +36,7 @@ import org.apache.jmeter.testelement.property.JMeterProperty;
 import org.apache.jmeter.testelement.property.StringProperty;
 import org.apache.jmeter.threads.AbstractThreadGroup;
 import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterThread;
 import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -155,6 +156,9 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
          * This is what we want, so first sample is run without a delay.
         */
         long currentTarget = previousTime  + calculateDelay();
+        if (previousTime > 0) {
+            reportIntendedStartTime(currentTarget);
+        }
         if (currentTime > currentTarget) {
             // We're behind schedule -- try to catch up:
             previousTime = currentTime; // assume the sample will run immediately
@@ -164,6 +168,14 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
         return currentTarget - currentTime;
     }
 
+    // Let the thread know when the sample should start, the target is in the past when the samples are late
+    private static void reportIntendedStartTime(long target) {
+        JMeterThread thread = JMeterContextService.getContext().getThread();
+        if (thread != null) {
+            thread.setIntendedStartTime(target);
+        }
+    }
+
     /**
      * Calculate the target time by adding the result of private method
      * <code>calculateDelay()</code> to the given <code>currentTime</code>
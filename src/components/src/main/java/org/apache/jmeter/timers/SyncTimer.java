@@ -18,10 +18,10 @@
 package org.apache.jmeter.timers;
 
 import java.io.Serializable;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.jmeter.gui.TestElementMetadata;
 import org.apache.jmeter.testbeans.TestBean;
@@ -36,60 +36,124 @@ import org.slf4j.LoggerFactory;
  * The purpose of the SyncTimer is to block threads until X number of threads
  * have been blocked, and then they are all released at once. A SyncTimer can
  * thus create large instant loads at various points of the test plan.
- *
+ * <p>
+ * The release can be spread over {@link #getReleaseRampUpInMs()} milliseconds,
+ * in which case the threads are released one after another in their arrival order.
  */
 @TestElementMetadata(labelResource = "displayName")
 public class SyncTimer extends AbstractTestElement implements Timer, Serializable, TestBean, TestStateListener, ThreadListener {
     private static final Logger log = LoggerFactory.getLogger(SyncTimer.class);
 
     /**
-     * Wrapper to {@link CyclicBarrier} to allow lazy init of CyclicBarrier when SyncTimer is configured with 0
+     * Maximum number of parties of a single {@link Phaser}, larger groups are split into tiers
+     * to reduce the contention on the phaser state
+     */
+    private static final int TIER_SIZE = 128;
+
+    /**
+     * One rendezvous point for a fixed number of parties, reused for the subsequent groups of threads.
+     * <p>
+     * Groups larger than {@link #TIER_SIZE} use a tree of phasers: threads arrive on one of the leaf phasers,
+     * and the root phaser advances when all the leaves are complete.
+     * A rendezvous that timed out is terminated, which releases all the waiting threads, and it is replaced
+     * by a new one.
+     */
+    private static final class Rendezvous {
+        private final int parties;
+        private final Phaser root;
+        private final Phaser[] tiers;
+        private final AtomicLong arrivals = new AtomicLong();
+
+        Rendezvous(int parties) {
+            this.parties = parties;
+            this.root = new Phaser();
+            if (parties <= TIER_SIZE) {
+                root.bulkRegister(parties);
+                tiers = new Phaser[]{root};
+            } else {
+                tiers = new Phaser[(parties + TIER_SIZE - 1) / TIER_SIZE];
+                for (int i = 0; i < tiers.length; i++) {
+                    tiers[i] = new Phaser(root, Math.min(TIER_SIZE, parties - i * TIER_SIZE));
+                }
+            }
+        }
+
+        /**
+         * Wait until all the parties of the group arrived.
+         *
+         * @param timeout the timeout in nanoseconds, {@link Long#MAX_VALUE} to wait forever
+         * @return the arrival index of the current thread in its group (0 for the first one),
+         *         or -1 if the rendezvous was terminated
+         * @throws InterruptedException when interrupted while waiting
+         * @throws TimeoutException if the timeout elapses before all the parties arrived
+         */
+        int await(long timeout) throws InterruptedException, TimeoutException {
+            long ticket = arrivals.getAndIncrement();
+            // Phaser phase numbers wrap at Integer.MAX_VALUE, the test would need billions of groups to get there
+            int generation = (int) (ticket / parties);
+            int index = (int) (ticket % parties);
+            Phaser tier = tiers[index / TIER_SIZE];
+            long deadline = timeout >= Long.MAX_VALUE / 2 ? Long.MAX_VALUE : System.nanoTime() + timeout;
+            // Threads of the next group must not arrive before the previous group is released
+            int phase;
+            while ((phase = root.getPhase()) >= 0 && phase < generation) {
+                root.awaitAdvanceInterruptibly(phase, remaining(deadline), TimeUnit.NANOSECONDS);
+            }
+            if (phase < 0) {
+                return -1;
+            }
+            int arrivedPhase = tier.arrive();
+            if (arrivedPhase < 0
+                    || tier.awaitAdvanceInterruptibly(arrivedPhase, remaining(deadline), TimeUnit.NANOSECONDS) < 0) {
+                return -1;
+            }
+            return index;
+        }
+
+        private static long remaining(long deadline) {
+            return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+        }
+
+        /**
+         * Release all the waiting threads
+         */
+        void terminate() {
+            root.forceTermination();
+        }
+    }
+
+    /**
+     * Wrapper to {@link Rendezvous} to allow lazy init when SyncTimer is configured with 0,
+     * and to replace it when it is broken by a timeout
      */
     private static class BarrierWrapper implements Cloneable {
 
-        private CyclicBarrier barrier;
+        private volatile Rendezvous rendezvous;
 
         /**
          *
          */
         public BarrierWrapper() {
-            this.barrier = null;
+            this.rendezvous = null;
         }
 
         /**
          * @param parties Number of parties
          */
         public BarrierWrapper(int parties) {
-            this.barrier = new CyclicBarrier(parties);
+            this.rendezvous = new Rendezvous(parties);
         }
 
         /**
-         * Synchronized is required to ensure CyclicBarrier is initialized only once per Thread Group
+         * Synchronized is required to ensure the rendezvous is initialized only once per Thread Group
          * @param parties Number of parties
          */
         public synchronized void setup(int parties) {
-            if(this.barrier== null) {
-                this.barrier = new CyclicBarrier(parties);
+            if (this.rendezvous == null) {
+                this.rendezvous = new Rendezvous(parties);
             }
         }
 
-
-        /**
-         * Wait until all threads called await on this timer
-         *
-         * @return The arrival index of the current thread
-         * @throws InterruptedException
-         *             when interrupted while waiting, or the interrupted status
-         *             is set on entering this method
-         * @throws BrokenBarrierException
-         *             if the barrier is reset while waiting or broken on
-         *             entering or while waiting
-         * @see java.util.concurrent.CyclicBarrier#await()
-         */
-        public int await() throws InterruptedException, BrokenBarrierException{
-            return barrier.await();
-        }
-
         /**
          * Wait until all threads called await on this timer
          *
@@ -97,26 +161,38 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
          *            The timeout in <code>timeUnit</code> units
          * @param timeUnit
          *            The time unit for the <code>timeout</code>
-         * @return The arrival index of the current thread
+         * @return The arrival index of the current thread in its group, or -1 if the group was broken
          * @throws InterruptedException
          *             when interrupted while waiting, or the interrupted status
          *             is set on entering this method
-         * @throws BrokenBarrierException
-         *             if the barrier is reset while waiting or broken on
-         *             entering or while waiting
          * @throws TimeoutException
-         *             if the specified time elapses
-         * @see java.util.concurrent.CyclicBarrier#await()
+         *             if the specified time elapses, in that case the waiting threads of the group are released
          */
-        public int await(long timeout, TimeUnit timeUnit) throws InterruptedException, BrokenBarrierException, TimeoutException {
-            return barrier.await(timeout, timeUnit);
+        public int await(long timeout, TimeUnit timeUnit) throws InterruptedException, TimeoutException {
+            Rendezvous current = rendezvous;
+            try {
+                return current.await(timeUnit.toNanos(timeout));
+            } catch (TimeoutException | InterruptedException e) {
+                reset(current);
+                throw e;
+            }
         }
 
         /**
-         * @see java.util.concurrent.CyclicBarrier#reset()
+         * @return the number of threads in a group
          */
-        public void reset() {
-            barrier.reset();
+        public int getParties() {
+            return rendezvous.parties;
+        }
+
+        /**
+         * Release the waiting threads of the given rendezvous and replace it with a new one
+         */
+        private synchronized void reset(Rendezvous broken) {
+            broken.terminate();
+            if (rendezvous == broken) {
+                rendezvous = new Rendezvous(broken.parties);
+            }
         }
 
         /**
@@ -127,7 +203,7 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
             BarrierWrapper barrierWrapper=  null;
             try {
                 barrierWrapper = (BarrierWrapper) super.clone();
-                barrierWrapper.barrier = this.barrier;
+                barrierWrapper.rendezvous = this.rendezvous;
             } catch (CloneNotSupportedException e) {
                 //Cannot happen
             }
@@ -143,6 +219,8 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
 
     private long timeoutInMs;
 
+    private long releaseRampUpInMs;
+
     // Ensure transient object is created by the server
     private Object readResolve(){
         createBarrier();
@@ -170,7 +248,7 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
     @Override
     public long delay() {
         if(getGroupSize()>=0) {
-            int arrival = 0;
+            int arrival;
             try {
                 if (timeoutInMs == 0) {
                     arrival = this.barrier.await(TimerService.getInstance().adjustDelay(Long.MAX_VALUE), TimeUnit.MILLISECONDS);
@@ -182,22 +260,34 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 return 0;
-            } catch (BrokenBarrierException e) {
-                return 0;
             } catch (TimeoutException e) {
                 if (log.isWarnEnabled()) {
                     log.warn("SyncTimer {} timeouted waiting for users after: {}ms", getName(), getTimeoutInMs());
                 }
                 return 0;
-            } finally {
-                if(arrival == 0) {
-                    barrier.reset();
-                }
             }
+            return releaseDelay(arrival);
         }
         return 0;
     }
 
+    /**
+     * Spread the release of a group over the release ramp-up, so the threads do not all hit the server at once
+     *
+     * @param arrival arrival index of the thread in its group, -1 if the group was broken
+     * @return delay in milliseconds before the thread continues
+     */
+    private long releaseDelay(int arrival) {
+        if (arrival <= 0 || releaseRampUpInMs <= 0) {
+            return 0;
+        }
+        int parties = barrier.getParties();
+        if (parties <= 1) {
+            return 0;
+        }
+        return releaseRampUpInMs * arrival / (parties - 1);
+    }
+
     /**
      * We have to control the cloning process because we need some cross-thread
      * communication if our synctimers are to be able to determine when to block
@@ -281,4 +371,20 @@ public class SyncTimer extends AbstractTestElement implements Timer, Serializabl
     public void setTimeoutInMs(long timeoutInMs) {
         this.timeoutInMs = timeoutInMs;
     }
+
+    /**
+     * @return the duration in milliseconds over which the threads of a group are released, 0 means all at once
+     * @since 5.5
+     */
+    public long getReleaseRampUpInMs() {
+        return releaseRampUpInMs;
+    }
+
+    /**
+     * @param releaseRampUpInMs the duration in milliseconds over which the threads of a group are released
+     * @since 5.5
+     */
+    public void setReleaseRampUpInMs(long releaseRampUpInMs) {
+        this.releaseRampUpInMs = releaseRampUpInMs;
+    }
 }
@@ -26,7 +26,7 @@ public class SyncTimerBeanInfo extends BeanInfoSupport {
     public SyncTimerBeanInfo() {
         super(SyncTimer.class);
 
-        createPropertyGroup("grouping", new String[] { "groupSize", "timeoutInMs" });
+        createPropertyGroup("grouping", new String[] { "groupSize", "timeoutInMs", "releaseRampUpInMs" });
 
         PropertyDescriptor p = property("groupSize");
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
@@ -36,6 +36,10 @@ public class SyncTimerBeanInfo extends BeanInfoSupport {
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, 0L);
 
+        p = property("releaseRampUpInMs");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0L);
+
     }
 
 }
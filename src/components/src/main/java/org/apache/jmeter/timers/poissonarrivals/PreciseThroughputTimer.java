@@ -27,6 +27,7 @@ import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.threads.AbstractThreadGroup;
+import org.apache.jmeter.threads.JMeterThread;
 import org.apache.jmeter.timers.Timer;
 import org.apache.jorphan.util.JMeterStopThreadException;
 import org.apiguardian.api.API;
@@ -116,12 +117,15 @@ public class PreciseThroughputTimer extends AbstractTestElement implements Clone
             nextEvent = events.next();
         }
         long now = System.currentTimeMillis();
-        long delay = (long) (nextEvent * TimeUnit.SECONDS.toMillis(1) + testStarted - now);
+        long intendedStartTime = (long) (nextEvent * TimeUnit.SECONDS.toMillis(1)) + testStarted;
+        long delay = intendedStartTime - now;
         if (log.isDebugEnabled()) {
             log.debug("Calculated delay is {}", delay);
         }
         delay = Math.max(0, delay);
-        long endTime = getThreadContext().getThread().getEndTime();
+        JMeterThread thread = getThreadContext().getThread();
+        thread.setIntendedStartTime(intendedStartTime);
+        long endTime = thread.getEndTime();
         if (endTime > 0 && now + delay > endTime) {
             throw new JMeterStopThreadException("The thread is scheduled to stop in " +
                     (endTime - now) + " ms" +
@@ -52,7 +52,11 @@ public class SamplerMetric {
      */
     private DescriptiveStatistics allResponsesStats = DescriptiveStatisticsFactory.createDescriptiveStatistics(LARGE_SLIDING_WINDOW_SIZE);
     /**
-     *  OK, KO, ALL stats
+     * Response times corrected for coordinated omission, only for samples with an intended start time
+     */
+    private DescriptiveStatistics correctedResponsesStats = DescriptiveStatisticsFactory.createDescriptiveStatistics(LARGE_SLIDING_WINDOW_SIZE);
+    /**
+     *  OK, KO, ALL, corrected stats
      */
     private List<DescriptiveStatistics> windowedStats = initWindowedStats();
     /**
@@ -65,6 +69,9 @@ public class SamplerMetric {
     private Map<ErrorMetric, Integer> errors = new HashMap<>();
     private long sentBytes;
     private long receivedBytes;
+    private int schedulingLagCount;
+    private long schedulingLagSum;
+    private long schedulingLagMax;
 
 
     /**
@@ -94,7 +101,7 @@ public class SamplerMetric {
      * @return List of {@link DescriptiveStatistics}
      */
     private List<DescriptiveStatistics> initWindowedStats() {
-        return Arrays.asList(okResponsesStats, koResponsesStats, allResponsesStats);
+        return Arrays.asList(okResponsesStats, koResponsesStats, allResponsesStats, correctedResponsesStats);
     }
 
     /**
@@ -136,6 +143,12 @@ public class SamplerMetric {
         }else {
             koResponsesStats.addValue(time);
         }
+        schedulingLagCount++;
+        schedulingLagSum += result.getSchedulingLag();
+        schedulingLagMax = Math.max(schedulingLagMax, result.getSchedulingLag());
+        if (result.getIntendedStartTime() > 0) {
+            correctedResponsesStats.addValue(result.getCorrectedTime());
+        }
         addHits(result, isCumulated);
         addNetworkData(result, isCumulated);
     }
@@ -196,6 +209,9 @@ public class SamplerMetric {
         hits = 0;
         sentBytes = 0;
         receivedBytes = 0;
+        schedulingLagCount = 0;
+        schedulingLagSum = 0;
+        schedulingLagMax = 0;
     }
 
     /**
@@ -348,6 +364,80 @@ public class SamplerMetric {
         return pctResponseStats.getPercentile(percentile);
     }
 
+    /**
+     * Get the number of samples with a response time corrected for coordinated omission
+     *
+     * @return number of samples with an intended start time
+     */
+    public long getCorrectedCount() {
+        return correctedResponsesStats.getN();
+    }
+
+    /**
+     * Get the maximal corrected response time for the samples with an intended start time
+     *
+     * @return the maximal corrected response time
+     */
+    public double getCorrectedMaxTime() {
+        return correctedResponsesStats.getMax();
+    }
+
+    /**
+     * Get the minimal corrected response time for the samples with an intended start time
+     *
+     * @return the minimal corrected response time
+     */
+    public double getCorrectedMinTime() {
+        return correctedResponsesStats.getMin();
+    }
+
+    /**
+     * Get the arithmetic mean of the corrected response times
+     *
+     * @return The arithmetic mean of the corrected response times
+     */
+    public double getCorrectedMean() {
+        return correctedResponsesStats.getMean();
+    }
+
+    /**
+     * Returns an estimate for the requested percentile of the corrected response times.
+     *
+     * @param percentile
+     *            the requested percentile (scaled from 0 - 100)
+     * @return Returns an estimate for the requested percentile of the corrected response times
+     */
+    public double getCorrectedPercentile(double percentile) {
+        return correctedResponsesStats.getPercentile(percentile);
+    }
+
+    /**
+     * Get the number of samples whose scheduling lag is aggregated for the current time slot
+     *
+     * @return number of samples
+     */
+    public int getSchedulingLagCount() {
+        return schedulingLagCount;
+    }
+
+    /**
+     * Get the maximal scheduling lag for the current time slot
+     *
+     * @return the maximal scheduling lag, or <code>0</code> if there were no samples
+     */
+    public long getSchedulingLagMax() {
+        return schedulingLagMax;
+    }
+
+    /**
+     * Get the arithmetic mean of the scheduling lags for the current time slot
+     *
+     * @return the mean scheduling lag, or {@link Double#NaN} if there were no samples
+     */
+    public double getSchedulingLagMean() {
+        return schedulingLagCount == 0 ? Double.NaN : (double) schedulingLagSum / schedulingLagCount;
+    }
+
     /**
      * Returns hits to server
      * @return the hits
@@ -35,6 +35,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.config.Arguments;
 import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.InjectorHealthMonitor;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jmeter.visualizers.backend.AbstractBackendListenerClient;
 import org.apache.jmeter.visualizers.backend.BackendListenerContext;
@@ -76,12 +77,19 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
     private static final String METRIC_MEAN_ACTIVE_THREADS = "meanAT"; //$NON-NLS-1$
     private static final String METRIC_STARTED_THREADS = "startedT"; //$NON-NLS-1$
     private static final String METRIC_FINISHED_THREADS = "endedT"; //$NON-NLS-1$
+    // Injector health Metrics
+    private static final String METRIC_INJECTOR_CPU = "injector.cpu"; //$NON-NLS-1$
+    private static final String METRIC_INJECTOR_GC = "injector.gc"; //$NON-NLS-1$
+    private static final String METRIC_INJECTOR_LAG = "injector.lag"; //$NON-NLS-1$
+    private static final String METRIC_INJECTOR_OVERLOADED = "injector.overloaded"; //$NON-NLS-1$
 
     // Response time Metrics
     private static final String METRIC_SEPARATOR = "."; //$NON-NLS-1$
     private static final String METRIC_OK_PREFIX = "ok"; //$NON-NLS-1$
     private static final String METRIC_KO_PREFIX = "ko"; //$NON-NLS-1$
     private static final String METRIC_ALL_PREFIX = "a"; //$NON-NLS-1$
+    private static final String METRIC_CORRECTED_PREFIX = "c"; //$NON-NLS-1$
+    private static final String METRIC_SCHEDULING_LAG_PREFIX = "lag"; //$NON-NLS-1$
     private static final String METRIC_HITS_PREFIX = "h"; //$NON-NLS-1$
     private static final String METRIC_SENT_BYTES_PREFIX = "sb"; //$NON-NLS-1$
     private static final String METRIC_RECEIVED_BYTES_PREFIX = "rb"; //$NON-NLS-1$
@@ -111,11 +119,21 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
     private static final String METRIC_ALL_AVG_RESPONSE_TIME = METRIC_ALL_PREFIX+METRIC_SEPARATOR+METRIC_AVG_RESPONSE_TIME;
     private static final String METRIC_ALL_PERCENTILE_PREFIX = METRIC_ALL_PREFIX+METRIC_SEPARATOR+METRIC_PERCENTILE;
 
+    private static final String METRIC_CORRECTED_MIN_RESPONSE_TIME = METRIC_CORRECTED_PREFIX+METRIC_SEPARATOR+METRIC_MIN_RESPONSE_TIME;
+    private static final String METRIC_CORRECTED_MAX_RESPONSE_TIME = METRIC_CORRECTED_PREFIX+METRIC_SEPARATOR+METRIC_MAX_RESPONSE_TIME;
+    private static final String METRIC_CORRECTED_AVG_RESPONSE_TIME = METRIC_CORRECTED_PREFIX+METRIC_SEPARATOR+METRIC_AVG_RESPONSE_TIME;
+    private static final String METRIC_CORRECTED_PERCENTILE_PREFIX = METRIC_CORRECTED_PREFIX+METRIC_SEPARATOR+METRIC_PERCENTILE;
+
+    private static final String METRIC_SCHEDULING_LAG_MAX = METRIC_SCHEDULING_LAG_PREFIX+METRIC_SEPARATOR+METRIC_MAX_RESPONSE_TIME;
+    private static final String METRIC_SCHEDULING_LAG_AVG = METRIC_SCHEDULING_LAG_PREFIX+METRIC_SEPARATOR+METRIC_AVG_RESPONSE_TIME;
+
     private static final String METRIC_ALL_HITS_COUNT        = METRIC_HITS_PREFIX+METRIC_SEPARATOR+METRIC_COUNT;
     private static final String METRIC_ALL_SENT_BYTES        = METRIC_SENT_BYTES_PREFIX+METRIC_SEPARATOR+METRIC_BYTES;
     private static final String METRIC_ALL_RECEIVED_BYTES    = METRIC_RECEIVED_BYTES_PREFIX+METRIC_SEPARATOR+METRIC_BYTES;
 
     private static final long SEND_INTERVAL = JMeterUtils.getPropDefault("backend_graphite.send_interval", 1);
+    private static final boolean CORRECT_COORDINATED_OMISSION =
+            JMeterUtils.getPropDefault("jmeterthread.coordinated_omission_correction", false); // $NON-NLS-1$
     private static final int MAX_POOL_SIZE = 1;
     private static final String DEFAULT_PERCENTILES = "90;95;99";
     private static final String SEPARATOR = ";"; //$NON-NLS-1$
@@ -128,6 +146,7 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
     private Map<String, Float> okPercentiles;
     private Map<String, Float> koPercentiles;
     private Map<String, Float> allPercentiles;
+    private Map<String, Float> correctedPercentiles;
 
     private GraphiteMetricsSender graphiteMetricsManager;
 
@@ -178,10 +197,32 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
         graphiteMetricsManager.addMetric(timestampInSeconds, TEST_CONTEXT_NAME,
                 METRIC_FINISHED_THREADS,
                 Integer.toString(userMetric.getFinishedThreads()));
+        addInjectorHealth(timestampInSeconds);
 
         graphiteMetricsManager.writeAndSendMetrics();
     }
 
+    /**
+     * Add the health of the injector to the test metrics when the monitor is running
+     * @param timestampInSeconds timestamp of the metrics
+     */
+    private void addInjectorHealth(long timestampInSeconds) {
+        InjectorHealthMonitor.Snapshot health = InjectorHealthMonitor.getInstance().getLastSnapshot();
+        if (health == null) {
+            return;
+        }
+        if (health.getCpu() >= 0) {
+            graphiteMetricsManager.addMetric(timestampInSeconds, TEST_CONTEXT_NAME,
+                    METRIC_INJECTOR_CPU, Double.toString(health.getCpu()));
+        }
+        graphiteMetricsManager.addMetric(timestampInSeconds, TEST_CONTEXT_NAME,
+                METRIC_INJECTOR_GC, Double.toString(health.getGc()));
+        graphiteMetricsManager.addMetric(timestampInSeconds, TEST_CONTEXT_NAME,
+                METRIC_INJECTOR_LAG, Long.toString(health.getLag()));
+        graphiteMetricsManager.addMetric(timestampInSeconds, TEST_CONTEXT_NAME,
+                METRIC_INJECTOR_OVERLOADED, health.isOverloaded() ? "1" : "0");
+    }
+
     /**
      * Add request metrics to metrics manager.
      * Note if total number of requests is 0, no response time metrics are sent.
@@ -256,6 +297,30 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
                     entry.getKey(),
                     Double.toString(metric.getAllPercentile(entry.getValue())));
         }
+        if (CORRECT_COORDINATED_OMISSION && metric.getCorrectedCount() > 0) {
+            graphiteMetricsManager.addMetric(timestampInSeconds,
+                    contextName, METRIC_CORRECTED_MIN_RESPONSE_TIME,
+                    Double.toString(metric.getCorrectedMinTime()));
+            graphiteMetricsManager.addMetric(timestampInSeconds,
+                    contextName, METRIC_CORRECTED_MAX_RESPONSE_TIME,
+                    Double.toString(metric.getCorrectedMaxTime()));
+            graphiteMetricsManager.addMetric(timestampInSeconds,
+                    contextName, METRIC_CORRECTED_AVG_RESPONSE_TIME,
+                    Double.toString(metric.getCorrectedMean()));
+            for (Map.Entry<String, Float> entry : correctedPercentiles.entrySet()) {
+                graphiteMetricsManager.addMetric(timestampInSeconds, contextName,
+                        entry.getKey(),
+                        Double.toString(metric.getCorrectedPercentile(entry.getValue())));
+            }
+        }
+        if (metric.getSchedulingLagCount() > 0) {
+            graphiteMetricsManager.addMetric(timestampInSeconds,
+                    contextName, METRIC_SCHEDULING_LAG_MAX,
+                    Long.toString(metric.getSchedulingLagMax()));
+            graphiteMetricsManager.addMetric(timestampInSeconds,
+                    contextName, METRIC_SCHEDULING_LAG_AVG,
+                    Double.toString(metric.getSchedulingLagMean()));
+        }
     }
 
     /** @return the samplersList */
@@ -307,6 +372,7 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
         okPercentiles = new HashMap<>(percentilesStringArray.length);
         koPercentiles = new HashMap<>(percentilesStringArray.length);
         allPercentiles = new HashMap<>(percentilesStringArray.length);
+        correctedPercentiles = new HashMap<>(percentilesStringArray.length);
         Arrays.stream(percentilesStringArray)
                 .map(String::trim)
                 .filter(StringUtils::isNotEmpty)
@@ -342,6 +408,9 @@ public class GraphiteBackendListenerClient extends AbstractBackendListenerClient
             allPercentiles.put(
                     METRIC_ALL_PERCENTILE_PREFIX + sanitizedFormattedPercentile,
                     percentileValue);
+            correctedPercentiles.put(
+                    METRIC_CORRECTED_PERCENTILE_PREFIX + sanitizedFormattedPercentile,
+                    percentileValue);
 
         } catch (Exception e) {
             log.error("Error parsing percentile: '{}'", percentilesString, e);
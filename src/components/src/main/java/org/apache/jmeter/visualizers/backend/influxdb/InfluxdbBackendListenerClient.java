@@ -34,6 +34,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.config.Arguments;
 import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.InjectorHealthMonitor;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jmeter.visualizers.backend.AbstractBackendListenerClient;
 import org.apache.jmeter.visualizers.backend.BackendListenerContext;
@@ -87,12 +88,21 @@ public class InfluxdbBackendListenerClient extends AbstractBackendListenerClient
     private static final String METRIC_STARTED_THREADS = "startedT=";
     private static final String METRIC_ENDED_THREADS = "endedT=";
 
+    private static final String METRIC_INJECTOR_CPU = "injectorCpu=";
+    private static final String METRIC_INJECTOR_GC = "injectorGc=";
+    private static final String METRIC_INJECTOR_LAG = "injectorLag=";
+    private static final String METRIC_INJECTOR_OVERLOADED = "injectorOverloaded=";
+
     private static final String TAG_OK = "ok";
     private static final String TAG_KO = "ko";
     private static final String TAG_ALL = "all";
+    private static final String TAG_CORRECTED = "corrected";
+    private static final String TAG_SCHEDULING_LAG = "lag";
 
     private static final String CUMULATED_METRICS = "all";
     private static final long SEND_INTERVAL = JMeterUtils.getPropDefault("backend_influxdb.send_interval", 5);
+    private static final boolean CORRECT_COORDINATED_OMISSION =
+            JMeterUtils.getPropDefault("jmeterthread.coordinated_omission_correction", false); // $NON-NLS-1$
     private static final int MAX_POOL_SIZE = 1;
     private static final String SEPARATOR = ";"; //$NON-NLS-1$
     private static final Object LOCK = new Object();
@@ -162,12 +172,29 @@ public class InfluxdbBackendListenerClient extends AbstractBackendListenerClient
         field.append(METRIC_MEAN_ACTIVE_THREADS).append(userMetrics.getMeanActiveThreads()).append(',');
         field.append(METRIC_STARTED_THREADS).append(userMetrics.getStartedThreads()).append(',');
         field.append(METRIC_ENDED_THREADS).append(userMetrics.getFinishedThreads());
+        addInjectorHealth(field);
 
         influxdbMetricsManager.addMetric(measurement, tag.toString(), field.toString());
 
         influxdbMetricsManager.writeAndSendMetrics();
     }
 
+    /**
+     * Add the health of the injector to the internal metrics when the monitor is running
+     */
+    private static void addInjectorHealth(StringBuilder field) {
+        InjectorHealthMonitor.Snapshot health = InjectorHealthMonitor.getInstance().getLastSnapshot();
+        if (health == null) {
+            return;
+        }
+        if (health.getCpu() >= 0) {
+            field.append(',').append(METRIC_INJECTOR_CPU).append(health.getCpu());
+        }
+        field.append(',').append(METRIC_INJECTOR_GC).append(health.getGc());
+        field.append(',').append(METRIC_INJECTOR_LAG).append(health.getLag());
+        field.append(',').append(METRIC_INJECTOR_OVERLOADED).append(health.isOverloaded() ? 1 : 0);
+    }
+
     @FunctionalInterface
     private interface PercentileProvider {
         double getPercentileValue(double percentile);
@@ -186,10 +213,38 @@ public class InfluxdbBackendListenerClient extends AbstractBackendListenerClient
         addMetric(transaction, metric.getFailures(), metric.getSentBytes(), metric.getReceivedBytes(),
                 TAG_KO, metric.getKoMean(), metric.getKoMinTime(),
                 metric.getKoMaxTime(), metric.getHits(), koPercentiles.values(), metric::getKoPercentile);
+        if (CORRECT_COORDINATED_OMISSION) {
+            // Corrected for coordinated omission, only sent when intended start times are recorded
+            addMetric(transaction, (int) metric.getCorrectedCount(), null, null,
+                    TAG_CORRECTED, metric.getCorrectedMean(), metric.getCorrectedMinTime(),
+                    metric.getCorrectedMaxTime(), metric.getHits(), allPercentiles.values(),
+                    metric::getCorrectedPercentile);
+        }
+        addSchedulingLagMetric(transaction, metric);
 
         metric.getErrors().forEach((err, count) -> addErrorMetric(transaction, err, count));
     }
 
+    /**
+     * Add the delay between the intended and the actual start of the samples
+     */
+    private void addSchedulingLagMetric(String transaction, SamplerMetric metric) {
+        if (metric.getSchedulingLagCount() <= 0) {
+            return;
+        }
+        StringBuilder tag = new StringBuilder(70);
+        tag.append(TAG_APPLICATION).append(applicationName);
+        tag.append(TAG_TRANSACTION).append(transaction);
+        tag.append(TAG_STATUS).append(TAG_SCHEDULING_LAG);
+        tag.append(userTag);
+
+        StringBuilder field = new StringBuilder(50);
+        field.append(METRIC_COUNT).append(metric.getSchedulingLagCount());
+        field.append(',').append(METRIC_AVG).append(metric.getSchedulingLagMean());
+        field.append(',').append(METRIC_MAX).append(metric.getSchedulingLagMax());
+        influxdbMetricsManager.addMetric(measurement, tag.toString(), field.toString());
+    }
+
     private void addErrorMetric(String transaction, ErrorMetric err, long count) {
         if (count <= 0) {
             return;
@@ -278,6 +333,7 @@ public class InfluxdbBackendListenerClient extends AbstractBackendListenerClient
             field.append(',').append(METRIC_PCT_PREFIX).append(pct).append('=').append(Double.toString(metric.getAllPercentile(pct)));
         }
         influxdbMetricsManager.addMetric(measurement, tag.toString(), field.toString());
+        addSchedulingLagMetric(CUMULATED_METRICS, metric);
     }
 
     public String getSamplersRegex() {
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.junit.stubs.TestSampler;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterThread;
+import org.apache.jorphan.collections.ListedHashTree;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestCriticalSectionController extends JMeterTestCase {
+
+    private static CriticalSectionController createController(String lockName, int permits) {
+        CriticalSectionController controller = new CriticalSectionController();
+        controller.setLockName(lockName);
+        controller.setPermits(permits);
+        controller.addTestElement(new TestSampler("inside"));
+        controller.setRunningVersion(true);
+        controller.initialize();
+        return controller;
+    }
+
+    @AfterEach
+    public void releaseLocks() {
+        new CriticalSectionController().testEnded();
+    }
+
+    @Test
+    public void testSemaphoreAllowsConfiguredNumberOfThreads() throws Exception {
+        CriticalSectionController first = createController("semaphore", 2);
+        CriticalSectionController second = createController("semaphore", 2);
+        CriticalSectionController third = createController("semaphore", 2);
+
+        assertNotNull(first.next(), "first thread should enter the section");
+        assertNotNull(second.next(), "second thread should enter the section");
+
+        CompletableFuture<Sampler> blocked = CompletableFuture.supplyAsync(third::next);
+        try {
+            blocked.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("third thread should wait for a permit");
+        } catch (TimeoutException expected) {
+            // the section is full
+        }
+        assertFalse(blocked.isDone());
+
+        // End of the first iteration releases the permit
+        assertNull(first.next());
+        assertNotNull(blocked.get(5, TimeUnit.SECONDS), "third thread should enter the section once a permit is released");
+    }
+
+    @Test
+    public void testLockWaitTimeIsReported() throws InterruptedException, ExecutionException, TimeoutException {
+        CriticalSectionController owner = createController("lock", 1);
+        CriticalSectionController waiter = createController("lock", 1);
+        assertNotNull(owner.next());
+
+        AtomicLong waitTime = new AtomicLong();
+        CompletableFuture<Sampler> blocked = CompletableFuture.supplyAsync(() -> {
+            ListedHashTree tree = new ListedHashTree();
+            tree.add(new LoopController());
+            JMeterContextService.getContext().setThread(new JMeterThread(tree, null, null) {
+                @Override
+                public void addLockWaitTime(long nanos) {
+                    waitTime.addAndGet(nanos);
+                }
+            });
+            return waiter.next();
+        });
+        Thread.sleep(100);
+        assertNull(owner.next());
+        assertEquals("inside", blocked.get(5, TimeUnit.SECONDS).getName());
+        assertTrue(waitTime.get() >= TimeUnit.MILLISECONDS.toNanos(50),
+                () -> "lock wait should be reported, got " + waitTime.get() + "ns");
+    }
+
+    @Test
+    public void testStaticLockNameIsLookedUpOnce() throws Exception {
+        CriticalSectionController cached = createController("static", 1);
+        assertNotNull(cached.next());
+        assertNull(cached.next());
+
+        // A new lock is created for the name, the controller keeps the lock it looked up first
+        new CriticalSectionController().testEnded();
+        CriticalSectionController other = createController("static", 1);
+        assertNotNull(other.next());
+        assertNotNull(CompletableFuture.supplyAsync(cached::next).get(5, TimeUnit.SECONDS),
+                "the lock held by the other controller should not be looked up again");
+    }
+
+    @Test
+    public void testSameLockNameSharesFirstSettings() throws Exception {
+        CriticalSectionController semaphore = createController("shared", 2);
+        CriticalSectionController lock = createController("shared", 1);
+        CriticalSectionController other = createController("shared", 2);
+
+        assertNotNull(semaphore.next(), "first thread should enter the section");
+        assertNotNull(lock.next(), "controller with 1 permit uses the semaphore created first");
+
+        CompletableFuture<Sampler> blocked = CompletableFuture.supplyAsync(other::next);
+        try {
+            blocked.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("the two permits of the shared lock are already taken");
+        } catch (TimeoutException expected) {
+            // the section is full
+        }
+
+        assertNull(lock.next());
+        assertNotNull(blocked.get(5, TimeUnit.SECONDS), "permit released by the other controller should be reused");
+    }
+}
@@ -109,4 +109,30 @@ public class TestBoundaryExtractor {
         assertThat("First match is incorrect", vars.get("varname_1"), CoreMatchers.is("on"));
         assertThat("MatchNumber is incorrect", vars.get("varname_matchNr"), CoreMatchers.is("1"));
     }
+
+    @Test
+    public void testUtf8ResponseWithSubResults() {
+        SampleResult parent = new SampleResult();
+        for (String data : new String[]{"<b>café</b><b>thé</b>", "<b>crème</b>"}) {
+            SampleResult child = new SampleResult();
+            child.setDataEncoding("UTF-8");
+            child.setResponseData(data, "UTF-8");
+            parent.addSubResult(child, false);
+        }
+        jmctx.setPreviousResult(parent);
+        extractor.setScopeChildren();
+        extractor.setLeftBoundary("<b>");
+        extractor.setRightBoundary("</b>");
+        extractor.setRefName("varname");
+
+        extractor.setMatchNumber(-1);
+        extractor.process();
+        assertThat("MatchNumber is incorrect", vars.get("varname_matchNr"), CoreMatchers.is("3"));
+        assertThat(vars.get("varname_1"), CoreMatchers.is("café"));
+        assertThat(vars.get("varname_3"), CoreMatchers.is("crème"));
+
+        extractor.setMatchNumber(3);
+        extractor.process();
+        assertThat("Third match is in the second sub result", vars.get("varname"), CoreMatchers.is("crème"));
+    }
 }
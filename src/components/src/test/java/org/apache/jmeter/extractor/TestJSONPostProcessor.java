@@ -19,11 +19,16 @@ package org.apache.jmeter.extractor;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import org.apache.jmeter.assertions.JSONPathAssertion;
+import org.apache.jmeter.extractor.json.jsonpath.JSONManager;
 import org.apache.jmeter.extractor.json.jsonpath.JSONPostProcessor;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractScopedTestElement;
@@ -317,6 +322,32 @@ class TestJSONPostProcessor {
         assertEquals("3", vars.get(VAR_NAME + "_matchNr"));
     }
 
+    @Test
+    void testResponseIsParsedOncePerSample() {
+        JMeterContext context = JMeterContextService.getContext();
+        JSONPostProcessor processor = setupProcessor(context, "1");
+        SampleResult result = createSampleResult("{\"a\":1}");
+        JMeterVariables vars = new JMeterVariables();
+        context.setVariables(vars);
+        context.setPreviousResult(result);
+        processor.setJsonPathExpressions("$.a");
+        processor.process();
+        assertEquals("1", vars.get(VAR_NAME));
+
+        Object document = JSONManager.parseResponseData(result);
+        JSONPathAssertion assertion = new JSONPathAssertion();
+        assertion.setJsonPath("$.a");
+        assertion.setJsonValidationBool(true);
+        assertion.setExpectedValue("1");
+        assertFalse(assertion.getResult(result).isFailure());
+        assertSame(document, JSONManager.parseResponseData(result),
+                "extractor and assertion should share the parsed document");
+
+        result.cleanAfterSample();
+        assertNotSame(document, JSONManager.parseResponseData(result),
+                "parsed document should be released after the sample");
+    }
+
 
     private static JSONPostProcessor setupProcessor(JMeterContext context, String matchNumbers) {
         return setupProcessor(context, matchNumbers, true);
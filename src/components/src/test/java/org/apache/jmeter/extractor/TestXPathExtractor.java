@@ -25,9 +25,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.assertions.XPathAssertion;
+import org.apache.jmeter.samplers.ResponseDataParser;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
@@ -317,4 +320,34 @@ public class TestXPathExtractor {
         assertEquals("Default", vars.get(VAL_NAME));
         assertEquals("0", vars.get(VAL_NAME_NR));
     }
+
+    @Test
+    public void testDocumentSharedWithAssertion() throws Exception {
+        AtomicInteger parses = new AtomicInteger();
+        SampleResult counting = new SampleResult() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public <T, E extends Exception> T getParsedResponseData(String key, ResponseDataParser<T, E> parser)
+                    throws E {
+                return super.getParsedResponseData(key, r -> {
+                    parses.incrementAndGet();
+                    return parser.parse(r);
+                });
+            }
+        };
+        counting.setResponseData(data, "UTF-8");
+        jmctx.setPreviousResult(counting);
+
+        extractor.setXPathQuery("count(/book/page)");
+        extractor.process();
+        assertEquals("2", vars.get(VAL_NAME));
+
+        XPathAssertion assertion = new XPathAssertion();
+        assertion.setXPathString("/book/preface");
+        AssertionResult assertionResult = assertion.getResult(counting);
+        assertTrue(!assertionResult.isFailure() && !assertionResult.isError(), assertionResult::getFailureMessage);
+
+        assertEquals(1, parses.get(), "extractor and assertion should share the parsed response");
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.extractor.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.jayway.jsonpath.JsonPath;
+
+class TestStreamingJsonPath {
+    private static final String DOCUMENT = "{\"id\":42,\"name\":\"café\",\"ok\":true,\"none\":null,"
+            + "\"items\":[{\"id\":1,\"tags\":[\"a\",\"b\"]},{\"id\":2,\"price\":1.5}],\"my-key\":\"dash\"}";
+
+    private static SampleResult createSampleResult(String data, String encoding) {
+        SampleResult result = new SampleResult();
+        result.setResponseData(data, encoding);
+        result.setDataEncoding(encoding);
+        return result;
+    }
+
+    private static List<String> extractJsonPath(String path) {
+        StreamingJsonPath streamingPath = StreamingJsonPath.compileJsonPath(path);
+        assertNotNull(streamingPath, () -> path + " should be streamable");
+        return streamingPath.extract(createSampleResult(DOCUMENT, "UTF-8"));
+    }
+
+    @Test
+    void testJsonPathScalars() {
+        assertEquals(Collections.singletonList("42"), extractJsonPath("$.id"));
+        assertEquals(Collections.singletonList("café"), extractJsonPath("$['name']"));
+        assertEquals(Collections.singletonList("true"), extractJsonPath("$.ok"));
+        assertEquals(Collections.singletonList(null), extractJsonPath("$.none"));
+        assertEquals(Collections.singletonList("b"), extractJsonPath("$.items[0].tags[1]"));
+        assertEquals(Collections.singletonList("2"), extractJsonPath("$[\"items\"][1].id"));
+        assertEquals(Collections.singletonList("dash"), extractJsonPath("$.my-key"));
+    }
+
+    @Test
+    void testJsonPathNotFound() {
+        assertEquals(Collections.emptyList(), extractJsonPath("$.missing"));
+        assertEquals(Collections.emptyList(), extractJsonPath("$.items[5].id"));
+        assertEquals(Collections.emptyList(), extractJsonPath("$.id.value"));
+    }
+
+    @Test
+    void testTreeModelIsUsedForNonScalarValues() {
+        assertNull(extractJsonPath("$.items[0]"), "objects are formatted by the tree model");
+        assertNull(extractJsonPath("$.items[1].price"), "decimal numbers are formatted by the tree model");
+    }
+
+    @Test
+    void testTreeModelIsUsedForInvalidDocument() {
+        StreamingJsonPath streamingPath = StreamingJsonPath.compileJsonPath("$.b");
+        assertNull(streamingPath.extract(createSampleResult("{\"a\":[1,", "UTF-8")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"id\":1,\"rest\":[1,2,", "{\"id\":1} {\"id\":2}", "{\"id\":1}]", "[{\"id\":1}"})
+    void testTreeModelIsUsedWhenDocumentIsNotValidAfterValue(String document) {
+        StreamingJsonPath streamingPath = StreamingJsonPath.compileJsonPath("$.id");
+        assertNull(streamingPath.extract(createSampleResult(document, "UTF-8")),
+                "the whole document should be read before returning the value");
+    }
+
+    @Test
+    void testLastDuplicatePropertyIsReturned() {
+        String document = "{\"id\":1,\"data\":{\"id\":2},\"id\":3,\"data\":{\"name\":\"x\"}}";
+        SampleResult result = createSampleResult(document, "UTF-8");
+        assertEquals(Collections.singletonList(JsonPath.read(document, "$.id").toString()),
+                StreamingJsonPath.compileJsonPath("$.id").extract(result), "same value as json-smart");
+        assertEquals(Collections.singletonList("3"), StreamingJsonPath.compileJmesPath("id").extract(result));
+        assertEquals(Collections.emptyList(), StreamingJsonPath.compileJsonPath("$.data.id").extract(result),
+                "the last object replaces the first one");
+        assertNull(StreamingJsonPath.compileJsonPath("$.id").extract(
+                createSampleResult("{\"id\":1,\"id\":{\"a\":2}}", "UTF-8")),
+                "the last value is an object formatted by the tree model");
+    }
+
+    @Test
+    void testResponseEncoding() {
+        StreamingJsonPath streamingPath = StreamingJsonPath.compileJsonPath("$.name");
+        assertEquals(Collections.singletonList("café"),
+                streamingPath.extract(createSampleResult(DOCUMENT, "ISO-8859-1")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"$", "$..id", "$.items[*].id", "$.items[-1]", "$.items[?(@.id==1)]",
+            "$['id','name']", "$.items.length()", "id"})
+    void testComplexJsonPathIsNotStreamable(String path) {
+        assertNull(StreamingJsonPath.compileJsonPath(path));
+    }
+
+    @Test
+    void testJmesPath() {
+        SampleResult result = createSampleResult(DOCUMENT, "UTF-8");
+        assertEquals(Collections.singletonList("a"),
+                StreamingJsonPath.compileJmesPath("items[0].tags[0]").extract(result));
+        assertEquals(Collections.singletonList("dash"),
+                StreamingJsonPath.compileJmesPath("\"my-key\"").extract(result));
+        assertEquals(Collections.emptyList(), StreamingJsonPath.compileJmesPath("none").extract(result),
+                "null is not a match in JMESPath");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", ".id", "items[*].id", "items[0]id", "length(items)", "items | [0]", "a.b[-1]"})
+    void testComplexJmesPathIsNotStreamable(String path) {
+        assertNull(StreamingJsonPath.compileJmesPath(path));
+    }
+
+    @Test
+    void testHasResponseData() {
+        assertFalse(StreamingJsonPath.hasResponseData(createSampleResult(" \r\n\t", "UTF-8")));
+        assertTrue(StreamingJsonPath.hasResponseData(createSampleResult(Arrays.asList(1).toString(), "UTF-8")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " \r\n\t", "\u0000", " \u0000 ", "\u001f\u000b", "\u3000\u2028 ", "\u00a0",
+            "\u2020", "{}", " é "})
+    void testHasResponseDataIsSameAsNotBlank(String data) {
+        for (String encoding : new String[]{"UTF-8", "UTF-16", "UTF-16LE", "ISO-8859-1"}) {
+            if (encoding.equals("ISO-8859-1") && data.chars().anyMatch(c -> c > 0xff)) {
+                continue;
+            }
+            assertEquals(StringUtils.isNotBlank(data),
+                    StreamingJsonPath.hasResponseData(createSampleResult(data, encoding)),
+                    () -> "response " + data.chars().mapToObj(Integer::toHexString).collect(Collectors.toList())
+                            + " in " + encoding);
+        }
+    }
+}
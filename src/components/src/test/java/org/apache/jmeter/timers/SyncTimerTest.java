@@ -17,6 +17,14 @@
 
 package org.apache.jmeter.timers;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.jmeter.control.LoopController;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterThread;
@@ -87,6 +95,54 @@ public class SyncTimerTest {
                 timer::delay);
     }
 
+    @Test
+    public void testLargeGroupIsReleasedTogether() throws Exception {
+        // More parties than a single phaser tier, so the tiered rendezvous is used
+        int groupSize = 300;
+        SyncTimer timer = new SyncTimer();
+        timer.setGroupSize(groupSize);
+        timer.setReleaseRampUpInMs(1000);
+        timer.testStarted();
+        ExecutorService executor = Executors.newFixedThreadPool(groupSize);
+        try {
+            // Two consecutive groups reuse the same rendezvous
+            for (int group = 0; group < 2; group++) {
+                List<Future<Long>> delays = new ArrayList<>();
+                for (int i = 0; i < groupSize; i++) {
+                    delays.add(executor.submit(timer::delay));
+                }
+                List<Long> values = new ArrayList<>();
+                for (Future<Long> delay : delays) {
+                    values.add(delay.get(10, TimeUnit.SECONDS));
+                }
+                Collections.sort(values);
+                Assertions.assertEquals(0L, values.get(0), "first thread should be released immediately");
+                Assertions.assertEquals(1000L, values.get(groupSize - 1), "last thread should be released after the ramp-up");
+                Assertions.assertEquals(groupSize, values.stream().distinct().count(),
+                        "each thread should get its own release slot: " + values);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeoutReleasesWaitingThreads() throws Exception {
+        SyncTimer timer = new SyncTimer();
+        timer.setGroupSize(3);
+        timer.setTimeoutInMs(200);
+        timer.testStarted();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(timer::delay);
+            Future<Long> second = executor.submit(timer::delay);
+            Assertions.assertEquals(0L, first.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(0L, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private long timeDelay(SyncTimer timer) {
         long start = System.currentTimeMillis();
         timer.delay();
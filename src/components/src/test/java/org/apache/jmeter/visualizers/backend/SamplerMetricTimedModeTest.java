@@ -78,6 +78,35 @@ public class SamplerMetricTimedModeTest {
         assertEquals("After reset received bytes", 0, metric.getReceivedBytes(), 0.0);
     }
 
+    @Test
+    public void checkSchedulingLag() throws Exception {
+        SamplerMetric metric = new SamplerMetric();
+        assertEquals("Without samples lag.avg", Double.NaN, metric.getSchedulingLagMean(), 0.0);
+
+        // The lag is aggregated without the coordinated omission correction
+        SampleResult uncorrected = createSampleResult(true);
+        uncorrected.setSchedulingLag(20);
+        metric.add(uncorrected);
+        assertEquals("Without intended start time", 1, metric.getSchedulingLagCount());
+        assertEquals("Without intended start time corrected count", 0, metric.getCorrectedCount());
+
+        for (long lag : new long[]{10, 30}) {
+            SampleResult result = createSampleResult(true);
+            result.setIntendedStartTime(result.getStartTime() - lag);
+            result.setSchedulingLag(lag);
+            metric.add(result);
+        }
+        assertEquals("Before reset lag count", 3, metric.getSchedulingLagCount());
+        assertEquals("Before reset lag.avg", 20.0, metric.getSchedulingLagMean(), 0.001);
+        assertEquals("Before reset lag.max", 30, metric.getSchedulingLagMax());
+        assertEquals("Before reset corrected count", 2, metric.getCorrectedCount());
+
+        metric.resetForTimeInterval();
+
+        assertEquals("After reset lag count", 0, metric.getSchedulingLagCount());
+        assertEquals("After reset lag.max", 0, metric.getSchedulingLagMax());
+    }
+
     private SampleResult createSampleResult(boolean success) {
         SampleResult result = new SampleResult();
         result.setSuccessful(success);
@@ -59,8 +59,8 @@ dependencies {
         because("XPathUtil: throws SaxonApiException")
     }
 
-    runtimeOnly("org.codehaus.groovy:groovy") {
-        because("Groovy is a default JSR232 engine")
+    api("org.codehaus.groovy:groovy") {
+        because("Groovy is a default JSR232 engine, and JMeterGroovyScript extends groovy.lang.Script")
     }
     arrayOf("dateutil", "datetime", "jmx", "json", "jsr223", "sql", "templates").forEach {
         runtimeOnly("org.codehaus.groovy:groovy-$it") {
@@ -73,6 +73,7 @@ dependencies {
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("com.formdev:svgSalamander")
     implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.google.re2j:re2j")
     implementation("com.github.weisj:darklaf-core")
     implementation("com.github.weisj:darklaf-theme")
     implementation("com.github.weisj:darklaf-property-loader")
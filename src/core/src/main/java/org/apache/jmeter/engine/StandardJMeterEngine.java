@@ -37,6 +37,7 @@ import org.apache.jmeter.testelement.TestElement;
 import org.apache.jmeter.testelement.TestPlan;
 import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.threads.AbstractThreadGroup;
+import org.apache.jmeter.threads.InjectorHealthMonitor;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.ListenerNotifier;
 import org.apache.jmeter.threads.PostThreadGroup;
@@ -393,6 +394,9 @@ public class StandardJMeterEngine implements JMeterEngine, Runnable {
         testList.clear(); // no longer needed
 
         test.traverse(new TurnElementsOn());
+        if (InjectorHealthMonitor.isEnabled()) {
+            InjectorHealthMonitor.getInstance().start();
+        }
         notifyTestListenersOfStart(testListeners);
 
         List<?> testLevelElements = new ArrayList<>(test.list(test.getArray()[0]));
@@ -505,6 +509,9 @@ public class StandardJMeterEngine implements JMeterEngine, Runnable {
         }
 
         notifyTestListenersOfEnd(testListeners);
+        if (InjectorHealthMonitor.isEnabled()) {
+            InjectorHealthMonitor.getInstance().stop();
+        }
         JMeterContextService.endTest();
         if (JMeter.isNonGUI() && SYSTEM_EXIT_FORCED) {
             log.info("Forced JVM shutdown requested at end of test");
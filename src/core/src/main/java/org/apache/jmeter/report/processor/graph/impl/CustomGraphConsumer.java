@@ -66,7 +66,8 @@ public class CustomGraphConsumer extends AbstractOverTimeGraphConsumer implement
                     CSVSaveService.CSV_URL, CSVSaveService.CSV_FILENAME,
                     CSVSaveService.CSV_LATENCY, CSVSaveService.CSV_CONNECT_TIME,
                     CSVSaveService.CSV_ENCODING, CSVSaveService.CSV_HOSTNAME,
-                    CSVSaveService.CSV_IDLETIME));
+                    CSVSaveService.CSV_IDLETIME, CSVSaveService.CSV_CORRECTED_TIME,
+                    CSVSaveService.CSV_INJECTOR_OVERLOADED));
 
     private String yAxis;
     private String xAxis;
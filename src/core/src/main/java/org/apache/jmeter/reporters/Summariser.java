@@ -31,6 +31,7 @@ import org.apache.jmeter.samplers.SampleListener;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.threads.InjectorHealthMonitor;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterContextService.ThreadCounts;
 import org.apache.jmeter.util.JMeterUtils;
@@ -377,7 +378,35 @@ public class Summariser extends AbstractTestElement
             sb.append(" Finished: ");
             sb.append(tc.finishedThreads);
         }
+        if (InjectorHealthMonitor.isEnabled()) {
+            appendInjectorHealth(sb, tmp, dfDouble, summariserRunningSample, type);
+        }
         return sb.toString();
     }
 
+    /**
+     * Appends the number of samples taken while the injector was overloaded,
+     * and for the deltas, the health of the injector during the last monitoring interval.
+     */
+    private static void appendInjectorHealth(StringBuilder sb, StringBuilder tmp, DecimalFormat dfDouble,
+            SummariserRunningSample summariserRunningSample, String type) {
+        sb.append(" Overloaded: ");
+        sb.append(longToSb(tmp, summariserRunningSample.getOverloadedCount(), 5));
+        InjectorHealthMonitor.Snapshot health = InjectorHealthMonitor.getInstance().getLastSnapshot();
+        if ("+".equals(type) && health != null) {
+            sb.append(" Injector CPU: ");
+            if (health.getCpu() >= 0) {
+                sb.append(doubleToSb(dfDouble, tmp, health.getCpu(), 5, 1)).append('%');
+            } else {
+                sb.append("n/a");
+            }
+            sb.append(" GC: ");
+            sb.append(doubleToSb(dfDouble, tmp, health.getGc(), 5, 1)).append('%');
+            sb.append(" Lag: ");
+            sb.append(longToSb(tmp, health.getLag(), 4)).append("ms");
+            if (health.isOverloaded()) {
+                sb.append(" OVERLOADED");
+            }
+        }
+    }
 }
@@ -48,6 +48,8 @@ class SummariserRunningSample {
 
     private long errorCount;
 
+    private long overloadedCount;
+
     private long startTime;
 
     private long endTime;
@@ -70,6 +72,7 @@ class SummariserRunningSample {
         label = src.label;
         counter = src.counter;
         errorCount = src.errorCount;
+        overloadedCount = src.overloadedCount;
         startTime = src.startTime;
         endTime = src.endTime;
         max = src.max;
@@ -83,6 +86,7 @@ class SummariserRunningSample {
         max = Long.MIN_VALUE;
         min = Long.MAX_VALUE;
         errorCount = 0L;
+        overloadedCount = 0L;
         startTime = System.currentTimeMillis();
         endTime = startTime;
     }
@@ -101,6 +105,7 @@ class SummariserRunningSample {
     public void addSample(SummariserRunningSample rs) {
         counter += rs.counter;
         errorCount += rs.errorCount;
+        overloadedCount += rs.overloadedCount;
         runningSum += rs.runningSum;
         if (max < rs.max) {
             max = rs.max;
@@ -119,6 +124,9 @@ class SummariserRunningSample {
     public void addSample(SampleResult res) {
         counter += res.getSampleCount();
         errorCount += res.getErrorCount();
+        if (res.isInjectorOverloaded()) {
+            overloadedCount += res.getSampleCount();
+        }
         long aTimeInMillis = res.getTime();
         runningSum += aTimeInMillis;
         if (aTimeInMillis > max) {
@@ -192,6 +200,13 @@ class SummariserRunningSample {
         return errorCount;
     }
 
+    /**
+     * @return number of samples taken while the injector was overloaded
+     */
+    public long getOverloadedCount() {
+        return overloadedCount;
+    }
+
     /**
      * Returns a String which represents the percentage of sample errors that
      * have occurred. ("0.00%" through "100.00%")
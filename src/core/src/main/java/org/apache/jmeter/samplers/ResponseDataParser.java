@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.samplers;
+
+import org.apiguardian.api.API;
+
+/**
+ * Parses the response data of a sample into a document.
+ *
+ * @param <T> type of the document
+ * @param <E> exception thrown when the response data cannot be parsed
+ * @see SampleResult#getParsedResponseData(String, ResponseDataParser)
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+@FunctionalInterface
+public interface ResponseDataParser<T, E extends Exception> {
+    /**
+     * @param result the sample whose response data should be parsed
+     * @return the parsed document
+     * @throws E when the response data cannot be parsed
+     */
+    T parse(SampleResult result) throws E;
+}
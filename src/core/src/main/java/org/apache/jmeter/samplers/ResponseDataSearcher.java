@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.samplers;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+
+/**
+ * Searches text in the response data of a sample without decoding the whole response:
+ * the searched text is encoded in the response charset, the bytes are searched,
+ * and only the matched slices are decoded.
+ * <p>
+ * This is only possible for charsets where a byte match is always a text match:
+ * UTF-8, whose encoding is self-synchronizing, and single byte charsets like ISO-8859-1.
+ * {@link #of(SampleResult)} returns {@code null} for the other charsets.
+ * <p>
+ * The search can be limited to the beginning of huge responses with {@code sampleresult.byte_search.max_size}.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class ResponseDataSearcher {
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("sampleresult.byte_search", true); // $NON-NLS-1$
+
+    /** Number of bytes of the response that are searched, 0 for the whole response */
+    private static final int MAX_SIZE =
+            JMeterUtils.getPropDefault("sampleresult.byte_search.max_size", 0); // $NON-NLS-1$
+
+    private final SampleResult result;
+
+    private final byte[] data;
+
+    private final Charset charset;
+
+    /** End of the searched range of data */
+    private final int limit;
+
+    private ResponseDataSearcher(SampleResult result, byte[] data, Charset charset, int maxSize) {
+        this.result = result;
+        this.data = data;
+        this.charset = charset;
+        this.limit = maxSize > 0 ? Math.min(maxSize, data.length) : data.length;
+    }
+
+    /**
+     * @param result sample whose response data should be searched
+     * @return the searcher, or {@code null} if byte search is disabled or not possible with the response charset
+     */
+    public static ResponseDataSearcher of(SampleResult result) {
+        return ENABLED ? of(result, MAX_SIZE) : null;
+    }
+
+    /**
+     * @param result sample whose response data should be searched
+     * @param maxSize number of bytes of the response that are searched, 0 for the whole response
+     * @return the searcher, or {@code null} if byte search is not possible with the response charset
+     */
+    static ResponseDataSearcher of(SampleResult result, int maxSize) {
+        Charset charset;
+        try {
+            charset = Charset.forName(result.getDataEncodingWithDefault());
+        } catch (IllegalArgumentException e) { // NOSONAR unsupported charsets are decoded by SampleResult
+            return null;
+        }
+        if (!isByteSearchable(charset)) {
+            return null;
+        }
+        return new ResponseDataSearcher(result, result.getResponseData(), charset, maxSize);
+    }
+
+    private static boolean isByteSearchable(Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return true;
+        }
+        if (!charset.canEncode()) {
+            return false;
+        }
+        return charset.newEncoder().maxBytesPerChar() == 1.0f;
+    }
+
+    /**
+     * Encode the text in the response charset.
+     *
+     * @param text text to encode
+     * @return the encoded text, or {@code null} if the text cannot be searched as bytes
+     */
+    public byte[] encode(String text) {
+        // A replacement char is also produced when malformed data is decoded, it cannot be searched as bytes
+        if (text.indexOf('\uFFFD') >= 0) {
+            return null;
+        }
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            ByteBuffer buffer = encoder.encode(CharBuffer.wrap(text));
+            return Arrays.copyOf(buffer.array(), buffer.limit());
+        } catch (CharacterCodingException e) { // NOSONAR the text is searched in the decoded response instead
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the response is empty
+     */
+    public boolean isEmpty() {
+        return data.length == 0;
+    }
+
+    /**
+     * @return {@code true} if the response contains only whitespace
+     */
+    public boolean isBlank() {
+        for (byte b : data) {
+            if (b < 0) {
+                // Non ASCII char, let the decoder tell whether it is a whitespace
+                return StringUtils.isBlank(getText());
+            }
+            if (!Character.isWhitespace((char) b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of bytes of the response
+     */
+    public int length() {
+        return data.length;
+    }
+
+    /**
+     * Find the first occurrence of the pattern in the searched range of the response.
+     *
+     * @param pattern encoded text to find
+     * @param fromIndex index of the first byte to search
+     * @return index of the first byte of the occurrence, or -1 if the pattern is not found
+     */
+    public int indexOf(byte[] pattern, int fromIndex) {
+        int last = limit - pattern.length;
+        if (pattern.length == 0) {
+            return fromIndex <= limit ? Math.max(fromIndex, 0) : -1;
+        }
+        byte first = pattern[0];
+        for (int i = Math.max(fromIndex, 0); i <= last; i++) {
+            // Look for the first byte, then check the remaining ones
+            if (data[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param begin index of the first byte
+     * @param end index after the last byte
+     * @return the decoded slice of the response
+     */
+    public String decode(int begin, int end) {
+        return new String(data, begin, end - begin, charset);
+    }
+
+    /**
+     * @return the whole decoded response, as returned by {@link SampleResult#getResponseDataAsString()}
+     */
+    public String getText() {
+        return result.getResponseDataAsString();
+    }
+
+    /**
+     * @param text text to find
+     * @return {@code true} if the searched range of the response contains the text
+     */
+    public boolean contains(String text) {
+        byte[] pattern = encode(text);
+        if (pattern == null) {
+            return getText().contains(text);
+        }
+        return indexOf(pattern, 0) >= 0;
+    }
+
+    /**
+     * @param text text to compare
+     * @return {@code true} if the response is equal to the text
+     */
+    public boolean contentEquals(String text) {
+        byte[] pattern = encode(text);
+        if (pattern == null) {
+            return getText().equals(text);
+        }
+        return Arrays.equals(data, pattern);
+    }
+}
@@ -24,7 +24,9 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -98,6 +100,10 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public static final String BINARY = "bin"; // $NON-NLS-1$
 
+    /** Share the documents parsed from the response between the post-processors and assertions of a sample */
+    private static final boolean CACHE_PARSED_RESPONSE_DATA =
+            JMeterUtils.getPropDefault("sampleresult.parsed_response_cache", true); // $NON-NLS-1$
+
     private static final boolean DISABLE_SUBRESULTS_RENAMING = JMeterUtils.getPropDefault("subresults.disable_renaming", false);
 
     // List of types that are known to be binary
@@ -235,6 +241,21 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
     /** time to end connecting */
     private long connectTime = 0;
 
+    /** delay between the time the sample was scheduled by timers and the time the thread actually woke up */
+    private long schedulingLag = 0;
+
+    /** time at which the sample should have started according to the pacing schedule, 0 if unknown */
+    private long intendedStartTime = 0;
+
+    /** time spent waiting for critical sections before the sample */
+    private long lockWaitTime = 0;
+
+    /** whether the injector was overloaded while the sample was running */
+    private boolean injectorOverloaded = false;
+
+    /** time spent resolving the host name before connecting */
+    private long dnsTime = 0;
+
     /** Way to signal what to do on Test */
     private TestLogicalAction testLogicalAction = TestLogicalAction.CONTINUE;
 
@@ -281,6 +302,11 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     private transient volatile String responseDataAsString;
 
+    /**
+     * Cache for the documents parsed from responseData, so post-processors and assertions parse it only once
+     */
+    private transient Map<String, Object> parsedResponseData;
+
     public SampleResult() {
         this(USE_NANO_TIME, NANOTHREAD_SLEEP);
     }
@@ -320,6 +346,11 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         label = res.label;//OK
         latency = res.latency;
         connectTime = res.connectTime;
+        schedulingLag = res.schedulingLag;
+        intendedStartTime = res.intendedStartTime;
+        lockWaitTime = res.lockWaitTime;
+        injectorOverloaded = res.injectorOverloaded;
+        dnsTime = res.dnsTime;
         location = res.location;//OK
         parent = res.parent;
         pauseTime = res.pauseTime;
@@ -741,6 +772,7 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void setResponseData(byte[] response) {
         responseDataAsString = null;
+        parsedResponseData = null;
         responseData = response == null ? EMPTY_BA : response;
     }
 
@@ -756,6 +788,7 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
     @Deprecated
     public void setResponseData(String response) {
         responseDataAsString = null;
+        parsedResponseData = null;
         try {
             responseData = response.getBytes(getDataEncodingWithDefault());
         } catch (UnsupportedEncodingException e) {
@@ -773,6 +806,7 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void setResponseData(final String response, final String encoding) {
         responseDataAsString = null;
+        parsedResponseData = null;
         String encodeUsing = encoding != null? encoding : DEFAULT_CHARSET;
         try {
             responseData = response.getBytes(encodeUsing);
@@ -1357,6 +1391,127 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         this.connectTime = time;
     }
 
+    /**
+     * @return the delay in milliseconds between the end of the pause computed by timers
+     *         and the actual start of the sample
+     * @since 5.5
+     */
+    public long getSchedulingLag() {
+        return schedulingLag;
+    }
+
+    /**
+     * Set the delay between the end of the pause computed by timers and the actual start of the sample.
+     *
+     * @param schedulingLag the scheduling lag in milliseconds
+     * @since 5.5
+     */
+    public void setSchedulingLag(long schedulingLag) {
+        this.schedulingLag = schedulingLag;
+    }
+
+    /**
+     * @return the time at which the sample should have started according to the pacing schedule
+     *         (see {@code jmeterthread.coordinated_omission_correction}), or {@code 0} if unknown
+     * @since 5.5
+     */
+    public long getIntendedStartTime() {
+        return intendedStartTime;
+    }
+
+    /**
+     * Set the time at which the sample should have started according to the pacing schedule.
+     *
+     * @param intendedStartTime the intended start time in milliseconds since epoch, {@code 0} if unknown
+     * @since 5.5
+     */
+    public void setIntendedStartTime(long intendedStartTime) {
+        this.intendedStartTime = intendedStartTime;
+    }
+
+    /**
+     * @return the time in milliseconds the thread waited to enter Critical Section Controllers before the sample
+     * @since 5.5
+     */
+    public long getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    /**
+     * Set the time the thread waited to enter Critical Section Controllers before the sample.
+     *
+     * @param lockWaitTime the lock wait time in milliseconds
+     * @since 5.5
+     */
+    public void setLockWaitTime(long lockWaitTime) {
+        this.lockWaitTime = lockWaitTime;
+    }
+
+    /**
+     * @return {@code true} if the sample ran while the injector health monitor reported the injector as overloaded,
+     * so its response time may include client side delays
+     * @see org.apache.jmeter.threads.InjectorHealthMonitor
+     * @since 5.5
+     */
+    public boolean isInjectorOverloaded() {
+        return injectorOverloaded;
+    }
+
+    /**
+     * Flag the sample as taken while the injector was overloaded.
+     *
+     * @param injectorOverloaded whether the injector was overloaded during the sample
+     * @since 5.5
+     */
+    public void setInjectorOverloaded(boolean injectorOverloaded) {
+        this.injectorOverloaded = injectorOverloaded;
+    }
+
+    /**
+     * @return the time in milliseconds spent resolving the host name before connecting, included in the connect time.
+     * {@code 0} when no connection was opened or the sampler does not measure it
+     * @since 5.5
+     */
+    public long getDnsTime() {
+        return dnsTime;
+    }
+
+    /**
+     * Set the time spent resolving the host name before connecting.
+     *
+     * @param dnsTime the resolution time in milliseconds
+     * @since 5.5
+     */
+    public void setDnsTime(long dnsTime) {
+        this.dnsTime = dnsTime;
+    }
+
+    /**
+     * Get the response time corrected for coordinated omission, that is the time between
+     * the intended start of the sample and its end.
+     * When the intended start time is unknown, this is the same as {@link #getTime()}.
+     *
+     * @return the corrected response time in milliseconds
+     * @since 5.5
+     */
+    public long getCorrectedTime() {
+        if (intendedStartTime <= 0 || endTime <= 0) {
+            return elapsedTime;
+        }
+        return Math.max(elapsedTime, endTime - intendedStartTime - idleTime);
+    }
+
+    /**
+     * This is only intended for use by SampleResultConverter and CSVSaveService!
+     * It must be called after the end and idle times are set.
+     *
+     * @param correctedTime the corrected response time in milliseconds
+     * @since 5.5
+     */
+    public void setCorrectedTime(long correctedTime) {
+        intendedStartTime = correctedTime > elapsedTime ? endTime - idleTime - correctedTime : 0;
+    }
+
     /**
      * This is only intended for use by SampleResultConverter!
      *
@@ -1547,12 +1702,75 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void cleanAfterSample() {
         this.responseDataAsString = null;
+        clearParsedResponseData();
+    }
+
+    /**
+     * Returns the response data parsed as a document, for instance a JSON tree or a DOM.
+     * <p>
+     * The document is parsed on the first call for a given key and kept until the sample is processed,
+     * so that all the post-processors and assertions of the sample that need the same kind of document
+     * share a single parse of the response.
+     * The key must identify the document type and every parser option that changes the result.
+     * Callers must not modify the returned document.
+     * <p>
+     * Like the other methods of this class, this method is not thread-safe.
+     *
+     * @param key    document type and parser options, for instance {@code "json"}
+     * @param parser parses the response data of this sample, called at most once per key
+     * @param <T>    type of the document
+     * @param <E>    exception thrown by the parser
+     * @return the parsed document
+     * @throws E when the response data cannot be parsed, the failure is not cached
+     * @see #isParsedResponseDataCached()
+     * @since 5.5
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T getParsedResponseData(String key, ResponseDataParser<T, E> parser) throws E {
+        if (!CACHE_PARSED_RESPONSE_DATA) {
+            return parser.parse(this);
+        }
+        Map<String, Object> documents = parsedResponseData;
+        Object document = documents == null ? null : documents.get(key);
+        if (document == null) {
+            document = parser.parse(this);
+            if (document != null) {
+                if (documents == null) {
+                    documents = new HashMap<>(4);
+                    parsedResponseData = documents;
+                }
+                documents.put(key, document);
+            }
+        }
+        return (T) document;
+    }
+
+    /**
+     * @return {@code true} if documents parsed from response data are shared by the elements of a sample,
+     * see property {@code sampleresult.parsed_response_cache}
+     * @since 5.5
+     */
+    public static boolean isParsedResponseDataCached() {
+        return CACHE_PARSED_RESPONSE_DATA;
+    }
+
+    /**
+     * Release the documents parsed from the response data of this sample and of its sub-results.
+     * @since 5.5
+     */
+    public void clearParsedResponseData() {
+        parsedResponseData = null;
+        for (SampleResult subResult : getSubResults()) {
+            subResult.clearParsedResponseData();
+        }
     }
 
     @Override
     public Object clone() {
         try {
-            return super.clone();
+            SampleResult clone = (SampleResult) super.clone();
+            clone.parsedResponseData = null;
+            return clone;
         } catch (CloneNotSupportedException e) {
             throw new IllegalStateException("This should not happen");
         }
@@ -218,6 +218,16 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
 
     private static final String SAVE_IDLE_TIME       = "jmeter.save.saveservice.idle_time"; // $NON_NLS-1$
 
+    private static final String SAVE_CORRECTED_TIME  = "jmeter.save.saveservice.corrected_time"; // $NON_NLS-1$
+
+    private static final String SAVE_INJECTOR_OVERLOADED = "jmeter.save.saveservice.injector_overloaded"; // $NON_NLS-1$
+
+    private static final String SAVE_DNS_TIME        = "jmeter.save.saveservice.dns_time"; // $NON_NLS-1$
+
+    private static final String SAVE_SCHEDULING_LAG  = "jmeter.save.saveservice.scheduling_lag"; // $NON_NLS-1$
+
+    private static final String SAVE_LOCK_WAIT_TIME = "jmeter.save.saveservice.lock_wait_time"; // $NON_NLS-1$
+
     // Defaults from properties:
     private static final boolean TIME;
     private static final boolean TIMESTAMP;
@@ -278,6 +288,16 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
 
     private static final boolean IDLE_TIME;
 
+    private static final boolean CORRECTED_TIME;
+
+    private static final boolean INJECTOR_OVERLOADED;
+
+    private static final boolean DNS_TIME;
+
+    private static final boolean SCHEDULING_LAG;
+
+    private static final boolean LOCK_WAIT_TIME;
+
     public static final String DEFAULT_DELIMITER = ","; // $NON_NLS-1$
 
     // Read in the properties having to do with saving from a properties file.
@@ -378,6 +398,16 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         SAMPLE_COUNT=TRUE.equalsIgnoreCase(props.getProperty(SAVE_SAMPLE_COUNT, FALSE));
 
         IDLE_TIME=TRUE.equalsIgnoreCase(props.getProperty(SAVE_IDLE_TIME, TRUE));
+
+        CORRECTED_TIME=TRUE.equalsIgnoreCase(props.getProperty(SAVE_CORRECTED_TIME, FALSE));
+
+        INJECTOR_OVERLOADED=TRUE.equalsIgnoreCase(props.getProperty(SAVE_INJECTOR_OVERLOADED, FALSE));
+
+        DNS_TIME=TRUE.equalsIgnoreCase(props.getProperty(SAVE_DNS_TIME, FALSE));
+
+        SCHEDULING_LAG=TRUE.equalsIgnoreCase(props.getProperty(SAVE_SCHEDULING_LAG, FALSE));
+
+        LOCK_WAIT_TIME=TRUE.equalsIgnoreCase(props.getProperty(SAVE_LOCK_WAIT_TIME, FALSE));
     }
 
     private static final SampleSaveConfiguration STATIC_SAVE_CONFIGURATION = new SampleSaveConfiguration();
@@ -423,6 +453,11 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         "ResponseData", // XML
         "Subresults", // XML
         "Assertions", // XML
+        "CorrectedTime",
+        "InjectorOverloaded",
+        "DnsTime",
+        "SchedulingLag",
+        "LockWaitTime",
     }));
     // N.B. Remember to update the equals and hashCode methods when adding new variables.
 
@@ -463,6 +498,16 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
 
     private boolean idleTime = IDLE_TIME;
 
+    private boolean correctedTime = CORRECTED_TIME;
+
+    private boolean injectorOverloaded = INJECTOR_OVERLOADED;
+
+    private boolean dnsTime = DNS_TIME;
+
+    private boolean schedulingLag = SCHEDULING_LAG;
+
+    private boolean lockWaitTime = LOCK_WAIT_TIME;
+
     // Does not appear to be used (yet)
     private int assertionsResultsToSave = ASSERTIONS_RESULT_TO_SAVE;
 
@@ -504,6 +549,11 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         fileName = value;
         hostname = value;
         idleTime = value;
+        correctedTime = value;
+        injectorOverloaded = value;
+        dnsTime = value;
+        schedulingLag = value;
+        lockWaitTime = value;
         label = value;
         latency = value;
         message = value;
@@ -652,6 +702,11 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
             s.hostname == hostname &&
             s.sampleCount == sampleCount &&
             s.idleTime == idleTime &&
+            s.correctedTime == correctedTime &&
+            s.injectorOverloaded == injectorOverloaded &&
+            s.dnsTime == dnsTime &&
+            s.schedulingLag == schedulingLag &&
+            s.lockWaitTime == lockWaitTime &&
             s.threadCounts == threadCounts;
 
         boolean stringValues = false;
@@ -702,6 +757,11 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         hash = 31 * hash + (dateFormat != null  ? dateFormat.hashCode() : 0);
         hash = 31 * hash + (sampleCount ? 1 : 0);
         hash = 31 * hash + (idleTime ? 1 : 0);
+        hash = 31 * hash + (correctedTime ? 1 : 0);
+        hash = 31 * hash + (injectorOverloaded ? 1 : 0);
+        hash = 31 * hash + (dnsTime ? 1 : 0);
+        hash = 31 * hash + (schedulingLag ? 1 : 0);
+        hash = 31 * hash + (lockWaitTime ? 1 : 0);
 
         return hash;
     }
@@ -1012,4 +1072,44 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
     public void setIdleTime(boolean save) {
         idleTime = save;
     }
+
+    public boolean saveCorrectedTime() {
+        return correctedTime;
+    }
+
+    public void setCorrectedTime(boolean save) {
+        correctedTime = save;
+    }
+
+    public boolean saveInjectorOverloaded() {
+        return injectorOverloaded;
+    }
+
+    public void setInjectorOverloaded(boolean save) {
+        injectorOverloaded = save;
+    }
+
+    public boolean saveDnsTime() {
+        return dnsTime;
+    }
+
+    public void setDnsTime(boolean save) {
+        dnsTime = save;
+    }
+
+    public boolean saveSchedulingLag() {
+        return schedulingLag;
+    }
+
+    public void setSchedulingLag(boolean save) {
+        schedulingLag = save;
+    }
+
+    public boolean saveLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    public void setLockWaitTime(boolean save) {
+        lockWaitTime = save;
+    }
 }
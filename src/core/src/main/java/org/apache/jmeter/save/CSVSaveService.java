@@ -104,6 +104,11 @@ public final class CSVSaveService {
     public static final String CSV_ENCODING = "Encoding"; // $NON-NLS-1$
     public static final String CSV_HOSTNAME = "Hostname"; // $NON-NLS-1$
     public static final String CSV_IDLETIME = "IdleTime"; // $NON-NLS-1$
+    public static final String CSV_CORRECTED_TIME = "CorrectedTime"; // $NON-NLS-1$
+    public static final String CSV_INJECTOR_OVERLOADED = "InjectorOverloaded"; // $NON-NLS-1$
+    public static final String CSV_DNS_TIME = "DnsTime"; // $NON-NLS-1$
+    public static final String CSV_SCHEDULING_LAG = "SchedulingLag"; // $NON-NLS-1$
+    public static final String CSV_LOCK_WAIT_TIME = "LockWaitTime"; // $NON-NLS-1$
 
     // Used to enclose variable name labels, to distinguish from any of the
     // above labels
@@ -377,6 +382,31 @@ public final class CSVSaveService {
                 text = parts[i++];
                 result.setConnectTime(Long.parseLong(text));
             }
+            if (saveConfig.saveCorrectedTime()) {
+                field = CSV_CORRECTED_TIME;
+                text = parts[i++];
+                result.setCorrectedTime(Long.parseLong(text));
+            }
+            if (saveConfig.saveInjectorOverloaded()) {
+                field = CSV_INJECTOR_OVERLOADED;
+                text = parts[i++];
+                result.setInjectorOverloaded("1".equals(text)); // $NON-NLS-1$
+            }
+            if (saveConfig.saveDnsTime()) {
+                field = CSV_DNS_TIME;
+                text = parts[i++];
+                result.setDnsTime(Long.parseLong(text));
+            }
+            if (saveConfig.saveSchedulingLag()) {
+                field = CSV_SCHEDULING_LAG;
+                text = parts[i++];
+                result.setSchedulingLag(Long.parseLong(text));
+            }
+            if (saveConfig.saveLockWaitTime()) {
+                field = CSV_LOCK_WAIT_TIME;
+                text = parts[i++];
+                result.setLockWaitTime(Long.parseLong(text));
+            }
 
             if (i + saveConfig.getVarCount() < parts.length) {
                 log.warn("Line: {}. Found {} fields, expected {}. Extra fields have been ignored.", lineNumber,
@@ -436,6 +466,11 @@ public final class CSVSaveService {
         appendFields(saveConfig.saveHostname(), text, delim, CSV_HOSTNAME);
         appendFields(saveConfig.saveIdleTime(), text, delim, CSV_IDLETIME);
         appendFields(saveConfig.saveConnectTime(), text, delim, CSV_CONNECT_TIME);
+        appendFields(saveConfig.saveCorrectedTime(), text, delim, CSV_CORRECTED_TIME);
+        appendFields(saveConfig.saveInjectorOverloaded(), text, delim, CSV_INJECTOR_OVERLOADED);
+        appendFields(saveConfig.saveDnsTime(), text, delim, CSV_DNS_TIME);
+        appendFields(saveConfig.saveSchedulingLag(), text, delim, CSV_SCHEDULING_LAG);
+        appendFields(saveConfig.saveLockWaitTime(), text, delim, CSV_LOCK_WAIT_TIME);
 
         for (int i = 0; i < SampleEvent.getVarCount(); i++) {
             text.append(VARIABLE_NAME_QUOTE_CHAR);
@@ -501,6 +536,11 @@ public final class CSVSaveService {
         headerLabelMethods.put(CSV_HOSTNAME, new Functor("setHostname"));
         headerLabelMethods.put(CSV_IDLETIME, new Functor("setIdleTime"));
         headerLabelMethods.put(CSV_CONNECT_TIME, new Functor("setConnectTime"));
+        headerLabelMethods.put(CSV_CORRECTED_TIME, new Functor("setCorrectedTime"));
+        headerLabelMethods.put(CSV_INJECTOR_OVERLOADED, new Functor("setInjectorOverloaded"));
+        headerLabelMethods.put(CSV_DNS_TIME, new Functor("setDnsTime"));
+        headerLabelMethods.put(CSV_SCHEDULING_LAG, new Functor("setSchedulingLag"));
+        headerLabelMethods.put(CSV_LOCK_WAIT_TIME, new Functor("setLockWaitTime"));
     }
 
     /**
@@ -943,6 +983,27 @@ public final class CSVSaveService {
             text.append(sample.getConnectTime());
         }
 
+        if (saveConfig.saveCorrectedTime()) {
+            text.append(sample.getCorrectedTime());
+        }
+
+        if (saveConfig.saveInjectorOverloaded()) {
+            // saved as a number, so the share of overloaded samples can be plotted in the dashboard
+            text.append(sample.isInjectorOverloaded() ? 1 : 0);
+        }
+
+        if (saveConfig.saveDnsTime()) {
+            text.append(sample.getDnsTime());
+        }
+
+        if (saveConfig.saveSchedulingLag()) {
+            text.append(sample.getSchedulingLag());
+        }
+
+        if (saveConfig.saveLockWaitTime()) {
+            text.append(sample.getLockWaitTime());
+        }
+
         for (int i = 0; i < SampleEvent.getVarCount(); i++) {
             text.append(event.getVarValue(i));
         }
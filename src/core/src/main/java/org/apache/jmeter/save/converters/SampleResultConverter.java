@@ -73,6 +73,11 @@ public class SampleResultConverter extends AbstractCollectionConverter {
     private static final String ATT_LABEL             = "lb"; //$NON-NLS-1$
     private static final String ATT_LATENCY           = "lt"; //$NON-NLS-1$
     private static final String ATT_CONNECT_TIME      = "ct"; //$NON-NLS-1$
+    private static final String ATT_CORRECTED_TIME    = "crt"; //$NON-NLS-1$
+    private static final String ATT_INJECTOR_OVERLOADED = "io"; //$NON-NLS-1$
+    private static final String ATT_DNS_TIME          = "dns"; //$NON-NLS-1$
+    private static final String ATT_SCHEDULING_LAG    = "sl"; //$NON-NLS-1$
+    private static final String ATT_LOCK_WAIT_TIME = "lw"; //$NON-NLS-1$
 
     private static final String ATT_ALL_THRDS         = "na"; //$NON-NLS-1$
     private static final String ATT_GRP_THRDS         = "ng"; //$NON-NLS-1$
@@ -292,6 +297,21 @@ public class SampleResultConverter extends AbstractCollectionConverter {
         if (save.saveConnectTime()) {
             writer.addAttribute(ATT_CONNECT_TIME, Long.toString(res.getConnectTime()));
         }
+        if (save.saveCorrectedTime()) {
+            writer.addAttribute(ATT_CORRECTED_TIME, Long.toString(res.getCorrectedTime()));
+        }
+        if (save.saveInjectorOverloaded()) {
+            writer.addAttribute(ATT_INJECTOR_OVERLOADED, Boolean.toString(res.isInjectorOverloaded()));
+        }
+        if (save.saveDnsTime()) {
+            writer.addAttribute(ATT_DNS_TIME, Long.toString(res.getDnsTime()));
+        }
+        if (save.saveSchedulingLag()) {
+            writer.addAttribute(ATT_SCHEDULING_LAG, Long.toString(res.getSchedulingLag()));
+        }
+        if (save.saveLockWaitTime()) {
+            writer.addAttribute(ATT_LOCK_WAIT_TIME, Long.toString(res.getLockWaitTime()));
+        }
         if (save.saveTimestamp()) {
             writer.addAttribute(ATT_TIME_STAMP, Long.toString(res.getTimeStamp()));
         }
@@ -446,6 +466,11 @@ public class SampleResultConverter extends AbstractCollectionConverter {
         res.setIdleTime(Converter.getLong(reader.getAttribute(ATT_IDLETIME)));
         res.setLatency(Converter.getLong(reader.getAttribute(ATT_LATENCY)));
         res.setConnectTime(Converter.getLong(reader.getAttribute(ATT_CONNECT_TIME)));
+        res.setCorrectedTime(Converter.getLong(reader.getAttribute(ATT_CORRECTED_TIME)));
+        res.setInjectorOverloaded(Converter.getBoolean(reader.getAttribute(ATT_INJECTOR_OVERLOADED)));
+        res.setDnsTime(Converter.getLong(reader.getAttribute(ATT_DNS_TIME)));
+        res.setSchedulingLag(Converter.getLong(reader.getAttribute(ATT_SCHEDULING_LAG)));
+        res.setLockWaitTime(Converter.getLong(reader.getAttribute(ATT_LOCK_WAIT_TIME)));
         res.setBytes(Converter.getLong(reader.getAttribute(ATT_BYTES)));
         res.setSentBytes(Converter.getLong(reader.getAttribute(ATT_SENT_BYTES)));
         res.setSampleCount(Converter.getInt(reader.getAttribute(ATT_SAMPLE_COUNT),1)); // default is 1
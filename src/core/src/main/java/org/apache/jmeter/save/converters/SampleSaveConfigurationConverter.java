@@ -62,6 +62,11 @@ public class SampleSaveConfigurationConverter  extends ReflectionConverter {
     private static final String NODE_SAMPLE_COUNT = "sampleCount"; // $NON-NLS-1$
     private static final String NODE_IDLE_TIME = "idleTime"; // $NON-NLS-1$
     private static final String NODE_CONNECT_TIME = "connectTime"; // $NON-NLS-1$
+    private static final String NODE_CORRECTED_TIME = "correctedTime"; // $NON-NLS-1$
+    private static final String NODE_INJECTOR_OVERLOADED = "injectorOverloaded"; // $NON-NLS-1$
+    private static final String NODE_DNS_TIME = "dnsTime"; // $NON-NLS-1$
+    private static final String NODE_SCHEDULING_LAG = "schedulingLag"; // $NON-NLS-1$
+    private static final String NODE_LOCK_WAIT_TIME = "lockWaitTime"; // $NON-NLS-1$
 
     // Additional member names which are currently not written out
     private static final String NODE_DELIMITER = "delimiter"; // $NON-NLS-1$
@@ -94,6 +99,11 @@ public class SampleSaveConfigurationConverter  extends ReflectionConverter {
                 case NODE_SAMPLE_COUNT:
                 case NODE_IDLE_TIME:
                 case NODE_CONNECT_TIME:
+                case NODE_CORRECTED_TIME:
+                case NODE_INJECTOR_OVERLOADED:
+                case NODE_DNS_TIME:
+                case NODE_SCHEDULING_LAG:
+                case NODE_LOCK_WAIT_TIME:
                 // The two fields below are not currently saved or restored
                 case NODE_DELIMITER:
                 case NODE_PRINTMS:
@@ -142,6 +152,11 @@ public class SampleSaveConfigurationConverter  extends ReflectionConverter {
         createNode(writer,prop.saveSampleCount(),NODE_SAMPLE_COUNT);
         createNode(writer,prop.saveIdleTime(),NODE_IDLE_TIME);
         createNode(writer, prop.saveConnectTime(), NODE_CONNECT_TIME);
+        createNode(writer, prop.saveCorrectedTime(), NODE_CORRECTED_TIME);
+        createNode(writer, prop.saveInjectorOverloaded(), NODE_INJECTOR_OVERLOADED);
+        createNode(writer, prop.saveDnsTime(), NODE_DNS_TIME);
+        createNode(writer, prop.saveSchedulingLag(), NODE_SCHEDULING_LAG);
+        createNode(writer, prop.saveLockWaitTime(), NODE_LOCK_WAIT_TIME);
     }
 
     // Helper method to simplify marshall routine. Save if and only if true.
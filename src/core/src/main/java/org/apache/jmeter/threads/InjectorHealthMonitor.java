@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.threads;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Monitors the health of the JVM that generates the load, so that response times measured
+ * while the injector itself was saturated can be told apart from the ones of the system under test.
+ * <p>
+ * A daemon thread samples on every interval:
+ * <ul>
+ *     <li>the share of the interval spent in garbage collection</li>
+ *     <li>the CPU usage of the JMeter process</li>
+ *     <li>the scheduling lag: how late the monitor thread wakes up from a short sleep.
+ *     It grows with CPU starvation, GC and safepoint pauses</li>
+ *     <li>the number of active threads</li>
+ * </ul>
+ * An interval is flagged as overloaded when one of the values exceeds its threshold,
+ * see {@link Snapshot#isOverloaded()} and {@link #wasOverloadedSince(long)}.
+ * <p>
+ * The monitor is enabled with {@code injector.health.monitor=true}, see {@link #isEnabled()}.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class InjectorHealthMonitor {
+    private static final Logger log = LoggerFactory.getLogger(InjectorHealthMonitor.class);
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("injector.health.monitor", false); // $NON-NLS-1$
+
+    /** Length of a monitoring interval in milliseconds, default 1000 */
+    private static final long INTERVAL = Math.max(100,
+            JMeterUtils.getPropDefault("injector.health.interval", 1000L)); // $NON-NLS-1$
+
+    /** CPU usage of the process above which the injector is overloaded, in percent, default 90 */
+    private static final double MAX_CPU =
+            JMeterUtils.getPropDefault("injector.health.max_cpu", 90.0); // $NON-NLS-1$
+
+    /** Share of the interval spent in GC above which the injector is overloaded, in percent, default 10 */
+    private static final double MAX_GC =
+            JMeterUtils.getPropDefault("injector.health.max_gc", 10.0); // $NON-NLS-1$
+
+    /** Scheduling lag above which the injector is overloaded, in milliseconds, default 100 */
+    private static final long MAX_LAG =
+            JMeterUtils.getPropDefault("injector.health.max_lag", 100L); // $NON-NLS-1$
+
+    /** How long the monitor thread sleeps between two lag measurements */
+    private static final long PROBE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** How long {@link #stop()} waits for the monitor thread to end */
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final String OPERATING_SYSTEM_MBEAN = "java.lang:type=OperatingSystem"; // $NON-NLS-1$
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static class InjectorHealthMonitorHolder {
+        public static final InjectorHealthMonitor INSTANCE =
+                new InjectorHealthMonitor(INTERVAL, MAX_CPU, MAX_GC, MAX_LAG);
+    }
+
+    /**
+     * Health of the injector over one monitoring interval
+     */
+    public static final class Snapshot {
+        private final long timeStamp;
+        private final double cpu;
+        private final double gc;
+        private final long lag;
+        private final int activeThreads;
+        private final boolean overloaded;
+
+        Snapshot(long timeStamp, double cpu, double gc, long lag, int activeThreads, boolean overloaded) {
+            this.timeStamp = timeStamp;
+            this.cpu = cpu;
+            this.gc = gc;
+            this.lag = lag;
+            this.activeThreads = activeThreads;
+            this.overloaded = overloaded;
+        }
+
+        /**
+         * @return end of the interval in milliseconds since epoch
+         */
+        public long getTimeStamp() {
+            return timeStamp;
+        }
+
+        /**
+         * @return CPU usage of the JMeter process in percent of all the processors, or -1 if the JVM does not provide it
+         */
+        public double getCpu() {
+            return cpu;
+        }
+
+        /**
+         * @return share of the interval spent in garbage collection, in percent
+         */
+        public double getGc() {
+            return gc;
+        }
+
+        /**
+         * @return maximum scheduling lag observed in the interval, in milliseconds
+         */
+        public long getLag() {
+            return lag;
+        }
+
+        /**
+         * @return number of active JMeter threads at the end of the interval
+         */
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        /**
+         * @return {@code true} if one of the values exceeded its threshold
+         */
+        public boolean isOverloaded() {
+            return overloaded;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{cpu=" + cpu + "%, gc=" + gc + "%, lag=" + lag + "ms, activeThreads=" + activeThreads
+                    + ", overloaded=" + overloaded + '}';
+        }
+    }
+
+    private final long interval;
+
+    private final double maxCpu;
+
+    private final double maxGc;
+
+    private final long maxLag;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private ObjectName operatingSystem;
+
+    private Thread monitor;
+
+    private volatile Snapshot lastSnapshot;
+
+    /** End of the last overloaded interval in milliseconds since epoch, 0 if none */
+    private volatile long lastOverloaded;
+
+    InjectorHealthMonitor(long interval, double maxCpu, double maxGc, long maxLag) {
+        this.interval = interval;
+        this.maxCpu = maxCpu;
+        this.maxGc = maxGc;
+        this.maxLag = maxLag;
+        try {
+            operatingSystem = new ObjectName(OPERATING_SYSTEM_MBEAN);
+        } catch (Exception e) { // NOSONAR
+            log.warn("Cannot access operating system MBean, CPU usage will not be monitored", e);
+        }
+    }
+
+    /**
+     * @return the shared monitor instance
+     */
+    public static InjectorHealthMonitor getInstance() {
+        return InjectorHealthMonitorHolder.INSTANCE;
+    }
+
+    /**
+     * @return {@code true} if the injector health should be monitored during the tests
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start the monitor thread, does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (monitor != null) {
+            return;
+        }
+        lastSnapshot = null;
+        lastOverloaded = 0;
+        monitor = new Thread(this::run, "JMeter-injector-health-monitor"); // $NON-NLS-1$
+        monitor.setDaemon(true);
+        monitor.setPriority(Thread.MAX_PRIORITY);
+        monitor.start();
+        log.info("Injector health monitor started with interval:{}ms, max cpu:{}%, max gc:{}%, max lag:{}ms",
+                interval, maxCpu, maxGc, maxLag);
+    }
+
+    /**
+     * Stop the monitor thread and wait for it to end, so it does not publish a snapshot after the test.
+     */
+    public synchronized void stop() {
+        if (monitor == null) {
+            return;
+        }
+        monitor.interrupt();
+        try {
+            monitor.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (monitor.isAlive()) {
+            log.warn("Injector health monitor did not stop within {}ms", STOP_TIMEOUT_MILLIS);
+        }
+        monitor = null;
+        lastSnapshot = null;
+        log.info("Injector health monitor stopped");
+    }
+
+    /**
+     * @return the health of the injector during the last completed interval,
+     * or {@code null} if the monitor is not running or no interval is complete yet
+     */
+    public Snapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
+    /**
+     * Whether a sample that started at the given time ran, even partially, while the injector was overloaded.
+     *
+     * @param startTime start of the sample in milliseconds since epoch
+     * @return {@code true} if the last completed interval is overloaded or an overloaded interval ended after startTime
+     */
+    public boolean wasOverloadedSince(long startTime) {
+        long overloaded = lastOverloaded;
+        Snapshot snapshot = lastSnapshot; // read once, stop() clears it concurrently
+        return overloaded != 0 && (overloaded >= startTime || snapshot != null && snapshot.isOverloaded());
+    }
+
+    private void run() {
+        Thread current = Thread.currentThread();
+        long gcTime = getCollectionTime();
+        long intervalStart = System.nanoTime();
+        long maxLagNanos = 0;
+        while (!current.isInterrupted()) {
+            long before = System.nanoTime();
+            try {
+                TimeUnit.NANOSECONDS.sleep(PROBE_NANOS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            maxLagNanos = Math.max(maxLagNanos, now - before - PROBE_NANOS);
+            long elapsed = now - intervalStart;
+            if (elapsed >= TimeUnit.MILLISECONDS.toNanos(interval)) {
+                long newGcTime = getCollectionTime();
+                Snapshot snapshot = createSnapshot(newGcTime - gcTime, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+                gcTime = newGcTime;
+                intervalStart = now;
+                maxLagNanos = 0;
+                publish(snapshot);
+            }
+        }
+    }
+
+    Snapshot createSnapshot(long gcMillis, long elapsedMillis, long lagMillis) {
+        double cpu = getProcessCpu();
+        double gc = elapsedMillis > 0 ? Math.min(100.0, 100.0 * gcMillis / elapsedMillis) : 0;
+        boolean overloaded = cpu > maxCpu || gc > maxGc || lagMillis > maxLag;
+        return new Snapshot(System.currentTimeMillis(), cpu, gc, lagMillis,
+                JMeterContextService.getNumberOfThreads(), overloaded);
+    }
+
+    void publish(Snapshot snapshot) {
+        if (snapshot.isOverloaded()) {
+            lastOverloaded = snapshot.getTimeStamp();
+            Snapshot previous = lastSnapshot;
+            if (previous == null || !previous.isOverloaded()) {
+                log.warn("Injector is overloaded, response times may be inaccurate: {}", snapshot);
+            }
+        }
+        lastSnapshot = snapshot;
+    }
+
+    private long getCollectionTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : garbageCollectors) {
+            long time = gc.getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+    private double getProcessCpu() {
+        if (operatingSystem == null) {
+            return -1;
+        }
+        try {
+            // Not part of the standard OperatingSystemMXBean, so read it through the MBean server
+            Object load = mBeanServer.getAttribute(operatingSystem, "ProcessCpuLoad"); // $NON-NLS-1$
+            if (load instanceof Number && ((Number) load).doubleValue() >= 0) {
+                return ((Number) load).doubleValue() * 100.0;
+            }
+        } catch (Exception e) { // NOSONAR
+            log.debug("Cannot read process CPU load", e);
+            operatingSystem = null;
+        }
+        return -1;
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.jmeter.testelement.TestElement;
 import org.apache.jmeter.testelement.TestIterationListener;
 import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.threads.JMeterContext.TestLogicalAction;
+import org.apache.jmeter.timers.PacingScheduler;
 import org.apache.jmeter.timers.Timer;
 import org.apache.jmeter.timers.TimerService;
 import org.apache.jmeter.util.JMeterUtils;
@@ -88,6 +89,15 @@ public class JMeterThread implements Runnable, Interruptible {
 
     private static final boolean APPLY_TIMER_FACTOR = Float.compare(TIMER_FACTOR,ONE_AS_FLOAT) != 0;
 
+    private static final boolean USE_PACING_SCHEDULER = PacingScheduler.isEnabled();
+
+    /** Report response times measured from the intended start of samples as well */
+    private static final boolean CORRECT_COORDINATED_OMISSION =
+            JMeterUtils.getPropDefault("jmeterthread.coordinated_omission_correction", false); // $NON-NLS-1$
+
+    /** Flag the samples taken while the injector is overloaded */
+    private static final boolean MONITOR_INJECTOR_HEALTH = InjectorHealthMonitor.isEnabled();
+
     private final Controller threadGroupLoopController;
 
     private final HashTree testTree;
@@ -138,6 +148,27 @@ public class JMeterThread implements Runnable, Interruptible {
      */
     private volatile boolean running; // may be set from a different thread
 
+    /** Lag of the last timer pause in nanoseconds, reported on the next sample */
+    private long schedulingLag;
+
+    /** Intended start time of the next sample as computed by pacing timers, 0 if unknown */
+    private long intendedStartTime;
+
+    /** Time spent waiting for critical sections in nanoseconds, reported on the next sample */
+    private long lockWaitTime;
+
+    /*
+     * Scheduling information of the sample being run, captured before sampling
+     */
+    private long sampleSchedulingLag;
+    private long sampleIntendedStartTime;
+    private long sampleLockWaitTime;
+    /** true if the sampler captured the scheduling information to report it on its own results */
+    private boolean schedulingCaptured;
+
+    /** Whether the thread waits for work and is not counted in the number of active threads */
+    private boolean idle;
+
     private volatile boolean onErrorStopTest;
 
     private volatile boolean onErrorStopTestNow;
@@ -564,6 +595,12 @@ public class JMeterThread implements Runnable, Interruptible {
         threadVars.putObject(PACKAGE_OBJECT, pack);
 
         delay(pack.getTimers());
+        sampleSchedulingLag = schedulingLag;
+        sampleIntendedStartTime = intendedStartTime;
+        intendedStartTime = 0;
+        sampleLockWaitTime = lockWaitTime;
+        lockWaitTime = 0;
+        schedulingCaptured = false;
         SampleResult result = null;
         if (running) {
             Sampler sampler = pack.getSampler();
@@ -571,6 +608,12 @@ public class JMeterThread implements Runnable, Interruptible {
         }
         // If we got any results, then perform processing on the result
         if (result != null) {
+            if (!schedulingCaptured) {
+                fillSchedulingInformation(result, sampleSchedulingLag, sampleLockWaitTime, sampleIntendedStartTime);
+            }
+            if (MONITOR_INJECTOR_HEALTH) {
+                result.setInjectorOverloaded(InjectorHealthMonitor.getInstance().wasOverloadedSince(result.getStartTime()));
+            }
             if (!result.isIgnore()) {
                 int nbActiveThreadsInThreadGroup = threadGroup.getNumberOfThreads();
                 int nbTotalActiveThreads = JMeterContextService.getNumberOfThreads();
@@ -590,6 +633,8 @@ public class JMeterThread implements Runnable, Interruptible {
                     List<SampleListener> sampleListeners = getSampleListeners(pack, transactionPack, transactionSampler);
                     notifyListeners(sampleListeners, result);
                 }
+                // Documents parsed by post-processors and assertions are not needed anymore
+                result.clearParsedResponseData();
                 compiler.done(pack);
                 // Add the result as subsample of transaction if we are in a transaction
                 if (transactionSampler != null && !result.isIgnore()) {
@@ -768,8 +813,10 @@ public class JMeterThread implements Runnable, Interruptible {
     private void threadFinished(LoopIterationListener iterationListener) {
         ThreadListenerTraverser shut = new ThreadListenerTraverser(false);
         testTree.traverse(shut); // call ThreadListener.threadFinished()
-        JMeterContextService.decrNumberOfThreads();
-        threadGroup.decrNumberOfThreads();
+        if (!idle) {
+            JMeterContextService.decrNumberOfThreads();
+            threadGroup.decrNumberOfThreads();
+        }
         GuiPackage gp = GuiPackage.getInstance();
         if (gp != null){// check there is a GUI
             gp.getMainFrame().updateCounts();
@@ -989,6 +1036,7 @@ public class JMeterThread implements Runnable, Interruptible {
      * @param timers to be used for calculating the delay
      */
     private void delay(List<Timer> timers) {
+        schedulingLag = 0;
         long totalDelay = 0;
         for (Timer timer : timers) {
             TestBeanHelper.prepare((TestElement) timer);
@@ -1014,7 +1062,13 @@ public class JMeterThread implements Runnable, Interruptible {
                         return;
                     }
                 }
-                TimeUnit.MILLISECONDS.sleep(totalDelay);
+                if (USE_PACING_SCHEDULER) {
+                    schedulingLag = PacingScheduler.getInstance().sleep(totalDelay);
+                } else {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalDelay);
+                    TimeUnit.MILLISECONDS.sleep(totalDelay);
+                    schedulingLag = Math.max(0, System.nanoTime() - deadline);
+                }
             } catch (InterruptedException e) {
                 log.warn("The delay timer was interrupted - probably did not wait as long as intended.");
                 Thread.currentThread().interrupt();
@@ -1084,6 +1138,66 @@ public class JMeterThread implements Runnable, Interruptible {
         }
     }
 
+    /**
+     * Record the time at which the next sample should start according to a pacing schedule.
+     * <p>
+     * Timers and thread groups that follow a schedule call this method so that response times
+     * corrected for coordinated omission can be computed when
+     * {@code jmeterthread.coordinated_omission_correction} is enabled.
+     * If several timers report a time, the latest one is kept.
+     *
+     * @param intendedStartTime intended start time in milliseconds since epoch
+     * @since 5.5
+     */
+    @API(status = API.Status.EXPERIMENTAL, since = "5.5")
+    public void setIntendedStartTime(long intendedStartTime) {
+        this.intendedStartTime = Math.max(this.intendedStartTime, intendedStartTime);
+    }
+
+    /**
+     * Capture the scheduling information of the sample being run: the lag of its timers,
+     * the time spent waiting for locks and its intended start time.
+     * <p>
+     * Samplers which return the result of an earlier call, such as Java Requests with an
+     * asynchronous client, call this method when they start a sample, and apply the returned
+     * function to the result of that sample once it is completed. The scheduling information of
+     * the result returned by the current call is then left as set by the sampler.
+     *
+     * @return function setting the scheduling information of the current sample on its result
+     * @since 5.5
+     */
+    @API(status = API.Status.EXPERIMENTAL, since = "5.5")
+    public Consumer<SampleResult> captureSchedulingInformation() {
+        schedulingCaptured = true;
+        long lag = sampleSchedulingLag;
+        long lockWait = sampleLockWaitTime;
+        long scheduledStartTime = sampleIntendedStartTime;
+        return result -> fillSchedulingInformation(result, lag, lockWait, scheduledStartTime);
+    }
+
+    private static void fillSchedulingInformation(SampleResult result, long lag, long lockWait,
+            long scheduledStartTime) {
+        result.setSchedulingLag(TimeUnit.NANOSECONDS.toMillis(lag));
+        result.setLockWaitTime(TimeUnit.NANOSECONDS.toMillis(lockWait));
+        if (CORRECT_COORDINATED_OMISSION && scheduledStartTime > 0) {
+            result.setIntendedStartTime(scheduledStartTime);
+        }
+    }
+
+    /**
+     * Record the time spent waiting for a lock before the next sample.
+     * <p>
+     * Controllers that serialize threads, such as Critical Section Controller, call this method,
+     * so the wait is reported with {@link SampleResult#getLockWaitTime()} of the next sample.
+     *
+     * @param nanos wait time in nanoseconds
+     * @since 5.5
+     */
+    @API(status = API.Status.EXPERIMENTAL, since = "5.5")
+    public void addLockWaitTime(long nanos) {
+        lockWaitTime += nanos;
+    }
+
     /**
      * Returns the threadNum.
      *
@@ -1161,6 +1275,35 @@ public class JMeterThread implements Runnable, Interruptible {
         this.threadGroup = group;
     }
 
+    /**
+     * Tell whether the thread is waiting for work, like a pooled thread of Open Model Thread Group
+     * waiting for the next arrival. An idle thread is not counted in the number of active threads
+     * of its thread group and of the test.
+     * <p>
+     * Must be called by the thread itself, between its start and its end.
+     *
+     * @param idle true when the thread starts waiting, false when it has work again
+     * @since 5.5
+     */
+    @API(status = API.Status.EXPERIMENTAL, since = "5.5")
+    public void setIdle(boolean idle) {
+        if (this.idle == idle) {
+            return;
+        }
+        this.idle = idle;
+        if (idle) {
+            JMeterContextService.decrNumberOfThreads();
+            threadGroup.decrNumberOfThreads();
+        } else {
+            JMeterContextService.incrNumberOfThreads();
+            threadGroup.incrNumberOfThreads();
+        }
+        GuiPackage gp = GuiPackage.getInstance();
+        if (gp != null) {// check there is a GUI
+            gp.getMainFrame().updateCounts();
+        }
+    }
+
     /**
      * @return {@link ListedHashTree}
      */
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.timers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Central scheduler that wakes up paused threads with sub-millisecond precision.
+ * <p>
+ * Waiting threads are registered in a hashed timing wheel driven by a single daemon thread.
+ * On every tick the wheel unparks all the threads of the current bucket at once,
+ * slightly ahead of their deadline, and each thread spins for the remaining time.
+ * This avoids the oversleeping caused by OS timer slack when thousands of threads
+ * call {@link Thread#sleep(long)} individually.
+ * <p>
+ * The scheduler is enabled with {@code timer.pacing.scheduler=true}, see {@link #isEnabled()}.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class PacingScheduler {
+    private static final Logger log = LoggerFactory.getLogger(PacingScheduler.class);
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("timer.pacing.scheduler", false); // $NON-NLS-1$
+
+    /** Duration of a wheel tick in microseconds, default 500us */
+    private static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            Math.max(10, JMeterUtils.getPropDefault("timer.pacing.tick_micros", 500))); // $NON-NLS-1$
+
+    /** How long before the deadline a thread is released to spin, in microseconds, default 200us */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            Math.max(0, JMeterUtils.getPropDefault("timer.pacing.spin_micros", 200))); // $NON-NLS-1$
+
+    /** Number of buckets of the wheel, must be a power of two */
+    private static final int WHEEL_SIZE = 1024;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static class PacingSchedulerHolder {
+        public static final PacingScheduler INSTANCE = new PacingScheduler(TICK_NANOS, SPIN_NANOS);
+    }
+
+    /**
+     * A parked thread waiting for its deadline
+     */
+    private static final class Waiter {
+        private final Thread thread;
+        private final long deadline;
+        private volatile boolean released;
+
+        Waiter(Thread thread, long deadline) {
+            this.thread = thread;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickNanos;
+
+    private final long spinNanos;
+
+    private final long origin;
+
+    @SuppressWarnings("unchecked")
+    private final Queue<Waiter>[] wheel = new Queue[WHEEL_SIZE];
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Thread worker;
+
+    /** Index of the last tick processed by the worker */
+    private volatile long currentTick;
+
+    private volatile boolean stopped;
+
+    PacingScheduler(long tickNanos, long spinNanos) {
+        this.tickNanos = tickNanos;
+        this.spinNanos = spinNanos;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.origin = System.nanoTime();
+        this.worker = new Thread(this::runWheel, "JMeter-pacing-scheduler"); // $NON-NLS-1$
+        this.worker.setDaemon(true);
+        this.worker.setPriority(Thread.MAX_PRIORITY);
+        this.worker.start();
+        log.info("Pacing scheduler started with tick:{}ns, spin:{}ns", tickNanos, spinNanos);
+    }
+
+    /**
+     * @return the shared scheduler instance
+     */
+    public static PacingScheduler getInstance() {
+        return PacingSchedulerHolder.INSTANCE;
+    }
+
+    /**
+     * @return {@code true} if timers should be paced by the shared scheduler instead of {@link Thread#sleep(long)}
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Block the current thread until the given deadline.
+     *
+     * @param deadline deadline in {@link System#nanoTime()} units
+     * @return scheduling lag in nanoseconds, that is the difference between the actual wake up time and the deadline
+     * @throws InterruptedException when the current thread is interrupted while waiting
+     */
+    public long awaitDeadline(long deadline) throws InterruptedException {
+        long now = System.nanoTime();
+        if (deadline - now > spinNanos + tickNanos) {
+            Waiter waiter = new Waiter(Thread.currentThread(), deadline);
+            schedule(waiter);
+            while (!waiter.released) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= spinNanos) {
+                    // The wheel is late, do not wait for it
+                    waiter.released = true;
+                    break;
+                }
+                // parkNanos guards against a stalled wheel: the thread will wake up on its own in the worst case
+                LockSupport.parkNanos(this, remaining - spinNanos);
+                if (Thread.interrupted()) {
+                    waiter.released = true;
+                    throw new InterruptedException();
+                }
+            }
+        }
+        while ((now = System.nanoTime()) - deadline < 0) {
+            // spin for the last few microseconds: parking is not precise enough for that
+            // yield lets other threads run when there are more spinning threads than CPUs
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.yield();
+        }
+        return now - deadline;
+    }
+
+    /**
+     * Block the current thread for the given delay.
+     *
+     * @param delay delay in milliseconds
+     * @return scheduling lag in nanoseconds
+     * @throws InterruptedException when the current thread is interrupted while waiting
+     */
+    public long sleep(long delay) throws InterruptedException {
+        return awaitDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    /**
+     * @return number of threads currently parked in the wheel
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private long tickOf(long nanoTime) {
+        return (nanoTime - origin) / tickNanos;
+    }
+
+    private void schedule(Waiter waiter) {
+        // never schedule into a tick the worker has already processed
+        long tick = Math.max(tickOf(waiter.deadline - spinNanos), currentTick + 1);
+        wheel[(int) (tick & WHEEL_MASK)].add(waiter);
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void runWheel() {
+        long tick = tickOf(System.nanoTime());
+        currentTick = tick;
+        while (!stopped) {
+            if (pending.get() == 0) {
+                LockSupport.park(this);
+                Thread.interrupted(); // clear the flag, the worker must not die
+                tick = tickOf(System.nanoTime());
+                currentTick = tick;
+                continue;
+            }
+            long nextTickTime = origin + (tick + 1) * tickNanos;
+            long toWait = nextTickTime - System.nanoTime();
+            if (toWait > 0) {
+                LockSupport.parkNanos(this, toWait);
+                continue;
+            }
+            // Process every tick that elapsed since the last run, so a late wheel releases all expired buckets
+            long lastTick = tickOf(System.nanoTime());
+            while (tick < lastTick) {
+                tick++;
+                currentTick = tick;
+                releaseBucket(wheel[(int) (tick & WHEEL_MASK)], tick);
+            }
+        }
+    }
+
+    /**
+     * Stop the worker thread and release the threads still waiting.
+     * The shared instance lives as long as the JVM, this is for the instances created by tests.
+     *
+     * @throws InterruptedException when the current thread is interrupted while waiting for the worker to stop
+     */
+    void shutdown() throws InterruptedException {
+        stopped = true;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        for (Queue<Waiter> bucket : wheel) {
+            Waiter waiter;
+            while ((waiter = bucket.poll()) != null) {
+                waiter.released = true;
+                LockSupport.unpark(waiter.thread);
+            }
+        }
+        pending.set(0);
+    }
+
+    /**
+     * @return {@code true} if the worker thread is running
+     */
+    boolean isRunning() {
+        return worker.isAlive();
+    }
+
+    private void releaseBucket(Queue<Waiter> bucket, long tick) {
+        int size = bucket.size();
+        // Only consider the waiters that were in the bucket at the start, re-added ones are for later rounds
+        for (int i = 0; i < size; i++) {
+            Waiter waiter = bucket.poll();
+            if (waiter == null) {
+                break;
+            }
+            if (waiter.released) {
+                pending.decrementAndGet();
+            } else if (tickOf(waiter.deadline - spinNanos) <= tick) {
+                waiter.released = true;
+                pending.decrementAndGet();
+                LockSupport.unpark(waiter.thread);
+            } else {
+                // deadline is more than one wheel round ahead
+                bucket.add(waiter);
+            }
+        }
+    }
+}
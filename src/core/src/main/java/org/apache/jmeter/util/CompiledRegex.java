@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Regular expression compiled with the JDK engine or with the RE2 linear-time engine,
+ * as selected by the {@code jmeter.regex.engine} property.
+ * <p>
+ * RE2 guarantees a matching time linear in the size of the input, so it is not subject
+ * to catastrophic backtracking on large responses. It does not support backreferences and lookarounds:
+ * such expressions are compiled with the JDK engine instead.
+ * <p>
+ * Matching accepts any {@link CharSequence}, so the response can be searched without being copied.
+ * Instances are immutable and can be shared between threads.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public abstract class CompiledRegex {
+    private static final Logger log = LoggerFactory.getLogger(CompiledRegex.class);
+
+    /**
+     * Regular expression engines supported by JMeter
+     */
+    public enum Engine {
+        /** Jakarta ORO Perl5 engine, handled by the elements through {@link JMeterUtils#getPatternCache()} */
+        ORO,
+        /** {@link java.util.regex} engine */
+        JAVA,
+        /** RE2 linear-time engine */
+        RE2;
+
+        private static final Engine DEFAULT =
+                parse(JMeterUtils.getPropDefault("jmeter.regex.engine", "oro")); // $NON-NLS-1$
+
+        /**
+         * @return the engine selected by {@code jmeter.regex.engine}, any value other than oro and re2 means JAVA
+         */
+        public static Engine getDefault() {
+            return DEFAULT;
+        }
+
+        static Engine parse(String value) {
+            switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "oro": // $NON-NLS-1$
+                    return ORO;
+                case "re2": // $NON-NLS-1$
+                    return RE2;
+                default:
+                    return JAVA;
+            }
+        }
+    }
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static final class LazyRe2PatternCacheHolder {
+        public static final LoadingCache<String, CompiledRegex> INSTANCE = Caffeine.newBuilder()
+                .maximumSize(JMeterUtils.getPropDefault("jmeter.regex.patterncache.size", 1000)) // $NON-NLS-1$
+                .build(regex -> compile(regex, Engine.RE2));
+    }
+
+    private final String regex;
+
+    private CompiledRegex(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * Compile the expression with the engine selected by {@code jmeter.regex.engine},
+     * the JDK engine is used when the ORO engine is selected.
+     * Compiled expressions are cached.
+     *
+     * @param regex regular expression
+     * @return the compiled expression
+     * @throws PatternSyntaxException when the expression is invalid
+     */
+    public static CompiledRegex compile(String regex) {
+        if (Engine.getDefault() == Engine.RE2) {
+            return LazyRe2PatternCacheHolder.INSTANCE.get(regex);
+        }
+        return new JavaRegex(JMeterUtils.compilePattern(regex));
+    }
+
+    /**
+     * Compile the expression with the given engine, the JDK engine is used
+     * when the ORO engine is requested, or when RE2 does not support the expression.
+     *
+     * @param regex regular expression
+     * @param engine engine to use
+     * @return the compiled expression
+     * @throws PatternSyntaxException when the expression is invalid
+     */
+    public static CompiledRegex compile(String regex, Engine engine) {
+        if (engine == Engine.RE2) {
+            try {
+                return new Re2Regex(com.google.re2j.Pattern.compile(regex));
+            } catch (com.google.re2j.PatternSyntaxException e) {
+                // Java syntax check, so invalid expressions are reported the same way whatever the engine
+                Pattern pattern = Pattern.compile(regex);
+                log.warn("Expression '{}' is not supported by RE2, using JDK regex engine: {}",
+                        regex, e.getDescription());
+                return new JavaRegex(pattern);
+            }
+        }
+        return new JavaRegex(Pattern.compile(regex));
+    }
+
+    /**
+     * @return the source of the expression
+     */
+    public String pattern() {
+        return regex;
+    }
+
+    /**
+     * @return the engine that actually compiled the expression
+     */
+    public abstract Engine getEngine();
+
+    /**
+     * @param input text to search
+     * @return {@code true} if the expression matches a part of the input
+     */
+    public abstract boolean find(CharSequence input);
+
+    /**
+     * @param input text to match
+     * @return {@code true} if the expression matches the whole input
+     */
+    public abstract boolean matches(CharSequence input);
+
+    /**
+     * Find the successive matches of the expression in the input.
+     *
+     * @param input text to search
+     * @param limit maximum number of matches, zero or negative for all of them
+     * @param matches list where the matches are added
+     * @return number of matches found
+     */
+    public abstract int findAll(CharSequence input, int limit, List<MatchResult> matches);
+
+    /**
+     * Find all the matches of the expression in the input.
+     *
+     * @param input text to search
+     * @return the matches
+     */
+    public List<MatchResult> findAll(CharSequence input) {
+        List<MatchResult> matches = new ArrayList<>();
+        findAll(input, -1, matches);
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+
+    private static final class JavaRegex extends CompiledRegex {
+        private final Pattern pattern;
+
+        JavaRegex(Pattern pattern) {
+            super(pattern.pattern());
+            this.pattern = pattern;
+        }
+
+        @Override
+        public Engine getEngine() {
+            return Engine.JAVA;
+        }
+
+        @Override
+        public boolean find(CharSequence input) {
+            return pattern.matcher(input).find();
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return pattern.matcher(input).matches();
+        }
+
+        @Override
+        public int findAll(CharSequence input, int limit, List<MatchResult> matches) {
+            Matcher matcher = pattern.matcher(input);
+            int found = 0;
+            while ((limit <= 0 || found < limit) && matcher.find()) {
+                matches.add(matcher.toMatchResult());
+                found++;
+            }
+            return found;
+        }
+    }
+
+    private static final class Re2Regex extends CompiledRegex {
+        private final com.google.re2j.Pattern pattern;
+
+        Re2Regex(com.google.re2j.Pattern pattern) {
+            super(pattern.pattern());
+            this.pattern = pattern;
+        }
+
+        @Override
+        public Engine getEngine() {
+            return Engine.RE2;
+        }
+
+        @Override
+        public boolean find(CharSequence input) {
+            return pattern.matcher(input).find();
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return pattern.matcher(input).matches();
+        }
+
+        @Override
+        public int findAll(CharSequence input, int limit, List<MatchResult> matches) {
+            com.google.re2j.Matcher matcher = pattern.matcher(input);
+            int found = 0;
+            while ((limit <= 0 || found < limit) && matcher.find()) {
+                matches.add(new Re2MatchResult(input, matcher));
+                found++;
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Snapshot of a RE2 match, which has no equivalent of {@link Matcher#toMatchResult()}
+     */
+    private static final class Re2MatchResult implements MatchResult {
+        private final CharSequence input;
+        private final int[] offsets;
+
+        Re2MatchResult(CharSequence input, com.google.re2j.Matcher matcher) {
+            this.input = input;
+            int groupCount = matcher.groupCount();
+            offsets = new int[2 * (groupCount + 1)];
+            for (int group = 0; group <= groupCount; group++) {
+                offsets[2 * group] = matcher.start(group);
+                offsets[2 * group + 1] = matcher.end(group);
+            }
+        }
+
+        private void checkGroup(int group) {
+            if (group < 0 || group > groupCount()) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+
+        @Override
+        public int start() {
+            return start(0);
+        }
+
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return offsets[2 * group];
+        }
+
+        @Override
+        public int end() {
+            return end(0);
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return offsets[2 * group + 1];
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(int group) {
+            int start = start(group);
+            return start < 0 ? null : input.subSequence(start, end(group)).toString();
+        }
+
+        @Override
+        public int groupCount() {
+            return offsets.length / 2 - 1;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import groovy.transform.CompileStatic;
+
+/**
+ * Runs the Groovy scripts of JSR223 elements without going through {@code javax.script}:
+ * each script is compiled once to a {@link JMeterGroovyScript} subclass, and every execution
+ * only instantiates the class with a binding on the variables of the element.
+ * <p>
+ * Enabled by {@code jsr223.groovy.fast_path}, for the scripts that would be compiled and cached
+ * by the JSR223 engine. With {@code jsr223.groovy.compile_static} the scripts are compiled
+ * with {@code @CompileStatic}.
+ */
+final class GroovyScriptRunner {
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("jsr223.groovy.fast_path", false); // $NON-NLS-1$
+
+    private static final boolean COMPILE_STATIC =
+            JMeterUtils.getPropDefault("jsr223.groovy.compile_static", false); // $NON-NLS-1$
+
+    /**
+     * Compiled script classes, each one has its own class loader so it can be unloaded once evicted
+     */
+    private static final Cache<String, Class<?>> SCRIPT_CLASSES = Caffeine.newBuilder()
+            .maximumSize(JMeterUtils.getPropDefault("jsr223.compiled_scripts_cache_size", 100)) // $NON-NLS-1$
+            .build();
+
+    private GroovyScriptRunner() {
+        super();
+    }
+
+    /**
+     * @param scriptEngine engine selected for the element
+     * @return {@code true} if the scripts of the engine should be run by this class
+     */
+    static boolean accepts(ScriptEngine scriptEngine) {
+        return ENABLED && "Groovy".equals(scriptEngine.getFactory().getLanguageName()); // $NON-NLS-1$
+    }
+
+    /**
+     * Reader of the script text, only called when the script is not compiled yet
+     */
+    @FunctionalInterface
+    interface ScriptSource {
+        String read() throws IOException;
+    }
+
+    /**
+     * Compile the script, or return the class compiled for the same key.
+     *
+     * @param key unique key of the script text
+     * @param source reader of the script text
+     * @return the compiled script class
+     * @throws IOException if the script cannot be read
+     * @throws ScriptException if the script cannot be compiled
+     */
+    static Class<?> compile(String key, ScriptSource source) throws IOException, ScriptException {
+        return compile(key, source, COMPILE_STATIC);
+    }
+
+    static Class<?> compile(String key, ScriptSource source, boolean compileStatic)
+            throws IOException, ScriptException {
+        try {
+            return SCRIPT_CLASSES.get(key, k -> {
+                String script;
+                try {
+                    script = source.read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                CompilerConfiguration configuration = new CompilerConfiguration();
+                configuration.setScriptBaseClass(JMeterGroovyScript.class.getName());
+                if (compileStatic) {
+                    configuration.addCompilationCustomizers(new ASTTransformationCustomizer(CompileStatic.class));
+                }
+                // Same parent class loader as the Groovy JSR223 engine
+                GroovyClassLoader loader =
+                        new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), configuration);
+                return loader.parseClass(script, "Script" + DigestUtils.md5Hex(k) + ".groovy"); // $NON-NLS-1$ $NON-NLS-2$
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (CompilationFailedException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Run a compiled script.
+     *
+     * @param scriptClass class returned by {@link #compile(String, ScriptSource)}
+     * @param bindings variables of the script, the variables set by the script are written to it
+     * @return value returned by the script
+     * @throws ScriptException wrapping the exception thrown by the script, as the JSR223 engine does
+     */
+    static Object run(Class<?> scriptClass, Map<String, Object> bindings) throws ScriptException {
+        Script script = InvokerHelper.createScript(scriptClass, new Binding(bindings));
+        try {
+            return script.run();
+        } catch (Exception e) { // NOSONAR the JSR223 engine wraps all the exceptions
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Forget the compiled scripts
+     */
+    static void clear() {
+        SCRIPT_CLASSES.invalidateAll();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import java.io.PrintStream;
+import java.util.Properties;
+
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+
+import groovy.lang.Script;
+
+/**
+ * Base class of the Groovy scripts of JSR223 elements run without {@code javax.script}
+ * (see {@code jsr223.groovy.fast_path}).
+ * <p>
+ * The variables bound by the elements are exposed with typed getters, so they can also be used
+ * by scripts compiled with {@code @CompileStatic} (see {@code jsr223.groovy.compile_static}).
+ * Dynamic scripts read the same values from the binding.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public abstract class JMeterGroovyScript extends Script {
+
+    private Object variable(String name) {
+        return getBinding().hasVariable(name) ? getBinding().getVariable(name) : null;
+    }
+
+    public Logger getLog() {
+        return (Logger) variable("log"); // $NON-NLS-1$
+    }
+
+    public String getLabel() {
+        return (String) variable("Label"); // $NON-NLS-1$
+    }
+
+    public String getFileName() {
+        return (String) variable("FileName"); // $NON-NLS-1$
+    }
+
+    public String getParameters() {
+        return (String) variable("Parameters"); // $NON-NLS-1$
+    }
+
+    public String[] getArgs() {
+        return (String[]) variable("args"); // $NON-NLS-1$
+    }
+
+    public JMeterContext getCtx() {
+        return (JMeterContext) variable("ctx"); // $NON-NLS-1$
+    }
+
+    public JMeterVariables getVars() {
+        return (JMeterVariables) variable("vars"); // $NON-NLS-1$
+    }
+
+    public Properties getProps() {
+        return (Properties) variable("props"); // $NON-NLS-1$
+    }
+
+    @SuppressWarnings("checkstyle:MethodName")
+    public PrintStream getOUT() {
+        return (PrintStream) variable("OUT"); // $NON-NLS-1$
+    }
+
+    public Sampler getSampler() {
+        return (Sampler) variable("sampler"); // $NON-NLS-1$
+    }
+
+    public SampleResult getPrev() {
+        return (SampleResult) variable("prev"); // $NON-NLS-1$
+    }
+
+    /**
+     * @return {@code SampleResult} of JSR223 Sampler and Assertion, or {@code sampleResult} of JSR223 Listener
+     */
+    public SampleResult getSampleResult() {
+        Object result = variable("SampleResult"); // $NON-NLS-1$
+        return (SampleResult) (result != null ? result : variable("sampleResult")); // $NON-NLS-1$
+    }
+
+    public AssertionResult getAssertionResult() {
+        return (AssertionResult) variable("AssertionResult"); // $NON-NLS-1$
+    }
+
+    public SampleEvent getSampleEvent() {
+        return (SampleEvent) variable("sampleEvent"); // $NON-NLS-1$
+    }
+}
@@ -21,10 +21,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.Collections;
-import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
@@ -34,7 +34,6 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
@@ -46,6 +45,10 @@ import org.apache.jorphan.util.JOrphanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 /**
  * Base class for JSR223 Test elements
  */
@@ -56,11 +59,21 @@ public abstract class JSR223TestElement extends ScriptingTestElement
 
     private static final Logger logger = LoggerFactory.getLogger(JSR223TestElement.class);
     /**
-     * Cache of compiled scripts
+     * Cache of compiled scripts, scripts with different keys are compiled concurrently
      */
-    private static final Map<String, CompiledScript> compiledScriptsCache =
-            Collections.synchronizedMap(
-                    new LRUMap<>(JMeterUtils.getPropDefault("jsr223.compiled_scripts_cache_size", 100)));
+    private static final Cache<String, CompiledScript> compiledScriptsCache =
+            Caffeine.newBuilder()
+                    .maximumSize(JMeterUtils.getPropDefault("jsr223.compiled_scripts_cache_size", 100))
+                    .recordStats()
+                    .build();
+
+    /** Reuse the script engine of the element for the scripts that are compiled and cached */
+    private static final boolean REUSE_SCRIPT_ENGINE =
+            JMeterUtils.getPropDefault("jsr223.reuse_script_engine", true); // $NON-NLS-1$
+
+    /** Compile the cached scripts when the test starts, instead of on the first sample */
+    private static final boolean COMPILE_AT_TEST_START =
+            JMeterUtils.getPropDefault("jsr223.compile_scripts_at_test_start", false); // $NON-NLS-1$
 
     /** If not empty then script in ScriptText will be compiled and cached */
     private String cacheKey = "";
@@ -68,6 +81,9 @@ public abstract class JSR223TestElement extends ScriptingTestElement
     /** md5 of the script, used as an unique key for the cache */
     private String scriptMd5 = null;
 
+    /** Script engine reused by the element, which is cloned for each thread */
+    private transient ScriptEngine reusableScriptEngine;
+
     /**
      * Initialization On Demand Holder pattern
      */
@@ -95,14 +111,44 @@ public abstract class JSR223TestElement extends ScriptingTestElement
      */
     protected ScriptEngine getScriptEngine() throws ScriptException {
         String lang = getScriptLanguageWithDefault();
+        ScriptEngine cachedScriptEngine = reusableScriptEngine;
+        if (cachedScriptEngine != null && cachedScriptEngine.getFactory().getNames().contains(lang)
+                && usesCompiledScriptsCache(cachedScriptEngine)) {
+            return cachedScriptEngine;
+        }
         ScriptEngine scriptEngine = getInstance().getEngineByName(lang);
         if (scriptEngine == null) {
             throw new ScriptException("Cannot find engine named: '"+lang+"', ensure you set language field in JSR223 Test Element: "+getName());
         }
-
+        // The engine is only used to compile the cached scripts and to create bindings.
+        // Engines evaluating other scripts are not reused, as they may keep the classes they generate.
+        if (REUSE_SCRIPT_ENGINE && usesCompiledScriptsCache(scriptEngine)
+                && scriptEngine.getFactory().getParameter("THREADING") != null) { // $NON-NLS-1$
+            reusableScriptEngine = scriptEngine;
+        }
         return scriptEngine;
     }
 
+    /**
+     * @param scriptEngine engine of the script
+     * @return true if the engine supports compilation, bsh-2.0b5.jar BshScriptEngine implements Compilable but throws
+     * "java.lang.Error: unimplemented"
+     */
+    private static boolean isCompilable(ScriptEngine scriptEngine) {
+        return scriptEngine instanceof Compilable
+                && !"bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName()); // NOSONAR // $NON-NLS-1$
+    }
+
+    /**
+     * @param scriptEngine engine of the script
+     * @return true if the script file or the script text is compiled and cached
+     */
+    private boolean usesCompiledScriptsCache(ScriptEngine scriptEngine) {
+        return isCompilable(scriptEngine)
+                && (!StringUtils.isEmpty(getFilename())
+                || !ScriptingBeanInfoSupport.FALSE_AS_STRING.equals(cacheKey));
+    }
+
     /**
      * @return script language or DEFAULT_SCRIPT_LANGUAGE if none is set
      */
@@ -166,30 +212,14 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         }
         populateBindings(bindings);
         File scriptFile = new File(getFilename());
-        // Hack: bsh-2.0b5.jar BshScriptEngine implements Compilable but throws
-        // "java.lang.Error: unimplemented"
-        boolean supportsCompilable = scriptEngine instanceof Compilable
-                && !"bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName()); // NOSONAR // $NON-NLS-1$
+        boolean supportsCompilable = isCompilable(scriptEngine);
         try {
             if (!StringUtils.isEmpty(getFilename())) {
                 if (scriptFile.exists() && scriptFile.canRead()) {
-                    if (supportsCompilable) {
-                        String newCacheKey = getScriptLanguage() + "#" + // $NON-NLS-1$
-                                scriptFile.getAbsolutePath() + "#" + // $NON-NLS-1$
-                                scriptFile.lastModified();
-                        CompiledScript compiledScript = compiledScriptsCache.get(newCacheKey);
-                        if (compiledScript == null) {
-                            synchronized (compiledScriptsCache) {
-                                compiledScript = compiledScriptsCache.get(newCacheKey);
-                                if (compiledScript == null) {
-                                    try (BufferedReader fileReader = Files.newBufferedReader(scriptFile.toPath())) {
-                                        compiledScript = ((Compilable) scriptEngine).compile(fileReader);
-                                        compiledScriptsCache.put(newCacheKey, compiledScript);
-                                    }
-                                }
-                            }
-                        }
-                        return compiledScript.eval(bindings);
+                    if (supportsCompilable && GroovyScriptRunner.accepts(scriptEngine)) {
+                        return GroovyScriptRunner.run(getGroovyScriptClass(scriptFile), bindings);
+                    } else if (supportsCompilable) {
+                        return getCompiledScript(scriptEngine, scriptFile).eval(bindings);
                     } else {
                         try (BufferedReader fileReader = Files.newBufferedReader(scriptFile.toPath())) {
                             return scriptEngine.eval(fileReader, bindings);
@@ -202,19 +232,10 @@ public abstract class JSR223TestElement extends ScriptingTestElement
             } else if (!StringUtils.isEmpty(getScript())) {
                 if (supportsCompilable &&
                         !ScriptingBeanInfoSupport.FALSE_AS_STRING.equals(cacheKey)) {
-                    computeScriptMD5();
-                    CompiledScript compiledScript = compiledScriptsCache.get(this.scriptMd5);
-                    if (compiledScript == null) {
-                        synchronized (compiledScriptsCache) {
-                            compiledScript = compiledScriptsCache.get(this.scriptMd5);
-                            if (compiledScript == null) {
-                                compiledScript = ((Compilable) scriptEngine).compile(getScript());
-                                compiledScriptsCache.put(this.scriptMd5, compiledScript);
-                            }
-                        }
+                    if (GroovyScriptRunner.accepts(scriptEngine)) {
+                        return GroovyScriptRunner.run(getGroovyScriptClass(getScript()), bindings);
                     }
-
-                    return compiledScript.eval(bindings);
+                    return getCompiledScript(scriptEngine, getScript()).eval(bindings);
                 } else {
                     return scriptEngine.eval(getScript(), bindings);
                 }
@@ -231,6 +252,105 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         }
     }
 
+    /**
+     * Compiler of a script, called by the cache on a miss
+     */
+    @FunctionalInterface
+    private interface ScriptCompiler {
+        CompiledScript compile() throws IOException, ScriptException;
+    }
+
+    /**
+     * Wraps the checked exceptions of a {@link ScriptCompiler} through the cache
+     */
+    private static final class ScriptCompilationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ScriptCompilationException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static CompiledScript getCompiledScript(String key, ScriptCompiler compiler)
+            throws IOException, ScriptException {
+        try {
+            return compiledScriptsCache.get(key, k -> {
+                try {
+                    return compiler.compile();
+                } catch (IOException | ScriptException e) {
+                    throw new ScriptCompilationException(e);
+                }
+            });
+        } catch (ScriptCompilationException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (ScriptException) e.getCause();
+        }
+    }
+
+    private String getFileCacheKey(File scriptFile) {
+        return getScriptLanguage() + "#" + // $NON-NLS-1$
+                scriptFile.getAbsolutePath() + "#" + // $NON-NLS-1$
+                scriptFile.lastModified();
+    }
+
+    private CompiledScript getCompiledScript(ScriptEngine scriptEngine, File scriptFile)
+            throws IOException, ScriptException {
+        return getCompiledScript(getFileCacheKey(scriptFile), () -> {
+            try (BufferedReader fileReader = Files.newBufferedReader(scriptFile.toPath())) {
+                return ((Compilable) scriptEngine).compile(fileReader);
+            }
+        });
+    }
+
+    private CompiledScript getCompiledScript(ScriptEngine scriptEngine, String script)
+            throws IOException, ScriptException {
+        computeScriptMD5();
+        return getCompiledScript(this.scriptMd5, () -> ((Compilable) scriptEngine).compile(script));
+    }
+
+    private Class<?> getGroovyScriptClass(File scriptFile) throws IOException, ScriptException {
+        return GroovyScriptRunner.compile(getFileCacheKey(scriptFile),
+                () -> new String(Files.readAllBytes(scriptFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private Class<?> getGroovyScriptClass(String script) throws IOException, ScriptException {
+        computeScriptMD5();
+        return GroovyScriptRunner.compile(this.scriptMd5, () -> script);
+    }
+
+    /**
+     * Compile the script in the cache, so the first sample does not pay for the compilation
+     */
+    private void compileInCache() {
+        try {
+            ScriptEngine engine = getInstance().getEngineByName(getScriptLanguageWithDefault());
+            if (engine == null || !usesCompiledScriptsCache(engine)) {
+                return;
+            }
+            if (!StringUtils.isEmpty(getFilename())) {
+                File scriptFile = new File(getFilename());
+                if (scriptFile.exists() && scriptFile.canRead()) {
+                    if (GroovyScriptRunner.accepts(engine)) {
+                        getGroovyScriptClass(scriptFile);
+                    } else {
+                        getCompiledScript(engine, scriptFile);
+                    }
+                }
+            } else if (!StringUtils.isEmpty(getScript())) {
+                if (GroovyScriptRunner.accepts(engine)) {
+                    getGroovyScriptClass(getScript());
+                } else {
+                    getCompiledScript(engine, getScript());
+                }
+            }
+        } catch (IOException | ScriptException e) {
+            // The error is reported again by the samples
+            logger.warn("Error compiling script for test element {} at test start, error:{}", getName(), e.getMessage());
+        }
+    }
+
     /**
      * @return boolean true if element is not compilable or if compilation succeeds
      * @throws IOException if script is missing
@@ -240,8 +360,7 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         throws ScriptException, IOException {
         String lang = getScriptLanguageWithDefault();
         ScriptEngine scriptEngine = getInstance().getEngineByName(lang);
-        boolean supportsCompilable = scriptEngine instanceof Compilable
-                && !"bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName()); // NOSONAR // $NON-NLS-1$
+        boolean supportsCompilable = isCompilable(scriptEngine);
         if(!supportsCompilable) {
             return true;
         }
@@ -296,7 +415,7 @@ public abstract class JSR223TestElement extends ScriptingTestElement
      */
     @Override
     public void testStarted() {
-        // NOOP
+        testStarted("");
     }
 
     /**
@@ -304,7 +423,9 @@ public abstract class JSR223TestElement extends ScriptingTestElement
      */
     @Override
     public void testStarted(String host) {
-        // NOOP
+        if (COMPILE_AT_TEST_START) {
+            compileInCache();
+        }
     }
 
     /**
@@ -320,8 +441,16 @@ public abstract class JSR223TestElement extends ScriptingTestElement
      */
     @Override
     public void testEnded(String host) {
-        compiledScriptsCache.clear();
+        if (compiledScriptsCache.estimatedSize() > 0 && logger.isInfoEnabled()) {
+            CacheStats stats = compiledScriptsCache.stats();
+            logger.info("Compiled scripts cache: {} hits, {} misses, {} evictions, {} ms spent compiling",
+                    stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+        }
+        compiledScriptsCache.invalidateAll();
+        GroovyScriptRunner.clear();
         this.scriptMd5 = null;
+        reusableScriptEngine = null;
     }
 
     public String getScriptLanguage() {
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates simple XPath 1 location paths, like {@code /root/items/item}, {@code //item/id}
+ * or {@code /root/item/@id}, on a StAX event stream, so the document does not need to be
+ * parsed to a DOM tree.
+ * <p>
+ * Only a chain of element names without prefix, optionally starting with {@code //} and ending
+ * with an attribute, is supported. The values are the ones returned by
+ * {@link XPathUtil#putValuesForXPathInList(org.w3c.dom.Document, String, List, boolean, int)}
+ * for a non-tolerant parser without fragments: the value of the first text child of the elements,
+ * or the value of the attributes.
+ * In any other case, and when the document contains a DTD, contains prefixed names while not namespace aware,
+ * or could not be read,
+ * {@link #extract(String, boolean, int)} returns {@code null} and the caller should use the DOM tree.
+ * <p>
+ * The streaming evaluation can be disabled with {@code xpath.extractor.streaming=false}.
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class StreamingXPath {
+    private static final Logger log = LoggerFactory.getLogger(StreamingXPath.class);
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("xpath.extractor.streaming", true); // $NON-NLS-1$
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][\\w.\\-]*"); // $NON-NLS-1$
+
+    private static final String REPORT_CDATA =
+            "http://java.sun.com/xml/stream/properties/report-cdata-event"; // $NON-NLS-1$
+
+    /**
+     * The factories are configured once and are not guaranteed to be thread-safe
+     */
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            // CDATA sections are separate DOM nodes, the JDK parser reports them as characters by default
+            factory.setProperty(REPORT_CDATA, Boolean.TRUE);
+        }
+        return factory;
+    });
+
+    private final String expression;
+
+    /** Names of the elements of the path */
+    private final String[] elements;
+
+    /** Whether the first element can be at any depth */
+    private final boolean anyDepth;
+
+    /** Name of the selected attribute, or null to select the elements */
+    private final String attribute;
+
+    private StreamingXPath(String expression, List<String> elements, boolean anyDepth, String attribute) {
+        this.expression = expression;
+        this.elements = elements.toArray(new String[0]);
+        this.anyDepth = anyDepth;
+        this.attribute = attribute;
+    }
+
+    /**
+     * @return {@code true} if simple expressions should be evaluated on an event stream
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Compile an XPath expression for streaming evaluation.
+     *
+     * @param expression XPath 1 expression
+     * @return the compiled expression, or {@code null} if it is not simple enough to be streamed
+     */
+    public static StreamingXPath compile(String expression) {
+        String path = expression.trim();
+        boolean anyDepth = path.startsWith("//"); // $NON-NLS-1$
+        if (!path.startsWith("/")) { // $NON-NLS-1$
+            return null;
+        }
+        String[] steps = StringUtils.splitPreserveAllTokens(path.substring(anyDepth ? 2 : 1), '/');
+        List<String> elements = new ArrayList<>();
+        String attribute = null;
+        for (int i = 0; i < steps.length; i++) {
+            String step = steps[i];
+            if (i == steps.length - 1 && i > 0 && step.startsWith("@")) { // $NON-NLS-1$
+                attribute = step.substring(1);
+                if (!NAME.matcher(attribute).matches() || "xmlns".equals(attribute)) { // $NON-NLS-1$
+                    return null;
+                }
+            } else if (NAME.matcher(step).matches()) {
+                elements.add(step);
+            } else {
+                return null;
+            }
+        }
+        return elements.isEmpty() ? null : new StreamingXPath(expression, elements, anyDepth, attribute);
+    }
+
+    /**
+     * @return the source of the expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Evaluate the expression on a document.
+     *
+     * @param xml XML document
+     * @param namespaceAware whether the names of the path only match elements and attributes without namespace,
+     *                       as with a namespace aware parser. Without it, documents with prefixes are not streamed
+     * @param matchNumber number of the match to return, 0 for a random one, negative for all of them
+     * @return the matching values, or {@code null} if the DOM tree must be used
+     */
+    public List<String> extract(String xml, boolean namespaceAware, int matchNumber) {
+        List<String> values = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.get().createXMLStreamReader(new StringReader(xml));
+            if (!extract(reader, namespaceAware, values)) {
+                return null;
+            }
+        } catch (XMLStreamException e) {
+            // Let the DOM parser report the error
+            log.debug("Cannot stream document for {}, falling back to DOM: {}", expression, e.getLocalizedMessage());
+            return null;
+        } finally {
+            close(reader);
+        }
+        if (matchNumber < 0 || values.isEmpty()) {
+            return values;
+        }
+        int indexToMatch = matchNumber == 0 ? JMeterUtils.getRandomInt(values.size()) + 1 : matchNumber;
+        return indexToMatch <= values.size()
+                ? Collections.singletonList(values.get(indexToMatch - 1))
+                : Collections.emptyList();
+    }
+
+    private boolean extract(XMLStreamReader reader, boolean namespaceAware, List<String> values)
+            throws XMLStreamException {
+        List<String> path = new ArrayList<>();
+        // Value of the matched element whose first child is being read
+        StringBuilder firstText = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (firstText != null) {
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                    firstText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    continue;
+                }
+                if (firstText.length() == 0 && event != XMLStreamConstants.START_ELEMENT
+                        && event != XMLStreamConstants.END_ELEMENT) {
+                    // CDATA sections, comments and processing instructions are separate DOM nodes
+                    return false;
+                }
+                values.set(values.size() - 1, firstText.length() > 0 ? firstText.toString() : null);
+                firstText = null;
+            }
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (!namespaceAware && hasPrefix(reader)) {
+                        // XPath 1 does not consistently match qualified names without namespace parser
+                        return false;
+                    }
+                    if (hasUndeclaredPrefix(reader)) {
+                        // Let the DOM parser decide whether the document is well-formed
+                        return false;
+                    }
+                    path.add(!namespaceAware || StringUtils.isEmpty(reader.getNamespaceURI())
+                            ? reader.getLocalName() : null);
+                    if (matchesPath(path)) {
+                        if (attribute == null) {
+                            values.add(null);
+                            firstText = new StringBuilder();
+                        } else {
+                            addAttributeValue(reader, namespaceAware, values);
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    path.remove(path.size() - 1);
+                    break;
+                case XMLStreamConstants.DTD:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    // Default attributes and entities are handled by the DOM parser
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasUndeclaredPrefix(XMLStreamReader reader) {
+        if (StringUtils.isNotEmpty(reader.getPrefix()) && StringUtils.isEmpty(reader.getNamespaceURI())) {
+            return true;
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (StringUtils.isNotEmpty(reader.getAttributePrefix(i))
+                    && StringUtils.isEmpty(reader.getAttributeNamespace(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPrefix(XMLStreamReader reader) {
+        if (StringUtils.isNotEmpty(reader.getPrefix())) {
+            return true;
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (StringUtils.isNotEmpty(reader.getAttributePrefix(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesPath(List<String> path) {
+        int offset = path.size() - elements.length;
+        if (offset < 0 || (offset > 0 && !anyDepth)) {
+            return false;
+        }
+        for (int i = 0; i < elements.length; i++) {
+            if (!elements[i].equals(path.get(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addAttributeValue(XMLStreamReader reader, boolean namespaceAware, List<String> values) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (attribute.equals(reader.getAttributeLocalName(i))
+                    && (!namespaceAware || StringUtils.isEmpty(reader.getAttributeNamespace(i)))) {
+                values.add(reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) { // NOSONAR nothing to do, the input is a String
+                // NOOP
+            }
+        }
+    }
+}
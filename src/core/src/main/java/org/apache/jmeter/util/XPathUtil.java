@@ -26,6 +26,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.xml.XMLConstants;
@@ -49,8 +50,13 @@ import javax.xml.transform.stream.StreamResult;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jorphan.util.JOrphanUtils;
+import org.apache.xml.dtm.DTMManager;
 import org.apache.xml.utils.PrefixResolver;
+import org.apache.xpath.XPath;
 import org.apache.xpath.XPathAPI;
+import org.apache.xpath.XPathContext;
 import org.apache.xpath.objects.XObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +79,7 @@ import net.sf.saxon.s9api.XdmItem;
 import net.sf.saxon.s9api.XdmNode;
 import net.sf.saxon.s9api.XdmValue;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
@@ -103,11 +110,46 @@ public class XPathUtil {
         return PROCESSOR;
     }
 
-    private static DocumentBuilderFactory documentBuilderFactory;
+    /**
+     * Document builder factories of the current thread, indexed by {@link #optionsIndex(boolean...)}.
+     * The factories are not thread-safe, so each thread keeps its own ones instead of sharing a synchronized one.
+     */
+    private static final ThreadLocal<DocumentBuilderFactory[]> DOCUMENT_BUILDER_FACTORIES =
+            ThreadLocal.withInitial(() -> new DocumentBuilderFactory[8]);
+
+    /**
+     * Document builders of the current thread, reset and reused by {@link #makeDocument(InputStream, boolean,
+     * boolean, boolean, boolean, boolean, boolean, boolean, boolean, boolean, OutputStream)}
+     */
+    private static final ThreadLocal<DocumentBuilder[]> DOCUMENT_BUILDERS =
+            ThreadLocal.withInitial(() -> new DocumentBuilder[16]);
+
+    /**
+     * XPath evaluation context of the current thread
+     */
+    private static final ThreadLocal<XPathContext> XPATH_CONTEXT =
+            ThreadLocal.withInitial(() -> new XPathContext(false));
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static final class LazyXPathCacheHolder {
+        public static final Cache<String, XPath> INSTANCE = Caffeine.newBuilder()
+                .maximumSize(JMeterUtils.getPropDefault("xpathquery.parser.cache.size", 400)) // $NON-NLS-1$
+                .build();
+    }
+
+    private static int optionsIndex(boolean... options) {
+        int index = 0;
+        for (boolean option : options) {
+            index = (index << 1) | (option ? 1 : 0);
+        }
+        return index;
+    }
 
     /**
      * Returns a suitable document builder factory.
-     * Caches the factory in case the next caller wants the same options.
+     * Caches the factory per thread in case the next caller wants the same options.
      *
      * @param validate should the parser validate documents?
      * @param whitespace should the parser eliminate whitespace in element content?
@@ -115,19 +157,21 @@ public class XPathUtil {
      *
      * @return javax.xml.parsers.DocumentBuilderFactory
      */
-    private static synchronized DocumentBuilderFactory makeDocumentBuilderFactory(boolean validate, boolean whitespace,
+    private static DocumentBuilderFactory makeDocumentBuilderFactory(boolean validate, boolean whitespace,
             boolean namespace) throws ParserConfigurationException {
-        if (XPathUtil.documentBuilderFactory == null || documentBuilderFactory.isValidating() != validate
-                || documentBuilderFactory.isNamespaceAware() != namespace
-                || documentBuilderFactory.isIgnoringElementContentWhitespace() != whitespace) {
+        DocumentBuilderFactory[] factories = DOCUMENT_BUILDER_FACTORIES.get();
+        int index = optionsIndex(validate, whitespace, namespace);
+        DocumentBuilderFactory documentBuilderFactory = factories[index];
+        if (documentBuilderFactory == null) {
             // configure the document builder factory
             documentBuilderFactory = DocumentBuilderFactory.newInstance();
             documentBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
             documentBuilderFactory.setValidating(validate);
             documentBuilderFactory.setNamespaceAware(namespace);
             documentBuilderFactory.setIgnoringElementContentWhitespace(whitespace);
+            factories[index] = documentBuilderFactory;
         }
-        return XPathUtil.documentBuilderFactory;
+        return documentBuilderFactory;
     }
 
     /**
@@ -143,11 +187,35 @@ public class XPathUtil {
     public static DocumentBuilder makeDocumentBuilder(boolean validate, boolean whitespace, boolean namespace, boolean downloadDTDs)
             throws ParserConfigurationException {
         DocumentBuilder builder = makeDocumentBuilderFactory(validate, whitespace, namespace).newDocumentBuilder();
+        configureDocumentBuilder(builder, validate, downloadDTDs);
+        return builder;
+    }
+
+    private static void configureDocumentBuilder(DocumentBuilder builder, boolean validate, boolean downloadDTDs) {
         builder.setErrorHandler(new MyErrorHandler(validate, false));
         if (!downloadDTDs) {
             EntityResolver er = (publicId, systemId) -> new InputSource(new ByteArrayInputStream(new byte[0]));
             builder.setEntityResolver(er);
         }
+    }
+
+    /**
+     * Returns the document builder of the current thread for the options, reset to its initial state.
+     * The builder must not be used after the next call from the same thread.
+     */
+    private static DocumentBuilder getThreadDocumentBuilder(boolean validate, boolean whitespace, boolean namespace,
+            boolean downloadDTDs) throws ParserConfigurationException {
+        DocumentBuilder[] builders = DOCUMENT_BUILDERS.get();
+        int index = optionsIndex(validate, whitespace, namespace, downloadDTDs);
+        DocumentBuilder builder = builders[index];
+        if (builder == null) {
+            builder = makeDocumentBuilderFactory(validate, whitespace, namespace).newDocumentBuilder();
+            builders[index] = builder;
+        } else {
+            // reset also restores the default error handler and entity resolver
+            builder.reset();
+        }
+        configureDocumentBuilder(builder, validate, downloadDTDs);
         return builder;
     }
 
@@ -205,11 +273,66 @@ public class XPathUtil {
         if (tolerant) {
             doc = tidyDoc(stream, quiet, showWarnings, report_errors, isXml, tidyOut);
         } else {
-            doc = makeDocumentBuilder(validate, whitespace, namespace, downloadDTDs).parse(stream);
+            doc = getThreadDocumentBuilder(validate, whitespace, namespace, downloadDTDs).parse(stream);
         }
         return doc;
     }
 
+    /**
+     * Parse the response data of a sample. The document is parsed once per sample and shared
+     * with the other elements of the sample that parse it with the same options.
+     *
+     * @param result - sample whose response data is parsed
+     * @param unicode - parse the response decoded with its encoding and converted to UTF-8,
+     *                  instead of the raw response bytes
+     * @param validate - Validate Document (not Tidy)
+     * @param whitespace - Element Whitespace (not Tidy)
+     * @param namespace - Is Namespace aware. (not Tidy)
+     * @param tolerant - Is tolerant - i.e. use the Tidy parser
+     * @param quiet - set Tidy quiet
+     * @param showWarnings - set Tidy warnings
+     * @param reportErrors - throw TidyException if Tidy detects an error
+     * @param downloadDTDs - if true, try to download external DTDs
+     * @return document, must not be modified
+     * @throws ParserConfigurationException if {@link DocumentBuilder} can not be created for the wanted configuration
+     * @throws SAXException if parsing fails
+     * @throws IOException if I/O error occurs while parsing
+     * @throws TidyException if a ParseError is detected and <code>reportErrors</code> is <code>true</code>
+     * @since 5.5
+     */
+    public static Document makeDocument(SampleResult result, boolean unicode, boolean validate, boolean whitespace,
+            boolean namespace, boolean tolerant, boolean quiet, boolean showWarnings, boolean reportErrors,
+            boolean downloadDTDs)
+                    throws ParserConfigurationException, SAXException, IOException, TidyException {
+        // NOTE: the data is converted to UTF-8 as the string has lost the original encoding
+        byte[] data = unicode
+                ? result.getResponseDataAsString().getBytes(StandardCharsets.UTF_8)
+                : result.getResponseData();
+        // Only the options used by the parser are part of the key, so elements configured differently
+        // still share the document when they parse the same bytes
+        boolean converted = unicode && !Arrays.equals(data, result.getResponseData());
+        String key = tolerant
+                ? parsedDocumentKey(converted, true, quiet, showWarnings, reportErrors)
+                : parsedDocumentKey(converted, false, validate, whitespace, namespace, downloadDTDs);
+        try {
+            return result.<Document, Exception>getParsedResponseData(key, r ->
+                    makeDocument(new ByteArrayInputStream(data), validate, whitespace, namespace,
+                        tolerant, quiet, showWarnings, reportErrors, JOrphanUtils.isXML(data), downloadDTDs));
+        } catch (ParserConfigurationException | SAXException | IOException | TidyException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) { // NOSONAR the parser only throws the exceptions above
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String parsedDocumentKey(boolean... options) {
+        StringBuilder key = new StringBuilder("dom:"); // $NON-NLS-1$
+        for (boolean option : options) {
+            key.append(option ? '1' : '0');
+        }
+        return key.toString();
+    }
+
     /**
      * Create a document using Tidy
      *
@@ -345,10 +468,76 @@ public class XPathUtil {
      * @throws TransformerException when the internally used xpath engine fails
      */
     public static NodeList selectNodeList(Document document, String xPathExpression) throws TransformerException {
-        XObject xObject = XPathAPI.eval(document, xPathExpression, getPrefixResolver(document));
+        // The node list is read after the evaluation, so it needs its own context
+        XPathContext xpathContext = new XPathContext(false);
+        PrefixResolver prefixResolver = getPrefixResolver(document);
+        XObject xObject = compileXPath(xPathExpression, prefixResolver)
+                .execute(xpathContext, xpathContext.getDTMHandleFromNode(document), prefixResolver);
         return xObject.nodelist();
     }
 
+    /**
+     * Handler of the result of an XPath evaluation, the result is only valid during the call
+     */
+    @FunctionalInterface
+    private interface XObjectHandler<T> {
+        T handle(XObject xObject) throws TransformerException;
+    }
+
+    /**
+     * Evaluate an XPath expression with the precompiled expression and the evaluation context of the current thread.
+     *
+     * @param document XML document
+     * @param xPathExpression XPath expression
+     * @param handler handler of the result
+     * @return value returned by the handler
+     * @throws TransformerException when the internally used xpath engine fails
+     */
+    private static <T> T evaluate(Document document, String xPathExpression, XObjectHandler<T> handler)
+            throws TransformerException {
+        PrefixResolver prefixResolver = getPrefixResolver(document);
+        XPath xpath = compileXPath(xPathExpression, prefixResolver);
+        XPathContext xpathContext = XPATH_CONTEXT.get();
+        DTMManager dtmManager = xpathContext.getDTMManager();
+        int contextNode = xpathContext.getDTMHandleFromNode(document);
+        boolean completed = false;
+        try {
+            T result = handler.handle(xpath.execute(xpathContext, contextNode, prefixResolver));
+            completed = true;
+            return result;
+        } finally {
+            if (completed) {
+                // Forget the document, so the context can be reused for the next one
+                dtmManager.release(dtmManager.getDTM(contextNode), true);
+            } else {
+                XPATH_CONTEXT.remove();
+            }
+        }
+    }
+
+    /**
+     * Compile an XPath 1 expression. Expressions without namespace prefixes do not depend on
+     * the document and are cached.
+     *
+     * @param xPathExpression XPath expression
+     * @param prefixResolver resolver of the namespace prefixes of the expression
+     * @return the compiled expression, which can be shared between threads
+     * @throws TransformerException if the expression is invalid
+     */
+    private static XPath compileXPath(String xPathExpression, PrefixResolver prefixResolver)
+            throws TransformerException {
+        // Prefixes are resolved at compile time, using the namespaces of the document
+        boolean cacheable = xPathExpression.replace("::", "").indexOf(':') < 0; // $NON-NLS-1$ $NON-NLS-2$
+        XPath xpath = cacheable ? LazyXPathCacheHolder.INSTANCE.getIfPresent(xPathExpression) : null;
+        if (xpath == null) {
+            xpath = new XPath(xPathExpression, null, prefixResolver, XPath.SELECT, null);
+            if (cacheable) {
+                LazyXPathCacheHolder.INSTANCE.put(xPathExpression, xpath);
+            }
+        }
+        return xpath;
+    }
+
     /**
      * Put in matchStrings results of evaluation
      * @param document XML document
@@ -374,8 +563,15 @@ public class XPathUtil {
      */
     public static void putValuesForXPathInList(Document document, String xPathQuery, List<String> matchStrings, boolean fragment, int matchNumber)
             throws TransformerException {
+        evaluate(document, xPathQuery, xObject -> {
+            putValuesForXObjectInList(xObject, xPathQuery, matchStrings, fragment, matchNumber);
+            return null;
+        });
+    }
+
+    private static void putValuesForXObjectInList(XObject xObject, String xPathQuery, List<String> matchStrings,
+            boolean fragment, int matchNumber) throws TransformerException {
         String val = null;
-        XObject xObject = XPathAPI.eval(document, xPathQuery, getPrefixResolver(document));
         final int objectType = xObject.getType();
         if (objectType == XObject.CLASS_NODESET) {
             NodeList matches = xObject.nodelist();
@@ -619,47 +815,54 @@ public class XPathUtil {
             String xPathExpression,
             boolean isNegated) {
         try {
-            XObject xObject = XPathAPI.eval(doc, xPathExpression, getPrefixResolver(doc));
-            switch (xObject.getType()) {
-            case XObject.CLASS_NODESET:
-                NodeList nodeList = xObject.nodelist();
-                final int len = (nodeList != null) ? nodeList.getLength() : 0;
-                log.debug("nodeList length {}", len);
-                // length == 0 means nodelist is null
-                if (len == 0) {
-                    log.debug("nodeList is null or empty. No match by xpath expression: {}", xPathExpression);
-                    result.setFailure(!isNegated);
-                    result.setFailureMessage("No Nodes Matched " + xPathExpression);
-                    return;
-                }
-                if (log.isDebugEnabled() && !isNegated) {
-                    for (int i = 0; i < len; i++) {
-                        log.debug("nodeList[{}]: {}", i, nodeList.item(i));
-                    }
-                }
-                result.setFailure(isNegated);
-                if (isNegated) {
-                    result.setFailureMessage("Specified XPath was found... Turn off negate if this is not desired");
-                }
-                return;
-            case XObject.CLASS_BOOLEAN:
-                boolean resultOfEval = xObject.bool();
-                result.setFailure(isNegated ? resultOfEval : !resultOfEval);
-                result.setFailureMessage(isNegated ?
-                        "Nodes Matched for " + xPathExpression
-                        : "No Nodes Matched for " + xPathExpression);
-                return;
-            default:
-                result.setFailure(true);
-                result.setFailureMessage("Cannot understand: " + xPathExpression);
-                return;
-            }
+            evaluate(doc, xPathExpression, xObject -> {
+                computeAssertionResult(result, xObject, xPathExpression, isNegated);
+                return null;
+            });
         } catch (TransformerException e) {
             result.setError(true);
             result.setFailureMessage("TransformerException: " + e.getMessage() + " for: " + xPathExpression);
         }
     }
 
+    private static void computeAssertionResult(AssertionResult result, XObject xObject, String xPathExpression,
+            boolean isNegated) throws TransformerException {
+        switch (xObject.getType()) {
+        case XObject.CLASS_NODESET:
+            NodeList nodeList = xObject.nodelist();
+            final int len = (nodeList != null) ? nodeList.getLength() : 0;
+            log.debug("nodeList length {}", len);
+            // length == 0 means nodelist is null
+            if (len == 0) {
+                log.debug("nodeList is null or empty. No match by xpath expression: {}", xPathExpression);
+                result.setFailure(!isNegated);
+                result.setFailureMessage("No Nodes Matched " + xPathExpression);
+                return;
+            }
+            if (log.isDebugEnabled() && !isNegated) {
+                for (int i = 0; i < len; i++) {
+                    log.debug("nodeList[{}]: {}", i, nodeList.item(i));
+                }
+            }
+            result.setFailure(isNegated);
+            if (isNegated) {
+                result.setFailureMessage("Specified XPath was found... Turn off negate if this is not desired");
+            }
+            return;
+        case XObject.CLASS_BOOLEAN:
+            boolean resultOfEval = xObject.bool();
+            result.setFailure(isNegated ? resultOfEval : !resultOfEval);
+            result.setFailureMessage(isNegated ?
+                    "Nodes Matched for " + xPathExpression
+                    : "No Nodes Matched for " + xPathExpression);
+            return;
+        default:
+            result.setFailure(true);
+            result.setFailureMessage("Cannot understand: " + xPathExpression);
+            return;
+        }
+    }
+
 
     /***
     *
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.threads.openmodel
+
+import org.apache.jmeter.threads.JMeterContextService
+import org.apache.jmeter.threads.JMeterThread
+import org.apache.jmeter.threads.JMeterVariables
+import java.util.Locale
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps the threads of [OpenModelThreadGroup] alive between arrivals, so an arrival can reuse an idle,
+ * already initialized thread instead of cloning the test tree and starting a new [org.apache.jmeter.threads.JMeterThread].
+ *
+ * The pool grows when every worker is busy at the time of an arrival, and a worker exits
+ * after it has been idle for [keepAliveMillis], so the size of the pool follows the actual concurrency.
+ */
+internal class ArrivalWorkerPool(
+    private val keepAliveMillis: Long,
+    private val resetPolicy: ResetPolicy,
+) {
+    /**
+     * Defines what is reset when a worker starts processing a new arrival.
+     */
+    enum class ResetPolicy {
+        /**
+         * Every arrival is a new user: variables are restored to their initial values,
+         * and the elements controlled by the thread (cookies, cache, authorization, connections)
+         * are reset as for "Same user on each iteration" unchecked.
+         */
+        USER,
+
+        /** Variables are restored to their initial values, the user (cookies, cache, connections) is kept. */
+        VARIABLES,
+
+        /** Nothing is reset, the arrival continues with the state left by the previous one. */
+        NONE;
+
+        companion object {
+            fun parse(value: String): ResetPolicy? =
+                values().firstOrNull { it.name == value.trim().uppercase(Locale.ROOT) }
+        }
+    }
+
+    private companion object {
+        /** How often idle workers check whether the pool is closed */
+        private val CLOSE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100)
+    }
+
+    private val handoff = SynchronousQueue<Long>()
+
+    @Volatile
+    private var closed = false
+
+    /**
+     * Whether the threads of the pool should keep cookies, cache and connections across arrivals.
+     */
+    val isSameUser: Boolean get() = resetPolicy != ResetPolicy.USER
+
+    /**
+     * Passes the arrival to an idle worker.
+     * @param scheduledTime the time the arrival was scheduled at, in milliseconds
+     * @return false if no worker is idle, so a new one should be started
+     */
+    fun dispatch(scheduledTime: Long): Boolean = !closed && handoff.offer(scheduledTime)
+
+    /**
+     * Tells the workers there will be no more arrivals, so they exit once their current arrival is processed.
+     */
+    fun close() {
+        closed = true
+    }
+
+    /**
+     * Creates a worker for a new thread.
+     * @param initialArrival scheduled time of the arrival that the thread should process first,
+     * or null if the thread is started ahead of the arrivals
+     */
+    fun newWorker(initialArrival: Long?): Worker = Worker(initialArrival)
+
+    inner class Worker(private var initialArrival: Long?) {
+        private var initialVariables: Map<String, Any>? = null
+
+        /**
+         * Blocks until the next arrival is dispatched to the current thread.
+         * The thread state is reset according to the [ResetPolicy] before it returns.
+         * The thread is not counted as an active thread while it waits.
+         * @return false if the thread should terminate
+         */
+        fun awaitArrival(): Boolean {
+            val context = JMeterContextService.getContext()
+            val variables = context.variables
+            val snapshot = initialVariables
+            if (snapshot == null) {
+                initialVariables = variables.entrySet().associate { it.key to it.value }
+            } else if (resetPolicy != ResetPolicy.NONE) {
+                restore(variables, snapshot)
+            }
+            val thread = context.thread
+            val scheduledTime = initialArrival?.also { initialArrival = null }
+                ?: awaitDispatch(thread)
+                ?: return false
+            thread?.setIntendedStartTime(scheduledTime)
+            return true
+        }
+
+        private fun restore(variables: JMeterVariables, snapshot: Map<String, Any>) {
+            val keys = variables.entrySet().map { it.key }
+            for (key in keys) {
+                if (!snapshot.containsKey(key)) {
+                    variables.remove(key)
+                }
+            }
+            for ((key, value) in snapshot) {
+                variables.putObject(key, value)
+            }
+        }
+
+        private fun awaitDispatch(thread: JMeterThread?): Long? {
+            thread?.setIdle(true)
+            return poll()?.also { thread?.setIdle(false) }
+        }
+
+        private fun poll(): Long? {
+            val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(keepAliveMillis)
+            try {
+                while (!closed) {
+                    val timeLeft = deadline - System.nanoTime()
+                    if (timeLeft <= 0) {
+                        return null
+                    }
+                    handoff.poll(timeLeft.coerceAtMost(CLOSE_CHECK_NANOS), TimeUnit.NANOSECONDS)?.let {
+                        return it
+                    }
+                }
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+            }
+            return null
+        }
+    }
+}
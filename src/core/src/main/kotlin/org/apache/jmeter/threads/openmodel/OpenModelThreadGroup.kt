@@ -26,6 +26,8 @@ import org.apache.jmeter.threads.JMeterThread
 import org.apache.jmeter.threads.JMeterThreadMonitor
 import org.apache.jmeter.threads.ListenerNotifier
 import org.apache.jmeter.threads.TestCompilerHelper
+import org.apache.jmeter.timers.PacingScheduler
+import org.apache.jmeter.util.JMeterUtils
 import org.apache.jorphan.collections.ListedHashTree
 import org.apiguardian.api.API
 import org.slf4j.LoggerFactory
@@ -42,8 +44,10 @@ import kotlin.math.roundToLong
 
 /**
  * The thread group that emulates open model.
- * Currently, threads are created on demand, every thread exists after completion,
+ * By default, threads are created on demand, every thread exits after completion,
  * and the maximum number of threads is not limited.
+ * When `openmodel.worker_pool=true`, the threads are kept in a pool and they are reused
+ * for the subsequent arrivals, see [ArrivalWorkerPool].
  */
 @GUIMenuSortOrder(1)
 @API(status = API.Status.EXPERIMENTAL, since = "5.5")
@@ -69,6 +73,19 @@ public class OpenModelThreadGroup :
         private val houseKeepingThreadPool = Executors.newCachedThreadPool()
 
         private const val serialVersionUID: Long = 1L
+
+        private fun createWorkerPool(): ArrivalWorkerPool? {
+            if (!JMeterUtils.getPropDefault("openmodel.worker_pool", false)) { // $NON-NLS-1$
+                return null
+            }
+            val resetProperty = JMeterUtils.getPropDefault("openmodel.worker_pool.reset", "user") // $NON-NLS-1$
+            val resetPolicy = ArrivalWorkerPool.ResetPolicy.parse(resetProperty)
+                ?: ArrivalWorkerPool.ResetPolicy.USER.also {
+                    log.warn("Unknown openmodel.worker_pool.reset={}, will use {}", resetProperty, it)
+                }
+            val keepAlive = JMeterUtils.getPropDefault("openmodel.worker_pool.keep_alive", 10000L) // $NON-NLS-1$
+            return ArrivalWorkerPool(keepAlive, resetPolicy)
+        }
     }
 
     // A thread pool that executes main workload.
@@ -76,6 +93,8 @@ public class OpenModelThreadGroup :
     // ExecutorService shutdown is the only way to wait for completion of all tasks.
     private var executorService: ExecutorService? = null
 
+    private var workerPool: ArrivalWorkerPool? = null
+
     private val threadStarterFuture = AtomicReference<Future<*>?>()
     private val activeThreads = ConcurrentHashMap<JMeterThread, Future<*>>()
 
@@ -104,12 +123,32 @@ public class OpenModelThreadGroup :
         private val executorService: ExecutorService,
         private val activeThreads: MutableMap<JMeterThread, Future<*>>,
         private val gen: ThreadScheduleProcessGenerator,
-        private val jmeterThreadFactory: (threadNumber: Int) -> JMeterThread,
+        private val workerPool: ArrivalWorkerPool?,
+        private val prestartedWorkers: Int,
+        private val jmeterThreadFactory: (threadNumber: Int, scheduledTime: Long?) -> JMeterThread,
     ) : Runnable {
+        private var threadNumber = 0
+
+        private fun startThread(endTime: Long, scheduledTime: Long?) {
+            val jmeterThread = jmeterThreadFactory(threadNumber++, scheduledTime)
+            jmeterThread.endTime = endTime
+            if (workerPool == null && scheduledTime != null) {
+                jmeterThread.setIntendedStartTime(scheduledTime)
+            }
+            activeThreads[jmeterThread] = executorService.submit {
+                Thread.currentThread().name = jmeterThread.threadName
+                jmeterThread.run()
+            }
+        }
+
         override fun run() {
             log.info("Thread starting init")
             val endTime = (testStartTime + gen.totalDuration * 1000).roundToLong()
-            var threadNumber = 0
+            if (workerPool != null) {
+                repeat(prestartedWorkers) {
+                    startThread(endTime, null)
+                }
+            }
             var prevTime = 0L
             while (gen.hasNext()) {
                 val scheduledTime = testStartTime + (gen.nextDouble() * 1000).roundToLong()
@@ -118,16 +157,19 @@ public class OpenModelThreadGroup :
                     prevTime = System.currentTimeMillis()
                     val nextDelay = scheduledTime - prevTime
                     if (nextDelay > 0) {
-                        sleep(nextDelay)
+                        if (PacingScheduler.isEnabled()) {
+                            PacingScheduler.getInstance().sleep(nextDelay)
+                        } else {
+                            sleep(nextDelay)
+                        }
                     }
                 }
-                val jmeterThread = jmeterThreadFactory(threadNumber++)
-                jmeterThread.endTime = endTime
-                activeThreads[jmeterThread] = executorService.submit {
-                    Thread.currentThread().name = jmeterThread.threadName
-                    jmeterThread.run()
+                // Reuse an idle worker if possible, and start a new thread only when all the workers are busy
+                if (workerPool?.dispatch(scheduledTime) != true) {
+                    startThread(endTime, scheduledTime)
                 }
             }
+            workerPool?.close()
             // If test schedule ends with a pause, then we need to wait for it
             val timeLeft = endTime - System.currentTimeMillis()
             if (timeLeft > 0) {
@@ -183,9 +225,26 @@ public class OpenModelThreadGroup :
             val testStartTime = JMeterContextService.getTestStartTime()
             val executorService = Executors.newCachedThreadPool()
             this.executorService = executorService
-            val starter = ThreadsStarter(testStartTime, executorService, activeThreads, gen) { threadNumber ->
+            val workerPool = createWorkerPool()?.takeIf {
+                (samplerController is OpenModelThreadGroupController).also { supported ->
+                    if (!supported) {
+                        log.warn("Worker pool requires OpenModelThreadGroupController, will start a thread per arrival")
+                    }
+                }
+            }
+            this.workerPool = workerPool
+            val prestartedWorkers = JMeterUtils.getPropDefault("openmodel.worker_pool.prestart", 0) // $NON-NLS-1$
+            val starter = ThreadsStarter(
+                testStartTime, executorService, activeThreads, gen, workerPool, prestartedWorkers
+            ) { threadNumber, scheduledTime ->
                 val clonedTree = cloneTree(threadGroupTree)
-                makeThread(engine, this, notifier, threadGroupIndex, threadNumber, clonedTree, variables)
+                makeThread(engine, this, notifier, threadGroupIndex, threadNumber, clonedTree, variables).also {
+                    if (workerPool != null) {
+                        val threadGroup = clonedTree.array[0] as AbstractThreadGroup
+                        val controller = threadGroup.samplerController as OpenModelThreadGroupController
+                        controller.worker = workerPool.newWorker(scheduledTime)
+                    }
+                }
             }
             threadStarterFuture.set(
                 houseKeepingThreadPool.submit {
@@ -198,6 +257,13 @@ public class OpenModelThreadGroup :
         }
     }
 
+    /**
+     * Threads of the worker pool process several arrivals, so they honour the reset policy of the pool.
+     * Otherwise, every thread performs a single iteration, and the setting has no effect.
+     */
+    override fun isSameUserOnNextIteration(): Boolean =
+        workerPool?.isSameUser ?: super.isSameUserOnNextIteration()
+
     override fun threadFinished(thread: JMeterThread?) {
         activeThreads.remove(thread)
     }
@@ -222,6 +288,8 @@ public class OpenModelThreadGroup :
     override fun stop() {
         log.info("Gracefully stopping the threads")
         threadStarterFuture.getAndSet(null)?.cancel(true)
+        // Idle workers would not notice the stop otherwise
+        workerPool?.close()
         // We use Java's forEach since ConcurrentHashMap has a slightly better implementation
         // than Kotlin's generic forEach
         @Suppress("JavaMapForEach")
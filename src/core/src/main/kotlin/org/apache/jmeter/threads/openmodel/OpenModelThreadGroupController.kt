@@ -27,10 +27,35 @@ public class OpenModelThreadGroupController : GenericController() {
         private const val serialVersionUID: Long = 1L
     }
 
+    /**
+     * Set when the thread belongs to a worker pool, so it processes several arrivals.
+     */
+    @Transient
+    internal var worker: ArrivalWorkerPool.Worker? = null
+
+    @Transient
+    private var started = false
+
+    override fun initialize() {
+        super.initialize()
+        started = false
+    }
+
     override fun next(): Sampler? {
-        if (iterCount >= 1) {
-            // For now, every thread performs just one iteration
-            isDone = true
+        val worker = worker
+        if (worker == null) {
+            if (iterCount >= 1) {
+                // Without a worker pool, every thread performs just one iteration
+                isDone = true
+            }
+        } else if (iterCount >= 1 || !started) {
+            // Wait for the next arrival before the iteration starts, so the iteration listeners see the reset state
+            started = true
+            if (worker.awaitArrival()) {
+                resetIterCount()
+            } else {
+                isDone = true
+            }
         }
         return super.next()
     }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.samplers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ResponseDataSearcherTest {
+
+    private static SampleResult createSampleResult(String data, String encoding) {
+        SampleResult result = new SampleResult();
+        result.setDataEncoding(encoding);
+        result.setResponseData(data, encoding);
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "windows-1252"})
+    void testContainsAndDecode(String encoding) {
+        ResponseDataSearcher searcher = ResponseDataSearcher.of(createSampleResult("<p>crème brûlée</p>", encoding), 0);
+        assertNotNull(searcher);
+        assertTrue(searcher.contains("brûlée"));
+        assertFalse(searcher.contains("creme"));
+        byte[] pattern = searcher.encode("brûlée");
+        int start = searcher.indexOf(pattern, 0);
+        assertEquals("brûlée", searcher.decode(start, start + pattern.length));
+        assertTrue(searcher.contentEquals("<p>crème brûlée</p>"));
+    }
+
+    @Test
+    void testMultiByteCharsetIsNotSearchable() {
+        assertNull(ResponseDataSearcher.of(createSampleResult("text", "UTF-16"), 0));
+    }
+
+    @Test
+    void testUnmappableTextIsSearchedInDecodedResponse() {
+        ResponseDataSearcher searcher = ResponseDataSearcher.of(createSampleResult("price: 5€", "ISO-8859-1"), 0);
+        assertNull(searcher.encode("€"), "euro sign does not exist in ISO-8859-1");
+        assertTrue(searcher.contains("?"), "the response was encoded with a replacement char");
+        assertFalse(searcher.contains("€"));
+    }
+
+    @Test
+    void testMalformedResponse() {
+        SampleResult result = new SampleResult();
+        result.setDataEncoding("UTF-8");
+        result.setResponseData(new byte[]{'a', (byte) 0xE2, 'b', 'c'});
+        ResponseDataSearcher searcher = ResponseDataSearcher.of(result, 0);
+        assertTrue(searcher.contains("bc"));
+        assertNull(searcher.encode("a\uFFFDb"), "replacement chars cannot be searched as bytes");
+        assertTrue(searcher.contains("a\uFFFDb"), "replacement char is searched in the decoded response");
+    }
+
+    @Test
+    void testMaxSize() {
+        ResponseDataSearcher searcher = ResponseDataSearcher.of(createSampleResult("0123456789", "UTF-8"), 5);
+        assertTrue(searcher.contains("34"));
+        assertFalse(searcher.contains("45"), "match ends after the searched range");
+        assertEquals(-1, searcher.indexOf("7".getBytes(StandardCharsets.UTF_8), 0));
+    }
+
+    @Test
+    void testIsBlank() {
+        assertTrue(ResponseDataSearcher.of(createSampleResult(" \r\n\t", "UTF-8"), 0).isBlank());
+        assertTrue(ResponseDataSearcher.of(createSampleResult("\u2003", "UTF-8"), 0).isBlank(), "em space");
+        assertFalse(ResponseDataSearcher.of(createSampleResult(" é", "UTF-8"), 0).isBlank());
+        assertTrue(ResponseDataSearcher.of(createSampleResult("", "UTF-8"), 0).isEmpty());
+    }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.jmeter.samplers;
 
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.jmeter.junit.JMeterTestCase;
 import org.apache.jmeter.testelement.TestPlan;
 import org.apache.jmeter.util.Calculator;
@@ -371,6 +374,50 @@ class TestSampleResult implements JMeterSerialTest {
         }
     }
 
+    @Test
+    void testCorrectedTime() {
+        SampleResult result = new SampleResult();
+        result.setStampAndTime(1000, 20);
+        Assertions.assertEquals(20, result.getCorrectedTime(), "no intended start time");
+
+        result.setIntendedStartTime(result.getStartTime() - 30);
+        Assertions.assertEquals(50, result.getCorrectedTime());
+
+        // intended start after actual start must not shorten the response time
+        result.setIntendedStartTime(result.getStartTime() + 5);
+        Assertions.assertEquals(20, result.getCorrectedTime());
+
+        SampleResult loaded = new SampleResult();
+        loaded.setStampAndTime(1000, 20);
+        loaded.setCorrectedTime(50);
+        Assertions.assertEquals(50, loaded.getCorrectedTime(), "corrected time should survive save and load");
+        Assertions.assertEquals(loaded.getStartTime() - 30, loaded.getIntendedStartTime());
+    }
+
+    @Test
+    void testParsedResponseDataIsCachedPerKey() {
+        SampleResult result = new SampleResult();
+        result.setResponseData("data", "UTF-8");
+        AtomicInteger parseCount = new AtomicInteger();
+        ResponseDataParser<String, RuntimeException> parser = r -> {
+            parseCount.incrementAndGet();
+            return r.getResponseDataAsString().toUpperCase(Locale.ROOT);
+        };
+        Assertions.assertEquals("DATA", result.getParsedResponseData("upper", parser));
+        Assertions.assertEquals("DATA", result.getParsedResponseData("upper", parser));
+        Assertions.assertEquals(1, parseCount.get(), "response should be parsed once");
+
+        Assertions.assertEquals("data", result.getParsedResponseData("raw", SampleResult::getResponseDataAsString),
+                "other keys should be parsed separately");
+
+        result.setResponseData("new", "UTF-8");
+        Assertions.assertEquals("NEW", result.getParsedResponseData("upper", parser),
+                "cache should be reset when the response changes");
+        result.cleanAfterSample();
+        result.getParsedResponseData("upper", parser);
+        Assertions.assertEquals(3, parseCount.get(), "cache should be released after the sample");
+    }
+
     @Test
     void testBug63433() {
         SampleResult firstResult = new SampleResult();
@@ -182,4 +182,66 @@ public class TestCSVSaveService extends JMeterTestCase {
 
         assertEquals("Result text has changed", RESULT, CSVSaveService.resultToDelimitedString(new SampleEvent(result,"")));
     }
+
+    @Test
+    public void testCorrectedTime() {
+        SampleSaveConfiguration saveConfig = new SampleSaveConfiguration(false);
+        saveConfig.setTime(true);
+        saveConfig.setCorrectedTime(true);
+        assertEquals("elapsed,CorrectedTime", CSVSaveService.printableFieldNamesToString(saveConfig));
+
+        SampleResult result = new SampleResult();
+        result.setSaveConfig(saveConfig);
+        result.setStampAndTime(1000, 20);
+        assertEquals("Without intended start time, corrected time is elapsed time",
+                "20,20", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+        result.setIntendedStartTime(result.getStartTime() - 30);
+        assertEquals("20,50", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+    }
+
+    @Test
+    public void testInjectorOverloaded() {
+        SampleSaveConfiguration saveConfig = new SampleSaveConfiguration(false);
+        saveConfig.setSuccess(true);
+        saveConfig.setInjectorOverloaded(true);
+        assertEquals("success,InjectorOverloaded", CSVSaveService.printableFieldNamesToString(saveConfig));
+
+        SampleResult result = new SampleResult();
+        result.setSaveConfig(saveConfig);
+        result.setSuccessful(true);
+        assertEquals("true,0", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+        result.setInjectorOverloaded(true);
+        assertEquals("Flag is saved as a number so it can be plotted",
+                "true,1", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+    }
+
+    @Test
+    public void testDnsTime() {
+        SampleSaveConfiguration saveConfig = new SampleSaveConfiguration(false);
+        saveConfig.setConnectTime(true);
+        saveConfig.setDnsTime(true);
+        assertEquals("Connect,DnsTime", CSVSaveService.printableFieldNamesToString(saveConfig));
+
+        SampleResult result = new SampleResult();
+        result.setSaveConfig(saveConfig);
+        result.setConnectTime(30);
+        result.setDnsTime(12);
+        assertEquals("30,12", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+    }
+
+    @Test
+    public void testSchedulingLagAndLockWaitTime() {
+        SampleSaveConfiguration saveConfig = new SampleSaveConfiguration(false);
+        saveConfig.setTime(true);
+        saveConfig.setSchedulingLag(true);
+        saveConfig.setLockWaitTime(true);
+        assertEquals("elapsed,SchedulingLag,LockWaitTime", CSVSaveService.printableFieldNamesToString(saveConfig));
+
+        SampleResult result = new SampleResult();
+        result.setSaveConfig(saveConfig);
+        result.setStampAndTime(1000, 20);
+        result.setSchedulingLag(3);
+        result.setLockWaitTime(7);
+        assertEquals("20,3,7", CSVSaveService.resultToDelimitedString(new SampleEvent(result, "")));
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.threads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class InjectorHealthMonitorTest {
+
+    @Test
+    void lagAboveThresholdIsOverloaded() {
+        InjectorHealthMonitor monitor = new InjectorHealthMonitor(1000, 200, 10, 100);
+        assertFalse(monitor.createSnapshot(0, 1000, 5).isOverloaded(), "small lag should be fine");
+        assertTrue(monitor.createSnapshot(0, 1000, 150).isOverloaded(), "lag above threshold");
+    }
+
+    @Test
+    void gcAboveThresholdIsOverloaded() {
+        InjectorHealthMonitor monitor = new InjectorHealthMonitor(1000, 200, 10, 100);
+        InjectorHealthMonitor.Snapshot snapshot = monitor.createSnapshot(250, 1000, 0);
+        assertEquals(25.0, snapshot.getGc(), 0.001);
+        assertTrue(snapshot.isOverloaded(), "25% of the time in GC is above the 10% threshold");
+    }
+
+    @Test
+    void samplesAreFlaggedWhenTheyOverlapAnOverloadedInterval() {
+        InjectorHealthMonitor monitor = new InjectorHealthMonitor(1000, 200, 10, 100);
+        long start = System.currentTimeMillis();
+        assertFalse(monitor.wasOverloadedSince(start), "nothing reported yet");
+
+        monitor.publish(monitor.createSnapshot(0, 1000, 500));
+        assertTrue(monitor.wasOverloadedSince(start), "interval ended while the sample was running");
+
+        monitor.publish(monitor.createSnapshot(0, 1000, 0));
+        assertTrue(monitor.wasOverloadedSince(start), "sample started before the end of the overloaded interval");
+        assertFalse(monitor.wasOverloadedSince(System.currentTimeMillis() + 1000),
+                "sample started after the injector recovered");
+    }
+
+    @Test
+    void monitorPublishesSnapshots() throws InterruptedException {
+        InjectorHealthMonitor monitor = new InjectorHealthMonitor(100, 200, 100, TimeUnit.MINUTES.toMillis(1));
+        monitor.start();
+        try {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (monitor.getLastSnapshot() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            InjectorHealthMonitor.Snapshot snapshot = monitor.getLastSnapshot();
+            assertNotNull(snapshot, "monitor should publish a snapshot every interval");
+            assertFalse(snapshot.isOverloaded(), () -> "thresholds cannot be reached: " + snapshot);
+            assertTrue(snapshot.getLag() >= 0);
+        } finally {
+            monitor.stop();
+        }
+        assertNull(monitor.getLastSnapshot(), "stopped monitor should not report a snapshot");
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                        .anyMatch(t -> "JMeter-injector-health-monitor".equals(t.getName())),
+                "monitor thread should have ended when stop returns");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.timers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PacingSchedulerTest {
+
+    /** Generous bound so loaded CI machines do not fail, {@link Thread#sleep(long)} alone often oversleeps more */
+    private static final long MAX_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final PacingScheduler scheduler =
+            new PacingScheduler(TimeUnit.MICROSECONDS.toNanos(500), TimeUnit.MICROSECONDS.toNanos(200));
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        assertFalse(scheduler.isRunning(), "worker thread should be stopped");
+    }
+
+    @Test
+    void doesNotWakeUpBeforeDeadline() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+        long lag = scheduler.awaitDeadline(deadline);
+        assertTrue(System.nanoTime() >= deadline, "thread woke up before its deadline");
+        assertTrue(lag >= 0, () -> "lag should not be negative: " + lag);
+        assertTrue(lag < MAX_LAG_NANOS, () -> "lag should be small: " + lag);
+    }
+
+    @Test
+    void pastDeadlineReturnsImmediately() throws InterruptedException {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+        long lag = scheduler.awaitDeadline(deadline);
+        assertTrue(lag >= TimeUnit.MILLISECONDS.toNanos(5), () -> "lag should include the missed time: " + lag);
+    }
+
+    @Test
+    void releasesManyThreads() throws InterruptedException {
+        int threadCount = 50;
+        AtomicLong maxLag = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threadCount; i++) {
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(10 + i % 7);
+            Thread thread = new Thread(() -> {
+                try {
+                    long lag = scheduler.awaitDeadline(deadline);
+                    maxLag.accumulateAndGet(lag, Math::max);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        for (Thread thread : threads) {
+            assertFalse(thread.isAlive(), () -> thread + " should be released");
+        }
+        assertTrue(maxLag.get() < MAX_LAG_NANOS, () -> "lag of the released threads should be small: " + maxLag.get());
+    }
+
+    @Test
+    void shutdownReleasesWaitingThreads() throws InterruptedException {
+        Thread waiting = new Thread(() -> {
+            try {
+                scheduler.awaitDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        while (scheduler.getPendingCount() == 0 && waiting.isAlive()) {
+            Thread.sleep(1);
+        }
+        scheduler.shutdown();
+        assertEquals(0, scheduler.getPendingCount());
+        waiting.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(waiting.isAlive(), "waiting thread should be released");
+    }
+
+    @Test
+    void interruptionStopsWaiting() {
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class,
+                () -> scheduler.awaitDeadline(System.nanoTime() + TimeUnit.SECONDS.toNanos(10)));
+    }
+}
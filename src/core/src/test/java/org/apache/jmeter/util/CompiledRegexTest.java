@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CompiledRegexTest {
+    private static final String PAGE = "<html><body>"
+            + "<a href=\"/item?id=12\">first</a><input name=\"token\" value=\"abc\"/>"
+            + "<a href=\"/item?id=34\">second</a></body></html>";
+
+    @ParameterizedTest
+    @EnumSource(value = CompiledRegex.Engine.class, names = {"JAVA", "RE2"})
+    void testFindAll(CompiledRegex.Engine engine) {
+        CompiledRegex regex = CompiledRegex.compile("href=\"/item\\?id=(\\d+)\">(\\w+)<", engine);
+        assertEquals(engine, regex.getEngine());
+        List<MatchResult> matches = regex.findAll(PAGE);
+        assertEquals(2, matches.size());
+        MatchResult second = matches.get(1);
+        assertEquals(2, second.groupCount());
+        assertEquals("34", second.group(1));
+        assertEquals("second", second.group(2));
+        assertEquals(PAGE.indexOf("34"), second.start(1));
+        assertEquals(PAGE.indexOf("34") + 2, second.end(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompiledRegex.Engine.class, names = {"JAVA", "RE2"})
+    void testFindAllWithLimit(CompiledRegex.Engine engine) {
+        List<MatchResult> matches = new ArrayList<>();
+        assertEquals(1, CompiledRegex.compile("id=(\\d+)", engine).findAll(PAGE, 1, matches));
+        assertEquals("12", matches.get(0).group(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompiledRegex.Engine.class, names = {"JAVA", "RE2"})
+    void testFindAndMatches(CompiledRegex.Engine engine) {
+        CompiledRegex regex = CompiledRegex.compile("name=\"token\" value=\"(\\w*)\"", engine);
+        assertTrue(regex.find(PAGE));
+        assertFalse(regex.matches(PAGE));
+        assertTrue(CompiledRegex.compile("<html>.*</html>", engine).matches(PAGE));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompiledRegex.Engine.class, names = {"JAVA", "RE2"})
+    void testUnmatchedGroupIsNull(CompiledRegex.Engine engine) {
+        MatchResult match = CompiledRegex.compile("(a)|(b)", engine).findAll("b").get(0);
+        assertNull(match.group(1));
+        assertEquals("b", match.group(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"(\\w+)\\1", "foo(?=bar)"})
+    void testUnsupportedExpressionFallsBackToJava(String expression) {
+        assertEquals(CompiledRegex.Engine.JAVA, CompiledRegex.compile(expression, CompiledRegex.Engine.RE2).getEngine());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompiledRegex.Engine.class, names = {"JAVA", "RE2"})
+    void testInvalidExpression(CompiledRegex.Engine engine) {
+        assertThrows(PatternSyntaxException.class, () -> CompiledRegex.compile("(unclosed", engine));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 100_000})
+    void testRe2DoesNotBacktrack(int length) {
+        // Catastrophic backtracking for the JDK engine, which would not complete
+        String input = StringUtils.repeat('a', length) + "!";
+        CompiledRegex regex = CompiledRegex.compile("(a+)+b", CompiledRegex.Engine.RE2);
+        assertFalse(assertTimeoutPreemptively(Duration.ofSeconds(10), () -> regex.find(input)));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.script.ScriptException;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GroovyScriptRunnerTest {
+
+    private static Map<String, Object> createBindings() {
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put("vars", new JMeterVariables());
+        bindings.put("SampleResult", new SampleResult());
+        bindings.put("Label", "label");
+        return bindings;
+    }
+
+    @AfterEach
+    void clear() {
+        GroovyScriptRunner.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testTypedVariables(boolean compileStatic) throws Exception {
+        Class<?> scriptClass = GroovyScriptRunner.compile("typed" + compileStatic,
+                () -> "vars.put('name', Label.toUpperCase()); SampleResult.setResponseCode('201'); 42",
+                compileStatic);
+        Map<String, Object> bindings = createBindings();
+        assertEquals(42, GroovyScriptRunner.run(scriptClass, bindings));
+        assertEquals("LABEL", ((JMeterVariables) bindings.get("vars")).get("name"));
+        assertEquals("201", ((SampleResult) bindings.get("SampleResult")).getResponseCode());
+    }
+
+    @Test
+    void testScriptIsCompiledOnce() throws Exception {
+        Class<?> scriptClass = GroovyScriptRunner.compile("once", () -> "1");
+        assertSame(scriptClass, GroovyScriptRunner.compile("once", () -> {
+            throw new IOException("should not be read");
+        }));
+    }
+
+    @Test
+    void testGlobalVariablesAreWrittenToBindings() throws Exception {
+        Map<String, Object> bindings = createBindings();
+        GroovyScriptRunner.run(GroovyScriptRunner.compile("global", () -> "counter = 1"), bindings);
+        assertEquals(1, bindings.get("counter"));
+    }
+
+    @Test
+    void testScriptsAreIndependentBetweenRuns() throws Exception {
+        Class<?> scriptClass = GroovyScriptRunner.compile("field",
+                () -> "@groovy.transform.Field int calls = 0\ncalls++\ncalls");
+        assertEquals(1, GroovyScriptRunner.run(scriptClass, createBindings()));
+        assertEquals(1, GroovyScriptRunner.run(scriptClass, createBindings()));
+    }
+
+    @Test
+    void testErrors() {
+        assertThrows(ScriptException.class, () -> GroovyScriptRunner.compile("invalid", () -> "1 +"));
+        assertThrows(ScriptException.class,
+                () -> GroovyScriptRunner.compile("static", () -> "undefinedVariable.foo()", true));
+        ScriptException e = assertThrows(ScriptException.class,
+                () -> GroovyScriptRunner.run(GroovyScriptRunner.compile("throw",
+                        () -> "throw new IllegalStateException('failure')"), createBindings()));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertThrows(IOException.class, () -> GroovyScriptRunner.compile("unreadable", () -> {
+            throw new IOException("unreadable");
+        }));
+    }
+}
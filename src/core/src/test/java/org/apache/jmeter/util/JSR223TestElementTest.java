@@ -18,6 +18,12 @@
 package org.apache.jmeter.util;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import javax.script.ScriptException;
 
 import org.apache.commons.lang3.JavaVersion;
 import org.hamcrest.CoreMatchers;
@@ -48,4 +54,37 @@ public class JSR223TestElementTest {
                 CoreMatchers.is("Groovy"));
     }
 
+    @Test
+    public void testScriptEngineIsReusedForCachedScripts() throws Exception {
+        element.setScriptLanguage("groovy");
+        element.setScript("1 + 1");
+        assertSame(element.getScriptEngine(), element.getScriptEngine());
+        element.setCacheKey("false");
+        assertNotSame(element.getScriptEngine(), element.getScriptEngine());
+    }
+
+    @Test
+    public void testCompiledScriptIsEvaluated() throws Exception {
+        element.setScriptLanguage("groovy");
+        element.setScript("Parameters + args.length");
+        element.setParameters("a b");
+        try {
+            assertEquals("a b2", element.processFileOrScript(element.getScriptEngine(), null));
+            assertEquals("a b2", element.processFileOrScript(element.getScriptEngine(), null));
+        } finally {
+            element.testEnded();
+        }
+    }
+
+    @Test
+    public void testCompilationErrorIsNotCached() throws Exception {
+        element.setScriptLanguage("groovy");
+        element.setScript("1 +");
+        try {
+            assertThrows(ScriptException.class, () -> element.processFileOrScript(element.getScriptEngine(), null));
+            assertThrows(ScriptException.class, () -> element.processFileOrScript(element.getScriptEngine(), null));
+        } finally {
+            element.testEnded();
+        }
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.w3c.dom.Document;
+
+class StreamingXPathTest {
+    private static final String DOCUMENT = "<?xml version=\"1.0\"?>\n"
+            + "<root xmlns:p=\"urn:p\">\n"
+            + "  <items>\n"
+            + "    <item id=\"1\" p:id=\"a\">first &amp; one<sub>x</sub></item>\n"
+            + "    <item id=\"2\"><sub>y</sub>second</item>\n"
+            + "    <item/>\n"
+            + "    <p:item id=\"3\">prefixed</p:item>\n"
+            + "  </items>\n"
+            + "  <other><item id=\"4\">nested</item></other>\n"
+            + "</root>";
+
+    private static final String DOCUMENT_WITHOUT_PREFIX = "<root xmlns=\"urn:default\">"
+            + "<item id=\"1\">one</item><list><item id=\"2\">two</item></list></root>";
+
+    private static List<String> extractWithDom(String xml, String query, boolean namespaceAware, int matchNumber)
+            throws Exception {
+        Document document = XPathUtil.makeDocument(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                false, false, namespaceAware, false, true, false, false, true, false);
+        List<String> values = new ArrayList<>();
+        XPathUtil.putValuesForXPathInList(document, query, values, false, matchNumber);
+        return values;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/root/items/item",
+            "//item",
+            "//items/item/@id",
+            "/root/items/item/sub",
+            "/root/missing",
+            "/items",
+    })
+    void testSameValuesAsNamespaceAwareDom(String query) throws Exception {
+        StreamingXPath streamingXPath = StreamingXPath.compile(query);
+        assertNotNull(streamingXPath, () -> query + " should be streamable");
+        assertEquals(extractWithDom(DOCUMENT, query, true, -1), streamingXPath.extract(DOCUMENT, true, -1));
+        assertNull(streamingXPath.extract(DOCUMENT, false, -1),
+                "prefixed names are not streamed without namespace parser");
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/root/item, true", "/root/item, false", "//item/@id, true", "//item/@id, false"})
+    void testSameValuesAsDomWithDefaultNamespace(String query, boolean namespaceAware) throws Exception {
+        assertEquals(extractWithDom(DOCUMENT_WITHOUT_PREFIX, query, namespaceAware, -1),
+                StreamingXPath.compile(query).extract(DOCUMENT_WITHOUT_PREFIX, namespaceAware, -1));
+    }
+
+    @Test
+    void testMatchNumber() {
+        StreamingXPath streamingXPath = StreamingXPath.compile("//item/@id");
+        assertEquals(Collections.singletonList("2"), streamingXPath.extract(DOCUMENT, true, 2));
+        assertEquals(Collections.emptyList(), streamingXPath.extract(DOCUMENT, true, 10));
+        assertEquals(1, streamingXPath.extract(DOCUMENT, true, 0).size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<root><!-- comment -->text</root>", "<root><![CDATA[text]]></root>",
+            "<!DOCTYPE root [<!ENTITY e \"text\">]><root>&e;</root>", "<root>unclosed", "<p:root>text</p:root>"})
+    void testDomIsUsedForOtherDocuments(String xml) {
+        assertNull(StreamingXPath.compile("/root").extract(xml, false, -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"root", "/", "//", "/root/", "/root//item", "/root/item[1]", "/root/item/text()",
+            "/root/*", "/p:root", "/root/@xmlns", "/@id", "count(/root)", "/root/item | /root/other"})
+    void testComplexXPathIsNotStreamable(String query) {
+        assertNull(StreamingXPath.compile(query));
+    }
+
+    @Test
+    void testTextAroundChildElements() {
+        StreamingXPath streamingXPath = StreamingXPath.compile("/a/b");
+        assertEquals(Arrays.asList("x ", null, null, "y"),
+                streamingXPath.extract("<a><b>x <c/> y</b><b><c/>z</b><b></b><b>y<![CDATA[z]]></b></a>", true, -1));
+    }
+}
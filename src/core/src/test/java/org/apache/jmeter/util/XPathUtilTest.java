@@ -28,6 +28,7 @@ import java.io.PrintStream;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -276,4 +277,22 @@ public class XPathUtilTest {
         assertEquals("one", matchs.get(0));
         assertEquals("two", matchs.get(1));
     }
+
+    @Test
+    public void testReusedParserAndContextWithSuccessiveDocuments() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            String responseData = "<a:book xmlns:a=\"urn:" + i + "\"><a:page>" + i + "</a:page></a:book>";
+            Document testDoc = XPathUtil.makeDocument(
+                    new ByteArrayInputStream(responseData.getBytes(StandardCharsets.UTF_8)), false, false, true, false,
+                    false, false, false, false, false);
+            List<String> matchs = new ArrayList<>();
+            // The prefix is resolved with the namespace of each document
+            XPathUtil.putValuesForXPathInList(testDoc, "/a:book/a:page", matchs, false);
+            XPathUtil.putValuesForXPathInList(testDoc, "count(//*)", matchs, false);
+            assertEquals(Arrays.asList(Integer.toString(i), "2"), matchs);
+            AssertionResult res = new AssertionResult("test");
+            XPathUtil.computeAssertionResult(res, testDoc, "/*[local-name()='book']", false);
+            assertFalse("Should not be a failure", res.isFailure());
+        }
+    }
 }
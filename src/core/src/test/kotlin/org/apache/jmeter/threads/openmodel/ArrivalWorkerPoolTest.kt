@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.threads.openmodel
+
+import org.apache.jmeter.threads.JMeterContextService
+import org.apache.jmeter.threads.JMeterThread
+import org.apache.jmeter.threads.JMeterVariables
+import org.apache.jorphan.collections.HashTree
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class ArrivalWorkerPoolTest {
+    @BeforeEach
+    fun setupVariables() {
+        JMeterContextService.getContext().variables = JMeterVariables().apply { put("user", "initial") }
+    }
+
+    @AfterEach
+    fun clearContext() {
+        JMeterContextService.getContext().clear()
+    }
+
+    private fun dispatchWhenIdle(pool: ArrivalWorkerPool, scheduledTime: Long): CompletableFuture<Void> =
+        CompletableFuture.runAsync {
+            while (!pool.dispatch(scheduledTime)) {
+                Thread.sleep(1)
+            }
+        }
+
+    @Test
+    fun `dispatch fails when no worker is idle`() {
+        val pool = ArrivalWorkerPool(1000, ArrivalWorkerPool.ResetPolicy.USER)
+        assertFalse(pool.dispatch(42), "there are no workers, so dispatch should fail")
+    }
+
+    @Test
+    fun `variables are restored for the next arrival`() {
+        val pool = ArrivalWorkerPool(10000, ArrivalWorkerPool.ResetPolicy.USER)
+        val worker = pool.newWorker(1)
+        assertTrue(worker.awaitArrival(), "the initial arrival should be processed right away")
+        val variables = JMeterContextService.getContext().variables
+        variables.put("user", "modified")
+        variables.put("extracted", "value")
+
+        val dispatcher = dispatchWhenIdle(pool, 2)
+        assertTrue(worker.awaitArrival(), "second arrival should be dispatched to the idle worker")
+        dispatcher.get(10, TimeUnit.SECONDS)
+        assertEquals("initial", variables.get("user"), "variable should be restored")
+        assertNull(variables.get("extracted"), "variable created by the previous arrival should be removed")
+    }
+
+    @Test
+    fun `variables are kept with reset policy none`() {
+        val pool = ArrivalWorkerPool(10000, ArrivalWorkerPool.ResetPolicy.NONE)
+        assertTrue(pool.isSameUser, "reset policy none should keep the same user")
+        val worker = pool.newWorker(1)
+        assertTrue(worker.awaitArrival())
+        JMeterContextService.getContext().variables.put("user", "modified")
+
+        val dispatcher = dispatchWhenIdle(pool, 2)
+        assertTrue(worker.awaitArrival())
+        dispatcher.get(10, TimeUnit.SECONDS)
+        assertEquals("modified", JMeterContextService.getContext().variables.get("user"))
+    }
+
+    @Test
+    fun `idle worker exits after keep alive`() {
+        val pool = ArrivalWorkerPool(50, ArrivalWorkerPool.ResetPolicy.USER)
+        val worker = pool.newWorker(null)
+        assertFalse(worker.awaitArrival(), "no arrivals, so the worker should exit after keep alive")
+    }
+
+    @Test
+    fun `closed pool releases idle workers`() {
+        val pool = ArrivalWorkerPool(TimeUnit.MINUTES.toMillis(10), ArrivalWorkerPool.ResetPolicy.USER)
+        val worker = pool.newWorker(null)
+        CompletableFuture.runAsync {
+            Thread.sleep(50)
+            pool.close()
+        }
+        assertFalse(worker.awaitArrival(), "closed pool should release the worker")
+        assertFalse(pool.dispatch(3), "closed pool should not accept arrivals")
+    }
+
+    @Test
+    fun `idle worker is not counted as an active thread`() {
+        val threadGroup = OpenModelThreadGroup()
+        val thread = JMeterThread(HashTree(OpenModelThreadGroupController()), threadGroup, null)
+        thread.setThreadGroup(threadGroup)
+        JMeterContextService.getContext().thread = thread
+        val groupThreads = threadGroup.numberOfThreads
+        val allThreads = JMeterContextService.getNumberOfThreads()
+
+        val pool = ArrivalWorkerPool(10000, ArrivalWorkerPool.ResetPolicy.USER)
+        val worker = pool.newWorker(1)
+        assertTrue(worker.awaitArrival())
+        assertEquals(groupThreads, threadGroup.numberOfThreads, "worker processing an arrival is active")
+
+        val dispatcher = CompletableFuture.runAsync {
+            while (threadGroup.numberOfThreads != groupThreads - 1) {
+                Thread.sleep(1)
+            }
+            assertEquals(allThreads - 1, JMeterContextService.getNumberOfThreads(), "idle worker is not counted")
+            while (!pool.dispatch(2)) {
+                Thread.sleep(1)
+            }
+        }
+        assertTrue(worker.awaitArrival())
+        dispatcher.get(10, TimeUnit.SECONDS)
+        assertEquals(groupThreads, threadGroup.numberOfThreads, "worker is active again once it gets an arrival")
+        assertEquals(allThreads, JMeterContextService.getNumberOfThreads())
+
+        pool.close()
+        assertFalse(worker.awaitArrival())
+        assertEquals(groupThreads - 1, threadGroup.numberOfThreads, "worker exiting from the pool stays idle")
+        thread.setIdle(false)
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.jmeter.engine.util.CompoundVariable;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.CompiledRegex;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.MatchResult;
@@ -81,8 +82,8 @@ public class RegexFunction extends AbstractFunction {
         desc.add(JMeterUtils.getResString("regexfunc_param_7"));// input variable //$NON-NLS-1$
     }
 
-    private static final boolean USE_JAVA_REGEX = !JMeterUtils.getPropDefault(
-            "jmeter.regex.engine", "oro").equalsIgnoreCase("oro");
+    private static final boolean USE_JAVA_REGEX =
+            CompiledRegex.Engine.getDefault() != CompiledRegex.Engine.ORO;
 
     public RegexFunction() {
         templatePattern = JMeterUtils.getPatternCache().getPattern(TEMPLATE_PATTERN,
@@ -162,12 +163,8 @@ public class RegexFunction extends AbstractFunction {
             throws InvalidVariableException {
         List<java.util.regex.MatchResult> collectAllMatches = new ArrayList<>();
         try {
-            java.util.regex.Pattern searchPattern = generateJavaPattern();
-            Matcher matcher = searchPattern.matcher(textToMatch);
-            while (matcher.find()) {
-                java.util.regex.MatchResult match = matcher.toMatchResult();
-                collectAllMatches.add(match);
-            }
+            CompiledRegex searchPattern = generateJavaPattern();
+            searchPattern.findAll(textToMatch, -1, collectAllMatches);
         } finally {
             if (!name.isEmpty()){
                 vars.put(name + "_matchNr", Integer.toString(collectAllMatches.size())); //$NON-NLS-1$
@@ -212,9 +209,9 @@ public class RegexFunction extends AbstractFunction {
         }
     }
 
-    private java.util.regex.Pattern generateJavaPattern() throws InvalidVariableException {
+    private CompiledRegex generateJavaPattern() throws InvalidVariableException {
         try {
-            return JMeterUtils.compilePattern(((CompoundVariable) values[0]).execute());
+            return CompiledRegex.compile(((CompoundVariable) values[0]).execute());
 
         } catch (PatternSyntaxException e) {
             log.error("Malformed regex pattern:{}", values[0], e);
@@ -127,6 +127,13 @@ val gatherBinaryLicenses by tasks.registering(GatherLicenseTask::class) {
         effectiveLicense = SpdxLicense.CC0_1_0 and ExtraLicense.Indiana_University_1_1_1
     }
 
+    overrideLicense("com.google.re2j:re2j:1.7") {
+        // pom.xml lists "Go License", which is BSD_3
+        expectedLicense = SimpleLicense("Go License", uri("https://golang.org/LICENSE"))
+        effectiveLicense = SpdxLicense.BSD_3_Clause
+        licenseFiles = "re2j"
+    }
+
     overrideLicense("org.brotli:dec:0.1.2") {
         expectedLicense = SpdxLicense.MIT
     }
@@ -28,12 +28,19 @@ import org.neo4j.driver.TransactionConfig;
 
 public abstract class AbstractBoltTestElement extends AbstractTestElement {
 
+    static final String RESULT_SUMMARY_ONLY = "Summary Only"; // $NON-NLS-1$
+    static final String RESULT_COUNT_RECORDS = "Count Records"; // $NON-NLS-1$
+    static final String RESULT_FIRST_RECORDS = "First Records"; // $NON-NLS-1$
+
     private String cypher;
     private String params;
     private String database;
     private String accessMode;
     private boolean recordQueryResults;
     private int txTimeout;
+    private String resultPolicy = RESULT_SUMMARY_ONLY;
+    private int maxRecords;
+    private boolean reuseSession;
 
     public int getTxTimeout() {
         return txTimeout;
@@ -88,6 +95,55 @@ public abstract class AbstractBoltTestElement extends AbstractTestElement {
         this.recordQueryResults = recordQueryResults;
     }
 
+    /**
+     * @return how the records are consumed when they are not recorded:
+     * {@value #RESULT_SUMMARY_ONLY}, {@value #RESULT_COUNT_RECORDS} or {@value #RESULT_FIRST_RECORDS}
+     * @since 5.5
+     */
+    public String getResultPolicy() {
+        return resultPolicy;
+    }
+
+    /**
+     * @param resultPolicy how the records are consumed when they are not recorded
+     * @since 5.5
+     */
+    public void setResultPolicy(String resultPolicy) {
+        this.resultPolicy = resultPolicy;
+    }
+
+    /**
+     * @return number of records kept in the response with {@value #RESULT_FIRST_RECORDS}
+     * @since 5.5
+     */
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    /**
+     * @param maxRecords number of records kept in the response with {@value #RESULT_FIRST_RECORDS}
+     * @since 5.5
+     */
+    public void setMaxRecords(int maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * @return true if each thread keeps its session open between the samples
+     * @since 5.5
+     */
+    public boolean isReuseSession() {
+        return reuseSession;
+    }
+
+    /**
+     * @param reuseSession true to let each thread keep its session open between the samples
+     * @since 5.5
+     */
+    public void setReuseSession(boolean reuseSession) {
+        this.reuseSession = reuseSession;
+    }
+
     //returns a SessionConfig object that can be passed to the driver session
     public SessionConfig getSessionConfig() {
         SessionConfig.Builder sessionConfigBuilder = SessionConfig.builder()
@@ -19,12 +19,15 @@ package org.apache.jmeter.protocol.bolt.sampler;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.jmeter.config.ConfigTestElement;
@@ -36,21 +39,29 @@ import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.ThreadListener;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
 import org.neo4j.driver.TransactionConfig;
 import org.neo4j.driver.exceptions.Neo4jException;
 import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 
 @TestElementMetadata(labelResource = "displayName")
-public class BoltSampler extends AbstractBoltTestElement implements Sampler, TestBean, ConfigMergabilityIndicator {
+public class BoltSampler extends AbstractBoltTestElement
+        implements Sampler, TestBean, ConfigMergabilityIndicator, ThreadListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BoltSampler.class);
 
     private static final Set<String> APPLICABLE_CONFIG_CLASSES = new HashSet<>(
             Collections.singletonList("org.apache.jmeter.config.gui.SimpleConfigGui")); // $NON-NLS-1$
@@ -58,8 +69,14 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
     // Enables to initialize object mapper on demand
     private static class Holder {
         private static final ObjectReader OBJECT_READER = new ObjectMapper().readerFor(new TypeReference<HashMap<String, Object>>() {});
+        private static final ObjectReader LIST_READER = new ObjectMapper().readerFor(new TypeReference<ArrayList<HashMap<String, Object>>>() {});
     }
 
+    /** Session kept open by the thread when sessions are reused */
+    private transient Session session;
+    private transient Driver sessionDriver;
+    private transient SessionConfig sessionConfig;
+
     @Override
     public SampleResult sample(Entry e) {
         SampleResult res = new SampleResult();
@@ -69,9 +86,14 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
         res.setContentType("text/plain"); // $NON-NLS-1$
         res.setDataEncoding(StandardCharsets.UTF_8.name());
 
-        Map<String, Object> params;
+        List<Map<String, Object>> batchParams = null;
+        Map<String, Object> params = null;
         try {
-            params = getParamsAsMap();
+            if (isBatch()) {
+                batchParams = Holder.LIST_READER.readValue(getParams());
+            } else {
+                params = getParamsAsMap();
+            }
         } catch (IOException ex) {
             return handleException(res, ex);
         }
@@ -87,13 +109,16 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
             res.setResponseHeaders("Cypher request: " + getCypher());
             res.setResponseData(
                     execute(
+                        res,
                         BoltConnectionElement.getDriver(),
                         getCypher(),
                         params,
+                        batchParams,
                         getSessionConfig(),
                         getTransactionConfig()),
                     StandardCharsets.UTF_8.name());
         } catch (Exception ex) {
+            closeSession();
             res = handleException(res, ex);
         } finally {
             res.sampleEnd();
@@ -110,14 +135,83 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
         return APPLICABLE_CONFIG_CLASSES.contains(guiClass);
     }
 
-    private String execute(Driver driver, String cypher, Map<String, Object> params,
+    /**
+     * Runs the statement once with its params, or in a transaction once for each params of a batch.
+     * The latency is the time until the result of the first statement is available.
+     */
+    private String execute(SampleResult res, Driver driver, String cypher, Map<String, Object> params,
+                           List<Map<String, Object>> batchParams,
                            SessionConfig sessionConfig, TransactionConfig txConfig) {
-        try (Session session = driver.session(sessionConfig)) {
-            Result statementResult = session.run(cypher, params, txConfig);
-            return response(statementResult);
+        Session currentSession = openSession(driver, sessionConfig);
+        try {
+            ResultConsumer consumer = new ResultConsumer();
+            if (batchParams == null) {
+                Result statementResult = currentSession.run(cypher, params, txConfig);
+                res.latencyEnd();
+                consumer.consume(statementResult);
+            } else {
+                try (Transaction tx = currentSession.beginTransaction(txConfig)) {
+                    for (Map<String, Object> statementParams : batchParams) {
+                        Result statementResult = tx.run(cypher, statementParams);
+                        if (consumer.summaries.isEmpty()) {
+                            res.latencyEnd();
+                        }
+                        consumer.consume(statementResult);
+                    }
+                    tx.commit();
+                }
+            }
+            return consumer.response(batchParams != null);
+        } finally {
+            if (!isReuseSession()) {
+                currentSession.close();
+            }
         }
     }
 
+    private Session openSession(Driver driver, SessionConfig config) {
+        if (!isReuseSession()) {
+            return driver.session(config);
+        }
+        if (session != null
+                && (!session.isOpen() || driver != sessionDriver || !config.equals(sessionConfig))) {
+            closeSession();
+        }
+        if (session == null) {
+            session = driver.session(config);
+            sessionDriver = driver;
+            sessionConfig = config;
+        }
+        return session;
+    }
+
+    /**
+     * Closes the session kept by the thread, a failure is only logged so the sample is still reported.
+     */
+    private void closeSession() {
+        if (session != null) {
+            try {
+                session.close();
+            } catch (RuntimeException e) {
+                log.debug("Error closing Bolt session", e);
+            } finally {
+                session = null;
+                sessionDriver = null;
+                sessionConfig = null;
+            }
+        }
+    }
+
+    @Override
+    public void threadStarted() {
+        // NOOP
+    }
+
+    @Override
+    public void threadFinished() {
+        closeSession();
+    }
+
     private SampleResult handleException(SampleResult res, Exception ex) {
         res.setResponseMessage(ex.toString());
         if (ex instanceof Neo4jException) {
@@ -132,6 +226,10 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
         return res;
     }
 
+    private boolean isBatch() {
+        return getParams() != null && getParams().trim().startsWith("[");
+    }
+
     private Map<String, Object> getParamsAsMap() throws IOException {
         if (getParams() != null && getParams().length() > 0) {
             return Holder.OBJECT_READER.readValue(getParams());
@@ -156,50 +254,98 @@ public class BoltSampler extends AbstractBoltTestElement implements Sampler, Tes
         return request.toString();
     }
 
-    private String response(Result result) {
-        StringBuilder response = new StringBuilder();
-        List<Record> records;
-        if (isRecordQueryResults()) {
-            //get records already as consume() will exhaust the stream
-            records = result.list();
-        } else {
-            records = Collections.emptyList();
-        }
-        response.append("\nSummary:");
-        ResultSummary summary = result.consume();
-        response.append("\nConstraints Added: ")
-                .append(summary.counters().constraintsAdded())
-                .append("\nConstraints Removed: ")
-                .append(summary.counters().constraintsRemoved())
-                .append("\nContains Updates: ")
-                .append(summary.counters().containsUpdates())
-                .append("\nIndexes Added: ")
-                .append(summary.counters().indexesAdded())
-                .append("\nIndexes Removed: ")
-                .append(summary.counters().indexesRemoved())
-                .append("\nLabels Added: ")
-                .append(summary.counters().labelsAdded())
-                .append("\nLabels Removed: ")
-                .append(summary.counters().labelsRemoved())
-                .append("\nNodes Created: ")
-                .append(summary.counters().nodesCreated())
-                .append("\nNodes Deleted: ")
-                .append(summary.counters().nodesDeleted())
-                .append("\nRelationships Created: ")
-                .append(summary.counters().relationshipsCreated())
-                .append("\nRelationships Deleted: ")
-                .append(summary.counters().relationshipsDeleted());
-        response.append("\n\nRecords: ");
-        if (isRecordQueryResults()) {
-            for (Record record : records) {
-                response.append("\n").append(record);
+    private static int sum(List<ResultSummary> summaries, ToIntFunction<SummaryCounters> counter) {
+        return summaries.stream().mapToInt(summary -> counter.applyAsInt(summary.counters())).sum();
+    }
+
+    private static long sumMillis(List<ResultSummary> summaries, boolean consumed) {
+        return summaries.stream()
+                .mapToLong(summary -> consumed
+                        ? summary.resultConsumedAfter(TimeUnit.MILLISECONDS)
+                        : summary.resultAvailableAfter(TimeUnit.MILLISECONDS))
+                .filter(millis -> millis > 0)
+                .sum();
+    }
+
+    /**
+     * Consumes the results of the statements according to the result policy
+     * and builds the response from their summaries.
+     */
+    private final class ResultConsumer {
+        private final List<ResultSummary> summaries = new ArrayList<>();
+        private final StringBuilder records = new StringBuilder();
+        private long recordCount;
+        private boolean moreRecords;
+
+        void consume(Result result) {
+            if (isRecordQueryResults()) {
+                //get records already as consume() will exhaust the stream
+                for (Record record : result.list()) {
+                    records.append("\n").append(record);
+                }
+            } else if (RESULT_COUNT_RECORDS.equals(getResultPolicy())) {
+                while (result.hasNext()) {
+                    result.next();
+                    recordCount++;
+                }
+            } else if (RESULT_FIRST_RECORDS.equals(getResultPolicy())) {
+                while (recordCount < getMaxRecords() && result.hasNext()) {
+                    records.append("\n").append(result.next());
+                    recordCount++;
+                }
+                // the remaining records are discarded by consume()
+                moreRecords |= result.hasNext();
             }
-        } else {
-            response.append("Skipped");
-            result.consume();
+            summaries.add(result.consume());
         }
 
-
-        return response.toString();
+        String response(boolean batch) {
+            StringBuilder response = new StringBuilder();
+            response.append("\nSummary:");
+            if (batch) {
+                response.append("\nStatements: ")
+                        .append(summaries.size());
+            }
+            response.append("\nConstraints Added: ")
+                    .append(sum(summaries, SummaryCounters::constraintsAdded))
+                    .append("\nConstraints Removed: ")
+                    .append(sum(summaries, SummaryCounters::constraintsRemoved))
+                    .append("\nContains Updates: ")
+                    .append(summaries.stream().anyMatch(summary -> summary.counters().containsUpdates()))
+                    .append("\nIndexes Added: ")
+                    .append(sum(summaries, SummaryCounters::indexesAdded))
+                    .append("\nIndexes Removed: ")
+                    .append(sum(summaries, SummaryCounters::indexesRemoved))
+                    .append("\nLabels Added: ")
+                    .append(sum(summaries, SummaryCounters::labelsAdded))
+                    .append("\nLabels Removed: ")
+                    .append(sum(summaries, SummaryCounters::labelsRemoved))
+                    .append("\nNodes Created: ")
+                    .append(sum(summaries, SummaryCounters::nodesCreated))
+                    .append("\nNodes Deleted: ")
+                    .append(sum(summaries, SummaryCounters::nodesDeleted))
+                    .append("\nRelationships Created: ")
+                    .append(sum(summaries, SummaryCounters::relationshipsCreated))
+                    .append("\nRelationships Deleted: ")
+                    .append(sum(summaries, SummaryCounters::relationshipsDeleted))
+                    .append("\nResult Available After (ms): ")
+                    .append(sumMillis(summaries, false))
+                    .append("\nResult Consumed After (ms): ")
+                    .append(sumMillis(summaries, true));
+            response.append("\n\nRecords: ");
+            if (isRecordQueryResults()) {
+                response.append(records);
+            } else if (RESULT_COUNT_RECORDS.equals(getResultPolicy())) {
+                response.append(recordCount);
+            } else if (RESULT_FIRST_RECORDS.equals(getResultPolicy())) {
+                response.append(records);
+                if (moreRecords) {
+                    response.append("\n...");
+                }
+            } else {
+                response.append("Skipped");
+            }
+            return response.toString();
+        }
     }
 }
@@ -34,8 +34,8 @@ public abstract class BoltTestElementBeanInfoSupport extends BeanInfoSupport {
     protected BoltTestElementBeanInfoSupport(Class<? extends TestBean> beanClass) {
         super(beanClass);
 
-        createPropertyGroup("query", new String[] { "cypher","params","recordQueryResults"});
-        createPropertyGroup("options", new String[] { "accessMode","database", "txTimeout"});
+        createPropertyGroup("query", new String[] { "cypher","params","recordQueryResults","resultPolicy","maxRecords"});
+        createPropertyGroup("options", new String[] { "accessMode","database", "txTimeout","reuseSession"});
 
         PropertyDescriptor propertyDescriptor = property("cypher", TypeEditor.TextAreaEditor);
         propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
@@ -49,6 +49,20 @@ public abstract class BoltTestElementBeanInfoSupport extends BeanInfoSupport {
         propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
         propertyDescriptor.setValue(DEFAULT, Boolean.FALSE);
 
+        propertyDescriptor = property("resultPolicy", TypeEditor.ComboStringEditor);
+        propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        propertyDescriptor.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        propertyDescriptor.setValue(NOT_OTHER, Boolean.TRUE);
+        propertyDescriptor.setValue(DEFAULT, AbstractBoltTestElement.RESULT_SUMMARY_ONLY);
+        propertyDescriptor.setValue(TAGS, new String[] {
+                AbstractBoltTestElement.RESULT_SUMMARY_ONLY,
+                AbstractBoltTestElement.RESULT_COUNT_RECORDS,
+                AbstractBoltTestElement.RESULT_FIRST_RECORDS });
+
+        propertyDescriptor = property("maxRecords");
+        propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        propertyDescriptor.setValue(DEFAULT, 10);
+
         propertyDescriptor = property("accessMode", TypeEditor.ComboStringEditor);
         propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
         propertyDescriptor.setValue(NOT_EXPRESSION, Boolean.TRUE);
@@ -61,6 +75,10 @@ public abstract class BoltTestElementBeanInfoSupport extends BeanInfoSupport {
         propertyDescriptor = property("txTimeout");
         propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
         propertyDescriptor.setValue(DEFAULT, 60);
+
+        propertyDescriptor = property("reuseSession");
+        propertyDescriptor.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        propertyDescriptor.setValue(DEFAULT, Boolean.FALSE);
     }
 
     private String[] getListAccessModes() {
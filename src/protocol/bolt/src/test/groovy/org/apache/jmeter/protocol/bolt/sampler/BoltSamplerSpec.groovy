@@ -25,6 +25,7 @@ import org.neo4j.driver.Driver
 import org.neo4j.driver.Record
 import org.neo4j.driver.Result
 import org.neo4j.driver.Session
+import org.neo4j.driver.Transaction
 import org.neo4j.driver.exceptions.ClientException
 import org.neo4j.driver.summary.ResultSummary
 import org.neo4j.driver.summary.SummaryCounters
@@ -36,11 +37,12 @@ class BoltSamplerSpec extends Specification {
     BoltSampler sampler
     Entry entry
     Session session
+    Driver driver
 
     def setup() {
         sampler = new BoltSampler()
         entry = new Entry()
-        def driver = Mock(Driver)
+        driver = Mock(Driver)
         def boltConfig = new BoltConnectionElement()
         def variables = new JMeterVariables()
         // ugly but could not find a better way to pass the driver to the sampler...
@@ -163,6 +165,82 @@ class BoltSamplerSpec extends Specification {
             response.getErrorCount() == 0
     }
 
+    def "should count records"() {
+        given:
+            sampler.setCypher("MATCH x")
+            sampler.setResultPolicy(AbstractBoltTestElement.RESULT_COUNT_RECORDS)
+            session.run("MATCH x", [:], _) >> getStreamedQueryResult()
+        when:
+            def response = sampler.sample(entry)
+        then:
+            response.isSuccessful()
+            def str = response.getResponseDataAsString()
+            str.contains("Result Available After (ms): ")
+            str.endsWith("Records: 3")
+    }
+
+    def "should only keep the first records"() {
+        given:
+            sampler.setCypher("MATCH x")
+            sampler.setResultPolicy(AbstractBoltTestElement.RESULT_FIRST_RECORDS)
+            sampler.setMaxRecords(2)
+            session.run("MATCH x", [:], _) >> getStreamedQueryResult()
+        when:
+            def response = sampler.sample(entry)
+        then:
+            response.isSuccessful()
+            def str = response.getResponseDataAsString()
+            str.count("Mock for type 'Record'") == 2
+            str.endsWith("\n...")
+    }
+
+    def "should run batch params in a single transaction"() {
+        given:
+            sampler.setCypher("CREATE x")
+            sampler.setParams('[{"a":1},{"a":2}]')
+            def tx = Mock(Transaction)
+            session.beginTransaction(_) >> tx
+        when:
+            def response = sampler.sample(entry)
+        then:
+            1 * tx.run("CREATE x", [a: 1]) >> getEmptyQueryResult()
+            1 * tx.run("CREATE x", [a: 2]) >> getEmptyQueryResult()
+            1 * tx.commit()
+            response.isSuccessful()
+            response.getResponseDataAsString().contains("Statements: 2")
+    }
+
+    def "should reuse the session of the thread"() {
+        given:
+            sampler.setCypher("MATCH x")
+            sampler.setReuseSession(true)
+            session.isOpen() >> true
+            session.run("MATCH x", [:], _) >> getEmptyQueryResult()
+        when:
+            sampler.sample(entry)
+            sampler.sample(entry)
+            sampler.threadFinished()
+        then:
+            1 * driver.session(_) >> session
+            1 * session.close()
+    }
+
+    def "should report the failed query when closing the reused session fails"() {
+        given:
+            sampler.setCypher("MATCH x")
+            sampler.setReuseSession(true)
+            session.isOpen() >> true
+            session.run("MATCH x", [:], _) >> { throw new ClientException("a code", "a message") }
+            session.close() >> { throw new ClientException("close code", "connection lost") }
+        when:
+            def response = sampler.sample(entry)
+        then:
+            !response.isSuccessful()
+            response.getResponseCode() == "a code"
+            response.getResponseDataAsString().contains("a message")
+            response.getTime() >= 0
+    }
+
     def getEmptyQueryResult() {
         def queryResult = Mock(Result)
         def summary = Mock(ResultSummary)
@@ -182,4 +260,11 @@ class BoltSamplerSpec extends Specification {
         summary.counters() >> counters
         return queryResult
     }
+
+    def getStreamedQueryResult() {
+        def queryResult = getEmptyQueryResult()
+        queryResult.hasNext() >>> [true, true, true, false]
+        queryResult.next() >> Mock(Record)
+        return queryResult
+    }
 }
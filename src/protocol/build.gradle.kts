@@ -114,6 +114,9 @@ project("java") {
 project("jdbc") {
     dependencies {
         implementation("org.apache.commons:commons-dbcp2")
+        testRuntimeOnly("org.hsqldb:hsqldb") {
+            because("in-memory database for the connection pool tests")
+        }
         implementation("org.apache.commons:commons-lang3") {
             because("StringUtils, ObjectUtils")
         }
@@ -152,12 +155,18 @@ project("junit") {
             because("hamcrest-date.jar was historically shipped with JMeter")
         }
         implementation("com.miglayout:miglayout-swing")
+        testImplementation(project(":src:protocol:junit-sample")) {
+            because("The JUnit tests run by the sampler are not discovered as tests of this project")
+        }
     }
 }
 
 project("junit-sample") {
     dependencies {
         api("junit:junit")
+        compileOnly("org.junit.jupiter:junit-jupiter-api") {
+            because("JupiterLifecycleTest, the JUnit 5 API is provided with the tests in lib/junit")
+        }
     }
 }
 
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.jmeter.protocol.http.sampler.HTTPSamplerBase;
+import org.apache.jmeter.testelement.property.CollectionProperty;
+import org.apache.jmeter.testelement.property.FunctionProperty;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.testelement.property.PropertyIterator;
+
+/**
+ * Index of the cookies of a {@link CookieManager}, so the cookies that may be sent to a URL
+ * are found without scanning all of them.
+ * <p>
+ * The cookies are partitioned by domain, the partitions of a host are the ones of its suffixes.
+ * The cookies of a partition are stored in a trie of the segments of their path.
+ * The candidates returned for a URL are a superset of the cookies the cookie specs match,
+ * so the cookie handler still selects the cookies to send and formats the header.
+ * The header built for each origin and path is cached until a cookie of a matching domain changes.
+ * <p>
+ * The index is built from the cookies property and follows the changes made through
+ * {@link #add(Cookie)} and {@link #removeMatching(Cookie)}; it must be rebuilt when
+ * {@link #isIndexOf(CollectionProperty)} returns {@code false}, and when the cookies property
+ * or its cookies are handed out, as they may then be changed without the index.
+ * Not thread-safe, each thread uses its own cookie manager.
+ */
+final class CookieIndex {
+
+    /** Value cached for origins without cookie, as the header is {@code null} */
+    private static final String NO_HEADER = new String(""); // NOSONAR a distinct instance is needed
+
+    /** Number of cached headers above which the cache is cleared */
+    private static final int MAX_CACHED_HEADERS = 1000;
+
+    /** Domain given to hosts without dot by the RFC 2965 spec */
+    private static final String LOCAL_DOMAIN = "local"; // $NON-NLS-1$
+
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(e -> e.sequence);
+
+    private final CollectionProperty cookies;
+
+    private final boolean allowVariableCookie;
+
+    private int size;
+
+    private long nextSequence;
+
+    /** Path tries of the cookies, by lower case domain without leading dot */
+    private final Map<String, PathNode> domains = new HashMap<>();
+
+    /** Cookies that are candidates for every URL: without domain, with a variable or a relative path */
+    private final List<Entry> unindexed = new ArrayList<>();
+
+    /** Cookies by name, domain and path, as compared when a cookie replaces another one */
+    private final Map<String, List<Entry>> byKey = new HashMap<>();
+
+    /** Cached headers by lower case host, then by protocol, port and path */
+    private final Map<String, Map<String, String>> headers = new HashMap<>();
+
+    private int cachedHeaders;
+
+    private int variableCookies;
+
+    /**
+     * @param cookies             cookies to index
+     * @param allowVariableCookie whether the cookies containing functions or variables are evaluated
+     */
+    CookieIndex(CollectionProperty cookies, boolean allowVariableCookie) {
+        this.cookies = cookies;
+        this.allowVariableCookie = allowVariableCookie;
+        PropertyIterator iterator = cookies.iterator();
+        while (iterator.hasNext()) {
+            Object cookie = iterator.next().getObjectValue();
+            if (cookie instanceof Cookie) {
+                add((Cookie) cookie);
+            } else {
+                size++; // Counted so the index stays in sync with the property
+            }
+        }
+    }
+
+    /**
+     * @param cookiesProperty current cookies property of the manager
+     * @return {@code true} if the index still describes the property
+     */
+    boolean isIndexOf(CollectionProperty cookiesProperty) {
+        return cookies == cookiesProperty && size == cookiesProperty.size();
+    }
+
+    /**
+     * Index a cookie that has been added at the end of the cookies property.
+     *
+     * @param cookie the added cookie
+     */
+    void add(Cookie cookie) {
+        size++;
+        Entry entry = new Entry(cookie, nextSequence++, allowVariableCookie && isVariable(cookie));
+        byKey.computeIfAbsent(key(cookie), k -> new ArrayList<>(1)).add(entry);
+        String domain = normalizeDomain(cookie.getDomain());
+        String path = cookie.getPath();
+        if (entry.variable) {
+            variableCookies++;
+        }
+        if (entry.variable || domain.isEmpty() || (path != null && !path.isEmpty() && path.charAt(0) != '/')) {
+            entry.entries = unindexed;
+            headers.clear();
+            cachedHeaders = 0;
+        } else {
+            PathNode node = domains.computeIfAbsent(domain, d -> new PathNode());
+            for (String segment : segments(normalizePath(path))) {
+                node = node.child(segment);
+            }
+            entry.entries = node.entries();
+            invalidateHeaders(domain);
+        }
+        entry.entries.add(entry);
+    }
+
+    /**
+     * Remove from the index the cookies with the same name, domain and path as the cookie.
+     *
+     * @param cookie the new cookie
+     * @return the removed cookies, that must be removed from the cookies property
+     */
+    List<Cookie> removeMatching(Cookie cookie) {
+        List<Entry> matching = byKey.remove(key(cookie));
+        if (matching == null) {
+            return Collections.emptyList();
+        }
+        List<Cookie> removed = new ArrayList<>(matching.size());
+        for (Entry entry : matching) {
+            size--;
+            entry.entries.remove(entry);
+            if (entry.entries == unindexed) {
+                if (entry.variable) {
+                    variableCookies--;
+                }
+                headers.clear();
+                cachedHeaders = 0;
+            } else {
+                invalidateHeaders(normalizeDomain(entry.cookie.getDomain()));
+            }
+            removed.add(entry.cookie);
+        }
+        return removed;
+    }
+
+    /**
+     * Get the cookie header for a URL, from the cache or built from the candidate cookies.
+     *
+     * @param url       URL of the request
+     * @param formatter builds the header from the candidate cookies, or returns {@code null} if none is sent
+     * @return the value of the Cookie header, or {@code null} if no cookie is sent
+     */
+    String getCookieHeader(URL url, Function<CollectionProperty, String> formatter) {
+        String host = url.getHost().toLowerCase(Locale.ROOT);
+        String path = url.getPath();
+        if (variableCookies > 0) {
+            // The values of the variable cookies may change between requests
+            return formatter.apply(candidates(host, path));
+        }
+        String protocol = url.getProtocol();
+        String originKey = protocol + ':' + HTTPSamplerBase.getDefaultPort(protocol, url.getPort()) + path;
+        Map<String, String> hostHeaders = headers.computeIfAbsent(host, h -> new HashMap<>());
+        String header = hostHeaders.get(originKey);
+        if (header == null) {
+            header = formatter.apply(candidates(host, path));
+            if (header == null) {
+                header = NO_HEADER;
+            }
+            if (cachedHeaders >= MAX_CACHED_HEADERS) {
+                headers.clear();
+                cachedHeaders = 0;
+                hostHeaders = headers.computeIfAbsent(host, h -> new HashMap<>());
+            }
+            hostHeaders.put(originKey, header);
+            cachedHeaders++;
+        }
+        return header == NO_HEADER ? null : header; // NOSONAR the instance identifies the absent header
+    }
+
+    /**
+     * @param host lower case host of the request
+     * @param path path of the request
+     * @return the cookies that may be sent for the host and path, in the order of the cookies property
+     */
+    CollectionProperty candidates(String host, String path) {
+        List<Entry> candidates = new ArrayList<>(unindexed);
+        // Some specs match domains that are any suffix of the host, not only the parent domains
+        for (int i = 0; i < host.length(); i++) {
+            collect(domains.get(host.substring(i)), path, candidates);
+        }
+        if (host.indexOf('.') < 0) {
+            collect(domains.get(LOCAL_DOMAIN), path, candidates);
+        }
+        candidates.sort(BY_SEQUENCE);
+        List<Cookie> result = new ArrayList<>(candidates.size());
+        for (Entry entry : candidates) {
+            result.add(entry.cookie);
+        }
+        return new CollectionProperty("candidates", result); // $NON-NLS-1$
+    }
+
+    private static void collect(PathNode root, String path, List<Entry> candidates) {
+        if (root == null) {
+            return;
+        }
+        PathNode node = root;
+        node.addEntriesTo(candidates);
+        for (String segment : segments(path)) {
+            node = node.children == null ? null : node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+            node.addEntriesTo(candidates);
+        }
+    }
+
+    private void invalidateHeaders(String domain) {
+        Iterator<Map.Entry<String, Map<String, String>>> iterator = headers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Map<String, String>> hostHeaders = iterator.next();
+            String host = hostHeaders.getKey();
+            if (host.endsWith(domain)
+                    || (LOCAL_DOMAIN.equals(domain) && host.indexOf('.') < 0)) {
+                cachedHeaders -= hostHeaders.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String key(Cookie cookie) {
+        return cookie.getName() + '\t' + cookie.getDomain() + '\t' + cookie.getPath();
+    }
+
+    private static boolean isVariable(Cookie cookie) {
+        PropertyIterator iterator = cookie.propertyIterator();
+        while (iterator.hasNext()) {
+            JMeterProperty property = iterator.next();
+            if (property instanceof FunctionProperty) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalizeDomain(String domain) {
+        if (domain == null) {
+            return "";
+        }
+        int start = 0;
+        while (start < domain.length() && domain.charAt(start) == '.') {
+            start++;
+        }
+        return domain.substring(start).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The specs ignore the trailing slash of cookie paths, and match paths without cookie path
+     */
+    private static String normalizePath(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/"; // $NON-NLS-1$
+        }
+        return path.length() > 1 && path.charAt(path.length() - 1) == '/'
+                ? path.substring(0, path.length() - 1)
+                : path;
+    }
+
+    private static List<String> segments(String path) {
+        if (path == null || path.length() <= 1) {
+            return Collections.emptyList();
+        }
+        List<String> segments = new ArrayList<>();
+        int start = 1;
+        int end;
+        while ((end = path.indexOf('/', start)) >= 0) {
+            segments.add(path.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(path.substring(start));
+        return segments;
+    }
+
+    private static final class Entry {
+        private final Cookie cookie;
+        private final long sequence;
+        private final boolean variable;
+        /** List of the trie node, or list of unindexed cookies, that contains the entry */
+        private List<Entry> entries;
+
+        private Entry(Cookie cookie, long sequence, boolean variable) {
+            this.cookie = cookie;
+            this.sequence = sequence;
+            this.variable = variable;
+        }
+    }
+
+    private static final class PathNode {
+        private Map<String, PathNode> children;
+        private List<Entry> entries;
+
+        private PathNode child(String segment) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, s -> new PathNode());
+        }
+
+        private List<Entry> entries() {
+            if (entries == null) {
+                entries = new ArrayList<>(1);
+            }
+            return entries;
+        }
+
+        private void addEntriesTo(List<Entry> candidates) {
+            if (entries != null) {
+                candidates.addAll(entries);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.net.URL;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.jmeter.config.ConfigTestElement;
@@ -82,14 +83,19 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
     private static final boolean CHECK_COOKIES =
         JMeterUtils.getPropDefault("CookieManager.check.cookies", true);// $NON-NLS-1$
 
+    private static final boolean INDEXED_STORE =
+        JMeterUtils.getPropDefault("CookieManager.indexed_store", true);// $NON-NLS-1$
+
     static {
-        log.info("Settings: Delete null: {} Check: {} Allow variable: {} Save: {} Prefix: {}",
+        log.info("Settings: Delete null: {} Check: {} Allow variable: {} Save: {} Prefix: {} Indexed: {}",
                 DELETE_NULL_COOKIES, CHECK_COOKIES, ALLOW_VARIABLE_COOKIES,
-                SAVE_COOKIES, COOKIE_NAME_PREFIX);
+                SAVE_COOKIES, COOKIE_NAME_PREFIX, INDEXED_STORE);
     }
 
     private transient CookieHandler cookieHandler;
     private transient CollectionProperty initialCookies;
+    // Rebuilt when the cookies property is replaced or may be changed without the methods of this class
+    private transient CookieIndex cookieIndex;
 
     /**
      * Defines the policy that is assumed when the JMX file does not contain an entry for it
@@ -133,12 +139,23 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
         setProperty(POLICY, policy, DEFAULT_POLICY);
     }
 
+    /**
+     * The caller may change the cookies or the property, so the index of the cookies is rebuilt
+     * by the next request.
+     *
+     * @return the cookies property
+     */
     public CollectionProperty getCookies() {
+        cookieIndex = null;
+        return getCookiesProperty();
+    }
+
+    private CollectionProperty getCookiesProperty() {
         return (CollectionProperty) getProperty(COOKIES);
     }
 
     public int getCookieCount() {// Used by GUI
-        return getCookies().size();
+        return getCookiesProperty().size();
     }
 
     public boolean getClearEachIteration() {
@@ -185,7 +202,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
         try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath()))) {
             writer.println("# JMeter generated Cookie file");// $NON-NLS-1$
             long now = System.currentTimeMillis();
-            for (JMeterProperty jMeterProperty : getCookies()) {
+            for (JMeterProperty jMeterProperty : getCookiesProperty()) {
                 Cookie cook = (Cookie) jMeterProperty.getObjectValue();
                 final long expiresMillis = cook.getExpiresMillis();
                 if (expiresMillis == 0 || expiresMillis > now) { // only save unexpired cookies
@@ -301,7 +318,11 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
             if (log.isDebugEnabled()) {
                 log.debug("Add cookie to store {}", c.toString());
             }
-            getCookies().addItem(c);
+            CookieIndex index = getCookieIndex();
+            getCookiesProperty().addItem(c);
+            if (index != null) {
+                index.add(c);
+            }
             if (SAVE_COOKIES)  {
                 JMeterContext context = getThreadContext();
                 if (context.isSamplingStarted()) {
@@ -332,7 +353,8 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
      * @param index index of the cookie to remove
      */
     public void remove(int index) {// TODO not used by GUI
-        getCookies().remove(index);
+        cookieIndex = null;
+        getCookiesProperty().remove(index);
     }
 
     /**
@@ -342,7 +364,8 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
      * @return cookie at index <code>i</code>
      */
     public Cookie get(int i) {// Only used by GUI
-        return (Cookie) getCookies().get(i).getObjectValue();
+        cookieIndex = null; // The cookie may be changed by the caller
+        return (Cookie) getCookiesProperty().get(i).getObjectValue();
     }
 
     /**
@@ -354,7 +377,29 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
      * @return the value string for the cookie header (goes after "Cookie: ").
      */
     public String getCookieHeaderForURL(URL url) {
-        return cookieHandler.getCookieHeaderForURL(getCookies(), url, ALLOW_VARIABLE_COOKIES);
+        CookieIndex index = getCookieIndex();
+        if (index == null) {
+            return cookieHandler.getCookieHeaderForURL(getCookiesProperty(), url, ALLOW_VARIABLE_COOKIES);
+        }
+        return index.getCookieHeader(url,
+                candidates -> cookieHandler.getCookieHeaderForURL(candidates, url, ALLOW_VARIABLE_COOKIES));
+    }
+
+    /**
+     * The index is only used with {@link HC4CookieHandler}, whose cookie specs only match
+     * the cookies returned by {@link CookieIndex#candidates(String, String)}.
+     *
+     * @return the index of the cookies, or {@code null} if the cookies must be scanned
+     */
+    private CookieIndex getCookieIndex() {
+        if (!INDEXED_STORE || !(cookieHandler instanceof HC4CookieHandler)) {
+            return null;
+        }
+        CollectionProperty cookies = getCookiesProperty();
+        if (cookieIndex == null || !cookieIndex.isIndexOf(cookies)) {
+            cookieIndex = new CookieIndex(cookies, ALLOW_VARIABLE_COOKIES);
+        }
+        return cookieIndex;
     }
 
 
@@ -379,8 +424,16 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
     }
 
     void removeMatchingCookies(Cookie newCookie){
+        CookieIndex index = getCookieIndex();
+        if (index != null) {
+            List<Cookie> removed = index.removeMatching(newCookie);
+            if (!removed.isEmpty()) {
+                removeCookies(newCookie, removed);
+            }
+            return;
+        }
         // Scan for any matching cookies
-        PropertyIterator iter = getCookies().iterator();
+        PropertyIterator iter = getCookiesProperty().iterator();
         while (iter.hasNext()) {
             Cookie cookie = (Cookie) iter.next().getObjectValue();
             if (cookie == null) {// TODO is this possible?
@@ -396,10 +449,26 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
         }
     }
 
+    private void removeCookies(Cookie newCookie, List<Cookie> removed) {
+        PropertyIterator iter = getCookiesProperty().iterator();
+        while (iter.hasNext()) {
+            Object cookie = iter.next().getObjectValue();
+            // The removed cookies are the instances found by the index
+            if (removed.stream().anyMatch(c -> c == cookie)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("New Cookie = {} removing matching Cookie {}",
+                            newCookie.toString(), cookie.toString());
+                }
+                iter.remove();
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void testStarted() {
-        initialCookies = getCookies();
+        initialCookies = getCookiesProperty();
+        cookieIndex = null;
         try {
             cookieHandler = (CookieHandler) ClassTools.construct(getImplementation(), getPolicy());
         } catch (JMeterException e) {
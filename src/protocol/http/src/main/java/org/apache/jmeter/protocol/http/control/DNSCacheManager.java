@@ -31,6 +31,7 @@ import org.apache.http.impl.conn.SystemDefaultDnsResolver;
 import org.apache.jmeter.config.ConfigTestElement;
 import org.apache.jmeter.engine.event.LoopIterationEvent;
 import org.apache.jmeter.testelement.TestIterationListener;
+import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.testelement.property.BooleanProperty;
 import org.apache.jmeter.testelement.property.CollectionProperty;
 import org.apache.jmeter.testelement.property.JMeterProperty;
@@ -55,10 +56,13 @@ import org.xbill.DNS.Type;
  * custom resolver can be used. Custom resolver uses dnsjava library, and gives
  * ability to bypass both OS and JVM cache. It allows to use paradigm
  * "1 virtual user - 1 DNS cache" in performance tests.
+ * <p>
+ * With the shared cache option, the threads share the resolved records, see {@link SharedDnsCache}.
  *
  * @since 2.12
  */
-public class DNSCacheManager extends ConfigTestElement implements TestIterationListener, Serializable, DnsResolver {
+public class DNSCacheManager extends ConfigTestElement
+        implements TestIterationListener, TestStateListener, Serializable, DnsResolver {
 
     private static final long serialVersionUID = 2122L;
 
@@ -66,6 +70,8 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
 
     public static final boolean DEFAULT_CLEAR_CACHE_EACH_ITER = false;
 
+    public static final boolean DEFAULT_SHARED_CACHE = false;
+
     //++ JMX tag values
     private static final String CLEAR_CACHE_EACH_ITER = "DNSCacheManager.clearEachIteration"; // $NON-NLS-1$
 
@@ -74,6 +80,8 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
     private static final String HOSTS = "DNSCacheManager.hosts"; // $NON-NLS-1$
 
     private static final String IS_CUSTOM_RESOLVER = "DNSCacheManager.isCustomResolver"; // $NON-NLS-1$
+
+    private static final String SHARED_CACHE = "DNSCacheManager.sharedCache"; // $NON-NLS-1$
     //-- JMX tag values
 
     private static final boolean DEFAULT_IS_CUSTOM_RESOLVER = false;
@@ -96,10 +104,15 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         setProperty(new CollectionProperty(SERVERS, new ArrayList<String>()));
         this.systemDefaultDnsResolver = new SystemDefaultDnsResolver();
         this.cache = new LinkedHashMap<>();
+        lookupCache = createLookupCache();
+    }
+
+    private static Cache createLookupCache() {
+        Cache lookupCache = new Cache();
         //disabling cache
-        lookupCache = new Cache();
         lookupCache.setMaxCache(0);
         lookupCache.setMaxEntries(0);
+        return lookupCache;
     }
 
     /**
@@ -113,21 +126,8 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
     }
 
     private Resolver createResolver() {
-        CollectionProperty dnsServers = getServers();
         try {
-            String[] serverNames = new String[dnsServers.size()];
-            int index = 0;
-            for (JMeterProperty jMeterProperty : dnsServers) {
-                serverNames[index] = jMeterProperty.getStringValue();
-                index++;
-            }
-            ExtendedResolver result = new ExtendedResolver(serverNames);
-            if (log.isDebugEnabled()) {
-                log.debug("Using DNS Resolvers: {}", Arrays.asList(result.getResolvers()));
-            }
-            // resolvers will be chosen via round-robin
-            result.setLoadBalance(true);
-            return result;
+            return createExtendedResolver(getServerNames());
         } catch (UnknownHostException uhe) {
             this.initFailed = true;
             log.warn("Failed to create Extended resolver: {}", uhe.getMessage(), uhe);
@@ -135,6 +135,27 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         }
     }
 
+    private String[] getServerNames() {
+        CollectionProperty dnsServers = getServers();
+        String[] serverNames = new String[dnsServers.size()];
+        int index = 0;
+        for (JMeterProperty jMeterProperty : dnsServers) {
+            serverNames[index] = jMeterProperty.getStringValue();
+            index++;
+        }
+        return serverNames;
+    }
+
+    private static ExtendedResolver createExtendedResolver(String[] serverNames) throws UnknownHostException {
+        ExtendedResolver result = new ExtendedResolver(serverNames);
+        if (log.isDebugEnabled()) {
+            log.debug("Using DNS Resolvers: {}", Arrays.asList(result.getResolvers()));
+        }
+        // resolvers will be chosen via round-robin
+        result.setLoadBalance(true);
+        return result;
+    }
+
     /**
      * Resolves address using system or custom DNS resolver
      */
@@ -155,6 +176,10 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
             logCache("miss", host, staticAddresses);
             cache.put(host, staticAddresses);
             return staticAddresses;
+        } else if (isSharedCache()) {
+            InetAddress[] addresses = getSharedCache().resolve(host, this::requestLookupWithTtl);
+            logCache("shared", host, addresses);
+            return addresses;
         } else {
             InetAddress[] addresses = requestLookup(host);
             logCache("miss", host, addresses);
@@ -163,7 +188,7 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         }
     }
 
-    private void logCache(String hitOrMiss, String host, InetAddress[] addresses) {
+    private static void logCache(String hitOrMiss, String host, InetAddress[] addresses) {
         if (log.isDebugEnabled()) {
             log.debug("Cache {} thread#{}: {} => {}", hitOrMiss, JMeterContextService.getContext().getThreadNum(), host,
                     Arrays.toString(addresses));
@@ -234,6 +259,87 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         }
     }
 
+    private SharedDnsCache getSharedCache() {
+        boolean customResolver = isCustomResolver();
+        StringBuilder resolverKey = new StringBuilder(customResolver ? "custom" : "system"); // $NON-NLS-1$ $NON-NLS-2$
+        String[] serverNames = customResolver ? getServerNames() : null;
+        if (serverNames != null) {
+            for (String server : serverNames) {
+                resolverKey.append(' ').append(server);
+            }
+        }
+        int timeout = timeoutMs;
+        return SharedDnsCache.getCache(resolverKey.toString(), () -> createBackgroundResolver(serverNames, timeout));
+    }
+
+    /**
+     * Resolver of the background refreshes of the shared cache, with its own DNS resolver and lookup cache,
+     * as the ones of this manager must only be used by its thread
+     *
+     * @param serverNames DNS servers of the custom resolver, {@code null} to use the system resolver
+     * @param timeoutMs   timeout of the custom resolver in milliseconds, {@code 0} for the default
+     */
+    private static SharedDnsCache.Resolver createBackgroundResolver(String[] serverNames, int timeoutMs) {
+        if (serverNames == null || serverNames.length == 0) {
+            return DNSCacheManager::systemLookupWithTtl;
+        }
+        ExtendedResolver extendedResolver;
+        try {
+            extendedResolver = createExtendedResolver(serverNames);
+        } catch (UnknownHostException uhe) {
+            log.warn("Failed to create Extended resolver for the shared cache: {}", uhe.getMessage(), uhe);
+            return host -> {
+                throw new UnknownHostException("Could not resolve host:" + host
+                        + ", failed to initialize resolver or no resolver found");
+            };
+        }
+        if (timeoutMs > 0) {
+            extendedResolver.setTimeout(timeoutMs / 1000, timeoutMs % 1000);
+        }
+        Cache backgroundLookupCache = createLookupCache();
+        return host -> customLookupWithTtl(host, extendedResolver, backgroundLookupCache);
+    }
+
+    /**
+     * Sends DNS request via system or custom DNS resolver, and get the time the result can be cached
+     *
+     * @param host Host to lookup
+     * @return the addresses, or null if lookup did not return result, with the TTL of the records
+     * or {@link SharedDnsCache#DEFAULT_TTL} for the system resolver
+     */
+    private SharedDnsCache.Resolution requestLookupWithTtl(String host) throws UnknownHostException {
+        if (isCustomResolver()) {
+            ExtendedResolver extendedResolver = getOrCreateResolver();
+            if (extendedResolver == null) {
+                throw new UnknownHostException("Could not resolve host:" + host
+                        + ", failed to initialize resolver or no resolver found");
+            } else if (extendedResolver.getResolvers().length > 0) {
+                setResolverTimeout();
+                return customLookupWithTtl(host, resolver, lookupCache);
+            }
+        }
+        return systemLookupWithTtl(host);
+    }
+
+    private static SharedDnsCache.Resolution customLookupWithTtl(String host, Resolver resolver, Cache lookupCache)
+            throws UnknownHostException {
+        Record[] records = customLookup(host, resolver, lookupCache);
+        if (records == null) {
+            return new SharedDnsCache.Resolution(null, SharedDnsCache.DEFAULT_TTL);
+        }
+        long ttl = Long.MAX_VALUE;
+        for (Record dnsRecord : records) {
+            ttl = Math.min(ttl, dnsRecord.getTTL());
+        }
+        return new SharedDnsCache.Resolution(toAddresses(records), ttl * 1000);
+    }
+
+    private static SharedDnsCache.Resolution systemLookupWithTtl(String host) throws UnknownHostException {
+        InetAddress[] addresses = SystemDefaultDnsResolver.INSTANCE.resolve(host);
+        logCache("miss (resolved with system resolver)", host, addresses);
+        return new SharedDnsCache.Resolution(addresses, SharedDnsCache.DEFAULT_TTL);
+    }
+
     /**
      * Sends DNS request via system or custom DNS resolver
      *
@@ -259,24 +365,41 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
     }
 
     private InetAddress[] customRequestLookup(String host) throws UnknownHostException {
-        InetAddress[] addresses = null;
+        setResolverTimeout();
+        Record[] records = customLookup(host, resolver, lookupCache);
+        return records == null ? null : toAddresses(records);
+    }
+
+    private void setResolverTimeout() {
+        if (timeoutMs > 0) {
+            resolver.setTimeout(timeoutMs / 1000, timeoutMs % 1000);
+        }
+    }
+
+    /**
+     * @return the A records of the host, or null if the lookup could not be created
+     */
+    private static Record[] customLookup(String host, Resolver resolver, Cache lookupCache)
+            throws UnknownHostException {
         try {
             Lookup lookup = new Lookup(host, Type.A);
             lookup.setCache(lookupCache);
-            if (timeoutMs > 0) {
-                resolver.setTimeout(timeoutMs / 1000, timeoutMs % 1000);
-            }
             lookup.setResolver(resolver);
             Record[] records = lookup.run();
             if (records == null || records.length == 0) {
                 throw new UnknownHostException("Failed to resolve host name: " + host);
             }
-            addresses = new InetAddress[records.length];
-            for (int i = 0; i < records.length; i++) {
-                addresses[i] = ((ARecord) records[i]).getAddress();
-            }
+            return records;
         } catch (TextParseException tpe) { // NOSONAR Exception handled
             log.debug("Failed to create Lookup object for host:{}, error message:{}", host, tpe.toString());
+            return null;
+        }
+    }
+
+    private static InetAddress[] toAddresses(Record[] records) {
+        InetAddress[] addresses = new InetAddress[records.length];
+        for (int i = 0; i < records.length; i++) {
+            addresses[i] = ((ARecord) records[i]).getAddress();
         }
         return addresses;
     }
@@ -294,7 +417,40 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
     }
 
     /**
-     * {@inheritDoc} Clean DNS cache if appropriate check-box was selected
+     * {@inheritDoc} Clean the shared DNS caches, so a test does not use the records of the previous one
+     */
+    @Override
+    public void testStarted() {
+        SharedDnsCache.clearAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testEnded() {
+        SharedDnsCache.clearAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    /**
+     * {@inheritDoc} Clean DNS cache if appropriate check-box was selected.
+     * The shared cache is not cleaned, its records expire according to their TTL
      */
     @Override
     public void testIterationStart(LoopIterationEvent event) {
@@ -385,6 +541,22 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         setProperty(new BooleanProperty(CLEAR_CACHE_EACH_ITER, clear));
     }
 
+    /**
+     * @return {@code true} if the threads share the resolved records, see {@link SharedDnsCache}
+     * @since 5.5
+     */
+    public boolean isSharedCache() {
+        return this.getPropertyAsBoolean(SHARED_CACHE, DEFAULT_SHARED_CACHE);
+    }
+
+    /**
+     * @param sharedCache flag whether the threads share the resolved records instead of caching them per thread
+     * @since 5.5
+     */
+    public void setSharedCache(boolean sharedCache) {
+        setProperty(SHARED_CACHE, sharedCache, DEFAULT_SHARED_CACHE);
+    }
+
     public boolean isCustomResolver() {
         return this.getPropertyAsBoolean(IS_CUSTOM_RESOLVER, DEFAULT_IS_CUSTOM_RESOLVER);
     }
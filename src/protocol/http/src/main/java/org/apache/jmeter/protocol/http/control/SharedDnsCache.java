@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DNS cache shared by the threads that use the same resolver configuration of the {@link DNSCacheManager}.
+ * <p>
+ * Each record is kept for its TTL (or {@code DNSCacheManager.shared.default_ttl} when the system resolver is used),
+ * failures are kept for {@code DNSCacheManager.shared.negative_ttl}.
+ * When a record is used after {@code DNSCacheManager.shared.refresh_ahead} percent of its TTL,
+ * it is resolved again in background so the threads do not wait for its expiry. The background resolutions use
+ * a resolver of the cache, as the resolvers of the threads must only be used by their thread.
+ * The addresses of a record are rotated between the calls ({@code DNSCacheManager.shared.address_selection}),
+ * so the threads spread their connections over the servers.
+ */
+final class SharedDnsCache {
+    private static final Logger log = LoggerFactory.getLogger(SharedDnsCache.class);
+
+    /** TTL in milliseconds of the records resolved without TTL, by the system resolver */
+    static final long DEFAULT_TTL =
+            JMeterUtils.getPropDefault("DNSCacheManager.shared.default_ttl", 60000L); // $NON-NLS-1$
+
+    private static final long NEGATIVE_TTL =
+            JMeterUtils.getPropDefault("DNSCacheManager.shared.negative_ttl", 10000L); // $NON-NLS-1$
+
+    private static final int REFRESH_AHEAD =
+            JMeterUtils.getPropDefault("DNSCacheManager.shared.refresh_ahead", 80); // $NON-NLS-1$
+
+    private static final String ADDRESS_SELECTION =
+            JMeterUtils.getPropDefault("DNSCacheManager.shared.address_selection", "round_robin"); // $NON-NLS-1$ $NON-NLS-2$
+
+    private static final ConcurrentMap<String, SharedDnsCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static class RefresherHolder {
+        private static final ExecutorService REFRESHER = createRefresher();
+    }
+
+    /** How the addresses of a record are ordered for each call */
+    enum AddressSelection {
+        /** Each call starts with the next address */
+        ROUND_ROBIN,
+        /** Each call starts with a random address */
+        RANDOM,
+        /** The addresses are returned in the order of the record */
+        NONE;
+
+        static AddressSelection of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) { // NOSONAR the default is used
+                log.warn("Unknown DNSCacheManager.shared.address_selection {}, using round_robin", name);
+                return ROUND_ROBIN;
+            }
+        }
+    }
+
+    /**
+     * Resolves a host when it is not cached or must be refreshed
+     */
+    @FunctionalInterface
+    interface Resolver {
+        /**
+         * @param host host to resolve
+         * @return the addresses and their TTL
+         * @throws UnknownHostException if the host cannot be resolved
+         */
+        Resolution resolve(String host) throws UnknownHostException;
+    }
+
+    /**
+     * Addresses of a host, with the time they may be cached
+     */
+    static final class Resolution {
+        private final InetAddress[] addresses;
+        private final long ttlMillis;
+
+        /**
+         * @param addresses addresses of the host, may be {@code null}
+         * @param ttlMillis time to live of the addresses in milliseconds
+         */
+        Resolution(InetAddress[] addresses, long ttlMillis) {
+            this.addresses = addresses;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Resolutions in progress, the other callers of the host wait for them */
+    private final ConcurrentMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+    private final LongSupplier nanoClock;
+
+    private final Executor refresher;
+
+    private final AddressSelection addressSelection;
+
+    private final Supplier<Resolver> backgroundResolverFactory;
+
+    /** Resolver of the background refreshes, created by the first refresh */
+    private Resolver backgroundResolver; // guarded by this
+
+    /**
+     * @param nanoClock                 time source in nanoseconds
+     * @param refresher                 runs the background refreshes
+     * @param addressSelection          order of the addresses returned for each call
+     * @param backgroundResolverFactory creates the resolver used by the background refreshes
+     */
+    SharedDnsCache(LongSupplier nanoClock, Executor refresher, AddressSelection addressSelection,
+            Supplier<Resolver> backgroundResolverFactory) {
+        this.nanoClock = nanoClock;
+        this.refresher = refresher;
+        this.addressSelection = addressSelection;
+        this.backgroundResolverFactory = backgroundResolverFactory;
+    }
+
+    /**
+     * @param resolverKey               identifies the resolver configuration: the records of different DNS servers
+     *                                  are not shared
+     * @param backgroundResolverFactory creates the resolver of the background refreshes, for the same configuration
+     * @return the cache shared by the threads using the resolver configuration
+     */
+    static SharedDnsCache getCache(String resolverKey, Supplier<Resolver> backgroundResolverFactory) {
+        return CACHES.computeIfAbsent(resolverKey,
+                k -> new SharedDnsCache(System::nanoTime, RefresherHolder.REFRESHER,
+                        AddressSelection.of(ADDRESS_SELECTION), backgroundResolverFactory));
+    }
+
+    /**
+     * Forget the records of all the shared caches
+     */
+    static void clearAll() {
+        CACHES.clear();
+    }
+
+    /**
+     * Resolve a host from the cache, the caller waits only when the host is not cached or its record expired.
+     *
+     * @param host     host to resolve
+     * @param resolver resolves the host when needed, it is only called by the calling thread
+     * @return the addresses of the host, ordered according to the address selection
+     * @throws UnknownHostException if the host cannot be resolved, failures are also cached
+     */
+    InetAddress[] resolve(String host, Resolver resolver) throws UnknownHostException {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(host);
+        if (entry == null || entry.isExpired(now)) {
+            entry = loadOnce(host, resolver, now);
+        } else if (entry.shouldRefresh(now) && entry.refreshing.compareAndSet(false, true)) {
+            refresh(host, entry);
+        }
+        return entry.select();
+    }
+
+    /**
+     * Concurrent callers of the same host wait for a single resolution,
+     * the lookup runs out of the maps so the callers of other hosts do not wait for it
+     */
+    private Entry loadOnce(String host, Resolver resolver, long now) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> pending = loading.putIfAbsent(host, created);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        try {
+            Entry entry = entries.get(host);
+            if (entry == null || entry.isExpired(now)) {
+                entry = load(host, resolver);
+                entries.put(host, entry);
+            }
+            created.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(host, created);
+        }
+    }
+
+    private synchronized Resolver getBackgroundResolver() {
+        if (backgroundResolver == null) {
+            backgroundResolver = backgroundResolverFactory.get();
+        }
+        return backgroundResolver;
+    }
+
+    private void refresh(String host, Entry entry) {
+        try {
+            refresher.execute(() -> {
+                Entry refreshed = load(host, getBackgroundResolver());
+                if (refreshed.failure != null) {
+                    // Keep the current record until it expires
+                    log.debug("Refresh of {} failed: {}", host, refreshed.failure);
+                    return;
+                }
+                entries.replace(host, entry, refreshed);
+            });
+        } catch (RuntimeException e) { // NOSONAR the record is resolved again when it expires
+            log.warn("Could not refresh {} in background", host, e);
+        }
+    }
+
+    private Entry load(String host, Resolver resolver) {
+        long now = nanoClock.getAsLong();
+        try {
+            Resolution resolution = resolver.resolve(host);
+            if (log.isDebugEnabled()) {
+                log.debug("Shared cache resolved {} for {} ms", host, resolution.ttlMillis);
+            }
+            return new Entry(resolution.addresses, null, now, resolution.ttlMillis);
+        } catch (UnknownHostException e) {
+            log.debug("Shared cache failed to resolve {}: {}", host, e.toString());
+            return new Entry(null, e.getMessage(), now, NEGATIVE_TTL);
+        }
+    }
+
+    private static ExecutorService createRefresher() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r);
+                    t.setName("DnsRefresh-" + t.getName()); //$NON-NLS-1$
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private final class Entry {
+        private final InetAddress[] addresses;
+        /** Message of the resolution failure, {@code null} if the host was resolved */
+        private final String failure;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Entry(InetAddress[] addresses, String failure, long now, long ttlMillis) {
+            this.addresses = addresses;
+            this.failure = failure;
+            long ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+            this.expiresAt = now + ttlNanos;
+            this.refreshAt = failure == null ? now + ttlNanos / 100 * REFRESH_AHEAD : expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private boolean shouldRefresh(long now) {
+            return now - refreshAt >= 0;
+        }
+
+        private InetAddress[] select() throws UnknownHostException {
+            if (failure != null) {
+                throw new UnknownHostException(failure);
+            }
+            if (addresses == null) {
+                return null;
+            }
+            int length = addresses.length;
+            if (length < 2 || addressSelection == AddressSelection.NONE) {
+                return addresses.clone();
+            }
+            int start = addressSelection == AddressSelection.RANDOM
+                    ? ThreadLocalRandom.current().nextInt(length)
+                    : Math.floorMod(next.getAndIncrement(), length);
+            InetAddress[] selected = new InetAddress[length];
+            for (int i = 0; i < length; i++) {
+                selected[i] = addresses[(start + i) % length];
+            }
+            return selected;
+        }
+    }
+}
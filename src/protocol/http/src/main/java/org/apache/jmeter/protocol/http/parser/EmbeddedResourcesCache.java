@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.parser;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * LRU cache of the embedded resource URLs extracted from the pages, so identical pages
+ * downloaded by many threads are parsed only once.
+ * <p>
+ * A page is identified by the SHA-256 digest of its content, with the parser, the user agent,
+ * the base URL and the encoding used to parse it, as they all change the extracted URLs.
+ * The size of the cache is set by {@code httpsampler.embedded_resources_parsed_pages_cache_size},
+ * it is disabled when the size is 0.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class EmbeddedResourcesCache {
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedResourcesCache.class);
+
+    private static final int CACHE_SIZE = JMeterUtils.getPropDefault(
+            "httpsampler.embedded_resources_parsed_pages_cache_size", 100); // $NON-NLS-1$
+
+    /**
+     * Initialization On Demand Holder pattern
+     */
+    private static class CacheHolder {
+        private static final Cache<String, List<URL>> PAGES = Caffeine.newBuilder()
+                .maximumSize(CACHE_SIZE)
+                .build();
+    }
+
+    private EmbeddedResourcesCache() {
+        super();
+    }
+
+    /**
+     * Get the URLs of the resources embedded in a page, from the cache or from the parser.
+     *
+     * @param parser       parser of the page
+     * @param userAgent    User Agent
+     * @param responseData content of the page
+     * @param baseUrl      Base URL from which the page was obtained
+     * @param encoding     Charset
+     * @return an Iterator for the resource URLs
+     * @throws LinkExtractorParseException when extracting the links fails, failures are not cached
+     * @see LinkExtractorParser#getEmbeddedResourceURLs(String, byte[], URL, String)
+     */
+    public static Iterator<URL> getEmbeddedResourceURLs(LinkExtractorParser parser, String userAgent,
+            byte[] responseData, URL baseUrl, String encoding) throws LinkExtractorParseException {
+        if (CACHE_SIZE <= 0 || !parser.isReusable()) {
+            return parser.getEmbeddedResourceURLs(userAgent, responseData, baseUrl, encoding);
+        }
+        String key = parser.getClass().getName() + '\n' + userAgent + '\n'
+                + baseUrl.toExternalForm() + '\n' + encoding + '\n' + DigestUtils.sha256Hex(responseData);
+        Cache<String, List<URL>> pages = CacheHolder.PAGES;
+        List<URL> urls = pages.getIfPresent(key);
+        if (urls == null) {
+            // Concurrent threads may parse the same page, which is cheaper than making them wait
+            urls = toList(parser.getEmbeddedResourceURLs(userAgent, responseData, baseUrl, encoding));
+            pages.put(key, urls);
+        } else {
+            LOG.debug("Found {} embedded resources of {} in cache", urls.size(), baseUrl);
+        }
+        return urls.iterator();
+    }
+
+    private static List<URL> toList(Iterator<URL> iterator) {
+        if (iterator == null) {
+            return Collections.emptyList();
+        }
+        List<URL> urls = new ArrayList<>();
+        // Malformed URLs are kept as null, so they are still reported to the sampler
+        iterator.forEachRemaining(urls::add);
+        return Collections.unmodifiableList(urls);
+    }
+
+    /**
+     * Forget the parsed pages
+     */
+    public static void clear() {
+        if (CACHE_SIZE > 0) {
+            CacheHolder.PAGES.invalidateAll();
+        }
+    }
+}
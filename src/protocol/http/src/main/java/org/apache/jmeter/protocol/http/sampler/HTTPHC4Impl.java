@@ -29,6 +29,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.net.UnknownHostException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
@@ -390,9 +391,21 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
     private static final class JMeterDefaultHttpClientConnectionOperator extends DefaultHttpClientConnectionOperator {
 
+        /** Nanoseconds spent by the thread resolving host names during the current connection */
+        private static final ThreadLocal<long[]> RESOLUTION_TIME = ThreadLocal.withInitial(() -> new long[1]);
+
         public JMeterDefaultHttpClientConnectionOperator(Lookup<ConnectionSocketFactory> socketFactoryRegistry, SchemePortResolver schemePortResolver,
                 DnsResolver dnsResolver) {
-            super(socketFactoryRegistry, schemePortResolver, dnsResolver);
+            super(socketFactoryRegistry, schemePortResolver, host -> timedResolve(dnsResolver, host));
+        }
+
+        private static InetAddress[] timedResolve(DnsResolver dnsResolver, String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return dnsResolver.resolve(host);
+            } finally {
+                RESOLUTION_TIME.get()[0] += System.nanoTime() - start;
+            }
         }
 
         /* (non-Javadoc)
@@ -404,6 +417,8 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
         @Override
         public void connect(ManagedHttpClientConnection conn, HttpHost host, InetSocketAddress localAddress,
                 int connectTimeout, SocketConfig socketConfig, HttpContext context) throws IOException {
+            long[] resolutionTime = RESOLUTION_TIME.get();
+            resolutionTime[0] = 0;
             try {
                 super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
             } finally {
@@ -411,6 +426,7 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
                         (SampleResult)context.getAttribute(HTTPHC4Impl.CONTEXT_ATTRIBUTE_SAMPLER_RESULT);
                 if (sample != null) {
                     sample.connectEnd();
+                    sample.setDnsTime(TimeUnit.NANOSECONDS.toMillis(resolutionTime[0]));
                 }
             }
         }
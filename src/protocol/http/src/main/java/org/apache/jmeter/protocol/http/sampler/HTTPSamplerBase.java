@@ -59,6 +59,7 @@ import org.apache.jmeter.protocol.http.control.CookieManager;
 import org.apache.jmeter.protocol.http.control.DNSCacheManager;
 import org.apache.jmeter.protocol.http.control.HeaderManager;
 import org.apache.jmeter.protocol.http.parser.BaseParser;
+import org.apache.jmeter.protocol.http.parser.EmbeddedResourcesCache;
 import org.apache.jmeter.protocol.http.parser.LinkExtractorParseException;
 import org.apache.jmeter.protocol.http.parser.LinkExtractorParser;
 import org.apache.jmeter.protocol.http.sampler.ResourcesDownloader.AsynSamplerResultHolder;
@@ -322,6 +323,10 @@ public abstract class HTTPSamplerBase extends AbstractSampler
     private static final boolean SEPARATE_CONTAINER =
             JMeterUtils.getPropDefault("httpsampler.separate.container", true); // $NON-NLS-1$
 
+    /** Submit the concurrent downloads of embedded resources as soon as their URL is checked */
+    private static final boolean PIPELINED_DOWNLOADS =
+            JMeterUtils.getPropDefault("httpsampler.embedded_resources_pipelined", false); // $NON-NLS-1$
+
     private static final boolean USE_JAVA_REGEX = !JMeterUtils.getPropDefault(
             "jmeter.regex.engine", "oro").equalsIgnoreCase("oro");
 
@@ -1351,7 +1356,8 @@ public abstract class HTTPSamplerBase extends AbstractSampler
                 final LinkExtractorParser parser = getParser(res);
                 if (parser != null) {
                     String userAgent = getUserAgent(res);
-                    urls = parser.getEmbeddedResourceURLs(userAgent, responseData, res.getURL(), res.getDataEncodingWithDefault());
+                    urls = EmbeddedResourcesCache.getEmbeddedResourceURLs(
+                            parser, userAgent, responseData, res.getURL(), res.getDataEncodingWithDefault());
                 }
             }
         } catch (LinkExtractorParseException e) {
@@ -1394,6 +1400,10 @@ public abstract class HTTPSamplerBase extends AbstractSampler
                     isConcurrentDwn = false;
                 }
             }
+            // In pipelined mode, the downloads start while the next URLs are checked
+            ResourcesDownloader.DownloadBatch batch = isConcurrentDwn && PIPELINED_DOWNLOADS
+                    ? ResourcesDownloader.getInstance().newBatch(maxConcurrentDownloads)
+                    : null;
 
             while (urls.hasNext()) {
                 Object binURL = urls.next(); // See catch clause below
@@ -1424,7 +1434,12 @@ public abstract class HTTPSamplerBase extends AbstractSampler
                             continue;
                         }
 
-                        if (isConcurrentDwn) {
+                        if (batch != null) {
+                            if (!submitDownload(batch,
+                                    new ASyncSample(url, HTTPConstants.GET, false, frameDepth + 1, getCookieManager(), this))) {
+                                break;
+                            }
+                        } else if (isConcurrentDwn) {
                             // if concurrent download emb. resources, add to a list for async gets later
                             list.add(new ASyncSample(url, HTTPConstants.GET, false, frameDepth + 1, getCookieManager(), this));
                         } else {
@@ -1441,14 +1456,15 @@ public abstract class HTTPSamplerBase extends AbstractSampler
             }
 
             // IF for download concurrent embedded resources
-            if (isConcurrentDwn && !list.isEmpty()) {
+            if (batch != null || (isConcurrentDwn && !list.isEmpty())) {
 
                 ResourcesDownloader resourcesDownloader = ResourcesDownloader.getInstance();
 
                 try {
                     // sample all resources
-                    final List<Future<AsynSamplerResultHolder>> retExec =
-                            resourcesDownloader.invokeAllAndAwaitTermination(maxConcurrentDownloads, list);
+                    final List<Future<AsynSamplerResultHolder>> retExec = batch != null
+                            ? batch.awaitTermination()
+                            : resourcesDownloader.invokeAllAndAwaitTermination(maxConcurrentDownloads, list);
                     CookieManager cookieManager = getCookieManager();
                     // add result to main sampleResult
                     for (Future<AsynSamplerResultHolder> future : retExec) {
@@ -1476,6 +1492,23 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         return res;
     }
 
+    /**
+     * Submit the download of an embedded resource in pipelined mode.
+     *
+     * @param batch downloads of the embedded resources of the sample
+     * @param task  download to submit
+     * @return {@code false} if the thread was interrupted, the remaining resources must not be downloaded
+     */
+    private static boolean submitDownload(ResourcesDownloader.DownloadBatch batch, ASyncSample task) {
+        try {
+            batch.submit(task);
+            return true;
+        } catch (InterruptedException ie) { // NOSONAR reported when waiting for the submitted downloads
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     private Predicate<URL> generateMatcherPredicate(String regex, String explanation, boolean defaultAnswer) {
         if (StringUtils.isEmpty(regex)) {
             return s -> defaultAnswer;
@@ -1603,6 +1636,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         if (isConcurrentDwn()) {
             ResourcesDownloader.getInstance().shrink();
         }
+        EmbeddedResourcesCache.clear();
     }
 
     /**
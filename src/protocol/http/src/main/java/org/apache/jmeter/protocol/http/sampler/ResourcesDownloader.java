@@ -152,6 +152,23 @@ public class ResourcesDownloader {
             return submittedTasks;
         }
 
+        DownloadBatch batch = newBatch(maxConcurrentDownloads);
+        for (Callable<AsynSamplerResultHolder> task : list) {
+            batch.submit(task);
+        }
+        return batch.awaitTermination();
+    }
+
+    /**
+     * Start a batch of downloads, the tasks are submitted one by one as soon as they are known.
+     * <p>
+     * {@link DownloadBatch#awaitTermination()} must be called once all the tasks are submitted.
+     *
+     * @param maxConcurrentDownloads max concurrent downloads of the batch
+     * @return the batch
+     * @since 5.5
+     */
+    public DownloadBatch newBatch(int maxConcurrentDownloads) {
         // restore MaximumPoolSize original value
         concurrentExecutor.setMaximumPoolSize(MAX_POOL_SIZE);
 
@@ -159,43 +176,79 @@ public class ResourcesDownloader {
             LOG.debug("PoolSize={} LargestPoolSize={}",
                     concurrentExecutor.getPoolSize(), concurrentExecutor.getLargestPoolSize());
         }
+        return new DownloadBatch(new ExecutorCompletionService<>(concurrentExecutor), maxConcurrentDownloads);
+    }
 
-        CompletionService<AsynSamplerResultHolder> completionService =
-                new ExecutorCompletionService<>(concurrentExecutor);
-        int remainingTasksToTake = list.size();
+    /**
+     * Downloads of the resources of a sample, using at most <code>maxConcurrentDownloads</code> threads.
+     * Not thread-safe, the tasks are submitted by the thread of the sampler.
+     * @since 5.5
+     */
+    public static final class DownloadBatch {
+        private final CompletionService<AsynSamplerResultHolder> completionService;
+        private final int maxConcurrentDownloads;
+        private final List<Future<AsynSamplerResultHolder>> submittedTasks = new ArrayList<>();
+        private int remainingTasksToTake;
 
-        try {
-            // push the task in the threadpool until <maxConcurrentDownloads> is reached
-            int i = 0;
-            for (i = 0; i < Math.min(maxConcurrentDownloads, list.size()); i++) {
-                Callable<AsynSamplerResultHolder> task = list.get(i);
-                submittedTasks.add(completionService.submit(task));
-            }
+        private DownloadBatch(CompletionService<AsynSamplerResultHolder> completionService,
+                int maxConcurrentDownloads) {
+            this.completionService = completionService;
+            this.maxConcurrentDownloads = Math.max(maxConcurrentDownloads, 1);
+        }
 
-            // push the remaining tasks but ensure we use at most <maxConcurrentDownloads> threads
-            // wait for a previous download to finish before submitting a new one
-            for (; i < list.size(); i++) {
-                Callable<AsynSamplerResultHolder> task = list.get(i);
+        /**
+         * Push the task in the threadpool, waiting for a previous download to finish
+         * when <code>maxConcurrentDownloads</code> downloads are running.
+         *
+         * @param task resource to download
+         * @throws InterruptedException when interrupted while waiting, the running tasks are cancelled
+         */
+        public void submit(Callable<AsynSamplerResultHolder> task) throws InterruptedException {
+            if (remainingTasksToTake >= maxConcurrentDownloads) {
+                boolean taken = false;
                 try {
-                    completionService.take().get();
-                } catch (ExecutionException e) {
-                    throw new RuntimeException("Task execution failed", e.getCause());
+                    take();
+                    taken = true;
+                } finally {
+                    if (!taken) {
+                        cancel();
+                    }
                 }
-                remainingTasksToTake--;
-                submittedTasks.add(completionService.submit(task));
             }
+            submittedTasks.add(completionService.submit(task));
+            remainingTasksToTake++;
+        }
 
-            // all the resources downloads are in the thread pool queue
-            // wait for the completion of all downloads
-            while (remainingTasksToTake > 0) {
-                try {
-                    completionService.take().get();
-                } catch (ExecutionException e) {
-                    throw new RuntimeException("Task execution failed", e.getCause());
+        /**
+         * This method will block until the downloads complete or it get interrupted
+         * the Future list returned by this method only contains tasks that have been scheduled in the threadpool.<br>
+         * The status of those futures are either done or cancelled
+         *
+         * @return list tasks that have been scheduled
+         * @throws InterruptedException when interrupted while waiting
+         */
+        public List<Future<AsynSamplerResultHolder>> awaitTermination() throws InterruptedException {
+            try {
+                // wait for the completion of all downloads
+                while (remainingTasksToTake > 0) {
+                    take();
                 }
-                remainingTasksToTake--;
+            } finally {
+                cancel();
+            }
+            return submittedTasks;
+        }
+
+        private void take() throws InterruptedException {
+            try {
+                completionService.take().get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Task execution failed", e.getCause());
             }
-        } finally {
+            remainingTasksToTake--;
+        }
+
+        private void cancel() {
             //bug 51925 : Calling Stop on Test leaks executor threads when concurrent download of resources is on
             if (remainingTasksToTake > 0) {
                 LOG.debug("Interrupted while waiting for resource downloads : cancelling remaining tasks");
@@ -206,8 +259,6 @@ public class ResourcesDownloader {
                 }
             }
         }
-
-        return submittedTasks;
     }
 
     /**
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SharedDnsCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger backgroundLookups = new AtomicInteger();
+    private InetAddress first;
+    private InetAddress second;
+
+    @BeforeEach
+    void setUp() throws UnknownHostException {
+        first = InetAddress.getByAddress("host", new byte[]{10, 0, 0, 1});
+        second = InetAddress.getByAddress("host", new byte[]{10, 0, 0, 2});
+    }
+
+    private SharedDnsCache newCache(SharedDnsCache.AddressSelection selection) {
+        return new SharedDnsCache(clock::get, refreshes::add, selection, () -> host -> {
+            backgroundLookups.incrementAndGet();
+            return lookup(host);
+        });
+    }
+
+    private SharedDnsCache.Resolution lookup(String host) {
+        lookups.incrementAndGet();
+        return new SharedDnsCache.Resolution(new InetAddress[]{first, second}, 10000);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void testRecordIsKeptForItsTtl() throws UnknownHostException {
+        SharedDnsCache cache = newCache(SharedDnsCache.AddressSelection.NONE);
+        assertArrayEquals(new InetAddress[]{first, second}, cache.resolve("host", this::lookup));
+        advanceMillis(5000);
+        assertArrayEquals(new InetAddress[]{first, second}, cache.resolve("host", this::lookup));
+        assertEquals(1, lookups.get());
+        advanceMillis(5000);
+        cache.resolve("host", this::lookup);
+        assertEquals(2, lookups.get(), "expired record is resolved again");
+    }
+
+    @Test
+    void testRecordIsRefreshedInBackgroundBeforeExpiry() throws UnknownHostException {
+        SharedDnsCache cache = newCache(SharedDnsCache.AddressSelection.NONE);
+        cache.resolve("host", this::lookup);
+        advanceMillis(9000);
+        cache.resolve("host", this::lookup);
+        cache.resolve("host", this::lookup);
+        assertEquals(1, lookups.get(), "the caller does not wait for the refresh");
+        assertEquals(1, refreshes.size(), "a single refresh is scheduled");
+        refreshes.get(0).run();
+        assertEquals(2, lookups.get());
+        assertEquals(1, backgroundLookups.get(), "the refresh uses the resolver of the cache");
+        advanceMillis(5000);
+        cache.resolve("host", this::lookup);
+        assertEquals(2, lookups.get(), "the refreshed record is still valid");
+    }
+
+    @Test
+    void testFailuresAreCached() {
+        SharedDnsCache cache = newCache(SharedDnsCache.AddressSelection.NONE);
+        SharedDnsCache.Resolver failing = host -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException("Failed to resolve host name: " + host);
+        };
+        UnknownHostException e = assertThrows(UnknownHostException.class, () -> cache.resolve("missing", failing));
+        assertEquals("Failed to resolve host name: missing", e.getMessage());
+        assertThrows(UnknownHostException.class, () -> cache.resolve("missing", failing));
+        assertEquals(1, lookups.get());
+        advanceMillis(10000);
+        assertThrows(UnknownHostException.class, () -> cache.resolve("missing", failing));
+        assertEquals(2, lookups.get(), "failures expire");
+    }
+
+    @Test
+    void testLookupDoesNotBlockOtherHosts() throws Exception {
+        SharedDnsCache cache = newCache(SharedDnsCache.AddressSelection.NONE);
+        CountDownLatch resolving = new CountDownLatch(1);
+        CountDownLatch resolved = new CountDownLatch(1);
+        SharedDnsCache.Resolver slow = host -> {
+            resolving.countDown();
+            try {
+                resolved.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lookup(host);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<InetAddress[]> slowLookup = executor.submit(() -> cache.resolve("slow", slow));
+            assertTrue(resolving.await(10, TimeUnit.SECONDS));
+            Future<InetAddress[]> waiter = executor.submit(() -> cache.resolve("slow", this::lookup));
+            assertArrayEquals(new InetAddress[]{first, second}, cache.resolve("fast", this::lookup),
+                    "other hosts are resolved during the slow lookup");
+            resolved.countDown();
+            assertArrayEquals(new InetAddress[]{first, second}, slowLookup.get(10, TimeUnit.SECONDS));
+            assertArrayEquals(new InetAddress[]{first, second}, waiter.get(10, TimeUnit.SECONDS));
+            assertEquals(2, lookups.get(), "concurrent callers of a host wait for a single resolution");
+        } finally {
+            resolved.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRoundRobinRotatesAddresses() throws UnknownHostException {
+        SharedDnsCache cache = newCache(SharedDnsCache.AddressSelection.ROUND_ROBIN);
+        assertArrayEquals(new InetAddress[]{first, second}, cache.resolve("host", this::lookup));
+        assertArrayEquals(new InetAddress[]{second, first}, cache.resolve("host", this::lookup));
+        assertArrayEquals(new InetAddress[]{first, second}, cache.resolve("host", this::lookup));
+    }
+
+    @Test
+    void testUnknownAddressSelectionUsesRoundRobin() {
+        assertEquals(SharedDnsCache.AddressSelection.RANDOM, SharedDnsCache.AddressSelection.of(" Random "));
+        assertEquals(SharedDnsCache.AddressSelection.ROUND_ROBIN, SharedDnsCache.AddressSelection.of("first"));
+    }
+
+    @Test
+    void testStaticHostsAreNotShared() throws UnknownHostException {
+        DNSCacheManager manager = new DNSCacheManager();
+        manager.setSharedCache(true);
+        manager.setCustomResolver(true);
+        manager.addHost("jmeter.example.org", "127.0.0.1");
+        assertArrayEquals(new InetAddress[]{InetAddress.getByName("127.0.0.1")},
+                manager.resolve("jmeter.example.org"));
+        assertEquals(1, manager.cache.size());
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.jmeter.junit.JMeterTestCase;
 import org.apache.jmeter.protocol.http.sampler.HTTPNullSampler;
 import org.apache.jmeter.protocol.http.sampler.HTTPSamplerBase;
 import org.apache.jmeter.protocol.http.util.HTTPConstants;
+import org.apache.jmeter.testelement.property.CollectionProperty;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.junit.Assert;
@@ -621,4 +622,70 @@ public class TestHC4CookieManager extends JMeterTestCase {
         assertTrue(man.get(num).getSecure());
         assertEquals(0, man.get(num).getExpires()); // Show that maxlong now saved as 0
     }
+
+    @Test
+    public void testIndexedCookiesGiveSameHeaderAsScan() throws Exception {
+        String[] policies = {HC4CookieHandler.DEFAULT_POLICY_NAME, CookieSpecs.NETSCAPE, CookieSpecs.DEFAULT,
+                "rfc2965"};
+        String[] urls = {"http://a.example.com/", "http://a.example.com/app/x", "https://b.a.example.com/app/",
+                "http://myexample.com/app", "http://example.com", "http://localhost/app/y", "http://other.org/"};
+        for (String policy : policies) {
+            man = new CookieManager();
+            man.setCookiePolicy(policy);
+            man.setThreadContext(jmctx);
+            man.testStarted();
+            man.add(new Cookie("root", "1", "example.com", "/", false, 0));
+            man.add(new Cookie("dot", "2", ".example.com", "/app", false, 0));
+            man.add(new Cookie("host", "3", "a.example.com", "/app/", false, 0));
+            man.add(new Cookie("secure", "4", "b.a.example.com", "/", true, 0));
+            man.add(new Cookie("suffix", "5", "example.com", "/ap", false, 0));
+            man.add(new Cookie("local", "6", ".local", "/", false, 0));
+            man.add(new Cookie("nodomain", "7", "", "/", false, 0));
+            man.add(new Cookie("localhost", "8", "localhost", "/app", false, 0, true, true, 0));
+            man.addCookieFromHeader("header=9; Path=/app", new URL("http://a.example.com/app/z"));
+            for (String url : urls) {
+                String scanned = man.getCookieHandler()
+                        .getCookieHeaderForURL(man.getCookies(), new URL(url), CookieManager.ALLOW_VARIABLE_COOKIES);
+                assertEquals(policy + " " + url, scanned, man.getCookieHeaderForURL(new URL(url)));
+                // Twice, the second header comes from the cache
+                assertEquals(policy + " " + url, scanned, man.getCookieHeaderForURL(new URL(url)));
+            }
+        }
+    }
+
+    @Test
+    public void testCachedHeaderFollowsCookieChanges() throws Exception {
+        URL url = new URL("http://a.example.com/app/");
+        assertNull(man.getCookieHeaderForURL(url));
+        man.addCookieFromHeader("id=1", url);
+        assertEquals("id=1", man.getCookieHeaderForURL(url));
+        man.addCookieFromHeader("id=2", url);
+        assertEquals("id=2", man.getCookieHeaderForURL(url));
+        assertEquals(1, man.getCookieCount());
+        man.addCookieFromHeader("other=3; Domain=example.com", new URL("http://b.example.com/"));
+        assertEquals("id=2; other=3", man.getCookieHeaderForURL(url));
+        man.addCookieFromHeader("id=2; expires=Mon, 01-Jan-1990 00:00:00 GMT", url);
+        assertEquals("other=3", man.getCookieHeaderForURL(url));
+        assertEquals(1, man.getCookieCount());
+        // Cookies added to the property are seen too
+        man.getCookies().addItem(new Cookie("added", "4", "a.example.com", "/", false, 0));
+        assertEquals("other=3; added=4", man.getCookieHeaderForURL(url));
+        man.clear();
+        assertNull(man.getCookieHeaderForURL(url));
+    }
+
+    @Test
+    public void testCachedHeaderFollowsChangesOutsideTheManager() throws Exception {
+        URL url = new URL("http://a.example.com/app/");
+        man.addCookieFromHeader("id=1", url);
+        assertEquals("id=1", man.getCookieHeaderForURL(url));
+        // Cookie changed in place
+        man.get(0).setValue("2");
+        assertEquals("id=2", man.getCookieHeaderForURL(url));
+        // Cookie replaced without changing the number of cookies
+        CollectionProperty cookies = man.getCookies();
+        cookies.remove(0);
+        cookies.addItem(new Cookie("other", "3", "a.example.com", "/", false, 0));
+        assertEquals("other=3", man.getCookieHeaderForURL(url));
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestEmbeddedResourcesCache {
+
+    private static final String USER_AGENT = "Mozilla/5.0"; // $NON-NLS-1$
+
+    private final AtomicInteger parsings = new AtomicInteger();
+
+    private final LinkExtractorParser parser = new LinkExtractorParser() {
+        @Override
+        public Iterator<URL> getEmbeddedResourceURLs(String userAgent, byte[] responseData, URL baseUrl,
+                String encoding) throws LinkExtractorParseException {
+            parsings.incrementAndGet();
+            try {
+                return Arrays.asList(new URL(baseUrl, new String(responseData, encoding)), null).iterator();
+            } catch (Exception e) {
+                throw new LinkExtractorParseException(e);
+            }
+        }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
+    };
+
+    @AfterEach
+    public void tearDown() {
+        EmbeddedResourcesCache.clear();
+    }
+
+    private List<URL> extract(String page, String baseUrl) throws Exception {
+        List<URL> urls = new ArrayList<>();
+        EmbeddedResourcesCache.getEmbeddedResourceURLs(parser, USER_AGENT,
+                page.getBytes(StandardCharsets.UTF_8), new URL(baseUrl), "UTF-8")
+                .forEachRemaining(urls::add);
+        return urls;
+    }
+
+    @Test
+    public void testIdenticalPagesAreParsedOnce() throws Exception {
+        List<URL> expected = Arrays.asList(new URL("http://jmeter.example.org/a.png"), null);
+        assertEquals(expected, extract("a.png", "http://jmeter.example.org/"));
+        assertEquals(expected, extract("a.png", "http://jmeter.example.org/"));
+        assertEquals(1, parsings.get());
+    }
+
+    @Test
+    public void testPagesAreIdentifiedByContentAndBaseUrl() throws Exception {
+        extract("a.png", "http://jmeter.example.org/");
+        assertEquals(Arrays.asList(new URL("http://jmeter.example.org/b.png"), null),
+                extract("b.png", "http://jmeter.example.org/"));
+        assertEquals(Arrays.asList(new URL("http://jmeter.example.com/a.png"), null),
+                extract("a.png", "http://jmeter.example.com/"));
+        assertEquals(3, parsings.get());
+    }
+
+    @Test
+    public void testNotReusableParsersAreNotCached() throws Exception {
+        LinkExtractorParser notReusable = new NotReusableParser() {
+            @Override
+            public Iterator<URL> getEmbeddedResourceURLs(String userAgent, byte[] responseData, URL baseUrl,
+                    String encoding) throws LinkExtractorParseException {
+                return parser.getEmbeddedResourceURLs(userAgent, responseData, baseUrl, encoding);
+            }
+        };
+        byte[] page = "a.png".getBytes(StandardCharsets.UTF_8);
+        URL baseUrl = new URL("http://jmeter.example.org/");
+        EmbeddedResourcesCache.getEmbeddedResourceURLs(notReusable, USER_AGENT, page, baseUrl, "UTF-8");
+        EmbeddedResourcesCache.getEmbeddedResourceURLs(notReusable, USER_AGENT, page, baseUrl, "UTF-8");
+        assertEquals(2, parsings.get());
+    }
+}
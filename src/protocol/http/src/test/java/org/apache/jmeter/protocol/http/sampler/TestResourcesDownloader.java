@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.http.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jmeter.protocol.http.sampler.ResourcesDownloader.AsynSamplerResultHolder;
+import org.apache.jmeter.testelement.property.CollectionProperty;
+import org.junit.jupiter.api.Test;
+
+public class TestResourcesDownloader {
+
+    @Test
+    public void testBatchLimitsConcurrentDownloads() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ResourcesDownloader.DownloadBatch batch = ResourcesDownloader.getInstance().newBatch(2);
+        for (int i = 0; i < 6; i++) {
+            String label = "resource" + i;
+            batch.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                HTTPSampleResult result = new HTTPSampleResult();
+                result.setSampleLabel(label);
+                return new AsynSamplerResultHolder(result, new CollectionProperty());
+            });
+        }
+        List<Future<AsynSamplerResultHolder>> futures = batch.awaitTermination();
+        assertEquals(6, futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Future<AsynSamplerResultHolder> future = futures.get(i);
+            assertTrue(future.isDone());
+            assertEquals("resource" + i, future.get().getResult().getSampleLabel(),
+                    "results are in the order of submission");
+        }
+        assertTrue(maxRunning.get() <= 2, () -> "at most 2 downloads run at once, got " + maxRunning.get());
+    }
+}
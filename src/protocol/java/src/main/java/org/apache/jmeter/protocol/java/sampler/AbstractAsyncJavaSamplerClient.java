@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.java.sampler;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apiguardian.api.API;
+
+/**
+ * An abstract implementation of the {@link AsyncJavaSamplerClient} interface.
+ * <p>
+ * The number of samples in flight for each thread is read from the
+ * {@value #MAX_IN_FLIGHT} parameter, it defaults to the
+ * {@code javasampler.max_in_flight} property. Subclasses may list this parameter
+ * in {@link #getDefaultParameters()} so it is shown in the GUI.
+ * <p>
+ * The runTestAsync() method does not have a default implementation here,
+ * so subclasses must define at least this method.
+ *
+ * @see AsyncJavaSamplerClient#runTestAsync(JavaSamplerContext)
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public abstract class AbstractAsyncJavaSamplerClient extends AbstractJavaSamplerClient
+        implements AsyncJavaSamplerClient {
+
+    /**
+     * Name of the parameter giving the maximum number of samples in flight for each thread.
+     */
+    public static final String MAX_IN_FLIGHT = "maxInFlight"; // $NON-NLS-1$
+
+    private static final int DEFAULT_MAX_IN_FLIGHT =
+            JMeterUtils.getPropDefault("javasampler.max_in_flight", 1); // $NON-NLS-1$
+
+    /**
+     * Waits for the result of {@link #runTestAsync(JavaSamplerContext)}.
+     */
+    @Override
+    public SampleResult runTest(JavaSamplerContext context) {
+        return runTestAsync(context).toCompletableFuture().join();
+    }
+
+    /* Implements AsyncJavaSamplerClient.getMaxInFlight(JavaSamplerContext) */
+    @Override
+    public int getMaxInFlight(JavaSamplerContext context) {
+        return context.getIntParameter(MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT);
+    }
+}
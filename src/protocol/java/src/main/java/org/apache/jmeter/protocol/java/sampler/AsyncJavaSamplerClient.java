@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.java.sampler;
+
+import java.util.concurrent.CompletionStage;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.apiguardian.api.API;
+
+/**
+ * A {@link JavaSamplerClient} which performs its samples without blocking the JMeter thread,
+ * so a thread can have many requests in flight with non-blocking client libraries.
+ * <p>
+ * Each sample of the JavaSampler calls {@link #runTestAsync(JavaSamplerContext)} and returns
+ * a result completed by an earlier call, as long as fewer than {@link #getMaxInFlight(JavaSamplerContext)}
+ * samples are in flight the sample does not wait and may return no result.
+ * With a maximum of 1, each sample waits for its own result, like {@link #runTest(JavaSamplerContext)}.
+ * <p>
+ * If the result has no start time, the JavaSampler times it from the call of
+ * {@link #runTestAsync(JavaSamplerContext)} to the completion of the stage. A stage completed
+ * exceptionally gives a failed result.
+ * <p>
+ * When possible, asynchronous Java tests should extend {@link AbstractAsyncJavaSamplerClient}.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public interface AsyncJavaSamplerClient extends JavaSamplerClient {
+    /**
+     * Start a single sample, without waiting for its end. The stage is completed
+     * with the result of the sample, possibly by another thread.
+     *
+     * @param context
+     *            the context to run with. This provides access to
+     *            initialization parameters.
+     *
+     * @return a stage completed with the SampleResult of this sample.
+     */
+    CompletionStage<SampleResult> runTestAsync(JavaSamplerContext context);
+
+    /**
+     * Maximum number of samples started by a thread and not yet returned to it,
+     * the thread waits for a result when it is reached.
+     *
+     * @param context
+     *            the context to run with. This provides access to
+     *            initialization parameters.
+     *
+     * @return the maximum number of samples in flight, at least 1
+     */
+    int getMaxInFlight(JavaSamplerContext context);
+}
@@ -22,7 +22,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 import org.apache.jmeter.config.Arguments;
 import org.apache.jmeter.config.ConfigTestElement;
@@ -32,7 +37,10 @@ import org.apache.jmeter.samplers.Interruptible;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.TestElement;
 import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.testelement.property.TestElementProperty;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +50,7 @@ import org.slf4j.LoggerFactory;
  * information on writing Java code to be executed by this sampler.
  *
  */
-public class JavaSampler extends AbstractSampler implements TestStateListener, Interruptible {
+public class JavaSampler extends AbstractSampler implements TestStateListener, ThreadListener, Interruptible {
 
     private static final Logger log = LoggerFactory.getLogger(JavaSampler.class);
 
@@ -96,6 +104,22 @@ public class JavaSampler extends AbstractSampler implements TestStateListener, I
      */
     private transient JavaSamplerContext context = null;
 
+    /**
+     * The results of the samples of an {@link AsyncJavaSamplerClient} which are completed
+     * and not yet returned by this sampler.
+     */
+    private transient BlockingQueue<SampleResult> completedResults;
+
+    /**
+     * The number of samples of an {@link AsyncJavaSamplerClient} which are not yet returned by this sampler.
+     */
+    private transient int inFlight;
+
+    /**
+     * The samples of an {@link AsyncJavaSamplerClient} which are not completed yet.
+     */
+    private transient Set<CompletableFuture<SampleResult>> pendingSamples;
+
     /**
      * Create a JavaSampler.
      */
@@ -194,7 +218,12 @@ public class JavaSampler extends AbstractSampler implements TestStateListener, I
             javaClient.setupTest(context);
         }
 
-        SampleResult result = javaClient.runTest(context);
+        SampleResult result;
+        if (javaClient instanceof AsyncJavaSamplerClient) {
+            result = sampleAsync((AsyncJavaSamplerClient) javaClient, context);
+        } else {
+            result = javaClient.runTest(context);
+        }
 
         // Only set the default label if it has not been set
         if (result != null && result.getSampleLabel().length() == 0) {
@@ -204,6 +233,72 @@ public class JavaSampler extends AbstractSampler implements TestStateListener, I
         return result;
     }
 
+    /**
+     * Starts a sample of an asynchronous client and returns a completed sample, waiting for one
+     * only when the maximum number of samples in flight is reached.
+     *
+     * @return a completed SampleResult, or null if no sample is completed yet
+     */
+    private SampleResult sampleAsync(AsyncJavaSamplerClient client, JavaSamplerContext sampleContext) {
+        if (completedResults == null) {
+            completedResults = new LinkedBlockingQueue<>();
+            pendingSamples = ConcurrentHashMap.newKeySet();
+        }
+        // The result returned by this call may be the one of an earlier sample,
+        // so each result carries the scheduling information of its own sample
+        JMeterThread thread = JMeterContextService.getContext().getThread();
+        Consumer<SampleResult> scheduling = thread != null ? thread.captureSchedulingInformation() : null;
+        long start = System.currentTimeMillis();
+        inFlight++;
+        try {
+            CompletableFuture<SampleResult> sample = client.runTestAsync(sampleContext).toCompletableFuture();
+            pendingSamples.add(sample);
+            sample.whenComplete((result, throwable) -> {
+                pendingSamples.remove(sample);
+                completedResults.add(completed(result, throwable, start, scheduling));
+            });
+        } catch (RuntimeException e) {
+            completedResults.add(completed(null, e, start, scheduling));
+        }
+        try {
+            SampleResult result = inFlight >= client.getMaxInFlight(sampleContext)
+                    ? completedResults.take()
+                    : completedResults.poll();
+            if (result != null) {
+                inFlight--;
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Times the result if the client did not, or creates a failed result if the sample failed.
+     */
+    private static SampleResult completed(SampleResult result, Throwable throwable, long start,
+            Consumer<SampleResult> scheduling) {
+        long end = System.currentTimeMillis();
+        SampleResult completed = result;
+        if (completed == null) {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
+            completed = new SampleResult();
+            completed.setSuccessful(false);
+            completed.setResponseCode("500"); // $NON-NLS-1$
+            completed.setResponseMessage(cause == null ? "No result" : cause.toString());
+        }
+        if (completed.getStartTime() == 0 && completed.getEndTime() == 0) {
+            completed.setStampAndTime(start, end - start);
+        }
+        if (scheduling != null) {
+            scheduling.accept(completed);
+        }
+        return completed;
+    }
+
     /**
      * Returns reference to <code>JavaSamplerClient</code>.
      *
@@ -302,6 +397,31 @@ public class JavaSampler extends AbstractSampler implements TestStateListener, I
         }
     }
 
+    @Override
+    public void threadStarted() {
+        // NOOP
+    }
+
+    /**
+     * Cancels the samples of an {@link AsyncJavaSamplerClient} which are still in flight,
+     * their results cannot be reported once the thread is finished.
+     */
+    @Override
+    public void threadFinished() {
+        if (inFlight == 0) {
+            return;
+        }
+        int pending = pendingSamples.size();
+        for (CompletableFuture<SampleResult> sample : pendingSamples) {
+            sample.cancel(true);
+        }
+        pendingSamples.clear();
+        completedResults.clear();
+        log.warn("{}\tDropped {} samples in flight at the end of the thread, {} of them were not completed",
+                whoAmI(), inFlight, pending);
+        inFlight = 0;
+    }
+
     /* Implements TestStateListener.testEnded(String) */
     @Override
     public void testEnded(String host) {
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.java.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestAsyncJavaSampler {
+
+    private static final List<CompletableFuture<SampleResult>> PENDING = new CopyOnWriteArrayList<>();
+
+    public static class PendingClient extends AbstractAsyncJavaSamplerClient {
+        @Override
+        public CompletionStage<SampleResult> runTestAsync(JavaSamplerContext context) {
+            CompletableFuture<SampleResult> future = new CompletableFuture<>();
+            PENDING.add(future);
+            return future;
+        }
+    }
+
+    public static class CompletedClient extends AbstractAsyncJavaSamplerClient {
+        @Override
+        public CompletionStage<SampleResult> runTestAsync(JavaSamplerContext context) {
+            SampleResult result = new SampleResult();
+            result.setSuccessful(true);
+            return CompletableFuture.completedFuture(result);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PENDING.clear();
+    }
+
+    private static JavaSampler newSampler(Class<?> client, int maxInFlight) {
+        JavaSampler sampler = new JavaSampler();
+        sampler.setName("async");
+        sampler.setClassname(client.getName());
+        Arguments arguments = new Arguments();
+        arguments.addArgument(AbstractAsyncJavaSamplerClient.MAX_IN_FLIGHT, Integer.toString(maxInFlight));
+        sampler.setArguments(arguments);
+        sampler.testStarted();
+        return sampler;
+    }
+
+    private static SampleResult result(String label) {
+        SampleResult result = new SampleResult();
+        result.setSampleLabel(label);
+        return result;
+    }
+
+    @Test
+    public void testOneSampleInFlightReturnsItsOwnResult() {
+        JavaSampler sampler = newSampler(CompletedClient.class, 1);
+        SampleResult result = sampler.sample(null);
+        assertTrue(result.isSuccessful());
+        assertEquals("async", result.getSampleLabel());
+        assertTrue(result.getStartTime() > 0, "the result is timed by the sampler");
+    }
+
+    @Test
+    public void testResultsAreReturnedInCompletionOrder() {
+        JavaSampler sampler = newSampler(PendingClient.class, 3);
+        assertNull(sampler.sample(null));
+        assertNull(sampler.sample(null));
+        SampleResult first = result("first");
+        PENDING.get(0).complete(first);
+        assertSame(first, sampler.sample(null), "the maximum is reached, the completed result is returned");
+        SampleResult third = result("third");
+        PENDING.get(2).complete(third);
+        assertSame(third, sampler.sample(null));
+        assertEquals(4, PENDING.size());
+    }
+
+    @Test
+    public void testFailedSampleGivesFailedResult() {
+        JavaSampler sampler = newSampler(PendingClient.class, 2);
+        assertNull(sampler.sample(null));
+        PENDING.get(0).completeExceptionally(new IllegalStateException("connection refused"));
+        SampleResult result = sampler.sample(null);
+        assertFalse(result.isSuccessful());
+        assertEquals("java.lang.IllegalStateException: connection refused", result.getResponseMessage());
+        assertEquals("async", result.getSampleLabel());
+    }
+
+    @Test
+    public void testPendingSamplesAreCancelledAtThreadEnd() {
+        JavaSampler sampler = newSampler(PendingClient.class, 3);
+        assertNull(sampler.sample(null));
+        assertNull(sampler.sample(null));
+        PENDING.get(0).complete(result("first"));
+        sampler.threadFinished();
+        assertFalse(PENDING.get(0).isCancelled(), "completed samples are kept as is");
+        assertTrue(PENDING.get(1).isCancelled(), "pending samples are cancelled");
+        assertNull(sampler.sample(null), "the dropped samples are not returned by a later call");
+    }
+}
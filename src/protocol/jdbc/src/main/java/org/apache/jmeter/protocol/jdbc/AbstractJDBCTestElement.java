@@ -107,6 +107,7 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
     static final String CALLABLE = "Callable Statement"; // $NON-NLS-1$
     static final String PREPARED_SELECT = "Prepared Select Statement"; // $NON-NLS-1$
     static final String PREPARED_UPDATE = "Prepared Update Statement"; // $NON-NLS-1$
+    static final String PREPARED_BATCH_UPDATE = "Prepared Batch Update Statement"; // $NON-NLS-1$
     static final String COMMIT   = "Commit"; // $NON-NLS-1$
     static final String ROLLBACK = "Rollback"; // $NON-NLS-1$
     static final String AUTOCOMMIT_FALSE = "AutoCommit(false)"; // $NON-NLS-1$
@@ -116,6 +117,11 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
     static final String RS_STORE_AS_OBJECT = "Store as Object"; // $NON-NLS-1$
     static final String RS_COUNT_RECORDS = "Count Records"; // $NON-NLS-1$
 
+    // What the response data contains for the ResultSets
+    static final String RESPONSE_ALL_ROWS = "All Rows"; // $NON-NLS-1$
+    static final String RESPONSE_ROW_COUNT = "Row Count"; // $NON-NLS-1$
+    static final String RESPONSE_VARIABLES_ONLY = "Variables Only"; // $NON-NLS-1$
+
     private String query = ""; // $NON-NLS-1$
 
     private String dataSource = ""; // $NON-NLS-1$
@@ -128,6 +134,7 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
     private String resultVariable = ""; // $NON-NLS-1$
     private String queryTimeout = ""; // $NON-NLS-1$
     private String resultSetMaxRows = ""; // $NON-NLS-1$
+    private String resultSetResponse = RESPONSE_ALL_ROWS;
 
     private static final int MAX_RETAIN_SIZE = JMeterUtils.getPropDefault("jdbcsampler.max_retain_result_size", 64 * 1024);
 
@@ -216,6 +223,13 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
                 String sb = resultSetsToString(pstmt,false,null);
                 return sb.getBytes(ENCODING);
             }
+        } else if (PREPARED_BATCH_UPDATE.equals(currentQueryType)) {
+            try (PreparedStatement pstmt = getPreparedStatement(conn)) {
+                int parameterSets = addBatches(pstmt);
+                int[] updateCounts = pstmt.executeBatch();
+                sample.latencyEnd();
+                return batchResultToString(parameterSets, updateCounts).getBytes(ENCODING);
+            }
         } else if (ROLLBACK.equals(currentQueryType)){
             conn.rollback();
             sample.latencyEnd();
@@ -376,11 +390,50 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
         return resultSet.last() ? resultSet.getRow() : 0;
     }
 
+    /**
+     * Add a batch of parameters for each line of the parameter values
+     * @param pstmt {@link PreparedStatement}
+     * @return number of parameter sets added to the batch
+     */
+    private int addBatches(PreparedStatement pstmt) throws SQLException, IOException {
+        int parameterSets = 0;
+        for (String line : getQueryArguments().split("\\r?\\n")) { // $NON-NLS-1$
+            if (line.trim().length() > 0 || parameterSets == 0 && getQueryArgumentsTypes().trim().isEmpty()) {
+                setArguments(pstmt, line);
+                pstmt.addBatch();
+                parameterSets++;
+            }
+        }
+        return parameterSets;
+    }
+
+    private static String batchResultToString(int parameterSets, int[] updateCounts) {
+        int updates = 0;
+        boolean unknown = false;
+        for (int updateCount : updateCounts) {
+            if (updateCount >= 0) {
+                updates += updateCount;
+            } else {
+                unknown = true; // Statement.SUCCESS_NO_INFO
+            }
+        }
+        StringBuilder sb = new StringBuilder(60);
+        sb.append(parameterSets).append(" parameter sets, ").append(updates).append(" updates");
+        if (unknown) {
+            sb.append(" (some update counts are unknown)");
+        }
+        return sb.toString();
+    }
+
     private int[] setArguments(PreparedStatement pstmt) throws SQLException, IOException {
-        if (getQueryArguments().trim().length()==0) {
+        return setArguments(pstmt, getQueryArguments());
+    }
+
+    private int[] setArguments(PreparedStatement pstmt, String queryArguments) throws SQLException, IOException {
+        if (queryArguments.trim().length()==0) {
             return new int[]{};
         }
-        String[] arguments = CSVSaveService.csvSplitString(getQueryArguments(), COMMA_CHAR);
+        String[] arguments = CSVSaveService.csvSplitString(queryArguments, COMMA_CHAR);
         String[] argumentsTypes = getQueryArgumentsTypes().split(COMMA);
         if (arguments.length != argumentsTypes.length) {
             throw new SQLException("number of arguments ("+arguments.length+") and number of types ("+argumentsTypes.length+") are not equal");
@@ -531,6 +584,7 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
         ResultSetMetaData meta = rs.getMetaData();
 
         StringBuilder sb = new StringBuilder();
+        String currentResultSetResponse = getResultSetResponse();
 
         int numColumns = meta.getColumnCount();
         for (int i = 1; i <= numColumns; i++) {
@@ -543,26 +597,53 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
         }
 
 
+        int resultSetMaxRows = getIntegerResultSetMaxRows();
         JMeterVariables jmvars = getThreadContext().getVariables();
         String[] varNames = getVariableNames().split(COMMA);
         String currentResultVariable = getResultVariable().trim();
+        if (RESPONSE_ROW_COUNT.equals(currentResultSetResponse)) {
+            // Only move the cursor, the values are not read
+            int rows = 0;
+            while ((resultSetMaxRows < 0 || rows < resultSetMaxRows) && rs.next()) {
+                rows++;
+            }
+            // Do not leave the values of a previous sample as if they were read by this one
+            if (!currentResultVariable.isEmpty() && jmvars != null) {
+                jmvars.remove(currentResultVariable);
+            }
+            updateVariableCounts(jmvars, varNames, 0);
+            return sb.append(rows).append(" rows").toString(); // $NON-NLS-1$
+        }
+        // The rows are only read into the variables, without building the response
+        StringBuilder rowsBuilder = RESPONSE_VARIABLES_ONLY.equals(currentResultSetResponse) ? null : sb;
+
         List<Map<String, Object> > results = null;
         if(!currentResultVariable.isEmpty()) {
             results = new ArrayList<>();
             jmvars.putObject(currentResultVariable, results);
         }
         int currentIterationIndex = 0;
-        int resultSetMaxRows = getIntegerResultSetMaxRows();
         if (resultSetMaxRows < 0) {
             while (rs.next()) {
-                currentIterationIndex = processRow(rs, meta, sb, numColumns, jmvars, varNames, results, currentIterationIndex);
+                currentIterationIndex = processRow(rs, meta, rowsBuilder, numColumns, jmvars, varNames, results, currentIterationIndex);
             }
         } else {
             while (currentIterationIndex < resultSetMaxRows && rs.next()) {
-                currentIterationIndex = processRow(rs, meta, sb, numColumns, jmvars, varNames, results, currentIterationIndex);
+                currentIterationIndex = processRow(rs, meta, rowsBuilder, numColumns, jmvars, varNames, results, currentIterationIndex);
             }
         }
-        // Remove any additional values from previous sample
+        updateVariableCounts(jmvars, varNames, currentIterationIndex);
+        if (rowsBuilder == null) {
+            sb.append(currentIterationIndex).append(" rows"); // $NON-NLS-1$
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Save the number of rows stored in the variables and remove any additional values from previous sample
+     */
+    private static void updateVariableCounts(JMeterVariables jmvars, String[] varNames, int currentIterationIndex) {
         for (String varName : varNames) {
             String name = varName.trim();
             if (name.length() > 0 && jmvars != null) {
@@ -578,8 +659,6 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
                 jmvars.put(varCount, Integer.toString(currentIterationIndex)); // save the current count
             }
         }
-
-        return sb.toString();
     }
 
     private int processRow(ResultSet rs, ResultSetMetaData meta, StringBuilder sb, int numColumns,
@@ -599,11 +678,13 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
             if (o instanceof byte[]) {
                 o = new String((byte[]) o, ENCODING);
             }
-            sb.append(o);
-            if (i==numColumns){
-                sb.append('\n');
-            } else {
-                sb.append('\t');
+            if (sb != null) {
+                sb.append(o);
+                if (i==numColumns){
+                    sb.append('\n');
+                } else {
+                    sb.append('\t');
+                }
             }
             if (i <= varNames.length) { // i starts at 1
                 String name = varNames[i - 1].trim();
@@ -806,6 +887,22 @@ public abstract class AbstractJDBCTestElement extends AbstractTestElement implem
         this.resultSetHandler = resultSetHandler;
     }
 
+    /**
+     * @return what the response data contains for the ResultSets
+     */
+    public String getResultSetResponse() {
+        return resultSetResponse;
+    }
+
+    /**
+     * @param resultSetResponse what the response data contains for the ResultSets:
+     *                          all the rows, only their count, or only the column names when the rows
+     *                          are read into variables
+     */
+    public void setResultSetResponse(String resultSetResponse) {
+        this.resultSetResponse = resultSetResponse;
+    }
+
     /**
      * @return the resultVariable
      */
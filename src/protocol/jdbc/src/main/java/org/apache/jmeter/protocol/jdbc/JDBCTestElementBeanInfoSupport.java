@@ -44,14 +44,15 @@ public abstract class JDBCTestElementBeanInfoSupport extends BeanInfoSupport {
                 "resultVariable", // $NON-NLS-1$
                 "queryTimeout", // $NON-NLS-1$
                 "resultSetMaxRows", // $NON-NLS-1$
-                "resultSetHandler" // $NON-NLS-1$
+                "resultSetHandler", // $NON-NLS-1$
+                "resultSetResponse" // $NON-NLS-1$
                 });
 
         PropertyDescriptor p = property("dataSource"); // $NON-NLS-1$
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, ""); // $NON-NLS-1$
 
-        p = property("queryArguments"); // $NON-NLS-1$
+        p = property("queryArguments", TypeEditor.TextAreaEditor); // $NON-NLS-1$
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, ""); // $NON-NLS-1$
 
@@ -73,6 +74,16 @@ public abstract class JDBCTestElementBeanInfoSupport extends BeanInfoSupport {
                 AbstractJDBCTestElement.RS_COUNT_RECORDS
                 });
 
+        p = property("resultSetResponse"); // $NON-NLS-1$
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, AbstractJDBCTestElement.RESPONSE_ALL_ROWS);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(TAGS,new String[]{
+                AbstractJDBCTestElement.RESPONSE_ALL_ROWS,
+                AbstractJDBCTestElement.RESPONSE_ROW_COUNT,
+                AbstractJDBCTestElement.RESPONSE_VARIABLES_ONLY
+                });
+
         p = property("resultVariable"); // $NON-NLS-1$
         p.setValue(NOT_UNDEFINED, Boolean.TRUE);
         p.setValue(DEFAULT, ""); // $NON-NLS-1$
@@ -95,6 +106,7 @@ public abstract class JDBCTestElementBeanInfoSupport extends BeanInfoSupport {
                 AbstractJDBCTestElement.CALLABLE,
                 AbstractJDBCTestElement.PREPARED_SELECT,
                 AbstractJDBCTestElement.PREPARED_UPDATE,
+                AbstractJDBCTestElement.PREPARED_BATCH_UPDATE,
                 AbstractJDBCTestElement.COMMIT,
                 AbstractJDBCTestElement.ROLLBACK,
                 AbstractJDBCTestElement.AUTOCOMMIT_FALSE,
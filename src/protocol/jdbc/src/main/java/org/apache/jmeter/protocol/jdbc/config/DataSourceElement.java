@@ -26,7 +26,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.config.ConfigElement;
 import org.apache.jmeter.gui.TestElementMetadata;
@@ -34,15 +33,17 @@ import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testbeans.TestBeanHelper;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.jorphan.util.JOrphanUtils;
+import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @TestElementMetadata(labelResource = "displayName")
 public class DataSourceElement extends AbstractTestElement
-    implements ConfigElement, TestStateListener, TestBean {
+    implements ConfigElement, TestStateListener, ThreadListener, TestBean {
     private static final Logger log = LoggerFactory.getLogger(DataSourceElement.class);
 
     private static final long serialVersionUID = 235L;
@@ -71,10 +72,10 @@ public class DataSourceElement extends AbstractTestElement
      *  These are called from different threads, so access must be synchronized.
      *  The same instance is called in each case.
     */
-    private transient BasicDataSource dbcpDataSource;
+    private transient InstrumentedDataSource dbcpDataSource;
 
     // Keep a record of the pre-thread pools so that they can be disposed of at the end of a test
-    private transient Set<BasicDataSource> perThreadPoolSet;
+    private transient Set<InstrumentedDataSource> perThreadPoolSet;
 
     public DataSourceElement() {
     }
@@ -92,7 +93,7 @@ public class DataSourceElement extends AbstractTestElement
             dbcpDataSource = null;
         }
         if (perThreadPoolSet != null) {// in case
-            for(BasicDataSource dsc : perThreadPoolSet){
+            for(InstrumentedDataSource dsc : perThreadPoolSet){
                 log.debug("Closing pool: {}@{}", getDataSourceName(), System.identityHashCode(dsc));
                 try {
                     dsc.close();
@@ -121,11 +122,11 @@ public class DataSourceElement extends AbstractTestElement
             log.error("JDBC data source already defined for: {}", poolName);
         } else {
             String maxPool = getPoolMax();
-            perThreadPoolSet = Collections.synchronizedSet(new HashSet<BasicDataSource>());
+            perThreadPoolSet = Collections.synchronizedSet(new HashSet<InstrumentedDataSource>());
             if (maxPool.equals("0")){ // i.e. if we want per thread pooling
                 variables.putObject(poolName, new DataSourceComponentImpl()); // pool will be created later
             } else {
-                BasicDataSource src = initPool(maxPool);
+                InstrumentedDataSource src = initPool(maxPool);
                 synchronized(this){
                     dbcpDataSource = src;
                     variables.putObject(poolName, new DataSourceComponentImpl(dbcpDataSource));
@@ -139,6 +140,24 @@ public class DataSourceElement extends AbstractTestElement
         testStarted();
     }
 
+    /**
+     * Create the pool of the thread when per-thread pools are preinitialized,
+     * so the first sample does not measure the connection establishment.
+     */
+    @Override
+    public void threadStarted() {
+        TestBeanHelper.prepare(this);
+        Object poolObject = getThreadContext().getVariables().getObject(getDataSource());
+        if (poolObject instanceof DataSourceComponentImpl) {
+            ((DataSourceComponentImpl) poolObject).warmUp();
+        }
+    }
+
+    @Override
+    public void threadFinished() {
+        // NOOP
+    }
+
     @Override
     public Object clone() {
         DataSourceElement el = (DataSourceElement) super.clone();
@@ -172,6 +191,26 @@ public class DataSourceElement extends AbstractTestElement
         }
     }
 
+    /**
+     * Store the state of the pool in variables of the current thread, so it can be saved with the samples
+     * by listing the variables in {@code sample_variables}: {@code <poolName>_pool_active},
+     * {@code <poolName>_pool_idle}, {@code <poolName>_pool_waiters}, {@code <poolName>_pool_created}
+     * and {@code <poolName>_pool_creation_time}.
+     * Nothing is stored when the JMeter object specified by {@code poolName} is not a pool.
+     *
+     * @param poolName
+     *            Pool name
+     * @since 5.5
+     */
+    @API(status = API.Status.EXPERIMENTAL, since = "5.5")
+    public static void putPoolStatistics(String poolName) {
+        JMeterVariables variables = JMeterContextService.getContext().getVariables();
+        Object poolObject = variables.getObject(poolName);
+        if (poolObject instanceof DataSourceComponentImpl) {
+            ((DataSourceComponentImpl) poolObject).putStatistics(variables, poolName);
+        }
+    }
+
     /**
      * Utility routine to get the connection from the pool.<br>
      * Purpose:
@@ -211,8 +250,8 @@ public class DataSourceElement extends AbstractTestElement
      * Set up the DataSource - maxPool is a parameter, so the same code can
      * also be used for setting up the per-thread pools.
     */
-    private BasicDataSource initPool(String maxPool) {
-        BasicDataSource dataSource = new BasicDataSource();
+    private InstrumentedDataSource initPool(String maxPool) {
+        InstrumentedDataSource dataSource = new InstrumentedDataSource();
 
         if (log.isDebugEnabled()) {
             log.debug("MaxPool: {} Timeout: {} TrimInt: {} Auto-Commit: {} Preinit: {} poolPreparedStatements: {}",
@@ -236,8 +275,10 @@ public class DataSourceElement extends AbstractTestElement
             if (maxPreparedStatements < 0) {
                 dataSource.setPoolPreparedStatements(false);
             } else {
+                // Statements are pooled per connection and looked up by their SQL text,
+                // 0 means unlimited, which is a negative value for DBCP
                 dataSource.setPoolPreparedStatements(true);
-                dataSource.setMaxOpenPreparedStatements(10);
+                dataSource.setMaxOpenPreparedStatements(maxPreparedStatements == 0 ? -1 : maxPreparedStatements);
             }
         }
         dataSource.setRollbackOnReturn(false);
@@ -307,7 +348,8 @@ public class DataSourceElement extends AbstractTestElement
             try {
                 dataSource.getConnection().close();
                 if (log.isDebugEnabled()) {
-                    log.debug("Preinitializing the connection pool: {}@{}", getDataSourceName(), System.identityHashCode(dataSource));
+                    log.debug("Preinitializing the connection pool: {}@{} {}", getDataSourceName(), System.identityHashCode(dataSource),
+                            dataSource.appendStatistics(new StringBuilder(100)));
                 }
             } catch (SQLException ex) {
                 if (log.isErrorEnabled()) {
@@ -321,7 +363,7 @@ public class DataSourceElement extends AbstractTestElement
     }
 
     // used to hold per-thread singleton connection pools
-    private static final ThreadLocal<Map<String, BasicDataSource>> perThreadPoolMap =
+    private static final ThreadLocal<Map<String, InstrumentedDataSource>> perThreadPoolMap =
             ThreadLocal.withInitial(HashMap::new);
 
     /**
@@ -330,13 +372,13 @@ public class DataSourceElement extends AbstractTestElement
      */
     private class DataSourceComponentImpl {
 
-        private final BasicDataSource sharedDSC;
+        private final InstrumentedDataSource sharedDSC;
 
         DataSourceComponentImpl(){
             sharedDSC=null;
         }
 
-        DataSourceComponentImpl(BasicDataSource dsc){
+        DataSourceComponentImpl(InstrumentedDataSource dsc){
             sharedDSC = dsc;
         }
 
@@ -344,21 +386,46 @@ public class DataSourceElement extends AbstractTestElement
          * @return String connection information
          */
         public String getConnectionInfo() {
-            BasicDataSource dsc = getConfiguredDataSource();
+            InstrumentedDataSource dsc = getConfiguredDataSource();
             StringBuilder builder = new StringBuilder(100);
             builder.append("shared:").append(sharedDSC != null)
                 .append(", driver:").append(dsc.getDriverClassName())
                 .append(", url:").append(dsc.getUrl())
-                .append(", user:").append(dsc.getUsername());
+                .append(", user:").append(dsc.getUsername())
+                .append(", ");
+            // The time spent waiting for the pool is the connect time of the sample
+            dsc.appendStatistics(builder);
             return builder.toString();
         }
 
+        /**
+         * @param variables where to store the statistics
+         * @param prefix    prefix of the variable names
+         */
+        void putStatistics(JMeterVariables variables, String prefix) {
+            InstrumentedDataSource dsc = getConfiguredDataSource();
+            variables.put(prefix + "_pool_active", Integer.toString(dsc.getNumActive())); // $NON-NLS-1$
+            variables.put(prefix + "_pool_idle", Integer.toString(dsc.getNumIdle())); // $NON-NLS-1$
+            variables.put(prefix + "_pool_waiters", Integer.toString(dsc.getNumWaiters())); // $NON-NLS-1$
+            variables.put(prefix + "_pool_created", Long.toString(dsc.getCreatedCount())); // $NON-NLS-1$
+            variables.put(prefix + "_pool_creation_time", Long.toString(dsc.getCreationTimeMillis())); // $NON-NLS-1$
+        }
+
+        /**
+         * Create the per-thread pool of the current thread, if it has to be preinitialized
+         */
+        void warmUp() {
+            if (sharedDSC == null && isPreinit()) {
+                getConfiguredDataSource();
+            }
+        }
+
         /**
          * @return Connection
          * @throws SQLException if database access error occurred
          */
         public Connection getConnection() throws SQLException {
-            BasicDataSource dsc = getConfiguredDataSource();
+            InstrumentedDataSource dsc = getConfiguredDataSource();
             Connection conn=dsc.getConnection();
             int isolation = DataSourceElementBeanInfo.getTransactionIsolationMode(getTransactionIsolation());
             if (isolation >= 0 && conn.getTransactionIsolation() != isolation) {
@@ -375,12 +442,12 @@ public class DataSourceElement extends AbstractTestElement
             return conn;
         }
 
-        private BasicDataSource getConfiguredDataSource() {
-            BasicDataSource dsc;
+        private InstrumentedDataSource getConfiguredDataSource() {
+            InstrumentedDataSource dsc;
             if (sharedDSC != null){ // i.e. shared pool
                 dsc = sharedDSC;
             } else {
-                Map<String, BasicDataSource> poolMap = perThreadPoolMap.get();
+                Map<String, InstrumentedDataSource> poolMap = perThreadPoolMap.get();
                 dsc = poolMap.get(getDataSourceName());
                 if (dsc == null){
                     dsc = initPool("1");
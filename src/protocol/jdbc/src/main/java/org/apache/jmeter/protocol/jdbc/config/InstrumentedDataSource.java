@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.jdbc.config;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.ConnectionFactory;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * {@link BasicDataSource} which measures the creation of the physical connections,
+ * so the time spent waiting for the pool can be told apart from the time spent by the database.
+ */
+class InstrumentedDataSource extends BasicDataSource {
+
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder creationNanos = new LongAdder();
+
+    @Override
+    protected ConnectionFactory createConnectionFactory() throws SQLException {
+        ConnectionFactory connectionFactory = super.createConnectionFactory();
+        return () -> {
+            if (getConnectionPool() == null) {
+                // DBCP validates the factory with a throwaway connection before the pool exists
+                return connectionFactory.createConnection();
+            }
+            long start = System.nanoTime();
+            try {
+                return connectionFactory.createConnection();
+            } finally {
+                creationNanos.add(System.nanoTime() - start);
+                createdConnections.increment();
+            }
+        };
+    }
+
+    /**
+     * @return number of physical connections created by the pool, including the failed attempts
+     */
+    long getCreatedCount() {
+        return createdConnections.sum();
+    }
+
+    /**
+     * @return total time spent creating the physical connections in milliseconds
+     */
+    long getCreationTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(creationNanos.sum());
+    }
+
+    /**
+     * @return number of threads waiting for a connection of the pool
+     */
+    int getNumWaiters() {
+        GenericObjectPool<?> pool = getConnectionPool();
+        return pool == null ? 0 : pool.getNumWaiters();
+    }
+
+    /**
+     * @return mean time the threads waited to borrow a connection in milliseconds
+     */
+    long getMeanBorrowWaitTimeMillis() {
+        GenericObjectPool<?> pool = getConnectionPool();
+        return pool == null ? 0 : pool.getMeanBorrowWaitTimeMillis();
+    }
+
+    /**
+     * Append the current state of the pool to {@code builder}
+     *
+     * @param builder where to append the statistics
+     * @return {@code builder}
+     */
+    StringBuilder appendStatistics(StringBuilder builder) {
+        return builder.append("active:").append(getNumActive())
+                .append(", idle:").append(getNumIdle())
+                .append(", waiters:").append(getNumWaiters())
+                .append(", meanBorrowWait:").append(getMeanBorrowWaitTimeMillis())
+                .append(", created:").append(getCreatedCount())
+                .append(", creationTime:").append(getCreationTimeMillis());
+    }
+}
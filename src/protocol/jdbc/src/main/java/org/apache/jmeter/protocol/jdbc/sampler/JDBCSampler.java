@@ -82,6 +82,7 @@ public class JDBCSampler extends AbstractJDBCTestElement implements Sampler, Tes
                 res.connectEnd();
             }
             res.setResponseHeaders(DataSourceElement.getConnectionInfo(getDataSource()));
+            DataSourceElement.putPoolStatistics(getDataSource());
             res.setResponseData(execute(conn, res));
         } catch (SQLException ex) {
             final String errCode = Integer.toString(ex.getErrorCode());
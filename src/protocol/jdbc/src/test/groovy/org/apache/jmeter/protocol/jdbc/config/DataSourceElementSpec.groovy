@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.jdbc.config
+
+import org.apache.jmeter.junit.spock.JMeterSpec
+import org.apache.jmeter.threads.JMeterContextService
+import org.apache.jmeter.threads.JMeterVariables
+
+import spock.lang.Unroll
+
+@Unroll
+class DataSourceElementSpec extends JMeterSpec {
+
+    static final String DRIVER = "org.hsqldb.jdbc.JDBCDriver"
+
+    def setup() {
+        JMeterContextService.getContext().setVariables(new JMeterVariables())
+    }
+
+    def createElement(String poolName, String poolMax, boolean preinit) {
+        def element = new DataSourceElement()
+        element.setName(poolName)
+        element.setProperty("dataSource", poolName)
+        element.setProperty("poolMax", poolMax)
+        element.setProperty("timeout", "10000")
+        element.setProperty("trimInterval", "60000")
+        element.setProperty("autocommit", true)
+        element.setProperty("transactionIsolation", "DEFAULT")
+        element.setProperty("poolPreparedStatements", "-1")
+        element.setProperty("keepAlive", false)
+        element.setProperty("connectionAge", "5000")
+        element.setProperty("checkQuery", "")
+        element.setProperty("initQuery", "")
+        element.setProperty("connectionProperties", "")
+        element.setProperty("preinit", preinit)
+        element.setProperty("dbUrl", "jdbc:hsqldb:mem:" + poolName)
+        element.setProperty("driver", DRIVER)
+        element.setProperty("username", "SA")
+        element.setProperty("password", "")
+        return element
+    }
+
+    def "data source measures the creation of physical connections"() {
+        given:
+            def dataSource = new InstrumentedDataSource()
+            dataSource.setDriverClassName(DRIVER)
+            dataSource.setUrl("jdbc:hsqldb:mem:instrumented")
+            dataSource.setUsername("SA")
+            dataSource.setMaxTotal(2)
+        when:
+            def first = dataSource.getConnection()
+            def second = dataSource.getConnection()
+        then:
+            dataSource.getCreatedCount() == 2
+            dataSource.getCreationTimeMillis() >= 0
+            dataSource.getNumWaiters() == 0
+            dataSource.appendStatistics(new StringBuilder()).toString() ==~
+                /active:2, idle:0, waiters:0, meanBorrowWait:\d+, created:2, creationTime:\d+/
+        when:
+            first.close()
+            second.close()
+            dataSource.getConnection().close()
+        then: "returned connections are reused"
+            dataSource.getCreatedCount() == 2
+            dataSource.appendStatistics(new StringBuilder()).toString().startsWith("active:0, idle:2, ")
+        cleanup:
+            dataSource.close()
+    }
+
+    def "statistics are available before the pool is used"() {
+        given:
+            def dataSource = new InstrumentedDataSource()
+        expect:
+            dataSource.getNumWaiters() == 0
+            dataSource.getMeanBorrowWaitTimeMillis() == 0
+            dataSource.appendStatistics(new StringBuilder()).toString() ==
+                "active:0, idle:0, waiters:0, meanBorrowWait:0, created:0, creationTime:0"
+    }
+
+    def "preinit opens the connections of the shared pool at test start"() {
+        given:
+            def element = createElement("sharedPool", "2", true)
+        when:
+            element.testStarted()
+        then:
+            def info = DataSourceElement.getConnectionInfo("sharedPool")
+            info.startsWith("shared:true, driver:" + DRIVER)
+            info.contains("active:0, idle:2, waiters:0")
+            info.contains("created:2")
+        cleanup:
+            element.testEnded()
+    }
+
+    def "pool statistics are stored in variables"() {
+        given:
+            def element = createElement("varsPool", "2", true)
+            element.testStarted()
+            def vars = JMeterContextService.getContext().getVariables()
+        when:
+            def connection = DataSourceElement.getConnection("varsPool")
+            DataSourceElement.putPoolStatistics("varsPool")
+        then:
+            vars.get("varsPool_pool_active") == "1"
+            vars.get("varsPool_pool_idle") == "1"
+            vars.get("varsPool_pool_waiters") == "0"
+            vars.get("varsPool_pool_created") == "2"
+            vars.get("varsPool_pool_creation_time") ==~ /\d+/
+        when: "the name is not a pool"
+            DataSourceElement.putPoolStatistics("unknownPool")
+        then:
+            vars.get("unknownPool_pool_active") == null
+        cleanup:
+            connection?.close()
+            element.testEnded()
+    }
+
+    def "threadStarted creates the per-thread pool when preinit is #preinit"() {
+        given:
+            def poolName = "perThreadPool" + preinit
+            def element = createElement(poolName, "0", preinit)
+            element.testStarted()
+        when:
+            element.threadStarted()
+        then:
+            def info = DataSourceElement.getConnectionInfo(poolName)
+            info.startsWith("shared:false, ")
+            info.contains("created:" + created)
+        when:
+            DataSourceElement.getConnection(poolName).close()
+        then: "the pool of the thread holds a single connection"
+            DataSourceElement.getConnectionInfo(poolName).contains("active:0, idle:1, waiters:0")
+            DataSourceElement.getConnectionInfo(poolName).contains("created:1")
+        cleanup:
+            element.testEnded()
+        where:
+            preinit | created
+            true    | 1
+            false   | 0
+    }
+}
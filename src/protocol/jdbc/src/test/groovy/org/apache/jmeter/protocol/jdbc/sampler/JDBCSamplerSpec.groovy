@@ -18,20 +18,24 @@
 package org.apache.jmeter.protocol.jdbc.sampler
 
 import java.sql.Connection
+import java.sql.PreparedStatement
 import java.sql.ResultSet
 import java.sql.ResultSetMetaData
 import java.sql.SQLException
 import java.sql.Statement
 
 import org.apache.jmeter.config.ConfigTestElement
+import org.apache.jmeter.junit.spock.JMeterSpec
+import org.apache.jmeter.protocol.jdbc.AbstractJDBCTestElement
 import org.apache.jmeter.samplers.SampleResult
 import org.apache.jmeter.testelement.property.JMeterProperty
+import org.apache.jmeter.threads.JMeterContextService
+import org.apache.jmeter.threads.JMeterVariables
 
-import spock.lang.Specification
 import spock.lang.Unroll
 
 @Unroll
-class JDBCSamplerSpec extends Specification {
+class JDBCSamplerSpec extends JMeterSpec {
 
     def sut = new JDBCSampler()
 
@@ -80,6 +84,60 @@ class JDBCSamplerSpec extends Specification {
             response == [] as byte[]
     }
 
+    def "execute with PREPARED_BATCH_UPDATE query adds a batch per line of parameters"() {
+        given:
+            def conn = Mock(Connection)
+            def sample = Mock(SampleResult)
+            def pstmt = Mock(PreparedStatement)
+            sut.setQuery("INSERT INTO t VALUES (?, ?)")
+            sut.setQueryType(AbstractJDBCTestElement.PREPARED_BATCH_UPDATE)
+            sut.setQueryArguments("1,a\n2,b\n\n3,c\n")
+            sut.setQueryArgumentsTypes("INTEGER,VARCHAR")
+        when:
+            def response = new String(sut.execute(conn, sample), "UTF-8")
+        then:
+            1 * conn.prepareStatement("INSERT INTO t VALUES (?, ?)") >> pstmt
+            3 * pstmt.addBatch()
+            1 * pstmt.executeBatch() >> ([1, 1, Statement.SUCCESS_NO_INFO] as int[])
+            0 * pstmt.executeUpdate()
+            1 * sample.latencyEnd()
+            1 * pstmt.close()
+            response == "3 parameter sets, 2 updates (some update counts are unknown)"
+    }
+
+    def "execute with SELECT query and Row Count response does not read the values"() {
+        given:
+            def conn = Mock(Connection)
+            def sample = Mock(SampleResult)
+            def stmt = Mock(Statement)
+            def rs = Mock(ResultSet)
+            def meta = Mock(ResultSetMetaData)
+            sut.setQuery("SELECT")
+            sut.setResultSetResponse(AbstractJDBCTestElement.RESPONSE_ROW_COUNT)
+            sut.setVariableNames("id")
+            sut.setResultVariable("rows")
+            // Values of a previous sample
+            def vars = new JMeterVariables()
+            vars.put("id_1", "a")
+            vars.put("id_#", "1")
+            vars.putObject("rows", [[id: "a"]])
+            JMeterContextService.getContext().setVariables(vars)
+        when:
+            def response = new String(sut.execute(conn, sample), "UTF-8")
+        then:
+            1 * conn.createStatement() >> stmt
+            1 * stmt.executeQuery(_ as String) >> rs
+            1 * rs.getMetaData() >> meta
+            _ * meta.getColumnCount() >> 1
+            _ * meta.getColumnLabel(1) >> "id"
+            3 * rs.next() >>> [true, true, false]
+            0 * rs.getObject(_)
+            response == "id\n2 rows"
+            vars.get("id_1") == null
+            vars.get("id_#") == "0"
+            vars.getObject("rows") == null
+    }
+
     def "Catches SQLException during Connection closing"() {
         given:
             def mockConnection = Mock(Connection)
@@ -52,6 +52,11 @@ public class Publisher implements Closeable {
 
     private final boolean staticDest;
 
+    private final int transactionSize;
+
+    // Only used by the thread of the sampler
+    private int uncommitted;
+
     /**
      * Create a publisher using either the jndi.properties file or the provided
      * parameters. Uses a static destination and persistent messages(for
@@ -120,13 +125,61 @@ public class Publisher implements Closeable {
             String connfactory, String destinationName, boolean useAuth,
             String securityPrincipal, String securityCredentials,
             boolean staticDestination) throws JMSException, NamingException {
+        this(useProps, initialContextFactory, providerUrl, connfactory,
+                destinationName, useAuth, securityPrincipal,
+                securityCredentials, staticDestination, 0);
+    }
+
+    /**
+     * Create a publisher using either the jndi.properties file or the provided
+     * parameters, on a connection which may be shared with other publishers
+     * (see {@code jms.shared_connections}).
+     *
+     * @param useProps
+     *            true if a jndi.properties file is to be used
+     * @param initialContextFactory
+     *            the (ignored if useProps is true)
+     * @param providerUrl
+     *            (ignored if useProps is true)
+     * @param connfactory
+     *            name of the object factory to lookup in context
+     * @param destinationName
+     *            name of the destination to use
+     * @param useAuth
+     *            (ignored if useProps is true)
+     * @param securityPrincipal
+     *            (ignored if useProps is true)
+     * @param securityCredentials
+     *            (ignored if useProps is true)
+     * @param staticDestination
+     *            true if the destination is not to change between loops
+     * @param transactionSize
+     *            number of messages published in a transaction, the session is
+     *            not transacted when it is 0
+     * @throws JMSException
+     *             if the context could not be initialised, or there was some
+     *             other error
+     * @throws NamingException
+     *             when creation of the publisher fails
+     * @since 5.5
+     */
+    public Publisher(boolean useProps, String initialContextFactory, String providerUrl,
+            String connfactory, String destinationName, boolean useAuth,
+            String securityPrincipal, String securityCredentials,
+            boolean staticDestination, int transactionSize) throws JMSException, NamingException {
         super();
         boolean initSuccess = false;
         try{
             ctx = InitialContextFactory.getContext(useProps, initialContextFactory,
                     providerUrl, useAuth, securityPrincipal, securityCredentials);
-            connection = Utils.getConnection(ctx, connfactory);
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            connection = SharedConnections.getConnection(ctx, connfactory, SharedConnections.key(useProps,
+                    initialContextFactory, providerUrl, connfactory, securityPrincipal, securityCredentials));
+            this.transactionSize = Math.max(transactionSize, 0);
+            if (this.transactionSize > 0) {
+                session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            } else {
+                session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            }
             staticDest = staticDestination;
             if (staticDest) {
                 Destination dest = Utils.lookupDestination(ctx, destinationName);
@@ -135,6 +188,9 @@ public class Publisher implements Closeable {
                 producer = session.createProducer(null);
             }
             initSuccess = true;
+        } catch (JMSException e) {
+            evictConnection(e);
+            throw e;
         } finally {
             if(!initSuccess) {
                 close();
@@ -193,9 +249,45 @@ public class Publisher implements Closeable {
             Destination dest = Utils.lookupDestination(ctx, destinationName);
             producer.send(dest, msg, deliveryMode, priority, expiration);
         }
+        if (transactionSize > 0 && ++uncommitted >= transactionSize) {
+            commit();
+        }
         return msg;
     }
 
+    /**
+     * Commit the messages published since the last commit, if the session is transacted
+     *
+     * @throws JMSException when the commit fails
+     * @since 5.5
+     */
+    public void commit() throws JMSException {
+        if (uncommitted > 0) {
+            uncommitted = 0;
+            session.commit();
+        }
+    }
+
+    /**
+     * Roll back the messages published since the last commit, if the session is transacted
+     *
+     * @throws JMSException when the rollback fails
+     * @since 5.5
+     */
+    public void rollback() throws JMSException {
+        if (uncommitted > 0) {
+            uncommitted = 0;
+            session.rollback();
+        }
+    }
+
+    /**
+     * The next clients should not get the shared connection that failed
+     */
+    private void evictConnection(JMSException e) {
+        SharedConnections.evict(connection, e);
+    }
+
     /**
      * Close will close the session
      */
@@ -203,6 +295,6 @@ public class Publisher implements Closeable {
     public void close() {
         Utils.close(producer, log);
         Utils.close(session, log);
-        Utils.close(connection, log);
+        SharedConnections.close(connection, log);
     }
 }
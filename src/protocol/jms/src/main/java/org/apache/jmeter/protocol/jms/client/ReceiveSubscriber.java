@@ -44,6 +44,8 @@ import org.slf4j.LoggerFactory;
  * </ul>
  * In both cases, the {@link #getMessage(long)} method is used to return the next message,
  * either directly using receive(timeout) or from the queue using poll(timeout).
+ * {@link #receive(long)} also returns the time at which the message was received,
+ * when it was delivered to the listener rather than when it was polled.
  */
 public class ReceiveSubscriber implements Closeable, MessageListener {
 
@@ -59,7 +61,9 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
      * We use a LinkedBlockingQueue (rather than a ConcurrentLinkedQueue) because it has a
      * poll-with-wait method that avoids the need to use a polling loop.
      */
-    private final LinkedBlockingQueue<Message> queue;
+    private final LinkedBlockingQueue<ReceivedMessage> queue;
+
+    private final boolean sharedConnection;
 
     /**
      * No need for volatile as this variable is only accessed by a single thread
@@ -114,7 +118,7 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
         this(0, useProps,
                 initialContextFactory, providerUrl, connfactory, destinationName,
                 durableSubscriptionId, clientId, jmsSelector, useAuth,
-                securityPrincipal, securityCredentials, false);
+                securityPrincipal, securityCredentials, false, false);
     }
 
     /**
@@ -169,7 +173,7 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
         this(queueSize,  useProps,
              initialContextFactory, providerUrl, connfactory, destinationName,
              durableSubscriptionId, clientId, jmsSelector, useAuth,
-             securityPrincipal,  securityCredentials, true);
+             securityPrincipal,  securityCredentials, true, false);
     }
 
 
@@ -216,20 +220,33 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
      *            if <code>true</code> create an onMessageListener to prepare to
      *            begin receiving messages, otherwise queue will be
      *            <code>null</code>
+     * @param shareConnection
+     *            if <code>true</code> use a connection shared with other clients
+     *            (see {@code jms.shared_connections}), unless a client id or a durable
+     *            subscription is used. A shared connection is never stopped by {@link #stop()}.
      * @throws JMSException
      *             if could not create context or other problem occurred.
      * @throws NamingException
      *             when lookup of context or destination fails
+     * @since 5.5
      */
-    private ReceiveSubscriber(int queueSize, boolean useProps,
+    public ReceiveSubscriber(int queueSize, boolean useProps,
             String initialContextFactory, String providerUrl, String connfactory, String destinationName,
             String durableSubscriptionId, String clientId, String jmsSelector, boolean useAuth,
-            String securityPrincipal, String securityCredentials, boolean useMessageListener) throws NamingException, JMSException {
+            String securityPrincipal, String securityCredentials, boolean useMessageListener,
+            boolean shareConnection) throws NamingException, JMSException {
         boolean initSuccess = false;
         try{
             Context ctx = InitialContextFactory.getContext(useProps,
                     initialContextFactory, providerUrl, useAuth, securityPrincipal, securityCredentials);
-            connection = Utils.getConnection(ctx, connfactory);
+            // The client id identifies a single connection, so it can not be shared
+            if (shareConnection && isEmpty(clientId) && isEmpty(durableSubscriptionId)) {
+                connection = SharedConnections.getConnection(ctx, connfactory, SharedConnections.key(useProps,
+                        initialContextFactory, providerUrl, connfactory, securityPrincipal, securityCredentials));
+            } else {
+                connection = Utils.getConnection(ctx, connfactory);
+            }
+            sharedConnection = SharedConnections.isShared(connection);
             if(!isEmpty(clientId)) {
                 connection.setClientID(clientId);
             }
@@ -248,6 +265,9 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
             }
             log.debug("<init> complete");
             initSuccess = true;
+        } catch (JMSException e) {
+            evictConnection(e);
+            throw e;
         }
         finally {
             if(!initSuccess) {
@@ -298,12 +318,15 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
     }
 
     /**
-     * Calls Connection.stop() to stop receiving inbound messages.
+     * Calls Connection.stop() to stop receiving inbound messages,
+     * unless the connection is shared with other clients.
      * @throws JMSException when stopping the context fails
      */
     public void stop() throws JMSException {
         log.debug("stop()");
-        connection.stop();
+        if (!sharedConnection) {
+            connection.stop();
+        }
         connectionStarted=false;
     }
 
@@ -318,27 +341,51 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
      * @throws JMSException when receiving the message fails
      */
     public Message getMessage(long timeout) throws JMSException {
-        Message message = null;
+        ReceivedMessage received = receive(timeout);
+        return received == null ? null : received.getMessage();
+    }
+
+    /**
+     * Get the next message with the time at which it was received, or <code>null</code>.
+     * <p>
+     * Never blocks for longer than the specified timeout.
+     *
+     * @param timeout in milliseconds
+     * @return the next message or <code>null</code>
+     *
+     * @throws JMSException when receiving the message fails
+     * @since 5.5
+     */
+    public ReceivedMessage receive(long timeout) throws JMSException {
+        ReceivedMessage received = null;
         if (queue != null) { // Using onMessage Listener
             try {
                 if (timeout < 10) { // Allow for short/negative times
-                    message = queue.poll();
+                    received = queue.poll();
                 } else {
-                    message = queue.poll(timeout, TimeUnit.MILLISECONDS);
+                    received = queue.poll(timeout, TimeUnit.MILLISECONDS);
                 }
             } catch (InterruptedException e) {
                 // Ignored
                 Thread.currentThread().interrupt();
             }
-            return message;
+            return received;
         }
+        Message message;
         if (timeout < 10) { // Allow for short/negative times
             message = subscriber.receiveNoWait();
         } else {
             message = subscriber.receive(timeout);
         }
-        return message;
+        return message == null ? null : new ReceivedMessage(message, System.currentTimeMillis());
     }
+    /**
+     * The next clients should not get the shared connection that failed
+     */
+    private void evictConnection(JMSException e) {
+        SharedConnections.evict(connection, e);
+    }
+
     /**
      * close() will stop the connection first.
      * Then it closes the subscriber, session and connection.
@@ -347,7 +394,7 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
     public void close() { // called by SubscriberSampler#threadFinished()
         log.debug("close()");
         try {
-            if(connection != null && connectionStarted) {
+            if(connection != null && connectionStarted && !sharedConnection) {
                 connection.stop();
                 connectionStarted = false;
             }
@@ -356,7 +403,7 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
         }
         Utils.close(subscriber, log);
         Utils.close(session, log);
-        Utils.close(connection, log);
+        SharedConnections.close(connection, log);
     }
 
 
@@ -365,12 +412,50 @@ public class ReceiveSubscriber implements Closeable, MessageListener {
      */
     @Override
     public void onMessage(Message message) {
-        if (!queue.offer(message)){
+        if (!queue.offer(new ReceivedMessage(message, System.currentTimeMillis()))){
             log.warn("Could not add message to queue");
         }
     }
 
 
+    /**
+     * A message with the time at which it was received
+     * @since 5.5
+     */
+    public static final class ReceivedMessage {
+        private final Message message;
+        private final long receivedTime;
+
+        ReceivedMessage(Message message, long receivedTime) {
+            this.message = message;
+            this.receivedTime = receivedTime;
+        }
+
+        /**
+         * @return the message
+         */
+        public Message getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the time in milliseconds at which the message was received
+         */
+        public long getReceivedTime() {
+            return receivedTime;
+        }
+
+        /**
+         * @return the time in milliseconds between the sending of the message
+         *         ({@code JMSTimestamp}) and its reception, or -1 if the timestamp is not set
+         * @throws JMSException when the timestamp can not be read
+         */
+        public long getEndToEndLatency() throws JMSException {
+            long sent = message.getJMSTimestamp();
+            return sent > 0 ? Math.max(receivedTime - sent, 0) : -1;
+        }
+    }
+
     /**
      * Checks whether string is empty
      *
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.jms.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+
+import org.apache.jmeter.protocol.jms.Utils;
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Small pools of JMS connections shared by the threads, so thousands of threads do not
+ * need thousands of connections to the broker.
+ * <p>
+ * Only the connections are shared: each client still creates its own sessions, as a JMS session
+ * must only be used by one thread. The number of connections per connection factory is set by
+ * {@code jms.shared_connections}, the connections are not shared when it is 0.
+ * A connection is closed when its last client releases it.
+ * <p>
+ * The connections are created without holding the lock of the pools: the first client of a pool slot
+ * creates its connection, the next clients of the slot wait for it, and the other slots stay available.
+ * <p>
+ * A connection that failed, as reported by its {@link javax.jms.ExceptionListener} or by a client
+ * through {@link #evict(Connection, Exception)}, is removed from its pool so the next clients get a new one.
+ * The clients that still use it release it as usual.
+ */
+final class SharedConnections {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedConnections.class);
+
+    static final int SIZE = JMeterUtils.getPropDefault("jms.shared_connections", 0); // $NON-NLS-1$
+
+    private static final Map<String, SharedConnection[]> POOLS = new HashMap<>();
+
+    private static final Map<Connection, SharedConnection> SHARED = new HashMap<>();
+
+    private static final class SharedConnection {
+        private final String key;
+        private final int index;
+        /** Completed by the client that creates the connection */
+        private final CompletableFuture<Connection> connection = new CompletableFuture<>();
+        private int users;
+        private boolean evicted;
+
+        SharedConnection(String key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+
+    private SharedConnections() {
+        super();
+    }
+
+    /**
+     * Build the key identifying the connections created with the same parameters
+     *
+     * @param useProps              if the jndi.properties file is used
+     * @param initialContextFactory name of the initial context factory
+     * @param providerUrl           url of the provider
+     * @param connfactory           name of the connection factory
+     * @param securityPrincipal     name of the principal
+     * @param securityCredentials   credentials for the principal
+     * @return key of the pool
+     */
+    static String key(boolean useProps, String initialContextFactory, String providerUrl,
+            String connfactory, String securityPrincipal, String securityCredentials) {
+        return useProps + "#" + initialContextFactory + "#" + providerUrl + "#" + connfactory + "#" // $NON-NLS-1$
+                + securityPrincipal + "#" + securityCredentials; // $NON-NLS-1$
+    }
+
+    /**
+     * Get the least used connection of the pool identified by {@code key},
+     * creating it when needed. A new connection is returned when sharing is disabled.
+     *
+     * @param ctx         context to use
+     * @param connfactory name of the object factory to look up in <code>ctx</code>
+     * @param key         key of the pool, see {@link #key(boolean, String, String, String, String, String)}
+     * @return the connection, to be released by {@link #close(Connection, Logger)}
+     * @throws JMSException    when creation of the connection fails
+     * @throws NamingException when lookup in context fails
+     */
+    static Connection getConnection(Context ctx, String connfactory, String key) throws JMSException, NamingException {
+        return getConnection(ctx, connfactory, key, SIZE);
+    }
+
+    static Connection getConnection(Context ctx, String connfactory, String key, int size)
+            throws JMSException, NamingException {
+        if (size <= 0) {
+            return Utils.getConnection(ctx, connfactory);
+        }
+        SharedConnection shared;
+        boolean create = false;
+        synchronized (POOLS) {
+            SharedConnection[] pool = POOLS.computeIfAbsent(key, k -> new SharedConnection[size]);
+            int index = 0;
+            for (int i = 0; i < pool.length; i++) {
+                if (pool[i] == null) {
+                    index = i;
+                    break;
+                }
+                if (pool[i].users < pool[index].users) {
+                    index = i;
+                }
+            }
+            shared = pool[index];
+            if (shared == null) {
+                // Reserve the slot, the connection is created out of the lock
+                shared = new SharedConnection(key, index);
+                pool[index] = shared;
+                create = true;
+            }
+            shared.users++;
+        }
+        return create ? create(shared, ctx, connfactory) : await(shared);
+    }
+
+    private static Connection create(SharedConnection shared, Context ctx, String connfactory)
+            throws JMSException, NamingException {
+        Connection connection;
+        try {
+            connection = Utils.getConnection(ctx, connfactory);
+        } catch (JMSException | NamingException | RuntimeException e) {
+            synchronized (POOLS) {
+                shared.users--;
+                removeFromPool(shared);
+            }
+            shared.connection.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (POOLS) {
+            SHARED.put(connection, shared);
+        }
+        setExceptionListener(connection);
+        shared.connection.complete(connection);
+        log.debug("Created shared connection {} for {}", shared.index, connfactory);
+        return connection;
+    }
+
+    /**
+     * Wait for the connection created by the first client of the slot
+     */
+    private static Connection await(SharedConnection shared) throws JMSException, NamingException {
+        try {
+            return shared.connection.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(shared);
+            JMSException jmsException = new JMSException("Interrupted waiting for shared connection");
+            jmsException.setLinkedException(e);
+            throw jmsException;
+        } catch (ExecutionException e) {
+            release(shared);
+            // The clients waiting for the connection fail like the client that created it
+            Throwable cause = e.getCause();
+            if (cause instanceof JMSException) {
+                throw (JMSException) cause;
+            }
+            if (cause instanceof NamingException) {
+                throw (NamingException) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    private static void release(SharedConnection shared) {
+        synchronized (POOLS) {
+            shared.users--;
+        }
+    }
+
+    private static void setExceptionListener(Connection connection) {
+        try {
+            connection.setExceptionListener(e -> evict(connection, e));
+        } catch (JMSException | RuntimeException e) { // NOSONAR some providers do not allow to set the listener
+            log.debug("Could not set exception listener on shared connection, it will only be evicted by its clients", e);
+        }
+    }
+
+    /**
+     * Remove a failed connection from its pool, so the next callers of
+     * {@link #getConnection(Context, String, String)} get a new connection.
+     * The connection is closed when its current clients release it.
+     *
+     * @param connection the connection that failed, may be <code>null</code> or not shared
+     * @param cause      the failure
+     */
+    static void evict(Connection connection, Exception cause) {
+        if (connection == null) {
+            return;
+        }
+        synchronized (POOLS) {
+            SharedConnection shared = SHARED.get(connection);
+            if (shared == null || shared.evicted) {
+                return;
+            }
+            shared.evicted = true;
+            removeFromPool(shared);
+        }
+        log.warn("Shared connection {} evicted after failure: {}", connection, cause.toString());
+    }
+
+    private static void removeFromPool(SharedConnection shared) {
+        SharedConnection[] pool = POOLS.get(shared.key);
+        if (pool != null && pool[shared.index] == shared) {
+            pool[shared.index] = null;
+        }
+    }
+
+    /**
+     * @param connection connection to check
+     * @return {@code true} if the connection is shared by several clients
+     */
+    static boolean isShared(Connection connection) {
+        synchronized (POOLS) {
+            return SHARED.containsKey(connection);
+        }
+    }
+
+    /**
+     * Release a connection obtained by {@link #getConnection(Context, String, String)},
+     * the connection is closed if it is not shared or if it has no more users.
+     *
+     * @param connection the connection to release, may be <code>null</code>
+     * @param log        where to log the errors
+     */
+    static void close(Connection connection, Logger log) {
+        if (connection == null) {
+            return;
+        }
+        synchronized (POOLS) {
+            SharedConnection shared = SHARED.get(connection);
+            if (shared != null) {
+                if (--shared.users > 0) {
+                    return;
+                }
+                SHARED.remove(connection);
+                removeFromPool(shared);
+            }
+        }
+        Utils.close(connection, log);
+    }
+}
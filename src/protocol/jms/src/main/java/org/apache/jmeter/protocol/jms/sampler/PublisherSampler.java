@@ -137,6 +137,10 @@ public class PublisherSampler extends BaseJMSSampler implements TestStateListene
 
     private static final FileServer FSERVER = FileServer.getFileServer();
 
+    // Number of messages published in each transaction, 0 to not use transactions
+    private static final int TRANSACTION_SIZE =
+            JMeterUtils.getPropDefault("jms.publisher.transaction_size", 0); // $NON-NLS-1$
+
     /** File cache handler **/
     private Cache<Object, Object> fileCache = null;
 
@@ -182,7 +186,7 @@ public class PublisherSampler extends BaseJMSSampler implements TestStateListene
         configureIsReconnectErrorCode();
         publisher = new Publisher(getUseJNDIPropertiesAsBoolean(), getJNDIInitialContextFactory(), getProviderUrl(),
                 getConnectionFactory(), getDestination(), isUseAuth(), getUsername(), getPassword(),
-                isDestinationStatic());
+                isDestinationStatic(), TRANSACTION_SIZE);
         ClientPool.addClient(publisher);
         log.debug("PublisherSampler.initClient called");
     }
@@ -247,6 +251,8 @@ public class PublisherSampler extends BaseJMSSampler implements TestStateListene
                 }
                 Utils.messageProperties(propBuffer, msg);
             }
+            // The last transaction of the sample may not be full
+            publisher.commit();
             result.setResponseCodeOK();
             result.setResponseMessage(loop + " messages published");
             result.setSuccessful(true);
@@ -254,8 +260,10 @@ public class PublisherSampler extends BaseJMSSampler implements TestStateListene
             result.setSampleCount(loop);
             result.setRequestHeaders(propBuffer.toString());
         } catch (JMSException e) {
+            rollback();
             handleError(result, e, true);
         } catch (Exception e) {
+            rollback();
             handleError(result, e, false);
         } finally {
             result.sampleEnd();
@@ -263,6 +271,17 @@ public class PublisherSampler extends BaseJMSSampler implements TestStateListene
         return result;
     }
 
+    /**
+     * Do not publish the messages of a failed sample with the next one
+     */
+    private void rollback() {
+        try {
+            publisher.rollback();
+        } catch (JMSException e) {
+            log.warn("Could not roll back the published messages", e);
+        }
+    }
+
     /**
      * Fills in result and decide whether to reconnect or not depending on
      * checkForReconnect and underlying {@link JMSException#getErrorCode()}
@@ -33,6 +33,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.protocol.jms.Utils;
 import org.apache.jmeter.protocol.jms.client.InitialContextFactory;
 import org.apache.jmeter.protocol.jms.client.ReceiveSubscriber;
+import org.apache.jmeter.protocol.jms.client.ReceiveSubscriber.ReceivedMessage;
 import org.apache.jmeter.protocol.jms.control.gui.JMSSubscriberGui;
 import org.apache.jmeter.samplers.Interruptible;
 import org.apache.jmeter.samplers.SampleResult;
@@ -65,6 +66,10 @@ public class SubscriberSampler extends BaseJMSSampler implements Interruptible,
     // This is the maximum time the sampler can be blocked.
     private static final long DEFAULT_WAIT = 500L;
 
+    // Add a sub-result with the end-to-end latency of each received message
+    private static final boolean END_TO_END_LATENCY =
+            JMeterUtils.getPropDefault("jms.subscriber.end_to_end_latency", false); // $NON-NLS-1$
+
     // No need to synch/ - only used by sampler
     // Note: not currently added to the ClientPool
     private transient ReceiveSubscriber SUBSCRIBER = null;
@@ -116,7 +121,8 @@ public class SubscriberSampler extends BaseJMSSampler implements Interruptible,
     private void initListenerClient() throws JMSException, NamingException {
         SUBSCRIBER = new ReceiveSubscriber(0, getUseJNDIPropertiesAsBoolean(), getJNDIInitialContextFactory(),
                     getProviderUrl(), getConnectionFactory(), getDestination(), getDurableSubscriptionId(),
-                    getClientId(), getJmsSelector(), isUseAuth(), getUsername(), getPassword());
+                    getClientId(), getJmsSelector(), isUseAuth(), getUsername(), getPassword(),
+                    true, !stopBetweenSamples);
         log.debug("SubscriberSampler.initListenerClient called");
     }
 
@@ -126,9 +132,10 @@ public class SubscriberSampler extends BaseJMSSampler implements Interruptible,
      * @throws JMSException
      */
     private void initReceiveClient() throws NamingException, JMSException {
-        SUBSCRIBER = new ReceiveSubscriber(getUseJNDIPropertiesAsBoolean(),
+        SUBSCRIBER = new ReceiveSubscriber(0, getUseJNDIPropertiesAsBoolean(),
                 getJNDIInitialContextFactory(), getProviderUrl(), getConnectionFactory(), getDestination(),
-                getDurableSubscriptionId(), getClientId(), getJmsSelector(), isUseAuth(), getUsername(), getPassword());
+                getDurableSubscriptionId(), getClientId(), getJmsSelector(), isUseAuth(), getUsername(), getPassword(),
+                false, !stopBetweenSamples);
         log.debug("SubscriberSampler.initReceiveClient called");
     }
 
@@ -178,12 +185,14 @@ public class SubscriberSampler extends BaseJMSSampler implements Interruptible,
         while (!interrupted
                 && (until == 0 || now < until)
                 && read < loop) {
-            Message msg;
             try {
-                msg = SUBSCRIBER.getMessage(calculateWait(until, now));
-                if (msg != null){
+                ReceivedMessage received = SUBSCRIBER.receive(calculateWait(until, now));
+                if (received != null){
                     read++;
-                    extractContent(buffer, propBuffer, msg, read == loop);
+                    extractContent(buffer, propBuffer, received.getMessage(), read == loop);
+                    if (END_TO_END_LATENCY) {
+                        result.addRawSubResult(createMessageResult(received));
+                    }
                 }
             } catch (JMSException e) {
                 String errorCode = Optional.ofNullable(e.getErrorCode()).orElse("");
@@ -228,6 +237,34 @@ public class SubscriberSampler extends BaseJMSSampler implements Interruptible,
         return result;
     }
 
+    /**
+     * Create the result of a single message, timed from its sending to its reception
+     * @param received the message
+     * @return the result of the message
+     * @throws JMSException when the headers of the message can not be read
+     */
+    private SampleResult createMessageResult(ReceivedMessage received) throws JMSException {
+        Message msg = received.getMessage();
+        long latency = received.getEndToEndLatency();
+        SampleResult messageResult = latency < 0
+                ? new SampleResult(received.getReceivedTime(), 0)
+                : new SampleResult(msg.getJMSTimestamp(), latency);
+        String id = msg.getJMSCorrelationID();
+        messageResult.setSampleLabel(getName() + " " + (id == null ? msg.getJMSMessageID() : id));
+        messageResult.setDataType(SampleResult.TEXT);
+        messageResult.setResponseHeaders(Utils.messageProperties(msg));
+        if (latency < 0) {
+            messageResult.setSuccessful(false);
+            messageResult.setResponseMessage("Message has no JMSTimestamp");
+        } else {
+            messageResult.setLatency(latency);
+            messageResult.setSuccessful(true);
+            messageResult.setResponseCodeOK();
+            messageResult.setResponseMessage("End-to-end latency: " + latency + " ms");
+        }
+        return messageResult;
+    }
+
     /**
      * Try to reconnect if configured to or temporize if not or an exception occurred
      * @param reconnect
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.jms.client;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.naming.Context;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class SharedConnectionsTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedConnectionsTest.class);
+
+    private final Context ctx = mock(Context.class);
+    private final ConnectionFactory factory = mock(ConnectionFactory.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(ctx.lookup("ConnectionFactory")).thenReturn(factory);
+        when(factory.createConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    private Connection get(String key, int size) throws Exception {
+        return SharedConnections.getConnection(ctx, "ConnectionFactory", key, size);
+    }
+
+    @Test
+    void testConnectionsAreSharedRoundRobin() throws Exception {
+        String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "");
+        Connection first = get(key, 2);
+        Connection second = get(key, 2);
+        assertNotSame(first, second);
+        assertSame(first, get(key, 2));
+        assertSame(second, get(key, 2));
+        verify(factory, times(2)).createConnection();
+        assertTrue(SharedConnections.isShared(first));
+
+        SharedConnections.close(first, log);
+        verify(first, never()).close();
+        SharedConnections.close(first, log);
+        verify(first).close();
+        assertFalse(SharedConnections.isShared(first));
+
+        Connection replacement = get(key, 2);
+        assertNotSame(first, replacement, "closed connection is replaced");
+        SharedConnections.close(replacement, log);
+        SharedConnections.close(second, log);
+        SharedConnections.close(second, log);
+        verify(second).close();
+    }
+
+    @Test
+    void testConnectionsAreNotSharedWhenDisabled() throws Exception {
+        String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "");
+        Connection connection = get(key, 0);
+        assertNotSame(connection, get(key, 0));
+        assertFalse(SharedConnections.isShared(connection));
+        SharedConnections.close(connection, log);
+        verify(connection).close();
+    }
+
+    @Test
+    void testFailedConnectionIsReplaced() throws Exception {
+        String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "reconnect");
+        Connection failed = get(key, 1);
+        assertSame(failed, get(key, 1));
+        ArgumentCaptor<ExceptionListener> listener = ArgumentCaptor.forClass(ExceptionListener.class);
+        verify(failed).setExceptionListener(listener.capture());
+
+        listener.getValue().onException(new JMSException("connection lost"));
+        Connection reconnected = get(key, 1);
+        assertNotSame(failed, reconnected, "next caller should get a new connection");
+        verify(factory, times(2)).createConnection();
+
+        // the clients of the failed connection release it as usual
+        SharedConnections.close(failed, log);
+        verify(failed, never()).close();
+        SharedConnections.close(failed, log);
+        verify(failed).close();
+        assertSame(reconnected, get(key, 1), "releasing the failed connection should not remove the new one");
+
+        SharedConnections.evict(reconnected, new JMSException("session creation failed"));
+        Connection third = get(key, 1);
+        assertNotSame(reconnected, third, "connection evicted by a client should be replaced");
+        SharedConnections.close(reconnected, log);
+        SharedConnections.close(reconnected, log);
+        verify(reconnected).close();
+        SharedConnections.close(third, log);
+        verify(third).close();
+    }
+
+    @Test
+    void testConnectionIsSharedWhenListenerCannotBeSet() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(factory.createConnection()).thenReturn(connection);
+        doThrow(new JMSException("not allowed")).when(connection).setExceptionListener(any());
+        String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "nolistener");
+        assertSame(connection, get(key, 1));
+        assertTrue(SharedConnections.isShared(connection));
+        SharedConnections.close(connection, log);
+        verify(connection).close();
+    }
+
+    @Test
+    void testConnectionIsCreatedOutOfTheLock() throws Exception {
+        Connection slow = mock(Connection.class);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        ConnectionFactory slowFactory = mock(ConnectionFactory.class);
+        when(ctx.lookup("SlowConnectionFactory")).thenReturn(slowFactory);
+        when(slowFactory.createConnection()).thenAnswer(invocation -> {
+            creating.countDown();
+            created.await(10, TimeUnit.SECONDS);
+            return slow;
+        });
+        String slowKey = SharedConnections.key(false, "factory", "tcp://slow", "SlowConnectionFactory", "", "");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Connection> first = executor.submit(
+                    () -> SharedConnections.getConnection(ctx, "SlowConnectionFactory", slowKey, 1));
+            assertTrue(creating.await(10, TimeUnit.SECONDS));
+            Future<Connection> waiter = executor.submit(
+                    () -> SharedConnections.getConnection(ctx, "SlowConnectionFactory", slowKey, 1));
+
+            // Other pools are not blocked by the connection being created
+            String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "fast");
+            Connection other = get(key, 1);
+            SharedConnections.close(other, log);
+            verify(other).close();
+            assertFalse(waiter.isDone(), "next client of the slot should wait for its connection");
+
+            created.countDown();
+            assertSame(slow, first.get(10, TimeUnit.SECONDS));
+            assertSame(slow, waiter.get(10, TimeUnit.SECONDS));
+            verify(slowFactory).createConnection();
+            SharedConnections.close(slow, log);
+            SharedConnections.close(slow, log);
+            verify(slow).close();
+        } finally {
+            created.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedCreationFreesTheSlot() throws Exception {
+        String key = SharedConnections.key(false, "factory", "tcp://localhost", "ConnectionFactory", "", "failure");
+        when(factory.createConnection()).thenThrow(new JMSException("broker down"))
+                .thenAnswer(invocation -> mock(Connection.class));
+        assertThrows(JMSException.class, () -> get(key, 1));
+        Connection connection = get(key, 1);
+        assertTrue(SharedConnections.isShared(connection));
+        SharedConnections.close(connection, log);
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit 5 test to demonstrate when the @BeforeEach and @AfterEach methods are called
+ */
+public class JupiterLifecycleTest {
+
+    /** Calls to the @BeforeEach, @Test and @AfterEach methods, in order */
+    public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        EVENTS.add("setUp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        EVENTS.add("tearDown");
+    }
+
+    @Test
+    void pass() {
+        EVENTS.add("test");
+    }
+
+    @Test
+    void fail() {
+        assertEquals(1, 2);
+    }
+
+    @Test
+    void error() {
+        throw new IllegalStateException("unexpected error");
+    }
+}
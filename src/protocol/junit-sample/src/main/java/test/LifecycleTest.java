@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import junit.framework.TestCase;
+
+/**
+ * Test to demonstrate when setUp and tearDown are called
+ */
+public class LifecycleTest extends TestCase {
+
+    /** Calls to setUp, the tests and tearDown, in order */
+    public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+    public LifecycleTest(String name) {
+        super(name);
+    }
+
+    @Override
+    public void setUp() {
+        EVENTS.add("setUp");
+    }
+
+    @Override
+    public void tearDown() {
+        EVENTS.add("tearDown");
+    }
+
+    public void testPass() {
+        EVENTS.add("test");
+    }
+
+    public void testFail() {
+        EVENTS.add("test");
+        fail("expected failure");
+    }
+}
@@ -24,6 +24,7 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.io.File;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +39,7 @@ import javax.swing.event.ChangeListener;
 
 import org.apache.jmeter.gui.TestElementMetadata;
 import org.apache.jmeter.protocol.java.sampler.JUnitSampler;
+import org.apache.jmeter.protocol.java.sampler.JUnitSampler.FixtureScope;
 import org.apache.jmeter.samplers.gui.AbstractSamplerGui;
 import org.apache.jmeter.testelement.TestElement;
 import org.apache.jmeter.util.JMeterUtils;
@@ -74,6 +76,17 @@ implements ChangeListener, ActionListener, ItemListener
     private static final String ONETIMETEARDOWN = "oneTimeTearDown"; //$NON-NLS-1$
     private static final String SUITE = "suite"; //$NON-NLS-1$
 
+    // Names of JUnit 5 annotations, Jupiter API is not needed by JMeter itself
+    private static final String JUPITER_TEST = "org.junit.jupiter.api.Test"; //$NON-NLS-1$
+    private static final String JUPITER_BEFORE_ALL = "org.junit.jupiter.api.BeforeAll"; //$NON-NLS-1$
+    private static final String JUPITER_AFTER_ALL = "org.junit.jupiter.api.AfterAll"; //$NON-NLS-1$
+
+    private static final String[] FIXTURE_SCOPE_LABELS = {
+            "junit_fixture_scope_sample", //$NON-NLS-1$
+            "junit_fixture_scope_iteration", //$NON-NLS-1$
+            "junit_fixture_scope_thread" //$NON-NLS-1$
+    };
+
     private static final AtomicBoolean IS_INITILIAZED = new AtomicBoolean(Boolean.FALSE);
     private static final String[] SPATHS;
 
@@ -122,7 +135,9 @@ implements ChangeListener, ActionListener, ItemListener
     private JCheckBox appendError = new JCheckBox(JMeterUtils.getResString("junit_append_error")); //$NON-NLS-1$
     private JCheckBox appendExc = new JCheckBox(JMeterUtils.getResString("junit_append_exception")); //$NON-NLS-1$
     private JCheckBox junit4 = new JCheckBox(JMeterUtils.getResString("junit_junit4")); //$NON-NLS-1$
+    private JCheckBox junit5 = new JCheckBox(JMeterUtils.getResString("junit_junit5")); //$NON-NLS-1$
     private JCheckBox createInstancePerSample = new JCheckBox(JMeterUtils.getResString("junit_create_instance_per_sample")); //$NON-NLS-1$
+    private JComboBox<String> fixtureScope;
 
     /** A combo box allowing the user to choose a test class. */
     private JComboBox<String> classnameCombo;
@@ -133,6 +148,7 @@ implements ChangeListener, ActionListener, ItemListener
 
     private static List<String> annotatedTestClasses;
     private static List<String> junitTestClasses;
+    private static List<String> jupiterTestClasses;
 
     /**
      * Constructor for JUnitTestSamplerGui
@@ -175,8 +191,12 @@ implements ChangeListener, ActionListener, ItemListener
                             new Class[] {Test.class}, false);
                         junitTestClasses = ClassFinder.findClassesThatExtend(SPATHS,
                              new Class[] { TestCase.class });
+                        jupiterTestClasses = ClassFinder.findClasses(SPATHS,
+                             JUnitTestSamplerGui::isJupiterTestClass);
                     }
-                    if (junit4.isSelected()){
+                    if (junit5.isSelected()){
+                        classList = jupiterTestClasses;
+                    } else if (junit4.isSelected()){
                         classList = annotatedTestClasses;
                     } else {
                         classList = junitTestClasses;
@@ -211,6 +231,8 @@ implements ChangeListener, ActionListener, ItemListener
         JPanel panel = new JPanel(new MigLayout("fillx, wrap 2, insets 0", "[][fill,grow]"));
         panel.add(junit4, "span 2");
         junit4.addItemListener(this);
+        panel.add(junit5, "span 2");
+        junit5.addItemListener(this);
 
         panel.add(filterpkg, "span 2");
         filterpkg.addChangeListener(this);
@@ -247,6 +269,13 @@ implements ChangeListener, ActionListener, ItemListener
         panel.add(appendError, "span 2");
         panel.add(appendExc, "span 2");
         panel.add(createInstancePerSample, "span 2");
+
+        fixtureScope = new JComboBox<>();
+        for (String label : FIXTURE_SCOPE_LABELS) {
+            fixtureScope.addItem(JMeterUtils.getResString(label));
+        }
+        panel.add(JMeterUtils.labelFor(fixtureScope, "junit_fixture_scope"));
+        panel.add(fixtureScope);
         return panel;
     }
 
@@ -256,6 +285,8 @@ implements ChangeListener, ActionListener, ItemListener
         createInstancePerSample.setSelected(false);
         doSetup.setSelected(false);
         junit4.setSelected(false);
+        junit5.setSelected(false);
+        fixtureScope.setSelectedIndex(FixtureScope.SAMPLE.ordinal());
         filterpkg.setText(""); //$NON-NLS-1$
         constructorLabel.setText(""); //$NON-NLS-1$
         successCode.setText(JMeterUtils.getResString("junit_success_default_code")); //$NON-NLS-1$
@@ -314,6 +345,8 @@ implements ChangeListener, ActionListener, ItemListener
         sampler.setAppendException(appendExc.isSelected());
         sampler.setCreateOneInstancePerSample(createInstancePerSample.isSelected());
         sampler.setJunit4(junit4.isSelected());
+        sampler.setJunit5(junit5.isSelected());
+        sampler.setFixtureScope(FixtureScope.values()[fixtureScope.getSelectedIndex()]);
     }
 
     /** {@inheritDoc} */
@@ -323,6 +356,7 @@ implements ChangeListener, ActionListener, ItemListener
         super.configure(el);
         JUnitSampler sampler = (JUnitSampler)el;
         junit4.setSelected(sampler.getJunit4());
+        junit5.setSelected(sampler.getJunit5());
         filterpkg.setText(sampler.getFilterString());
         classnameCombo.setSelectedItem(sampler.getClassname());
         setupMethods();
@@ -362,6 +396,7 @@ implements ChangeListener, ActionListener, ItemListener
         appendError.setSelected(sampler.getAppendError());
         appendExc.setSelected(sampler.getAppendException());
         createInstancePerSample.setSelected(sampler.getCreateOneInstancePerSample());
+        fixtureScope.setSelectedIndex(sampler.getFixtureScope().ordinal());
     }
 
     private void setupMethods(){
@@ -384,6 +419,9 @@ implements ChangeListener, ActionListener, ItemListener
 
     private String[] getMethodNames(Class<?> clazz)
     {
+        if (junit5.isSelected()) {
+            return getJupiterMethodNames(clazz);
+        }
         Method[] meths = clazz.getMethods();
         List<String> list = new ArrayList<>();
         for (final Method method : meths) {
@@ -409,6 +447,51 @@ implements ChangeListener, ActionListener, ItemListener
         return new String[0];
     }
 
+    /**
+     * Jupiter test methods need not be public, so the declared methods of the class
+     * and of its super classes are listed.
+     */
+    private static String[] getJupiterMethodNames(Class<?> clazz) {
+        List<String> list = new ArrayList<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getParameterCount() == 0 && !list.contains(method.getName())
+                        && (hasAnnotation(method, JUPITER_TEST)
+                                || hasAnnotation(method, JUPITER_BEFORE_ALL)
+                                || hasAnnotation(method, JUPITER_AFTER_ALL))) {
+                    list.add(method.getName());
+                }
+            }
+        }
+        return list.toArray(new String[0]);
+    }
+
+    private static boolean isJupiterTestClass(String className) {
+        if (className.contains("$")) { //$NON-NLS-1$
+            return false;
+        }
+        try {
+            Class<?> c = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            for (Method method : c.getDeclaredMethods()) {
+                if (hasAnnotation(method, JUPITER_TEST)) {
+                    return true;
+                }
+            }
+        } catch (NoClassDefFoundError | ClassNotFoundException | UnsupportedClassVersionError | VerifyError e) {
+            log.debug("Unable to check class {}", className, e);
+        }
+        return false;
+    }
+
+    private static boolean hasAnnotation(Method method, String annotation) {
+        for (Annotation a : method.getDeclaredAnnotations()) {
+            if (a.annotationType().getName().equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Handle action events for this component.  This method currently handles
      * events for the classname combo box, and sets up the associated method names.
@@ -426,11 +509,15 @@ implements ChangeListener, ActionListener, ItemListener
 
     /**
      * Handle change events: currently handles events for the JUnit4
-     * checkbox, and sets up the relevant class names.
+     * and JUnit5 checkboxes, and sets up the relevant class names.
      */
     @Override
     public void itemStateChanged(ItemEvent event) {
-        if (event.getItem() == junit4){
+        if (event.getItem() == junit4 || event.getItem() == junit5){
+            // Only one test style can be selected
+            if (event.getStateChange() == ItemEvent.SELECTED) {
+                (event.getItem() == junit4 ? junit5 : junit4).setSelected(false);
+            }
             setupClasslist(true);
         }
     }
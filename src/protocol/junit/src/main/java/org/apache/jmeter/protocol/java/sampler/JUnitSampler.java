@@ -17,29 +17,18 @@
 
 package org.apache.jmeter.protocol.java.sampler;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Enumeration;
-
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.jmeter.samplers.AbstractSampler;
 import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.ThreadListener;
-import org.junit.After;
-import org.junit.Before;
-import org.junit.Test;
-import org.junit.Test.None;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import junit.framework.AssertionFailedError;
-import junit.framework.Protectable;
 import junit.framework.TestCase;
-import junit.framework.TestFailure;
-import junit.framework.TestResult;
 
 /**
  *
@@ -47,6 +36,10 @@ import junit.framework.TestResult;
  * a JUnit test case. The current implementation will use the string
  * constructor first. If the test class does not declare a string
  * constructor, the sampler will try empty constructor.
+ * <p>
+ * The test methods are resolved once per test class into method handles shared
+ * by all the threads, and the setUp/tearDown methods run once per sample,
+ * per iteration or per thread according to the {@link FixtureScope}.
  */
 public class JUnitSampler extends AbstractSampler implements ThreadListener {
 
@@ -69,55 +62,48 @@ public class JUnitSampler extends AbstractSampler implements ThreadListener {
     private static final String APPEND_ERROR = "junitsampler.append.error";
     private static final String APPEND_EXCEPTION = "junitsampler.append.exception";
     private static final String JUNIT4 = "junitsampler.junit4";
+    private static final String JUNIT5 = "junitsampler.junit5";
     private static final String CREATE_INSTANCE_PER_SAMPLE="junitsampler.createinstancepersample";
     private static final boolean CREATE_INSTANCE_PER_SAMPLE_DEFAULT = false;
+    private static final String FIXTURE_SCOPE = "junitsampler.fixture.scope";
     //-- JMX file attributes - do not change
 
-    private static final String SETUP = "setUp";
-    private static final String TEARDOWN = "tearDown";
+    /**
+     * Lifetime of the test fixture, i.e. how often the setUp and tearDown methods are called.
+     *
+     * @since 5.5
+     */
+    public enum FixtureScope {
+        /** setUp and tearDown run around each sample, this is the default */
+        SAMPLE,
+        /** setUp runs at the first sample of each thread group iteration, tearDown when the iteration changes */
+        ITERATION,
+        /** setUp runs at the first sample of the thread, tearDown when the thread finishes */
+        THREAD
+    }
 
-    // the Method objects for setUp (@Before) and tearDown (@After) methods
-    // Will be null if not provided or not required
-    private transient Method setUpMethod;
-    private transient Method tearDownMethod;
+    // The methods of the test, shared by all the threads
+    private transient JUnitTestMethods testMethods;
 
-    // The TestCase to run
-    private transient TestCase testCase;
     // The test object, i.e. the instance of the class containing the test method
-    // This is the same as testCase for JUnit3 tests
-    // but different for JUnit4 tests which use a wrapper
     private transient Object testObject;
 
     // The method name to be invoked
     private transient String methodName;
     // The name of the class containing the method
     private transient String className;
-    // The wrapper used to invoke the method
-    private transient Protectable protectable;
+
+    private transient FixtureScope fixtureScope;
+    private transient boolean setUpTearDown;
+    // true when setUp succeeded and tearDown has not been called yet
+    private transient boolean fixtureActive;
+    // thread group iteration in which setUp was called
+    private transient int fixtureIteration;
 
     public JUnitSampler(){
         super();
     }
 
-    /**
-     * Method tries to get the setUp and tearDown method for the class
-     * @param testObject
-     */
-    private void initMethodObjects(Object testObject){
-        setUpMethod = null;
-        tearDownMethod = null;
-        if (!getDoNotSetUpTearDown()) {
-            setUpMethod = getJunit4() ?
-                getMethodWithAnnotation(testObject, Before.class)
-                :
-                getMethod(testObject, SETUP);
-            tearDownMethod = getJunit4() ?
-                getMethodWithAnnotation(testObject, After.class)
-                :
-                getMethod(testObject, TEARDOWN);
-        }
-    }
-
     /**
      * Sets the Classname attribute of the JavaConfig object
      *
@@ -364,13 +350,53 @@ public class JUnitSampler extends AbstractSampler implements ThreadListener {
         setProperty(JUNIT4, junit4, false);
     }
 
+    /**
+     * Check if JUnit 5 (Jupiter annotations) is to be used instead of
+     * JUnit 4 or JUnit 3. It takes precedence over {@link #getJunit4()}.
+     *
+     * @return true if JUnit 5 (Jupiter annotations) is to be used.
+     * Default is false.
+     * @since 5.5
+     */
+    public boolean getJunit5() {
+        return getPropertyAsBoolean(JUNIT5, false);
+    }
+
+    /**
+     * Set whether to use JUnit 5 (Jupiter) style or not.
+     * @param junit5 true if JUnit 5 style is to be used.
+     * @since 5.5
+     */
+    public void setJunit5(boolean junit5) {
+        setProperty(JUNIT5, junit5, false);
+    }
+
+    /**
+     * @return the lifetime of the test fixture, {@link FixtureScope#SAMPLE} by default
+     * @since 5.5
+     */
+    public FixtureScope getFixtureScope() {
+        String scope = getPropertyAsString(FIXTURE_SCOPE, FixtureScope.SAMPLE.name());
+        try {
+            return FixtureScope.valueOf(scope);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown fixture scope {}, using {}", scope, FixtureScope.SAMPLE);
+            return FixtureScope.SAMPLE;
+        }
+    }
+
+    /**
+     * Set how often the setUp and tearDown methods are called.
+     * @param scope the lifetime of the test fixture
+     * @since 5.5
+     */
+    public void setFixtureScope(FixtureScope scope) {
+        setProperty(FIXTURE_SCOPE, scope.name(), FixtureScope.SAMPLE.name());
+    }
+
     /** {@inheritDoc} */
     @Override
-    @SuppressWarnings("JdkObsolete")
     public SampleResult sample(Entry entry) {
-        if(getCreateOneInstancePerSample()) {
-            initializeTestObject();
-        }
         SampleResult sresult = new SampleResult();
         sresult.setSampleLabel(getName());// Bug 41522 - don't use rlabel here
         sresult.setSamplerData(className + "." + methodName);
@@ -379,91 +405,8 @@ public class JUnitSampler extends AbstractSampler implements ThreadListener {
         sresult.setSuccessful(true);
         sresult.setResponseMessage(getSuccess());
         sresult.setResponseCode(getSuccessCode());
-        if (this.testCase != null){
-            // create a new TestResult
-            TestResult tr = new TestResult();
-            final TestCase theClazz = this.testCase;
-            try {
-                if (setUpMethod != null){
-                    setUpMethod.invoke(this.testObject,new Object[0]);
-                }
-                sresult.sampleStart();
-                tr.startTest(this.testCase);
-                // Do not use TestCase.run(TestResult) method, since it will
-                // call setUp and tearDown. Doing that will result in calling
-                // the setUp and tearDown method twice and the elapsed time
-                // will include setup and teardown.
-                tr.runProtected(theClazz, protectable);
-                tr.endTest(this.testCase);
-                sresult.sampleEnd();
-                if (tearDownMethod != null){
-                    tearDownMethod.invoke(testObject,new Object[0]);
-                }
-            } catch (InvocationTargetException e) {
-                Throwable cause = e.getCause();
-                if (cause instanceof AssertionFailedError){
-                    tr.addFailure(theClazz, (AssertionFailedError) cause);
-                } else if (cause instanceof AssertionError) {
-                    // Convert JUnit4 failure to Junit3 style
-                    AssertionFailedError afe = new AssertionFailedError(cause.toString());
-                    // copy the original stack trace
-                    afe.setStackTrace(cause.getStackTrace());
-                    tr.addFailure(theClazz, afe);
-                } else if (cause != null) {
-                    tr.addError(theClazz, cause);
-                    log.info("caught exception", e);
-                } else {
-                    tr.addError(theClazz, e);
-                    log.info("caught exception", e);
-                }
-            } catch (IllegalAccessException | IllegalArgumentException e) {
-                tr.addError(theClazz, e);
-            }
-            if ( !tr.wasSuccessful() ){
-                sresult.setSuccessful(false);
-                StringBuilder buf = new StringBuilder();
-                StringBuilder buftrace = new StringBuilder();
-                Enumeration<TestFailure> en;
-                if (getAppendError()) {
-                    en = tr.failures();
-                    if (en.hasMoreElements()){
-                        sresult.setResponseCode(getFailureCode());
-                        buf.append( getFailure() );
-                        buf.append("\n");
-                    }
-                    while (en.hasMoreElements()){
-                        TestFailure item = en.nextElement();
-                        buf.append( "Failure -- ");
-                        buf.append( item.toString() );
-                        buf.append("\n");
-                        buftrace.append( "Failure -- ");
-                        buftrace.append( item.toString() );
-                        buftrace.append("\n");
-                        buftrace.append( "Trace -- ");
-                        buftrace.append( item.trace() );
-                    }
-                    en = tr.errors();
-                    if (en.hasMoreElements()){
-                        sresult.setResponseCode(getErrorCode());
-                        buf.append( getError() );
-                        buf.append("\n");
-                    }
-                    while (en.hasMoreElements()){
-                        TestFailure item = en.nextElement();
-                        buf.append( "Error -- ");
-                        buf.append( item.toString() );
-                        buf.append("\n");
-                        buftrace.append( "Error -- ");
-                        buftrace.append( item.toString() );
-                        buftrace.append("\n");
-                        buftrace.append( "Trace -- ");
-                        buftrace.append( item.trace() );
-                    }
-                }
-                sresult.setResponseMessage(buf.toString());
-                sresult.setResponseData(buftrace.toString(), null);
-            }
-        } else {
+        Throwable setUpProblem = testMethods != null ? beginFixture() : null;
+        if (testObject == null) {
             // we should log a warning, but allow the test to keep running
             sresult.setSuccessful(false);
             // this should be externalized to the properties
@@ -472,163 +415,169 @@ public class JUnitSampler extends AbstractSampler implements ThreadListener {
                     + "String constructor or failure to instantiate constructor,"
                     + " check warning messages in jmeter log file");
             sresult.setResponseCode(getErrorCode());
+            return sresult;
+        }
+        Throwable testProblem = null;
+        Throwable tearDownProblem = null;
+        // The elapsed time does not include setUp and tearDown
+        if (setUpProblem == null) {
+            sresult.sampleStart();
+            testProblem = testMethods.runTest(testObject);
+            sresult.sampleEnd();
+            if (fixtureScope == FixtureScope.SAMPLE) {
+                tearDownProblem = endFixture();
+            }
+        }
+        // Nothing is allocated for the result of a successful test
+        if (setUpProblem != null || testProblem != null || tearDownProblem != null) {
+            setProblems(sresult, setUpProblem, testProblem, tearDownProblem);
         }
         return sresult;
     }
 
     /**
-     * If the method is not able to create a new instance of the
-     * class, it returns null and logs all the exceptions at
-     * warning level.
-     */
-    private static Object getClassInstance(String className, String label){
-        Object testclass = null;
-        if (className != null){
-            Constructor<?> con = null;
-            Constructor<?> strCon = null;
-            Class<?> theclazz = null;
-            Object[] strParams = null;
-            Object[] params = null;
-            try
-            {
-                theclazz =
-                    Thread.currentThread().getContextClassLoader().loadClass(className.trim());
-            } catch (ClassNotFoundException e) {
-                log.warn("ClassNotFoundException:: {}", e.getMessage());
+     * Call setUp if the fixture of the current scope is not set up yet,
+     * creating a new test object if needed.
+     *
+     * @return the problem raised by setUp, or null
+     */
+    private Throwable beginFixture() {
+        if (fixtureActive) {
+            if (fixtureScope != FixtureScope.ITERATION || fixtureIteration == currentIteration()) {
+                return null;
             }
-            if (theclazz != null) {
-                // first we see if the class declares a string
-                // constructor. if it is doesn't we look for
-                // empty constructor.
-                try {
-                    strCon = theclazz.getDeclaredConstructor(
-                            new Class[] {String.class});
-                    // we have to check and make sure the constructor is
-                    // accessible. if we didn't it would throw an exception
-                    // and cause a NPE.
-                    if (label == null || label.length() == 0) {
-                        label = className;
-                    }
-                    if (strCon.getModifiers() == Modifier.PUBLIC) {
-                        strParams = new Object[]{label};
-                    } else {
-                        strCon = null;
-                    }
-                } catch (NoSuchMethodException e) {
-                    log.info("Trying to find constructor with one String parameter returned error: {}", e.getMessage());
-                }
-                try {
-                    con = theclazz.getDeclaredConstructor(new Class[0]);
-                    if (con != null){
-                        params = new Object[]{};
-                    }
-                } catch (NoSuchMethodException e) {
-                    log.info("Trying to find empty constructor returned error: {}", e.getMessage());
-                }
-                try {
-                    // if the string constructor is not null, we use it.
-                    // if the string constructor is null, we use the empty
-                    // constructor to get a new instance
-                    if (strCon != null) {
-                        testclass = strCon.newInstance(strParams);
-                    } else if (con != null){
-                        testclass = con.newInstance(params);
-                    } else {
-                        log.error("No empty constructor nor string constructor found for class:{}", theclazz);
-                    }
-                } catch (InvocationTargetException | IllegalAccessException
-                        | InstantiationException e) {
-                    log.error("Error instantiating class:{}:{}", theclazz, e.getMessage(), e);
-                }
+            logTearDownProblem(endFixture());
+        }
+        if (testObject == null || getCreateOneInstancePerSample()) {
+            testObject = newTestObject();
+            if (testObject == null) {
+                return null;
             }
         }
-        return testclass;
+        fixtureIteration = currentIteration();
+        Throwable problem = setUpTearDown ? testMethods.setUp(testObject) : null;
+        // tearDown is not called when setUp fails, setUp will be called again by the next sample
+        fixtureActive = problem == null;
+        return problem;
     }
 
     /**
-     * Get a method.
-     * @param clazz the classname (may be null)
-     * @param method the method name (may be null)
-     * @return the method or null if an error occurred
-     * (or either parameter is null)
+     * Call tearDown.
+     *
+     * @return the problem raised by tearDown, or null
      */
-    private Method getMethod(Object clazz, String method){
-        if (clazz != null && method != null){
-            try {
-                return clazz.getClass().getMethod(method,new Class[0]);
-            } catch (NoSuchMethodException e) {
-                log.warn(e.getMessage());
-            }
+    private Throwable endFixture() {
+        fixtureActive = false;
+        return setUpTearDown ? testMethods.tearDown(testObject) : null;
+    }
+
+    private void logTearDownProblem(Throwable problem) {
+        if (problem != null) {
+            log.warn("tearDown of {}.{} failed", className, methodName, problem);
         }
-        return null;
     }
 
-    private Method getMethodWithAnnotation(Object clazz, Class<? extends Annotation> annotation) {
-        if(null != clazz && null != annotation) {
-            for(Method m : clazz.getClass().getMethods()) {
-                if(m.isAnnotationPresent(annotation)) {
-                    return m;
-                }
+    private static int currentIteration() {
+        JMeterVariables variables = JMeterContextService.getContext().getVariables();
+        return variables != null ? variables.getIteration() : 0;
+    }
+
+    private void setProblems(SampleResult sresult, Throwable... problems) {
+        sresult.setSuccessful(false);
+        StringBuilder buf = new StringBuilder();
+        StringBuilder buftrace = new StringBuilder();
+        if (getAppendError()) {
+            appendProblems(sresult, buf, buftrace, problems, true);
+            appendProblems(sresult, buf, buftrace, problems, false);
+        }
+        sresult.setResponseMessage(buf.toString());
+        sresult.setResponseData(buftrace.toString(), null);
+    }
+
+    private void appendProblems(SampleResult sresult, StringBuilder buf, StringBuilder buftrace,
+            Throwable[] problems, boolean failures) {
+        String kind = failures ? "Failure -- " : "Error -- ";
+        boolean first = true;
+        for (Throwable problem : problems) {
+            if (problem == null || testMethods.isFailure(problem) != failures) {
+                continue;
+            }
+            if (first) {
+                first = false;
+                sresult.setResponseCode(failures ? getFailureCode() : getErrorCode());
+                buf.append(failures ? getFailure() : getError());
+                buf.append("\n");
             }
+            // Same format as junit.framework.TestFailure
+            String message = failures && !(problem instanceof AssertionFailedError)
+                    ? problem.toString() : problem.getMessage();
+            String item = methodName + "(" + className + "): " + message;
+            buf.append(kind);
+            buf.append(item);
+            buf.append("\n");
+            buftrace.append(kind);
+            buftrace.append(item);
+            buftrace.append("\n");
+            buftrace.append("Trace -- ");
+            buftrace.append(ExceptionUtils.getStackTrace(problem));
         }
-        return null;
     }
 
-    /*
-     * Wrapper to convert a JUnit4 class into a TestCase
+    /**
+     * Resolve the methods of the test, they are cached for all the threads.
      *
-     *  TODO - work out how to convert JUnit4 assertions so they are treated as failures rather than errors
-     */
-    private class AnnotatedTestCase extends TestCase {
-        private final Method method;
-        private final Class<? extends Throwable> expectedException;
-        private final long timeout;
-        public AnnotatedTestCase(Method method, Class<? extends Throwable> expectedException2, long timeout) {
-            this.method = method;
-            this.expectedException = expectedException2;
-            this.timeout = timeout;
+     * @return the methods of the test, or null if they cannot be found
+     */
+    private JUnitTestMethods resolveTestMethods() {
+        if (className == null) {
+            return null;
         }
+        JUnitTestMethods.Style style = JUnitTestMethods.Style.JUNIT3;
+        if (getJunit5()) {
+            style = JUnitTestMethods.Style.JUPITER;
+        } else if (getJunit4()) {
+            style = JUnitTestMethods.Style.JUNIT4;
+        }
+        try {
+            Class<?> theclazz =
+                Thread.currentThread().getContextClassLoader().loadClass(className.trim());
+            return JUnitTestMethods.of(theclazz, methodName, style);
+        } catch (ClassNotFoundException e) {
+            log.warn("ClassNotFoundException:: {}", e.getMessage());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.warn("Unable to find test method {} of class {}: {}", methodName, className, e.toString());
+        }
+        return null;
+    }
 
-        @Override
-        protected void runTest() throws Throwable {
-            try {
-                long start = System.currentTimeMillis();
-                method.invoke(testObject, (Object[])null);
-                if (expectedException != None.class) {
-                    throw new AssertionFailedError(
-                    "No error was generated for a test case which specifies an error.");
-                }
-                if (timeout > 0){
-                    long elapsed = System.currentTimeMillis() - start;
-                    if (elapsed > timeout) {
-                        throw new AssertionFailedError("Test took longer than the specified timeout.");
-                    }
-                }
-            } catch (InvocationTargetException e) {
-                Throwable thrown = e.getCause();
-                if (thrown == null) { // probably should not happen
-                    throw e;
-                }
-                if (expectedException == None.class){
-                    // Convert JUnit4 AssertionError failures to JUnit3 style so
-                    // will be treated as failure rather than error.
-                    if (thrown instanceof AssertionError && !(thrown instanceof AssertionFailedError)){
-                        AssertionFailedError afe = new AssertionFailedError(thrown.toString());
-                        // copy the original stack trace
-                        afe.setStackTrace(thrown.getStackTrace());
-                        throw afe;
-                    }
-                    throw thrown;
-                }
-                if (!expectedException.isAssignableFrom(thrown.getClass())){
-                    throw new AssertionFailedError("The wrong exception was thrown from the test case");
-                }
+    /**
+     * If the method is not able to create a new instance of the
+     * class, it returns null and logs the exception at
+     * error level.
+     */
+    private Object newTestObject() {
+        String rlabel = getConstructorString();
+        if (rlabel.length()== 0) {
+            rlabel = JUnitSampler.class.getName();
+        }
+        try {
+            Object instance = testMethods.newInstance(rlabel);
+            if (instance instanceof TestCase) {
+                ((TestCase) instance).setName(methodName);
             }
+            return instance;
+        } catch (Throwable e) { // NOSONAR the constructor of the test may throw anything
+            log.error("Error instantiating class:{}:{}", className, e.getMessage(), e);
+            return null;
         }
     }
 
     @Override
     public void threadFinished() {
+        if (fixtureActive) {
+            logTearDownProblem(endFixture());
+        }
+        testObject = null;
     }
 
     /**
@@ -637,67 +586,22 @@ public class JUnitSampler extends AbstractSampler implements ThreadListener {
     @Override
     public void threadStarted() {
         testObject = null;
-        testCase = null;
+        fixtureActive = false;
         methodName = getMethod();
         className = getClassname();
-        protectable = null;
-        if(!getCreateOneInstancePerSample()) {
+        fixtureScope = getFixtureScope();
+        setUpTearDown = !getDoNotSetUpTearDown();
+        testMethods = resolveTestMethods();
+        if (testMethods != null && !getCreateOneInstancePerSample()) {
             // NO NEED TO INITIALIZE WHEN getCreateOneInstancePerSample
             // is true cause it will be done in sample
-            initializeTestObject();
-        }
-    }
-
-    /**
-     * Initialize test object
-     */
-    private void initializeTestObject() {
-        String rlabel = getConstructorString();
-        if (rlabel.length()== 0) {
-            rlabel = JUnitSampler.class.getName();
-        }
-        this.testObject = getClassInstance(className, rlabel);
-        if (this.testObject != null){
-            initMethodObjects(this.testObject);
-            final Method m = getMethod(this.testObject,methodName);
-            if (getJunit4()){
-                Class<? extends Throwable> expectedException = None.class;
-                long timeout = 0;
-                Test annotation = m.getAnnotation(Test.class);
-                if(null != annotation) {
-                    expectedException = annotation.expected();
-                    timeout = annotation.timeout();
-                }
-                final AnnotatedTestCase at = new AnnotatedTestCase(m, expectedException, timeout);
-                testCase = at;
-                protectable = at::runTest;
-            } else {
-                this.testCase = (TestCase) this.testObject;
-                final Object theClazz = this.testObject; // Must be final to create instance
-                protectable = () -> {
-                    try {
-                        m.invoke(theClazz, new Object[0]);
-                    } catch (InvocationTargetException e) {
-                        /*
-                         * Calling a method via reflection results in wrapping any
-                         * Exceptions in ITE; unwrap these here so runProtected can
-                         * allocate them correctly.
-                         */
-                        Throwable t = e.getCause();
-                        if (t != null) {
-                            throw t;
-                        }
-                        throw e;
-                    }
-                };
-            }
-            if (this.testCase != null){
-                this.testCase.setName(methodName);
-            }
+            testObject = newTestObject();
         }
     }
 
     /**
+     * With a {@link FixtureScope} wider than a sample, a new instance is created
+     * for each fixture rather than for each sample.
      *
      * @param createOneInstancePerSample
      *            flag whether a new instance for each call should be created
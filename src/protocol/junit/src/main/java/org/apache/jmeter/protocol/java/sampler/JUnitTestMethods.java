@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.java.sampler;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.Test.None;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.TestCase;
+
+/**
+ * Method handles of a test method, with its constructor and its setUp/tearDown methods.
+ * <p>
+ * They are resolved once per test class and method, and shared by all the threads sampling it,
+ * so creating a test instance or running a test only costs the calls to the test methods.
+ * JUnit 5 (Jupiter) annotations are looked up by name, so the Jupiter API is only needed
+ * on the classpath of the tests.
+ */
+final class JUnitTestMethods {
+
+    /** Programming model of the test classes */
+    enum Style {
+        /** {@link TestCase} subclasses with {@code setUp} and {@code tearDown} methods */
+        JUNIT3,
+        /** {@link Test}, {@link Before} and {@link After} annotations */
+        JUNIT4,
+        /** {@code org.junit.jupiter.api} annotations */
+        JUPITER
+    }
+
+    private static final String SETUP = "setUp"; // $NON-NLS-1$
+    private static final String TEARDOWN = "tearDown"; // $NON-NLS-1$
+    private static final String JUPITER_BEFORE_EACH = "org.junit.jupiter.api.BeforeEach"; // $NON-NLS-1$
+    private static final String JUPITER_AFTER_EACH = "org.junit.jupiter.api.AfterEach"; // $NON-NLS-1$
+
+    private static final MethodType RUN_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, JUnitTestMethods>> CACHE =
+            new ClassValue<ConcurrentMap<String, JUnitTestMethods>>() {
+                @Override
+                protected ConcurrentMap<String, JUnitTestMethods> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Style style;
+    // (String)Object when the class has a public String constructor, ()Object otherwise, null if none
+    private final MethodHandle constructor;
+    private final boolean stringConstructor;
+    private final List<MethodHandle> setUps;
+    private final List<MethodHandle> tearDowns;
+    private final MethodHandle test;
+    private final Class<? extends Throwable> expectedException;
+    private final long timeout;
+
+    private JUnitTestMethods(Class<?> clazz, String methodName, Style style)
+            throws NoSuchMethodException, IllegalAccessException {
+        this.style = style;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Constructor<?> strCon = null;
+        try {
+            strCon = clazz.getDeclaredConstructor(String.class);
+        } catch (NoSuchMethodException e) { // NOSONAR the empty constructor is used instead
+            // try the empty constructor below
+        }
+        if (strCon != null && strCon.getModifiers() == Modifier.PUBLIC) {
+            constructor = lookup.unreflectConstructor(strCon)
+                    .asType(MethodType.methodType(Object.class, String.class));
+            stringConstructor = true;
+        } else {
+            MethodHandle handle = null;
+            try {
+                Constructor<?> con = clazz.getDeclaredConstructor();
+                con.setAccessible(true); // NOSONAR Jupiter test classes need not be public
+                handle = lookup.unreflectConstructor(con).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException e) { // NOSONAR reported when an instance is needed
+                // keep the handle null
+            }
+            constructor = handle;
+            stringConstructor = false;
+        }
+        Method method;
+        List<Method> before;
+        List<Method> after;
+        switch (style) {
+            case JUPITER:
+                method = findDeclaredMethod(clazz, methodName);
+                before = findAnnotatedMethods(clazz, JUPITER_BEFORE_EACH);
+                // @BeforeEach methods of the super classes run first, @AfterEach methods run last
+                Collections.reverse(before);
+                after = findAnnotatedMethods(clazz, JUPITER_AFTER_EACH);
+                break;
+            case JUNIT4:
+                method = clazz.getMethod(methodName);
+                before = getMethodWithAnnotation(clazz, Before.class);
+                after = getMethodWithAnnotation(clazz, After.class);
+                break;
+            default:
+                method = clazz.getMethod(methodName);
+                before = getMethod(clazz, SETUP);
+                after = getMethod(clazz, TEARDOWN);
+                break;
+        }
+        test = toHandle(lookup, method);
+        setUps = toHandles(lookup, before);
+        tearDowns = toHandles(lookup, after);
+        Test annotation = style == Style.JUNIT4 ? method.getAnnotation(Test.class) : null;
+        if (annotation != null && annotation.expected() != None.class) {
+            expectedException = annotation.expected();
+        } else {
+            expectedException = null;
+        }
+        timeout = annotation != null ? annotation.timeout() : 0;
+    }
+
+    /**
+     * Get the method handles of a test method, resolved on the first call.
+     *
+     * @param clazz      the test class
+     * @param methodName the name of the test method
+     * @param style      the programming model of the test class
+     * @return the method handles of the test method
+     * @throws NoSuchMethodException  when the test method does not exist
+     * @throws IllegalAccessException when the methods cannot be called
+     */
+    static JUnitTestMethods of(Class<?> clazz, String methodName, Style style)
+            throws NoSuchMethodException, IllegalAccessException {
+        ConcurrentMap<String, JUnitTestMethods> methods = CACHE.get(clazz);
+        String key = style.name() + '#' + methodName;
+        JUnitTestMethods testMethods = methods.get(key);
+        if (testMethods == null) {
+            // Concurrent threads may resolve the same methods, only one of them is kept
+            testMethods = new JUnitTestMethods(clazz, methodName, style);
+            JUnitTestMethods previous = methods.putIfAbsent(key, testMethods);
+            if (previous != null) {
+                testMethods = previous;
+            }
+        }
+        return testMethods;
+    }
+
+    /**
+     * Create an instance of the test class, with the String constructor if the class
+     * declares a public one, with the empty constructor otherwise.
+     *
+     * @param label the value passed to the String constructor
+     * @return the new instance
+     * @throws Throwable when the class has no usable constructor or the constructor fails
+     */
+    Object newInstance(String label) throws Throwable { // NOSONAR the constructor may throw anything
+        if (constructor == null) {
+            throw new NoSuchMethodException("No empty constructor nor string constructor found");
+        }
+        return stringConstructor ? constructor.invokeExact(label) : constructor.invokeExact();
+    }
+
+    /**
+     * Run the setUp methods.
+     *
+     * @param testObject the test instance
+     * @return the problem raised by the first failing method, or null if all succeeded
+     */
+    Throwable setUp(Object testObject) {
+        return runAll(setUps, testObject);
+    }
+
+    /**
+     * Run the tearDown methods, even if one of them fails.
+     *
+     * @param testObject the test instance
+     * @return the problem raised by the first failing method, or null if all succeeded
+     */
+    Throwable tearDown(Object testObject) {
+        return runAll(tearDowns, testObject);
+    }
+
+    /**
+     * Run the test method, checking the expected exception and timeout of JUnit 4 tests.
+     *
+     * @param testObject the test instance
+     * @return the problem raised by the test, or null if it succeeded
+     */
+    Throwable runTest(Object testObject) {
+        long start = timeout > 0 ? System.currentTimeMillis() : 0;
+        Throwable thrown = invoke(test, testObject);
+        if (expectedException != null) {
+            if (thrown == null) {
+                return new AssertionFailedError(
+                        "No error was generated for a test case which specifies an error.");
+            }
+            if (!expectedException.isAssignableFrom(thrown.getClass())) {
+                return new AssertionFailedError("The wrong exception was thrown from the test case");
+            }
+            return null;
+        }
+        if (thrown == null && timeout > 0 && System.currentTimeMillis() - start > timeout) {
+            return new AssertionFailedError("Test took longer than the specified timeout.");
+        }
+        return thrown;
+    }
+
+    /**
+     * Check if a problem is a test failure rather than an error.
+     * JUnit 3 only reports its own {@link AssertionFailedError} as failure.
+     *
+     * @param problem the problem raised by a test
+     * @return true if the problem is a failed assertion
+     */
+    boolean isFailure(Throwable problem) {
+        return problem instanceof AssertionFailedError
+                || style != Style.JUNIT3 && problem instanceof AssertionError;
+    }
+
+    private static Throwable runAll(List<MethodHandle> handles, Object testObject) {
+        Throwable first = null;
+        for (MethodHandle handle : handles) {
+            Throwable thrown = invoke(handle, testObject);
+            if (first == null) {
+                first = thrown;
+            }
+        }
+        return first;
+    }
+
+    private static Throwable invoke(MethodHandle handle, Object testObject) {
+        try {
+            handle.invokeExact(testObject);
+            return null;
+        } catch (ThreadDeath e) { // NOSONAR ThreadDeath must not be caught, as in junit.framework.TestResult
+            throw e;
+        } catch (Throwable e) { // NOSONAR the problems of the test are reported in the sample
+            return e;
+        }
+    }
+
+    private static List<MethodHandle> toHandles(MethodHandles.Lookup lookup, List<Method> methods)
+            throws IllegalAccessException {
+        if (methods.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MethodHandle> handles = new ArrayList<>(methods.size());
+        for (Method method : methods) {
+            handles.add(toHandle(lookup, method));
+        }
+        return handles;
+    }
+
+    /**
+     * Convert a method into a handle of type (Object)void, static methods ignore the test instance.
+     */
+    private static MethodHandle toHandle(MethodHandles.Lookup lookup, Method method)
+            throws IllegalAccessException {
+        method.setAccessible(true); // NOSONAR Jupiter test methods need not be public
+        MethodHandle handle = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(RUN_TYPE);
+    }
+
+    private static List<Method> getMethod(Class<?> clazz, String name) {
+        try {
+            return Collections.singletonList(clazz.getMethod(name));
+        } catch (NoSuchMethodException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static List<Method> getMethodWithAnnotation(Class<?> clazz, Class<? extends Annotation> annotation) {
+        for (Method m : clazz.getMethods()) {
+            if (m.isAnnotationPresent(annotation)) {
+                return Collections.singletonList(m);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static Method findDeclaredMethod(Class<?> clazz, String name) throws NoSuchMethodException {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (m.getName().equals(name) && m.getParameterCount() == 0) {
+                    return m;
+                }
+            }
+        }
+        throw new NoSuchMethodException(clazz.getName() + "." + name + "()");
+    }
+
+    /**
+     * Find the non-static methods without parameters annotated with the given annotation,
+     * from the class to its super classes, skipping the overridden methods.
+     */
+    private static List<Method> findAnnotatedMethods(Class<?> clazz, String annotation) {
+        List<Method> methods = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (m.getParameterCount() == 0 && !Modifier.isStatic(m.getModifiers())
+                        && seen.add(m.getName()) && hasAnnotation(m, annotation)) {
+                    methods.add(m);
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Check if a method is annotated with an annotation given by its class name.
+     *
+     * @param method     the method to check
+     * @param annotation the class name of the annotation
+     * @return true if the method is annotated
+     */
+    static boolean hasAnnotation(Method method, String annotation) {
+        for (Annotation a : method.getDeclaredAnnotations()) {
+            if (a.annotationType().getName().equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
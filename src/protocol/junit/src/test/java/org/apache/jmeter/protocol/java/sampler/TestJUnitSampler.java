@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.java.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.jmeter.protocol.java.sampler.JUnitSampler.FixtureScope;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import junit.framework.TestCase;
+import test.JupiterLifecycleTest;
+import test.LifecycleTest;
+
+public class TestJUnitSampler {
+
+    @BeforeEach
+    public void setUp() {
+        LifecycleTest.EVENTS.clear();
+        JupiterLifecycleTest.EVENTS.clear();
+        JMeterContextService.getContext().setVariables(new JMeterVariables());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JMeterContextService.getContext().clear();
+    }
+
+    private static JUnitSampler newSampler(Class<?> testClass, String method) {
+        JUnitSampler sampler = new JUnitSampler();
+        sampler.setClassname(testClass.getName());
+        sampler.setMethod(method);
+        sampler.setJunit5(!TestCase.class.isAssignableFrom(testClass));
+        sampler.setAppendError(true);
+        sampler.setSuccessCode("1000");
+        sampler.setFailureCode("0001");
+        sampler.setErrorCode("9999");
+        return sampler;
+    }
+
+    @Test
+    public void testJupiterResultsAreMapped() {
+        JUnitSampler sampler = newSampler(JupiterLifecycleTest.class, "pass");
+        sampler.threadStarted();
+        SampleResult result = sampler.sample(null);
+        assertTrue(result.isSuccessful());
+        assertEquals("1000", result.getResponseCode());
+        assertEquals(Arrays.asList("setUp", "test", "tearDown"), JupiterLifecycleTest.EVENTS);
+
+        sampler = newSampler(JupiterLifecycleTest.class, "fail");
+        sampler.threadStarted();
+        result = sampler.sample(null);
+        assertFalse(result.isSuccessful());
+        assertEquals("0001", result.getResponseCode());
+        assertTrue(result.getResponseMessage().contains("Failure -- fail(" + JupiterLifecycleTest.class.getName()
+                + "): org.opentest4j.AssertionFailedError: expected: <1> but was: <2>"),
+                result::getResponseMessage);
+
+        sampler = newSampler(JupiterLifecycleTest.class, "error");
+        sampler.threadStarted();
+        result = sampler.sample(null);
+        assertFalse(result.isSuccessful());
+        assertEquals("9999", result.getResponseCode());
+        assertTrue(result.getResponseMessage().contains("Error -- error(" + JupiterLifecycleTest.class.getName()
+                + "): unexpected error"), result::getResponseMessage);
+    }
+
+    @Test
+    public void testJUnit3FailureKeepsItsFormat() {
+        JUnitSampler sampler = newSampler(LifecycleTest.class, "testFail");
+        sampler.threadStarted();
+        SampleResult result = sampler.sample(null);
+        assertFalse(result.isSuccessful());
+        assertEquals("0001", result.getResponseCode());
+        assertTrue(result.getResponseMessage().contains("Failure -- testFail(" + LifecycleTest.class.getName()
+                + "): expected failure"), result::getResponseMessage);
+        assertTrue(result.getResponseDataAsString().contains("Trace -- junit.framework.AssertionFailedError"),
+                result::getResponseDataAsString);
+    }
+
+    @Test
+    public void testThreadScopedFixture() {
+        JUnitSampler sampler = newSampler(LifecycleTest.class, "testPass");
+        sampler.setFixtureScope(FixtureScope.THREAD);
+        sampler.threadStarted();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sampler.sample(null).isSuccessful());
+            JMeterContextService.getContext().getVariables().incIteration();
+        }
+        sampler.threadFinished();
+        assertEquals(Arrays.asList("setUp", "test", "test", "test", "tearDown"), LifecycleTest.EVENTS);
+    }
+
+    @Test
+    public void testIterationScopedFixture() {
+        JUnitSampler sampler = newSampler(JupiterLifecycleTest.class, "pass");
+        sampler.setFixtureScope(FixtureScope.ITERATION);
+        sampler.threadStarted();
+        sampler.sample(null);
+        sampler.sample(null);
+        JMeterContextService.getContext().getVariables().incIteration();
+        sampler.sample(null);
+        sampler.threadFinished();
+        assertEquals(Arrays.asList("setUp", "test", "test", "tearDown", "setUp", "test", "tearDown"),
+                JupiterLifecycleTest.EVENTS);
+    }
+
+    @Test
+    public void testMethodsAreResolvedOnce() throws Exception {
+        assertSame(JUnitTestMethods.of(JupiterLifecycleTest.class, "pass", JUnitTestMethods.Style.JUPITER),
+                JUnitTestMethods.of(JupiterLifecycleTest.class, "pass", JUnitTestMethods.Style.JUPITER));
+    }
+}
@@ -55,6 +55,7 @@ import org.apache.jmeter.testelement.property.PropertyIterator;
 import org.apache.jmeter.testelement.property.StringProperty;
 import org.apache.jmeter.testelement.property.TestElementProperty;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.documentation.VisibleForTesting;
 import org.apache.jorphan.util.XMLBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -161,6 +162,18 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
     private static final int MAX_SORTED_RESULTS =
         JMeterUtils.getPropDefault("ldapsampler.max_sorted_results", 1000); // $NON-NLS-1$
 
+    // Maximum number of search results written to the response, the others are only counted
+    private static final int MAX_WRITTEN_RESULTS =
+        JMeterUtils.getPropDefault("ldapsampler.max_written_results", 0); // $NON-NLS-1$
+
+    // Count the search results when they are not parsed
+    private static final boolean COUNT_SEARCH_RESULTS =
+        JMeterUtils.getPropDefault("ldapsampler.count_search_results", false); // $NON-NLS-1$
+
+    private int maxWrittenResults = MAX_WRITTEN_RESULTS;
+
+    private boolean countResults = COUNT_SEARCH_RESULTS;
+
     public LDAPExtSampler() {
         super();
     }
@@ -676,6 +689,7 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
             res.sampleStart();
             ctx = LdapExtClient.connect(getServername(), getPort(), getRootdn(), getUserDN(),
                     getUserPw(),getConnTimeOut(),isSecure(), isTrustAll());
+            res.connectEnd();
         } finally {
             res.sampleEnd();
         }
@@ -691,6 +705,7 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
             res.sampleStart();
             DirContext ctx = LdapExtClient.connect(getServername(), getPort(), getRootdn(),
                     getUserDN(), getUserPw(),getConnTimeOut(),isSecure(), isTrustAll());
+            res.connectEnd();
             LdapExtClient.disconnect(ctx);
         } finally {
             res.sampleEnd();
@@ -771,6 +786,7 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
                     res.sampleStart();
                     cmp = LdapExtClient.compare(dirContext, getPropertyAsString(COMPAREFILT),
                             getPropertyAsString(COMPAREDN));
+                    res.latencyEnd();
                     if (!cmp.hasMore()) {
                         res.setResponseCode("5"); // $NON-NLS-1$
                         res.setResponseMessage("compareFalse");
@@ -827,6 +843,8 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
                             getRequestAttributes(getAttrs()),
                             isRetobj(),
                             isDeref());
+                    // The remaining time is spent reading and parsing the results
+                    res.latencyEnd();
                     if (isParseFlag()) {
                         try {
                             xmlBuffer.openTag("searchresults"); // $NON-NLS-1$
@@ -835,8 +853,7 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
                             xmlBuffer.closeTag("searchresults"); // $NON-NLS-1$
                         }
                     } else {
-                        xmlBuffer.tag("searchresults", // $NON-NLS-1$
-                                "hasElements="+srch.hasMoreElements()); // $NON-NLS-1$
+                        writeSearchSummary(xmlBuffer, srch);
                     }
                 } finally {
                     if (srch != null){
@@ -874,24 +891,58 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
         return res;
     }
 
+    /*
+     * Write the number of search results when they are counted, otherwise whether there are results
+     */
+    @VisibleForTesting
+    void writeSearchSummary(final XMLBuffer xmlb, final NamingEnumeration<SearchResult> srch)
+            throws NamingException
+    {
+        if (countResults) {
+            xmlb.tag("searchresults", // $NON-NLS-1$
+                    "count=" + countSearchResults(srch)); // $NON-NLS-1$
+        } else {
+            xmlb.tag("searchresults", // $NON-NLS-1$
+                    "hasElements="+srch.hasMoreElements()); // $NON-NLS-1$
+        }
+    }
+
+    /*
+     * Count the search results without keeping them
+     */
+    private static long countSearchResults(final NamingEnumeration<SearchResult> srch)
+            throws NamingException
+    {
+        long count = 0;
+        while (srch.hasMore()) {
+            srch.next();
+            count++;
+        }
+        return count;
+    }
+
     /*
      *   Write out search results in a stable order (including order of all subelements which might
      * be reordered like attributes and their values) so that simple textual comparison can be done,
      * unless the number of results exceeds {@link #MAX_SORTED_RESULTS} in which case just stream
      * the results out without sorting.
+     *   No more than {@link #MAX_WRITTEN_RESULTS} results are written when it is positive,
+     * the others are only counted.
      */
-    private void writeSearchResults(final XMLBuffer xmlb, final NamingEnumeration<SearchResult> srch)
+    @VisibleForTesting
+    void writeSearchResults(final XMLBuffer xmlb, final NamingEnumeration<SearchResult> srch)
             throws NamingException
     {
-
+        final int maxSortedResults = maxWrittenResults > 0
+                ? Math.min(MAX_SORTED_RESULTS, maxWrittenResults) : MAX_SORTED_RESULTS;
         final ArrayList<SearchResult> sortedResults = new ArrayList<>(
-                MAX_SORTED_RESULTS);
+                maxSortedResults);
         final String searchBase = getPropertyAsString(SEARCHBASE);
         final String rootDn = getRootdn();
 
         // read all sortedResults into memory so we can guarantee ordering
         try {
-            while (srch.hasMore() && (sortedResults.size() < MAX_SORTED_RESULTS)) {
+            while (srch.hasMore() && (sortedResults.size() < maxSortedResults)) {
                 final SearchResult sr = srch.next();
 
                     // must be done prior to sorting
@@ -907,11 +958,21 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
             }
         }
 
+        long written = sortedResults.size();
+        long skipped = 0;
         while (srch.hasMore()) { // If there's anything left ...
             final SearchResult sr = srch.next();
+            if (maxWrittenResults > 0 && written >= maxWrittenResults) {
+                skipped++;
+                continue;
+            }
 
             normaliseSearchDN(sr, searchBase, rootDn);
             writeSearchResult(sr, xmlb);
+            written++;
+        }
+        if (skipped > 0) {
+            xmlb.tag("skippedresults", Long.toString(skipped)); // $NON-NLS-1$
         }
     }
 
@@ -1030,6 +1091,16 @@ public class LDAPExtSampler extends AbstractSampler implements TestStateListener
         return StringEscapeUtils.escapeXml10(value.toString());
     }
 
+    @VisibleForTesting
+    void setMaxWrittenResults(int maxWrittenResults) {
+        this.maxWrittenResults = maxWrittenResults;
+    }
+
+    @VisibleForTesting
+    void setCountResults(boolean countResults) {
+        this.countResults = countResults;
+    }
+
     @Override
     public void testStarted() {
         testStarted(""); // $NON-NLS-1$
@@ -29,6 +29,7 @@ import javax.naming.directory.ModificationItem;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 
+import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jmeter.util.TrustAllSSLSocketFactory;
 import org.apache.jorphan.util.JOrphanUtils;
 import org.slf4j.Logger;
@@ -45,6 +46,10 @@ public class LdapExtClient {
 
     private static final String CONTEXT_IS_NULL = "Context is null";
 
+    // Reuse the bound connections of the JNDI LDAP provider pool across the threads
+    private static final boolean CONNECTION_POOL =
+            JMeterUtils.getPropDefault("ldapsampler.connection_pool", false); // $NON-NLS-1$
+
     /**
      * Constructor for the LdapClient object
      */
@@ -116,6 +121,13 @@ public class LdapExtClient {
         env.put("java.naming.batchsize", "0"); // $NON-NLS-1$  // $NON-NLS-2$
         env.put(Context.SECURITY_CREDENTIALS, password);
         env.put(Context.SECURITY_PRINCIPAL, username);
+        if (CONNECTION_POOL) {
+            // Connections are pooled by server and identity, closing the context releases its connection
+            env.put("com.sun.jndi.ldap.connect.pool", "true"); // $NON-NLS-1$  // $NON-NLS-2$
+            if (secure && trustAll) {
+                log.debug("Connections with a custom socket factory are not pooled by the JNDI provider");
+            }
+        }
         dirContext = new InitialDirContext(env);
         return dirContext;
     }
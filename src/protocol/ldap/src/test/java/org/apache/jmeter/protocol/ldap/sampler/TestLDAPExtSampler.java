@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.ldap.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchResult;
+
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jorphan.util.XMLBuffer;
+import org.junit.jupiter.api.Test;
+
+public class TestLDAPExtSampler extends JMeterTestCase {
+
+    private static NamingEnumeration<SearchResult> results(int count) {
+        List<SearchResult> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(new SearchResult("cn=user" + i, null, new BasicAttributes("uid", "user" + i)));
+        }
+        Iterator<SearchResult> iterator = results.iterator();
+        return new NamingEnumeration<SearchResult>() {
+            @Override
+            public SearchResult next() {
+                return iterator.next();
+            }
+
+            @Override
+            public boolean hasMore() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public void close() {
+                // NOOP
+            }
+
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public SearchResult nextElement() {
+                return iterator.next();
+            }
+        };
+    }
+
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testSummaryTellsWhetherThereAreResults() throws Exception {
+        LDAPExtSampler sampler = new LDAPExtSampler();
+        sampler.setCountResults(false);
+        XMLBuffer xmlb = new XMLBuffer();
+        sampler.writeSearchSummary(xmlb, results(3));
+        assertEquals("<searchresults>hasElements=true</searchresults>\n", xmlb.toString());
+    }
+
+    @Test
+    public void testSummaryCountsResults() throws Exception {
+        LDAPExtSampler sampler = new LDAPExtSampler();
+        sampler.setCountResults(true);
+        XMLBuffer xmlb = new XMLBuffer();
+        sampler.writeSearchSummary(xmlb, results(3));
+        assertEquals("<searchresults>count=3</searchresults>\n", xmlb.toString());
+
+        xmlb = new XMLBuffer();
+        sampler.writeSearchSummary(xmlb, results(0));
+        assertEquals("<searchresults>count=0</searchresults>\n", xmlb.toString());
+    }
+
+    @Test
+    public void testAllResultsWrittenByDefault() throws Exception {
+        LDAPExtSampler sampler = new LDAPExtSampler();
+        sampler.setMaxWrittenResults(0);
+        XMLBuffer xmlb = new XMLBuffer();
+        sampler.writeSearchResults(xmlb, results(5));
+        String written = xmlb.toString();
+        assertEquals(5, occurrences(written, "<searchresult>"), written);
+        assertEquals(0, occurrences(written, "<skippedresults>"), written);
+    }
+
+    @Test
+    public void testWrittenResultsAreCapped() throws Exception {
+        LDAPExtSampler sampler = new LDAPExtSampler();
+        sampler.setMaxWrittenResults(2);
+        XMLBuffer xmlb = new XMLBuffer();
+        sampler.writeSearchResults(xmlb, results(5));
+        String written = xmlb.toString();
+        assertEquals(2, occurrences(written, "<searchresult>"), written);
+        assertEquals(1, occurrences(written, "<skippedresults>3</skippedresults>"), written);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.smtp.sampler;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection to a mail server kept open between the samples of the SMTP Sampler,
+ * either by a thread or in a pool shared by the threads.
+ */
+final class ReusableTransport {
+    private static final Logger log = LoggerFactory.getLogger(ReusableTransport.class);
+
+    /** Idle shared connections by connection key */
+    private static final ConcurrentMap<String, Queue<ReusableTransport>> IDLE = new ConcurrentHashMap<>();
+
+    /**
+     * How the connections are reused
+     */
+    enum Reuse {
+        /** A connection for each message */
+        NONE,
+        /** Each thread keeps its connection */
+        THREAD,
+        /** Threads take the idle connections of a shared pool */
+        SHARED;
+
+        static Reuse of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown SMTP transport reuse '{}', connections will not be reused", value);
+                return NONE;
+            }
+        }
+    }
+
+    private final String key;
+    private final Transport transport;
+    private int sentMessages;
+
+    ReusableTransport(String key, Transport transport) {
+        this.key = key;
+        this.transport = transport;
+    }
+
+    Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Checks whether the connection can send another message, which may need a round trip to the server.
+     *
+     * @param connectionKey    key of the connection needed by the message
+     * @param maxSentMessages  maximum number of messages sent per connection, 0 for no limit
+     * @return true if the connection can be used for the message
+     */
+    boolean isUsable(String connectionKey, int maxSentMessages) {
+        return key.equals(connectionKey)
+                && (maxSentMessages <= 0 || sentMessages < maxSentMessages)
+                && transport.isConnected();
+    }
+
+    void messageSent() {
+        sentMessages++;
+    }
+
+    /**
+     * Puts back the connection in the shared pool
+     */
+    void release() {
+        IDLE.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).offer(this);
+    }
+
+    void close() {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP transport", e);
+        }
+    }
+
+    /**
+     * Takes an idle connection from the shared pool, closing the ones which can not be used anymore.
+     *
+     * @param connectionKey    key of the connection needed by the message
+     * @param maxSentMessages  maximum number of messages sent per connection, 0 for no limit
+     * @return an usable connection or null if there is none
+     */
+    static ReusableTransport take(String connectionKey, int maxSentMessages) {
+        Queue<ReusableTransport> idle = IDLE.get(connectionKey);
+        if (idle == null) {
+            return null;
+        }
+        ReusableTransport reusable;
+        while ((reusable = idle.poll()) != null) {
+            if (reusable.isUsable(connectionKey, maxSentMessages)) {
+                return reusable;
+            }
+            reusable.close();
+        }
+        return null;
+    }
+
+    /**
+     * Closes the idle connections of the shared pool
+     */
+    static void closeIdle() {
+        for (Queue<ReusableTransport> idle : IDLE.values()) {
+            ReusableTransport reusable;
+            while ((reusable = idle.poll()) != null) {
+                reusable.close();
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.jmeter.protocol.smtp.sampler;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -39,6 +41,7 @@ import javax.mail.Part;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.ContentType;
 import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeUtility;
 
 import org.apache.commons.io.IOUtils;
@@ -53,7 +56,14 @@ import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.testelement.property.CollectionProperty;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.testelement.property.MultiProperty;
+import org.apache.jmeter.testelement.property.PropertyIterator;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.documentation.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,7 +75,7 @@ import org.slf4j.LoggerFactory;
  * values from/to the sampler, not from/to the message-object. Therefore, all
  * these methods are also present in class SendMailCommand.
  */
-public class SmtpSampler extends AbstractSampler {
+public class SmtpSampler extends AbstractSampler implements ThreadListener, TestStateListener {
 
     private static final long serialVersionUID = 1L;
 
@@ -74,6 +84,15 @@ public class SmtpSampler extends AbstractSampler {
 
     private static final Logger log = LoggerFactory.getLogger(SmtpSampler.class);
 
+    private static final ReusableTransport.Reuse TRANSPORT_REUSE = ReusableTransport.Reuse.of(
+            JMeterUtils.getPropDefault("smtp.transport_reuse", "none")); // $NON-NLS-1$
+
+    private static final int MAX_MESSAGES_PER_CONNECTION =
+            JMeterUtils.getPropDefault("smtp.max_messages_per_connection", 0); // $NON-NLS-1$
+
+    private static final boolean CACHE_STATIC_MESSAGES =
+            JMeterUtils.getPropDefault("smtp.cache_static_messages", false); // $NON-NLS-1$
+
     //+JMX file attribute names - do not change any values!
     public static final String SERVER               = "SMTPSampler.server"; // $NON-NLS-1$
     public static final String SERVER_PORT          = "SMTPSampler.serverPort"; // $NON-NLS-1$
@@ -106,6 +125,43 @@ public class SmtpSampler extends AbstractSampler {
     //-JMX file attribute names
 
 
+    /** How the connections are reused, see {@code smtp.transport_reuse} */
+    private ReusableTransport.Reuse transportReuse = TRANSPORT_REUSE;
+
+    /** Whether static messages are rendered once, see {@code smtp.cache_static_messages} */
+    private boolean cacheStaticMessages = CACHE_STATIC_MESSAGES;
+
+    /** Connection kept by the thread when transports are reused */
+    private transient ReusableTransport threadTransport;
+
+    /** Last message sent by the thread, when its content is static */
+    private transient PreparedMessage cachedMessage;
+
+    /**
+     * Message with the details of the sample result which only depend on the message,
+     * so they can be computed once when the message is cached
+     */
+    private static final class PreparedMessage {
+        private final String key;
+        private final SendMailCommand sendMailCmd;
+        private final Message message;
+        private final long size;
+        private final String requestHeaders;
+        private final String samplerData;
+        private final byte[] responseData;
+
+        PreparedMessage(String key, SendMailCommand sendMailCmd, Message message, long size,
+                String requestHeaders, String samplerData, byte[] responseData) {
+            this.key = key;
+            this.sendMailCmd = sendMailCmd;
+            this.message = message;
+            this.size = size;
+            this.requestHeaders = requestHeaders;
+            this.samplerData = samplerData;
+            this.responseData = responseData;
+        }
+    }
+
     public SmtpSampler() {
         super();
     }
@@ -119,6 +175,10 @@ public class SmtpSampler extends AbstractSampler {
      */
     @Override
     public SampleResult sample(Entry e) {
+        String messageKey = getMessageKey();
+        if (messageKey != null && cachedMessage != null && messageKey.equals(cachedMessage.key)) {
+            return sampleCachedMessage(cachedMessage);
+        }
         SendMailCommand sendMailCmd;
         Message message;
         SampleResult result = createSampleResult();
@@ -126,6 +186,10 @@ public class SmtpSampler extends AbstractSampler {
         try {
             sendMailCmd = createSendMailCommandFromProperties();
             message = sendMailCmd.prepareMessage();
+            if (messageKey != null) {
+                cachedMessage = prepareStaticMessage(messageKey, sendMailCmd, message);
+                return sampleCachedMessage(cachedMessage);
+            }
             result.setBytes(calculateMessageSize(message));
         } catch (Exception ex) {
             log.warn("Error while preparing message", ex);
@@ -145,9 +209,7 @@ public class SmtpSampler extends AbstractSampler {
         }
 
         // Perform the sampling
-        result.sampleStart();
         boolean isSuccessful = executeMessage(result, sendMailCmd, message);
-        result.sampleEnd();
 
         try {
             result.setResponseData(processSampler(message));
@@ -160,19 +222,93 @@ public class SmtpSampler extends AbstractSampler {
         return result;
     }
 
+    private SampleResult sampleCachedMessage(PreparedMessage prepared) {
+        SampleResult result = createSampleResult();
+        result.setBytes(prepared.size);
+        result.setDataType(SampleResult.TEXT);
+        result.setRequestHeaders(prepared.requestHeaders);
+        result.setSamplerData(prepared.samplerData);
+        result.setSuccessful(executeMessage(result, prepared.sendMailCmd, prepared.message));
+        result.setResponseData(prepared.responseData);
+        return result;
+    }
+
+    /**
+     * Renders the message once, so it can be sent again without being built nor encoded.
+     */
+    private PreparedMessage prepareStaticMessage(String key, SendMailCommand sendMailCmd, Message message)
+            throws IOException, MessagingException {
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        message.writeTo(rendered);
+        byte[] bytes = rendered.toByteArray();
+        Message renderedMessage = new MimeMessage(null, new ByteArrayInputStream(bytes));
+        String requestHeaders;
+        String samplerData;
+        try {
+            requestHeaders = getRequestHeaders(renderedMessage);
+            samplerData = getSamplerData(renderedMessage);
+        } catch (MessagingException | IOException ex) {
+            requestHeaders = "";
+            samplerData = "Error occurred trying to save request info: " + ex;
+            log.warn("Error occurred trying to save request info", ex);
+        }
+        long size = getPropertyAsBoolean(MESSAGE_SIZE_STATS) ? bytes.length : -1L;
+        return new PreparedMessage(key, sendMailCmd, renderedMessage, size,
+                requestHeaders, samplerData, processSampler(renderedMessage));
+    }
+
+    /**
+     * Returns the values of all the properties of the sampler when cached messages are enabled
+     * and the message has no timestamp, so a message is built again only when a value changes.
+     *
+     * @return key of the message or null if the message must not be cached
+     */
+    String getMessageKey() {
+        if (!cacheStaticMessages || getPropertyAsBoolean(INCLUDE_TIMESTAMP)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        appendValues(key, propertyIterator());
+        return key.toString();
+    }
+
+    private static void appendValues(StringBuilder key, PropertyIterator iterator) {
+        while (iterator.hasNext()) {
+            JMeterProperty property = iterator.next();
+            key.append(property.getName()).append('=');
+            if (property instanceof MultiProperty) {
+                key.append('[');
+                appendValues(key, ((MultiProperty) property).iterator());
+                key.append(']');
+            } else {
+                key.append(property.getStringValue());
+            }
+            key.append('\n');
+        }
+    }
+
     private SampleResult createSampleResult() {
         SampleResult result = new SampleResult();
         result.setSampleLabel(getName());
         return result;
     }
 
+    /**
+     * Sends the message, timing the connection separately from the sending.
+     * An idle connection is taken before the sample starts, so checking it is not timed.
+     * A connection which is not kept is closed within the sample, as the QUIT command is part of the exchange.
+     */
     private boolean executeMessage(SampleResult result, SendMailCommand sendMailCmd, Message message) {
+        String connectionKey = sendMailCmd.getConnectionKey();
+        ReusableTransport reusable = takeTransport(connectionKey);
         boolean didSampleSucceed = false;
+        result.sampleStart();
         try {
-            sendMailCmd.execute(message);
-            result.setResponseCodeOK();
-            result.setResponseMessage(
-                    "Message successfully sent!\n");
+            if (reusable == null) {
+                reusable = new ReusableTransport(connectionKey, sendMailCmd.connect());
+            }
+            result.connectEnd();
+            sendMailCmd.send(reusable.getTransport(), message);
             didSampleSucceed = true;
         } catch (AuthenticationFailedException afex) {
             log.warn("", afex);
@@ -184,10 +320,55 @@ public class SmtpSampler extends AbstractSampler {
             log.warn("", ex);
             result.setResponseCode("500");
             result.setResponseMessage(ex.getMessage());
+        } finally {
+            if (reusable != null) {
+                releaseTransport(reusable, didSampleSucceed);
+            }
+            result.sampleEnd();
+        }
+        if (didSampleSucceed) {
+            result.setResponseCodeOK();
+            result.setResponseMessage(
+                    "Message successfully sent!\n");
         }
         return didSampleSucceed;
     }
 
+    private ReusableTransport takeTransport(String connectionKey) {
+        switch (transportReuse) {
+            case THREAD:
+                ReusableTransport reusable = threadTransport;
+                threadTransport = null;
+                if (reusable != null && !reusable.isUsable(connectionKey, MAX_MESSAGES_PER_CONNECTION)) {
+                    reusable.close();
+                    reusable = null;
+                }
+                return reusable;
+            case SHARED:
+                return ReusableTransport.take(connectionKey, MAX_MESSAGES_PER_CONNECTION);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Keeps the connection after a message was sent, closes it when connections are not reused
+     * or the message was not sent, as the connection may be broken.
+     */
+    private void releaseTransport(ReusableTransport reusable, boolean sent) {
+        if (!sent || transportReuse == ReusableTransport.Reuse.NONE) {
+            reusable.close();
+            log.debug("transport closed");
+            return;
+        }
+        reusable.messageSent();
+        if (transportReuse == ReusableTransport.Reuse.THREAD) {
+            threadTransport = reusable;
+        } else {
+            reusable.release();
+        }
+    }
+
     private long calculateMessageSize(Message message) throws IOException, MessagingException {
         if (getPropertyAsBoolean(MESSAGE_SIZE_STATS)) {
             // calculate message size
@@ -395,6 +576,50 @@ public class SmtpSampler extends AbstractSampler {
         return trimmedAddress;
     }
 
+    @VisibleForTesting
+    void setTransportReuse(ReusableTransport.Reuse transportReuse) {
+        this.transportReuse = transportReuse;
+    }
+
+    @VisibleForTesting
+    void setCacheStaticMessages(boolean cacheStaticMessages) {
+        this.cacheStaticMessages = cacheStaticMessages;
+    }
+
+    @Override
+    public void threadStarted() {
+        // NOOP
+    }
+
+    @Override
+    public void threadFinished() {
+        if (threadTransport != null) {
+            threadTransport.close();
+            threadTransport = null;
+        }
+        cachedMessage = null;
+    }
+
+    @Override
+    public void testStarted() {
+        // NOOP
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        ReusableTransport.closeIdle();
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
     /**
      * @see org.apache.jmeter.samplers.AbstractSampler#applies(org.apache.jmeter.config.ConfigTestElement)
      */
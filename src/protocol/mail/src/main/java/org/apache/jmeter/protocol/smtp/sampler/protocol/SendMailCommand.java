@@ -24,6 +24,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -49,6 +52,7 @@ import org.apache.jmeter.config.Argument;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.testelement.property.CollectionProperty;
 import org.apache.jmeter.util.TrustAllSSLSocketFactory;
+import org.apache.jorphan.util.JOrphanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -308,42 +312,113 @@ public class SendMailCommand {
      *             mode
      */
     public void execute(Message message) throws MessagingException, InterruptedException {
-
-        Transport tr = null;
+        Transport tr = connect();
         try {
-            tr = session.getTransport(getProtocol());
-            SynchronousTransportListener listener = null;
-
-            if (synchronousMode) {
-                listener = new SynchronousTransportListener();
-                tr.addTransportListener(listener);
+            send(tr, message);
+        } finally {
+            try {
+                tr.close();
+            } catch (Exception e) {
+                // NOOP
             }
+            logger.debug("transport closed");
+        }
+    }
 
+    /**
+     * Connects to the mailserver, authenticating if needed. Must be called
+     * after prepareMessage().
+     *
+     * @return connected transport, to be closed by the caller
+     * @throws MessagingException
+     *             when the connection or the authentication fails
+     * @since 5.5
+     */
+    public Transport connect() throws MessagingException {
+        Transport tr = session.getTransport(getProtocol());
+        try {
             if (useAuthentication) {
                 tr.connect(smtpServer, username, password);
             } else {
                 tr.connect();
             }
+        } catch (MessagingException e) {
+            try {
+                tr.close();
+            } catch (Exception ignored) {
+                // NOOP
+            }
+            throw e;
+        }
+        return tr;
+    }
 
+    /**
+     * Sends message on a connected transport, waiting for delivery if using
+     * synchronous mode. The transport is left open, so it can send other
+     * messages.
+     *
+     * @param tr
+     *            Transport returned by connect()
+     * @param message
+     *            Message previously prepared by prepareMessage()
+     * @throws MessagingException
+     *             when problems sending the mail arise
+     * @throws InterruptedException
+     *             when interrupted while waiting for delivery in synchronous
+     *             mode
+     * @since 5.5
+     */
+    public void send(Transport tr, Message message) throws MessagingException, InterruptedException {
+        SynchronousTransportListener listener = null;
+        if (synchronousMode) {
+            listener = new SynchronousTransportListener();
+            tr.addTransportListener(listener);
+        }
+        try {
             tr.sendMessage(message, message.getAllRecipients());
 
             if (listener != null /*synchronousMode==true*/) {
                 listener.attend(); // listener cannot be null here
             }
         } finally {
-            if(tr != null) {
-                try {
-                    tr.close();
-                } catch (Exception e) {
-                    // NOOP
-                }
+            if (listener != null) {
+                tr.removeTransportListener(listener);
             }
-            logger.debug("transport closed");
         }
 
         logger.debug("message sent");
     }
 
+    /**
+     * Returns the settings of the connection to the mailserver, so the
+     * connections opened with the same settings can be reused to send other
+     * messages. The credentials are hashed, as the key is kept by the pool
+     * of idle connections.
+     *
+     * @return key of the connection
+     * @since 5.5
+     */
+    public String getConnectionKey() {
+        return String.join("\n", getProtocol(), smtpServer, getPort(),
+                Boolean.toString(useStartTLS), Boolean.toString(enforceStartTLS),
+                Boolean.toString(trustAllCerts), Boolean.toString(useLocalTrustStore), trustStoreToUse,
+                tlsProtocols, timeOut, connectionTimeOut, Boolean.toString(enableDebug),
+                Boolean.toString(useAuthentication), hashCredentials(username, password));
+    }
+
+    private static String hashCredentials(String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256"); // $NON-NLS-1$
+            digest.update(String.valueOf(username).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            return JOrphanUtils.baToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Processes prepareMessage() and execute()
      *
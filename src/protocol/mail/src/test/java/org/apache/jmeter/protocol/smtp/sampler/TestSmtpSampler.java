@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.smtp.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.property.CollectionProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestSmtpSampler extends JMeterTestCase {
+
+    private static final String REJECTED = "rejected@example.invalid";
+
+    private SmtpServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new SmtpServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        ReusableTransport.closeIdle();
+        server.close();
+    }
+
+    private SmtpSampler createSampler(ReusableTransport.Reuse reuse) {
+        SmtpSampler sampler = new SmtpSampler();
+        sampler.setName("smtp");
+        sampler.setProperty(SmtpSampler.SERVER, "localhost");
+        sampler.setProperty(SmtpSampler.SERVER_PORT, Integer.toString(server.getPort()));
+        sampler.setProperty(SmtpSampler.SERVER_TIMEOUT, "5000");
+        sampler.setProperty(SmtpSampler.SERVER_CONNECTION_TIMEOUT, "5000");
+        sampler.setProperty(SmtpSampler.MAIL_FROM, "from@example.invalid");
+        sampler.setProperty(SmtpSampler.RECEIVER_TO, "to@example.invalid");
+        sampler.setProperty(SmtpSampler.SUBJECT, "subject");
+        sampler.setProperty(SmtpSampler.MESSAGE, "body");
+        sampler.setProperty(SmtpSampler.PLAIN_BODY, true);
+        sampler.setProperty(new CollectionProperty(SmtpSampler.HEADER_FIELDS, new ArrayList<>()));
+        sampler.setTransportReuse(reuse);
+        return sampler;
+    }
+
+    private static void assertSent(SampleResult result) {
+        assertTrue(result.isSuccessful(), () -> "sample failed: " + result.getResponseMessage());
+        assertEquals("200", result.getResponseCode());
+    }
+
+    @Test
+    public void testMessageKeyDependsOnProperties() {
+        SmtpSampler sampler = createSampler(ReusableTransport.Reuse.NONE);
+        assertNull(sampler.getMessageKey(), "messages are not cached by default");
+
+        sampler.setCacheStaticMessages(true);
+        String key = sampler.getMessageKey();
+        assertNotNull(key);
+        assertEquals(key, sampler.getMessageKey());
+
+        sampler.setProperty(SmtpSampler.SUBJECT, "other subject");
+        assertNotEquals(key, sampler.getMessageKey());
+
+        sampler.setProperty(SmtpSampler.INCLUDE_TIMESTAMP, true);
+        assertNull(sampler.getMessageKey(), "messages with a timestamp are never cached");
+    }
+
+    @Test
+    public void testConnectionPerMessageWithoutReuse() {
+        SmtpSampler sampler = createSampler(ReusableTransport.Reuse.NONE);
+        SampleResult result = sampler.sample(null);
+        assertSent(result);
+        assertEquals(1, server.quits.get());
+        assertTrue(result.getEndTime() >= server.lastQuitTime,
+                "QUIT is part of the sample when the connection is not kept");
+        assertSent(sampler.sample(null));
+        assertEquals(2, server.connections.get());
+        assertEquals(2, server.quits.get());
+        assertEquals(2, server.messages.get());
+    }
+
+    @Test
+    public void testThreadKeepsConnection() {
+        SmtpSampler sampler = createSampler(ReusableTransport.Reuse.THREAD);
+        sampler.threadStarted();
+        for (int i = 0; i < 3; i++) {
+            assertSent(sampler.sample(null));
+        }
+        assertEquals(1, server.connections.get());
+        assertEquals(3, server.messages.get());
+        assertEquals(0, server.quits.get());
+        sampler.threadFinished();
+        assertEquals(1, server.quits.get(), "connection is closed when the thread finishes");
+    }
+
+    @Test
+    public void testSharedConnectionReleasedToPool() {
+        SmtpSampler first = createSampler(ReusableTransport.Reuse.SHARED);
+        SmtpSampler second = createSampler(ReusableTransport.Reuse.SHARED);
+        assertSent(first.sample(null));
+        assertSent(second.sample(null));
+        assertEquals(1, server.connections.get(), "samplers with the same settings share the connection");
+        assertEquals(2, server.messages.get());
+        assertEquals(0, server.quits.get());
+        first.testEnded();
+        assertEquals(1, server.quits.get(), "idle connections are closed when the test ends");
+    }
+
+    @Test
+    public void testCachedStaticMessageSentOnKeptConnection() {
+        SmtpSampler sampler = createSampler(ReusableTransport.Reuse.THREAD);
+        sampler.setCacheStaticMessages(true);
+        assertSent(sampler.sample(null));
+        assertSent(sampler.sample(null));
+        assertEquals(1, server.connections.get());
+        assertEquals(2, server.messages.get());
+        sampler.threadFinished();
+    }
+
+    @Test
+    public void testConnectionClosedWhenSendingFails() {
+        SmtpSampler sampler = createSampler(ReusableTransport.Reuse.THREAD);
+        sampler.setProperty(SmtpSampler.RECEIVER_TO, REJECTED);
+        SampleResult result = sampler.sample(null);
+        assertFalse(result.isSuccessful());
+        assertEquals("500", result.getResponseCode());
+        assertEquals(1, server.quits.get(), "connection is closed within the failed sample");
+
+        sampler.setProperty(SmtpSampler.RECEIVER_TO, "to@example.invalid");
+        assertSent(sampler.sample(null));
+        assertEquals(2, server.connections.get(), "a new connection is opened after a failure");
+        sampler.threadFinished();
+    }
+
+    /**
+     * Minimal SMTP server accepting every message, except the ones sent to {@link #REJECTED}
+     */
+    private static final class SmtpServer implements Runnable {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+        private final AtomicInteger quits = new AtomicInteger();
+        private volatile long lastQuitTime;
+
+        SmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void start() {
+            Thread thread = new Thread(this, "test-smtp-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(socket), "test-smtp-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (Socket s = socket;
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                    OutputStream out = s.getOutputStream()) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                    switch (command) {
+                        case "RCPT":
+                            reply(out, line.contains(REJECTED) ? "550 rejected" : "250 OK");
+                            break;
+                        case "DATA":
+                            reply(out, "354 end with .");
+                            while ((line = in.readLine()) != null && !".".equals(line)) {
+                                // skip the message
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK");
+                            break;
+                        case "QUIT":
+                            lastQuitTime = System.currentTimeMillis();
+                            quits.incrementAndGet();
+                            reply(out, "221 bye");
+                            return;
+                        default:
+                            reply(out, "250 OK");
+                            break;
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed by the client
+            }
+        }
+
+        private static void reply(OutputStream out, String response) throws IOException {
+            out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.jorphan.util.JOrphanUtils;
+
+/**
+ * Captures the output of a command as it is written, keeping at most a given number of bytes,
+ * or only its SHA-256 checksum.
+ */
+final class OutputCapture extends OutputStream {
+    private final int maxSize;
+    private final MessageDigest digest;
+    private final ByteArrayOutputStream kept = new ByteArrayOutputStream();
+    private long count;
+
+    /**
+     * @param maxSize  maximum number of bytes kept, 0 for no limit
+     * @param checksum true to only keep the checksum of the output
+     */
+    OutputCapture(int maxSize, boolean checksum) {
+        this.maxSize = maxSize;
+        if (checksum) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256"); // $NON-NLS-1$
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        } else {
+            digest = null;
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        count += len;
+        if (digest != null) {
+            digest.update(b, off, len);
+            return;
+        }
+        int kept = maxSize > 0 ? Math.min(len, maxSize - this.kept.size()) : len;
+        if (kept > 0) {
+            this.kept.write(b, off, kept);
+        }
+    }
+
+    /**
+     * @return number of bytes written by the command
+     */
+    synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return true if some output was not kept
+     */
+    synchronized boolean isTruncated() {
+        return digest == null && kept.size() < count;
+    }
+
+    /**
+     * @return the kept output, or the hex encoded checksum of the output
+     */
+    synchronized byte[] getResponseData() {
+        if (digest != null) {
+            return JOrphanUtils.baToHexString(digest.digest()).getBytes(StandardCharsets.US_ASCII);
+        }
+        return kept.toByteArray();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.system;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived helper process running the commands of an OS Process Sampler, so no process is started
+ * for each sample.
+ * <p>
+ * The worker reads the commands on its standard input and writes their results on its standard output:
+ * <ul>
+ * <li>a command is the number of bytes of its arguments in decimal followed by a new line, then its arguments
+ * encoded in UTF-8 and separated by NUL characters</li>
+ * <li>a result is a line with the exit code and the number of bytes of the output separated by a space,
+ * then the output</li>
+ * </ul>
+ * The worker is expected to exit when its standard input is closed.
+ */
+final class PersistentWorker implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(PersistentWorker.class);
+
+    private static final int MAX_HEADER_LENGTH = 64;
+
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "OS Process Sampler worker timeouts"); // $NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String key;
+    private final Process process;
+    private final OutputStream commands;
+    private final InputStream results;
+
+    private PersistentWorker(String key, Process process) {
+        this.key = key;
+        this.process = process;
+        this.commands = new BufferedOutputStream(process.getOutputStream());
+        this.results = new BufferedInputStream(process.getInputStream());
+    }
+
+    /**
+     * Starts a worker.
+     *
+     * @param key       settings the worker was started with, to know whether it can run a command
+     * @param command   command line of the worker
+     * @param directory working directory
+     * @param env       environment variables appended to the environment
+     * @param stderr    file the standard error is appended to, or null to discard it
+     * @return the started worker
+     * @throws IOException when the process can not be started
+     */
+    static PersistentWorker start(String key, List<String> command, File directory, Map<String, String> env,
+            String stderr) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command).directory(directory);
+        builder.environment().putAll(env);
+        if (stderr != null) {
+            builder.redirectError(ProcessBuilder.Redirect.appendTo(new File(stderr)));
+        }
+        Process process = builder.start();
+        if (stderr == null) {
+            Thread drainer = new Thread(() -> {
+                try (InputStream err = process.getErrorStream()) {
+                    IOUtils.copyLarge(err, NullOutputStream.NULL_OUTPUT_STREAM);
+                } catch (IOException e) {
+                    log.debug("Error reading standard error of worker", e);
+                }
+            }, "OS Process Sampler worker stderr"); // $NON-NLS-1$
+            drainer.setDaemon(true);
+            drainer.start();
+        }
+        log.debug("Started worker {}", command);
+        return new PersistentWorker(key, process);
+    }
+
+    /**
+     * @param settings settings needed to run a command
+     * @return true if the worker is started with these settings and is still running
+     */
+    boolean canRun(String settings) {
+        return key.equals(settings) && process.isAlive();
+    }
+
+    /**
+     * Sends a command to the worker and streams its output.
+     *
+     * @param arguments     arguments of the command
+     * @param output        stream the output of the command is written to
+     * @param timeoutMillis maximum time to wait for the result, 0 for no limit.
+     *                      The worker is killed when the time is over.
+     * @return the exit code of the command
+     * @throws IOException      when the worker can not be reached or its result is invalid
+     * @throws TimeoutException when the result is not received in time
+     */
+    int execute(List<String> arguments, OutputStream output, long timeoutMillis)
+            throws IOException, TimeoutException {
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> timeout = null;
+        if (timeoutMillis > 0L) {
+            timeout = TIMEOUTS.schedule(() -> {
+                timedOut.set(true);
+                process.destroyForcibly();
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        try {
+            byte[] payload = String.join("\0", arguments).getBytes(StandardCharsets.UTF_8);
+            commands.write((payload.length + "\n").getBytes(StandardCharsets.US_ASCII));
+            commands.write(payload);
+            commands.flush();
+
+            String header = readHeader();
+            int separator = header.indexOf(' ');
+            int exitCode;
+            long length;
+            try {
+                exitCode = Integer.parseInt(header.substring(0, Math.max(separator, 0)));
+                length = Long.parseLong(header.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid result header from worker: " + header, e);
+            }
+            if (IOUtils.copyLarge(results, output, 0, length) != length) {
+                throw new EOFException("Worker exited while writing the output of the command");
+            }
+            return exitCode;
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                throw new TimeoutException("Worker timeout reached after " + timeoutMillis + " milliseconds");
+            }
+            throw e;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    private String readHeader() throws IOException {
+        StringBuilder header = new StringBuilder();
+        int c;
+        while ((c = results.read()) != '\n') {
+            if (c == -1) {
+                throw new EOFException("Worker exited before writing the result of the command");
+            }
+            if (header.length() >= MAX_HEADER_LENGTH) {
+                throw new IOException("Invalid result header from worker: " + header);
+            }
+            header.append((char) c);
+        }
+        return header.toString().trim();
+    }
+
+    /**
+     * Closes the standard input of the worker so it exits, kills it if it does not exit quickly.
+     */
+    @Override
+    public void close() {
+        try {
+            commands.close();
+        } catch (IOException e) {
+            log.debug("Error closing standard input of worker", e);
+        }
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            results.close();
+        } catch (IOException e) {
+            log.debug("Error closing standard output of worker", e);
+        }
+    }
+}
@@ -18,9 +18,14 @@
 package org.apache.jmeter.protocol.system;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -37,15 +42,18 @@ import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.testelement.property.TestElementProperty;
+import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jorphan.exec.SystemCommand;
+import org.apache.jorphan.util.JOrphanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A sampler for executing a System function.
  */
-public class SystemSampler extends AbstractSampler {
+public class SystemSampler extends AbstractSampler implements ThreadListener {
 
     private static final long serialVersionUID = 1;
 
@@ -70,6 +78,8 @@ public class SystemSampler extends AbstractSampler {
 
     private static final String TIMEOUT = "SystemSampler.timeout";
 
+    private static final String PERSISTENT_WORKER = "SystemSampler.persistentWorker";
+
     // - JMX names
 
     /**
@@ -82,6 +92,14 @@ public class SystemSampler extends AbstractSampler {
 
     public static final int DEFAULT_RETURN_CODE = 0;
 
+    private static final int MAX_OUTPUT_SIZE =
+            JMeterUtils.getPropDefault("os_sampler.max_output_size", 0); // $NON-NLS-1$
+
+    private static final boolean OUTPUT_CHECKSUM =
+            JMeterUtils.getPropDefault("os_sampler.output_checksum", false); // $NON-NLS-1$
+
+    /** Helper process of the thread in persistent worker mode */
+    private transient PersistentWorker worker;
 
     /**
      * Create a SystemSampler.
@@ -146,17 +164,23 @@ public class SystemSampler extends AbstractSampler {
                 "\nEnvironment: "+env+
                 "\nExecuting: " + cmdLine.toString());
 
-        SystemCommand nativeCommand = null;
+        OutputCapture output = new OutputCapture(MAX_OUTPUT_SIZE, OUTPUT_CHECKSUM);
         try {
-            nativeCommand = new SystemCommand(directory, getTimeout(), 0, env, getStdin(), getStdout(), getStderr());
-            results.sampleStart();
-            int returnCode = nativeCommand.run(cmds);
-            results.sampleEnd();
-            results.setResponseCode(Integer.toString(returnCode));
-            if(log.isDebugEnabled()) {
-                log.debug("Ran : "+cmdLine + " using working directory: "+directory.getAbsolutePath()+
-                        " with execution environment: "+nativeCommand.getExecutionEnvironment()+ " => " + returnCode);
+            int returnCode;
+            if (isPersistentWorker()) {
+                returnCode = runWorker(results, command, cmds.subList(1, cmds.size()), directory, env, output);
+            } else {
+                SystemCommand nativeCommand = new SystemCommand(directory, getTimeout(), 0, env,
+                        openInput(getStdin()), openOutput(getStdout(), output), openOutput(getStderr(), null));
+                results.sampleStart();
+                returnCode = nativeCommand.run(cmds);
+                results.sampleEnd();
+                if(log.isDebugEnabled()) {
+                    log.debug("Ran : "+cmdLine + " using working directory: "+directory.getAbsolutePath()+
+                            " with execution environment: "+nativeCommand.getExecutionEnvironment()+ " => " + returnCode);
+                }
             }
+            results.setResponseCode(Integer.toString(returnCode));
 
             if (checkReturnCode && (returnCode != expectedReturnCode)) {
                 results.setSuccessful(false);
@@ -166,32 +190,95 @@ public class SystemSampler extends AbstractSampler {
                 results.setResponseMessage("OK");
             }
         } catch (IOException ioe) {
-            results.sampleEnd();
+            endSample(results);
             results.setSuccessful(false);
             results.setResponseCode("500"); //$NON-NLS-1$
             results.setResponseMessage("Exception occurred whilst executing system call: " + ioe);
         } catch (InterruptedException ie) {
-            results.sampleEnd();
+            endSample(results);
             results.setSuccessful(false);
             results.setResponseCode("500"); //$NON-NLS-1$
             results.setResponseMessage("System Sampler interrupted whilst executing system call: " + ie);
             Thread.currentThread().interrupt();
         } catch (TimeoutException e) {
-            results.sampleEnd();
+            endSample(results);
             results.setSuccessful(false);
             results.setResponseCode("500");
             results.setResponseMessage(e.getMessage());
         }
 
-        if (nativeCommand != null) {
-            @SuppressWarnings("DefaultCharset")
-            final byte[] responseData = nativeCommand.getOutResult().getBytes();
-            results.setResponseData(responseData); // default charset is deliberate here
+        results.setResponseData(output.getResponseData());
+        results.setBodySize(output.getCount());
+        if (output.isTruncated()) {
+            log.debug("Kept {} bytes of the {} bytes of output of {}", MAX_OUTPUT_SIZE, output.getCount(), cmdLine);
         }
 
         return results;
     }
 
+    /**
+     * Runs the command with the helper process of the thread, which is started if needed.
+     * Starting the worker is reported as the connect time.
+     */
+    private int runWorker(SampleResult results, String command, List<String> arguments, File directory,
+            Map<String, String> env, OutputStream output) throws IOException, TimeoutException {
+        String stderr = JOrphanUtils.nullifyIfEmptyTrimmed(getStderr());
+        String settings = command + '\n' + directory.getAbsolutePath() + '\n' + env + '\n' + stderr;
+        if (worker != null && !worker.canRun(settings)) {
+            closeWorker();
+        }
+        results.sampleStart();
+        if (worker == null) {
+            worker = PersistentWorker.start(settings, Collections.singletonList(command), directory, env, stderr);
+        }
+        results.connectEnd();
+        String stdout = JOrphanUtils.nullifyIfEmptyTrimmed(getStdout());
+        try (OutputStream out = stdout == null ? output : new FileOutputStream(stdout)) {
+            int returnCode = worker.execute(arguments, out, getTimeout());
+            results.sampleEnd();
+            return returnCode;
+        } catch (IOException | TimeoutException e) {
+            closeWorker();
+            throw e;
+        }
+    }
+
+    private static void endSample(SampleResult results) {
+        if (results.getStartTime() == 0) {
+            results.sampleStart();
+        }
+        if (results.getEndTime() == 0) {
+            results.sampleEnd();
+        }
+    }
+
+    private static InputStream openInput(String path) throws IOException {
+        String in = JOrphanUtils.nullifyIfEmptyTrimmed(path);
+        return in == null ? null : new FileInputStream(in);
+    }
+
+    private static OutputStream openOutput(String path, OutputStream capture) throws IOException {
+        String out = JOrphanUtils.nullifyIfEmptyTrimmed(path);
+        return out == null ? capture : new FileOutputStream(out);
+    }
+
+    private void closeWorker() {
+        if (worker != null) {
+            worker.close();
+            worker = null;
+        }
+    }
+
+    @Override
+    public void threadStarted() {
+        // NOOP
+    }
+
+    @Override
+    public void threadFinished() {
+        closeWorker();
+    }
+
     /**
      * @see org.apache.jmeter.samplers.AbstractSampler#applies(org.apache.jmeter.config.ConfigTestElement)
      */
@@ -333,4 +420,21 @@ public class SystemSampler extends AbstractSampler {
     public void setTimout(long timeoutMs) {
         setProperty(TIMEOUT, timeoutMs, 0L);
     }
+
+    /**
+     * @return true if the commands are run by a long-lived helper process
+     * @since 5.5
+     */
+    public boolean isPersistentWorker() {
+        return getPropertyAsBoolean(PERSISTENT_WORKER, false);
+    }
+
+    /**
+     * @param persistentWorker true to run the commands with a long-lived helper process
+     *                         reading them on its standard input
+     * @since 5.5
+     */
+    public void setPersistentWorker(boolean persistentWorker) {
+        setProperty(PERSISTENT_WORKER, persistentWorker, false);
+    }
 }
@@ -64,6 +64,8 @@ public class SystemSamplerGui extends AbstractSamplerGui implements ItemListener
     private final FilePanelEntry directory = new FilePanelEntry(JMeterUtils.getResString("directory_field_title"), true); // $NON-NLS-1$
     private final FilePanelEntry command = new FilePanelEntry(JMeterUtils.getResString("command_field_title")); // $NON-NLS-1$
     private JLabeledTextField timeout;
+    private final JCheckBox persistentWorker =
+            new JCheckBox(JMeterUtils.getResString("system_sampler_persistent_worker")); // $NON-NLS-1$
     private ArgumentsPanel argsPanel;
     private ArgumentsPanel envPanel;
 
@@ -131,6 +133,7 @@ public class SystemSamplerGui extends AbstractSamplerGui implements ItemListener
         systemSampler.setStdin(stdin.getFilename());
         systemSampler.setStdout(stdout.getFilename());
         systemSampler.setStderr(stderr.getFilename());
+        systemSampler.setPersistentWorker(persistentWorker.isSelected());
         if(!StringUtils.isEmpty(timeout.getText())) {
             try {
                 systemSampler.setTimout(Long.parseLong(timeout.getText()));
@@ -155,6 +158,7 @@ public class SystemSamplerGui extends AbstractSamplerGui implements ItemListener
         stdin.setFilename(systemSampler.getStdin());
         stdout.setFilename(systemSampler.getStdout());
         stderr.setFilename(systemSampler.getStderr());
+        persistentWorker.setSelected(systemSampler.isPersistentWorker());
         timeout.setText(systemSampler.getTimeout() == 0L ? "":  // $NON-NLS-1$
             Long.toString(systemSampler.getTimeout())); // not sure if replace 0L to empty string is the good way.
     }
@@ -201,7 +205,8 @@ public class SystemSamplerGui extends AbstractSamplerGui implements ItemListener
 
         JPanel cmdWkDirPane = new JPanel(new BorderLayout());
         cmdWkDirPane.add(command, BorderLayout.NORTH);
-        cmdWkDirPane.add(directory, BorderLayout.SOUTH);
+        cmdWkDirPane.add(directory, BorderLayout.CENTER);
+        cmdWkDirPane.add(persistentWorker, BorderLayout.SOUTH);
         cmdPanel.add(cmdWkDirPane);
 
         JPanel panel = new VerticalPanel();
@@ -264,6 +269,7 @@ public class SystemSamplerGui extends AbstractSamplerGui implements ItemListener
         stdin.clearGui();
         stdout.clearGui();
         stderr.clearGui();
+        persistentWorker.setSelected(false);
         timeout.setText(""); // $NON-NLS-1$
     }
 
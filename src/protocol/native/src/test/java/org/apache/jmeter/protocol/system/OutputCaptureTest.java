@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.system;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.apache.jorphan.util.JOrphanUtils;
+import org.junit.jupiter.api.Test;
+
+class OutputCaptureTest {
+
+    private static final byte[] OUTPUT = "line 1\nline 2\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static OutputCapture capture(int maxSize, boolean checksum) {
+        OutputCapture capture = new OutputCapture(maxSize, checksum);
+        capture.write(OUTPUT, 0, 7);
+        capture.write(OUTPUT, 7, OUTPUT.length - 7);
+        return capture;
+    }
+
+    @Test
+    void testWholeOutputIsKeptWithoutLimit() {
+        OutputCapture capture = capture(0, false);
+        assertArrayEquals(OUTPUT, capture.getResponseData());
+        assertEquals(OUTPUT.length, capture.getCount());
+        assertFalse(capture.isTruncated());
+    }
+
+    @Test
+    void testOutputIsTruncatedAtMaxSize() {
+        OutputCapture capture = capture(10, false);
+        assertEquals("line 1\nlin", new String(capture.getResponseData(), StandardCharsets.US_ASCII));
+        assertEquals(OUTPUT.length, capture.getCount());
+        assertTrue(capture.isTruncated());
+    }
+
+    @Test
+    void testOnlyChecksumIsKept() throws Exception {
+        OutputCapture capture = capture(10, true);
+        assertEquals(JOrphanUtils.baToHexString(MessageDigest.getInstance("SHA-256").digest(OUTPUT)),
+                new String(capture.getResponseData(), StandardCharsets.US_ASCII));
+        assertEquals(OUTPUT.length, capture.getCount());
+        assertFalse(capture.isTruncated());
+    }
+}
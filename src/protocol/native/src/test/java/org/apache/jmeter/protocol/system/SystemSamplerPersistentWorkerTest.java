@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Drives a shell worker through the OS Process Sampler in persistent worker mode.
+ */
+@DisabledOnOs(OS.WINDOWS)
+class SystemSamplerPersistentWorkerTest extends JMeterTestCase {
+
+    // Echoes its arguments, answers "fail" with exit code 3, "bad" with an invalid header
+    // and does not answer "hang". Each start is logged to count the workers.
+    private static final String WORKER =
+            "#!/bin/sh\n"
+            + "echo started >> \"$(dirname \"$0\")/starts.log\"\n"
+            + "while read -r len; do\n"
+            + "  args=$(head -c \"$len\" | tr '\\000' ' ')\n"
+            + "  case \"$args\" in\n"
+            + "    bad*) echo 'not a header'; continue;;\n"
+            + "    hang*) exec sleep 30;;\n"
+            + "    fail*) code=3;;\n"
+            + "    *) code=0;;\n"
+            + "  esac\n"
+            + "  out=\"echo:$args\"\n"
+            + "  printf '%s %s\\n%s' \"$code\" \"${#out}\" \"$out\"\n"
+            + "done\n";
+
+    @TempDir
+    Path dir;
+
+    private SystemSampler sampler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path worker = dir.resolve("worker.sh");
+        Files.write(worker, WORKER.getBytes(StandardCharsets.US_ASCII));
+        assertTrue(worker.toFile().setExecutable(true), "worker script must be executable");
+        sampler = new SystemSampler();
+        sampler.setCommand(worker.toString());
+        sampler.setDirectory(dir.toString());
+        sampler.setEnvironmentVariables(new Arguments());
+        sampler.setCheckReturnCode(true);
+        sampler.setExpectedReturnCode(0);
+        sampler.setPersistentWorker(true);
+        sampler.setTimout(2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sampler.threadFinished();
+    }
+
+    private SampleResult sample(String... values) {
+        Arguments arguments = new Arguments();
+        for (String value : values) {
+            arguments.addArgument("", value);
+        }
+        sampler.setArguments(arguments);
+        return sampler.sample(null);
+    }
+
+    private long workerStarts() throws IOException {
+        File log = dir.resolve("starts.log").toFile();
+        return log.exists() ? Files.readAllLines(log.toPath()).size() : 0;
+    }
+
+    @Test
+    void workerRunsSeveralCommands() throws IOException {
+        SampleResult first = sample("hello", "world");
+        assertTrue(first.isSuccessful(), first::getResponseMessage);
+        assertEquals("0", first.getResponseCode());
+        assertEquals("echo:hello world", first.getResponseDataAsString());
+
+        SampleResult second = sample("again");
+        assertTrue(second.isSuccessful(), second::getResponseMessage);
+        assertEquals("echo:again", second.getResponseDataAsString());
+        assertEquals(1, workerStarts(), "the worker is started once for the thread");
+    }
+
+    @Test
+    void exitCodeOfCommandIsChecked() throws IOException {
+        SampleResult result = sample("fail");
+        assertFalse(result.isSuccessful());
+        assertEquals("3", result.getResponseCode());
+        assertEquals("echo:fail", result.getResponseDataAsString());
+        assertTrue(sample("ok").isSuccessful());
+        assertEquals(1, workerStarts(), "a failed command does not restart the worker");
+    }
+
+    @Test
+    void invalidHeaderRestartsWorker() throws IOException {
+        SampleResult result = sample("bad");
+        assertFalse(result.isSuccessful());
+        assertEquals("500", result.getResponseCode());
+        assertTrue(result.getResponseMessage().contains("Invalid result header"), result::getResponseMessage);
+
+        SampleResult next = sample("ok");
+        assertTrue(next.isSuccessful(), next::getResponseMessage);
+        assertEquals("echo:ok", next.getResponseDataAsString());
+        assertEquals(2, workerStarts());
+    }
+
+    @Test
+    void timeoutKillsWorkerAndNextSampleRestartsIt() throws IOException {
+        sampler.setTimout(500L);
+        SampleResult result = sample("hang");
+        assertFalse(result.isSuccessful());
+        assertEquals("500", result.getResponseCode());
+        assertTrue(result.getResponseMessage().contains("timeout"), result::getResponseMessage);
+        assertTrue(result.getTime() < 10_000L, () -> "worker must be killed on timeout, took " + result.getTime());
+
+        sampler.setTimout(2000L);
+        SampleResult next = sample("ok");
+        assertTrue(next.isSuccessful(), next::getResponseMessage);
+        assertEquals("echo:ok", next.getResponseDataAsString());
+        assertEquals(2, workerStarts());
+    }
+}
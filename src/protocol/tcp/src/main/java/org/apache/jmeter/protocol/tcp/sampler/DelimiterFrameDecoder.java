@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.nio.ByteBuffer;
+
+import org.apiguardian.api.API;
+
+/**
+ * Frames ended by a delimiter byte, like the end-of-line byte of {@link TCPClientImpl}.
+ * <p>
+ * The delimiter is kept at the end of the messages, the messages to send must contain it.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class DelimiterFrameDecoder implements FrameDecoder {
+    private final byte delimiter;
+
+    /**
+     * @param delimiter byte ending the frames
+     */
+    public DelimiterFrameDecoder(byte delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public byte[] decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        for (int i = start; i < buffer.limit(); i++) {
+            if (buffer.get(i) == delimiter) {
+                byte[] message = new byte[i + 1 - start];
+                buffer.get(message);
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "DelimiterFrameDecoder[delimiter=" + delimiter + "]"; // $NON-NLS-1$
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.nio.ByteBuffer;
+
+import org.apiguardian.api.API;
+
+/**
+ * Frames of a fixed length.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class FixedLengthFrameDecoder implements FrameDecoder {
+    private final int length;
+
+    /**
+     * @param length length of the frames in bytes
+     */
+    public FixedLengthFrameDecoder(int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Frame length must be positive: " + length);
+        }
+        this.length = length;
+    }
+
+    @Override
+    public byte[] decode(ByteBuffer buffer) {
+        if (buffer.remaining() < length) {
+            return null;
+        }
+        byte[] message = new byte[length];
+        buffer.get(message);
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "FixedLengthFrameDecoder[length=" + length + "]"; // $NON-NLS-1$
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apiguardian.api.API;
+
+/**
+ * Splits the bytes received on a connection into messages, and frames the messages to send,
+ * for the {@link NioTCPClientImpl}.
+ * <p>
+ * A decoder is used by a single connection at a time, but it must not keep state between calls.
+ * <p>
+ * In pipelining mode, the clients share the connections to a server whose decoders have the same
+ * {@link Object#toString()}, so the decoders must describe their configuration there, or keep the
+ * default implementation to share the connections only between the clients using the same instance.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public interface FrameDecoder {
+
+    /**
+     * Decode the first message of the received bytes.
+     *
+     * @param buffer received bytes, ready to be read. The bytes of the decoded frame are consumed,
+     *               the buffer is left unchanged if it does not contain a complete frame
+     * @return the message, or {@code null} if the frame is not complete yet
+     * @throws IOException if the frame is invalid
+     */
+    byte[] decode(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Frame a message to send.
+     * <p>
+     * The default implementation sends the message as is.
+     *
+     * @param message message to send
+     * @return the bytes to write
+     */
+    default byte[] encode(byte[] message) {
+        return message;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apiguardian.api.API;
+
+/**
+ * Frames prefixed with their binary length, as used by {@link LengthPrefixedBinaryTCPClientImpl}.
+ * <p>
+ * The prefix is a big-endian integer of 2 or 4 bytes, it is not part of the messages.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public final class LengthPrefixedFrameDecoder implements FrameDecoder {
+    private final int prefixLength;
+
+    /**
+     * @param prefixLength length of the prefix, 2 or 4 bytes
+     */
+    public LengthPrefixedFrameDecoder(int prefixLength) {
+        if (prefixLength != 2 && prefixLength != 4) {
+            throw new IllegalArgumentException("Length must be specified as either 2 or 4.");
+        }
+        this.prefixLength = prefixLength;
+    }
+
+    @Override
+    public byte[] decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < prefixLength) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = prefixLength == 2 ? buffer.getShort(start) : buffer.getInt(start);
+        if (length < 0) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        if (buffer.remaining() < prefixLength + length) {
+            return null;
+        }
+        byte[] message = new byte[length];
+        buffer.position(start + prefixLength);
+        buffer.get(message);
+        return message;
+    }
+
+    @Override
+    public byte[] encode(byte[] message) {
+        byte[] prefix = TCPClientDecorator.intToByteArray(message.length, prefixLength);
+        byte[] frame = new byte[prefixLength + message.length];
+        System.arraycopy(prefix, 0, frame, 0, prefixLength);
+        System.arraycopy(message, 0, frame, prefixLength, message.length);
+        return frame;
+    }
+
+    @Override
+    public String toString() {
+        return "LengthPrefixedFrameDecoder[prefixLength=" + prefixLength + "]"; // $NON-NLS-1$
+    }
+}
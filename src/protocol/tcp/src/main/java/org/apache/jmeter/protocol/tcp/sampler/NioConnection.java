@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non blocking connection of the {@link NioTCPClientImpl}.
+ * <p>
+ * Requests may be sent by several threads without waiting for the previous responses (pipelining):
+ * the responses are correlated with the requests in the order they were sent.
+ * Reads and writes run in the selector thread of the connection.
+ */
+final class NioConnection implements NioSelectorPool.Handler {
+    private static final Logger log = LoggerFactory.getLogger(NioConnection.class);
+
+    private final SocketChannel channel;
+
+    private final NioSelectorPool pool;
+
+    private final NioSelectorPool.SelectorLoop loop;
+
+    private final FrameDecoder decoder;
+
+    /** Requests not written yet, guarded by this */
+    private final Deque<Exchange> writeQueue = new ArrayDeque<>();
+
+    /** Requests waiting for their response, in the order they were sent, guarded by this */
+    private final Deque<Exchange> inFlight = new ArrayDeque<>();
+
+    /** Buffer of the pool, released when the connection is closed; used by the selector thread only */
+    private final ByteBuffer pooledBuffer;
+
+    /** Received bytes, ready to be written; used by the selector thread only */
+    private ByteBuffer readBuffer;
+
+    private SelectionKey key;
+
+    private volatile boolean closed;
+
+    /**
+     * Request sent on the connection and its response
+     */
+    static final class Exchange extends CompletableFuture<byte[]> {
+        private final ByteBuffer request;
+        private final int requestSize;
+        private volatile long firstByteNanos;
+        private volatile int responseSize;
+
+        private Exchange(byte[] request) {
+            this.request = ByteBuffer.wrap(request);
+            this.requestSize = request.length;
+        }
+
+        /**
+         * @return {@link System#nanoTime()} of the reception of the first byte of the response, 0 if none was received
+         */
+        long getFirstByteNanos() {
+            return firstByteNanos;
+        }
+
+        /**
+         * @return size of the request in bytes
+         */
+        int getRequestSize() {
+            return requestSize;
+        }
+
+        /**
+         * @return size of the response frame in bytes
+         */
+        int getResponseSize() {
+            return responseSize;
+        }
+
+        private void firstByte(long nanos) {
+            if (firstByteNanos == 0) {
+                firstByteNanos = nanos;
+            }
+        }
+    }
+
+    private NioConnection(SocketChannel channel, NioSelectorPool pool, FrameDecoder decoder) {
+        this.channel = channel;
+        this.pool = pool;
+        this.loop = pool.nextLoop();
+        this.decoder = decoder;
+        this.pooledBuffer = pool.acquireBuffer();
+        this.readBuffer = pooledBuffer;
+    }
+
+    /**
+     * Connect to a server, the caller waits for the connection to be established.
+     *
+     * @param address        address of the server
+     * @param connectTimeout connect timeout in milliseconds, 0 to wait without limit
+     * @param noDelay        value of TCP_NODELAY
+     * @param decoder        decoder of the frames received on the connection
+     * @return the connection
+     * @throws IOException when the connection fails
+     */
+    static NioConnection open(InetSocketAddress address, int connectTimeout, boolean noDelay, FrameDecoder decoder)
+            throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(address, connectTimeout);
+            channel.socket().setTcpNoDelay(noDelay);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        NioConnection connection = new NioConnection(channel, NioSelectorPool.getInstance(), decoder);
+        connection.loop.execute(connection::register);
+        return connection;
+    }
+
+    private void register() {
+        try {
+            key = channel.register(loop.getSelector(), SelectionKey.OP_READ, this);
+        } catch (IOException e) {
+            close(e);
+        }
+    }
+
+    /**
+     * @return {@code true} if the connection can no more be used
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Send a request, without waiting for the responses of the previous requests.
+     *
+     * @param frame request to write
+     * @return the exchange, completed with the response message or with the failure of the connection
+     */
+    Exchange send(byte[] frame) {
+        Exchange exchange = new Exchange(frame);
+        synchronized (this) {
+            if (closed) {
+                exchange.completeExceptionally(new ClosedChannelException());
+                return exchange;
+            }
+            inFlight.add(exchange);
+            writeQueue.add(exchange);
+        }
+        loop.execute(this::enableWrite);
+        return exchange;
+    }
+
+    /**
+     * Close the connection, the requests waiting for their response fail
+     */
+    void close() {
+        closed = true;
+        loop.execute(() -> close(new AsynchronousCloseException()));
+    }
+
+    @Override
+    public void stopped() {
+        close(new AsynchronousCloseException());
+    }
+
+    private void enableWrite() {
+        if (key != null && key.isValid()) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    @Override
+    public void handle(SelectionKey selectedKey) {
+        try {
+            if (selectedKey.isWritable()) {
+                write();
+            }
+            if (selectedKey.isReadable()) {
+                read();
+            }
+        } catch (IOException | CancelledKeyException e) {
+            close(e);
+        }
+    }
+
+    private void write() throws IOException {
+        synchronized (this) {
+            Exchange exchange;
+            while ((exchange = writeQueue.peek()) != null) {
+                channel.write(exchange.request);
+                if (exchange.request.hasRemaining()) {
+                    return; // The socket buffer is full, wait for the next write event
+                }
+                writeQueue.poll();
+            }
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void read() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            throw new EOFException("Connection closed by the server");
+        }
+        if (read == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        Exchange next;
+        synchronized (this) {
+            next = inFlight.peek();
+        }
+        if (next != null) {
+            next.firstByte(now);
+        }
+        readBuffer.flip();
+        try {
+            int start = readBuffer.position();
+            byte[] message;
+            while ((message = decoder.decode(readBuffer)) != null) {
+                Exchange exchange;
+                synchronized (this) {
+                    exchange = inFlight.poll();
+                    next = inFlight.peek();
+                }
+                if (exchange == null) {
+                    log.warn("Discarding a message of {} bytes received without request", message.length);
+                } else {
+                    exchange.responseSize = readBuffer.position() - start;
+                    exchange.complete(message);
+                }
+                start = readBuffer.position();
+                if (next != null && readBuffer.hasRemaining()) {
+                    // The response of the next request started in the same read
+                    next.firstByte(now);
+                }
+            }
+        } finally {
+            readBuffer.compact();
+        }
+        if (!readBuffer.hasRemaining()) {
+            // The frame is larger than the buffer
+            ByteBuffer larger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+    }
+
+    private void close(Exception cause) {
+        Deque<Exchange> failed;
+        synchronized (this) {
+            closed = true;
+            failed = new ArrayDeque<>(inFlight);
+            inFlight.clear();
+            writeQueue.clear();
+        }
+        for (Exchange exchange : failed) {
+            exchange.completeExceptionally(cause);
+        }
+        if (key != null) {
+            key.cancel();
+        }
+        if (channel.isOpen()) {
+            log.debug("Closing connection {}: {}", channel, cause.toString());
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Error closing connection {}", channel, e);
+            }
+            pool.releaseBuffer(pooledBuffer);
+        }
+    }
+}
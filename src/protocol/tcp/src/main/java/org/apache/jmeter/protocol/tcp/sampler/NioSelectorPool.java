@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selector threads shared by the connections of {@link NioTCPClientImpl}, with a pool of
+ * direct buffers used by the connections to read.
+ * <p>
+ * Each connection is served by one selector thread, the connections are assigned to
+ * the {@code tcp.nio.selectors} threads in turn. The threads are started by the first
+ * connection of a test and stopped when the test ends.
+ */
+final class NioSelectorPool {
+    private static final Logger log = LoggerFactory.getLogger(NioSelectorPool.class);
+
+    private static final int SELECTORS = JMeterUtils.getPropDefault("tcp.nio.selectors", // $NON-NLS-1$
+            Runtime.getRuntime().availableProcessors());
+
+    /** Size of the read buffers, a buffer grows when a frame is larger */
+    static final int BUFFER_SIZE = JMeterUtils.getPropDefault("tcp.nio.buffer_size", 8192); // $NON-NLS-1$
+
+    /** Maximum time to wait for a selector thread to stop */
+    private static final long STOP_TIMEOUT_MILLIS = 5000L;
+
+    /** Pool of the running test, created by its first connection */
+    private static NioSelectorPool instance; // guarded by NioSelectorPool.class
+
+    private final SelectorLoop[] loops;
+
+    private final Thread[] threads;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private NioSelectorPool(int selectors) {
+        log.info("Starting {} TCP selector threads", selectors);
+        loops = new SelectorLoop[selectors];
+        threads = new Thread[selectors];
+        for (int i = 0; i < selectors; i++) {
+            loops[i] = new SelectorLoop();
+            Thread t = new Thread(loops[i]);
+            t.setName("TcpSelector-" + t.getName()); //$NON-NLS-1$
+            t.setDaemon(true);
+            t.start();
+            threads[i] = t;
+        }
+    }
+
+    static synchronized NioSelectorPool getInstance() {
+        if (instance == null) {
+            instance = new NioSelectorPool(Math.max(SELECTORS, 1));
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the selector threads and drops the buffers, if the pool was started.
+     * The next connection starts a new pool.
+     */
+    static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    /**
+     * @return true if the selector threads are started
+     */
+    static synchronized boolean isStarted() {
+        return instance != null;
+    }
+
+    private void stop() {
+        log.debug("Stopping {} TCP selector threads", loops.length);
+        for (SelectorLoop loop : loops) {
+            loop.stop();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join(STOP_TIMEOUT_MILLIS);
+                if (thread.isAlive()) {
+                    log.warn("TCP selector thread {} did not stop within {} ms", thread.getName(), STOP_TIMEOUT_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffers.clear();
+    }
+
+    /**
+     * @return the selector thread of a new connection
+     */
+    SelectorLoop nextLoop() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+
+    /**
+     * @return a cleared direct buffer of {@link #BUFFER_SIZE} bytes
+     */
+    ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * @param buffer buffer returned by {@link #acquireBuffer()}, that is no more used
+     */
+    void releaseBuffer(ByteBuffer buffer) {
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Handles the events of the connections registered to its selector
+     */
+    interface Handler {
+        /**
+         * Called by the selector thread when the channel of the key is ready
+         *
+         * @param key the selected key
+         */
+        void handle(SelectionKey key);
+
+        /**
+         * Called by the selector thread when it stops, the channel of the key must be closed
+         */
+        void stopped();
+    }
+
+    /**
+     * Selector thread, all the operations on its keys run in this thread
+     */
+    static final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean stopped;
+
+        private SelectorLoop() {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Selector getSelector() {
+            return selector;
+        }
+
+        /**
+         * Run a task in the selector thread, the tasks run in the order they are submitted
+         *
+         * @param task task to run
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        /**
+         * Stops the thread, the handlers of the keys still registered to its selector are notified
+         */
+        private void stop() {
+            stopped = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                select();
+            } finally {
+                close();
+            }
+        }
+
+        private void select() {
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+                try {
+                    selector.select();
+                } catch (IOException e) {
+                    log.error("Error selecting TCP channels", e);
+                    return;
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    runSafely(task);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        runSafely(() -> ((Handler) key.attachment()).handle(key));
+                    }
+                }
+            }
+        }
+
+        private void close() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                runSafely(task);
+            }
+            for (SelectionKey key : selector.keys()) {
+                runSafely(() -> ((Handler) key.attachment()).stopped());
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Error closing TCP selector", e);
+            }
+        }
+
+        private static void runSafely(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) { // NOSONAR the other connections must still be served
+                log.error("Error handling TCP channel", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.util.JOrphanUtils;
+import org.apiguardian.api.API;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TCPClient implementation using non blocking connections served by a pool of selector threads
+ * ({@code tcp.nio.selectors}), so a large number of connections does not need as many reading threads.
+ * <p>
+ * The messages are delimited by a {@link FrameDecoder} selected by {@code tcp.nio.frame}:
+ * <ul>
+ * <li>{@code delimiter}: messages ended by the EOL byte (new line if none is defined)</li>
+ * <li>{@code length_prefixed}: messages prefixed by their length of {@code tcp.binarylength.prefix.length} bytes</li>
+ * <li>{@code fixed}: messages of {@code tcp.nio.fixed_length} bytes</li>
+ * </ul>
+ * The request and response are text in the charset {@code tcp.charset}, or hex-encoded binary strings
+ * when {@code tcp.nio.binary} is {@code true}.
+ * <p>
+ * When {@code tcp.nio.pipelining} is {@code true}, the threads share {@code tcp.nio.pipelining.connections}
+ * connections per server and send their requests without waiting for the responses of the other threads.
+ * The responses are correlated with the requests in the order they were sent, and the latency of each sample
+ * is the time to the first byte of its own response.
+ * Otherwise each thread uses its own connection, like {@link TCPClientImpl}.
+ *
+ * @since 5.5
+ */
+@API(status = API.Status.EXPERIMENTAL, since = "5.5")
+public class NioTCPClientImpl extends AbstractTCPClient {
+    private static final Logger log = LoggerFactory.getLogger(NioTCPClientImpl.class);
+
+    private static final int EOL_INT = JMeterUtils.getPropDefault("tcp.eolByte", 1000); // $NON-NLS-1$
+
+    private static final String CHARSET =
+            JMeterUtils.getPropDefault("tcp.charset", Charset.defaultCharset().name()); // $NON-NLS-1$
+
+    private static final String FRAME = JMeterUtils.getPropDefault("tcp.nio.frame", "delimiter"); // $NON-NLS-1$ $NON-NLS-2$
+
+    private static final int PREFIX_LENGTH =
+            JMeterUtils.getPropDefault("tcp.binarylength.prefix.length", 2); // $NON-NLS-1$
+
+    private static final int FIXED_LENGTH = JMeterUtils.getPropDefault("tcp.nio.fixed_length", 0); // $NON-NLS-1$
+
+    private static final boolean BINARY = JMeterUtils.getPropDefault("tcp.nio.binary", false); // $NON-NLS-1$
+
+    private static final boolean PIPELINING = JMeterUtils.getPropDefault("tcp.nio.pipelining", false); // $NON-NLS-1$
+
+    private static final int PIPELINING_CONNECTIONS =
+            JMeterUtils.getPropDefault("tcp.nio.pipelining.connections", 1); // $NON-NLS-1$
+
+    private static final byte DEFAULT_DELIMITER = '\n';
+
+    /** Connections shared by the threads in pipelining mode, by server and decoder configuration */
+    private static final ConcurrentMap<String, SharedConnections> SHARED_CONNECTIONS = new ConcurrentHashMap<>();
+
+    private final boolean pipelining;
+
+    private FrameDecoder decoder;
+
+    /** Connection of the thread when pipelining is off */
+    private NioConnection connection;
+
+    private String connectionKey;
+
+    /** Key of the shared connections used by the thread when pipelining is on */
+    private String sharedKey;
+
+    private volatile NioConnection.Exchange currentExchange;
+
+    public NioTCPClientImpl() {
+        this(PIPELINING);
+    }
+
+    /**
+     * @param pipelining whether the threads share their connections and pipeline their requests
+     */
+    public NioTCPClientImpl(boolean pipelining) {
+        super();
+        this.pipelining = pipelining;
+        setCharset(CHARSET);
+        setEolByte(EOL_INT);
+        log.debug("Using frame={}, binary={}, pipelining={}", FRAME, BINARY, pipelining);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The EOL byte is the delimiter of the {@code delimiter} frames.
+     */
+    @Override
+    public void setEolByte(int eolInt) {
+        super.setEolByte(eolInt);
+        decoder = createDecoder();
+    }
+
+    /**
+     * @param frameDecoder decoder of the frames, replacing the one selected by {@code tcp.nio.frame}
+     */
+    public void setFrameDecoder(FrameDecoder frameDecoder) {
+        this.decoder = frameDecoder;
+    }
+
+    private FrameDecoder createDecoder() {
+        switch (FRAME.trim().toLowerCase(Locale.ROOT)) {
+            case "length_prefixed": // $NON-NLS-1$
+                return new LengthPrefixedFrameDecoder(PREFIX_LENGTH);
+            case "fixed": // $NON-NLS-1$
+                return new FixedLengthFrameDecoder(FIXED_LENGTH);
+            case "delimiter": // $NON-NLS-1$
+                return new DelimiterFrameDecoder(useEolByte ? eolByte : DEFAULT_DELIMITER);
+            default:
+                throw new IllegalArgumentException("Unknown tcp.nio.frame: " + FRAME);
+        }
+    }
+
+    /**
+     * Send a request and wait for its response on a non blocking connection,
+     * the connection is opened if needed.
+     *
+     * @param host           server
+     * @param port           port of the server
+     * @param connectTimeout connect timeout in milliseconds, 0 for no timeout
+     * @param timeout        response timeout in milliseconds, 0 for no timeout
+     * @param noDelay        value of TCP_NODELAY of new connections
+     * @param request        request to send, without its framing
+     * @param sampleResult   {@link SampleResult}, its connect time, latency and sizes are set
+     * @return the response, without its framing
+     * @throws IOException   when the connection fails
+     * @throws ReadException when the response cannot be read
+     */
+    public String sample(String host, int port, int connectTimeout, int timeout, boolean noDelay,
+            String request, SampleResult sampleResult) throws IOException, ReadException {
+        NioConnection nioConnection;
+        try {
+            nioConnection = pipelining
+                    ? getSharedConnection(host, port, connectTimeout, noDelay)
+                    : getConnection(host, port, connectTimeout, noDelay);
+        } finally {
+            sampleResult.connectEnd();
+        }
+        long sent = System.nanoTime();
+        NioConnection.Exchange exchange = nioConnection.send(decoder.encode(toBytes(request)));
+        currentExchange = exchange;
+        sampleResult.setSentBytes(exchange.getRequestSize());
+        try {
+            byte[] response = timeout > 0 ? exchange.get(timeout, TimeUnit.MILLISECONDS) : exchange.get();
+            sampleResult.setBytes((long) exchange.getResponseSize());
+            String decoded = toString(response);
+            if (log.isDebugEnabled()) {
+                log.debug("Read: {}\n{}", response.length, decoded);
+            }
+            return decoded;
+        } catch (TimeoutException e) {
+            // A late response of a shared connection is still correlated with its request, so it is kept open
+            closeConnection();
+            throw new ReadException("Timeout waiting for the response, " + timeout + " ms", e, "");
+        } catch (ExecutionException e) {
+            closeConnection();
+            throw new ReadException("Error reading from server", e.getCause(), "");
+        } catch (CancellationException e) {
+            closeConnection();
+            throw new ReadException("Interrupted waiting for the response", e, "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeConnection();
+            throw new ReadException("Interrupted waiting for the response", e, "");
+        } finally {
+            currentExchange = null;
+            long firstByte = exchange.getFirstByteNanos();
+            if (firstByte != 0) {
+                // Time to the first byte of the response of this request, not of the previous pipelined ones
+                sampleResult.setLatency(sampleResult.getConnectTime() + TimeUnit.NANOSECONDS.toMillis(firstByte - sent));
+            }
+        }
+    }
+
+    private NioConnection getConnection(String host, int port, int connectTimeout, boolean noDelay)
+            throws IOException {
+        String key = host + ':' + port;
+        if (connection != null && (connection.isClosed() || !key.equals(connectionKey))) {
+            closeConnection();
+        }
+        if (connection == null) {
+            connection = NioConnection.open(new InetSocketAddress(host, port), connectTimeout, noDelay, decoder);
+            connectionKey = key;
+            log.debug("Created new connection to {}", key);
+        }
+        return connection;
+    }
+
+    private NioConnection getSharedConnection(String host, int port, int connectTimeout, boolean noDelay)
+            throws IOException {
+        // The decoder of the first thread frames the messages of all the threads
+        String key = host + ':' + port + '#' + decoder;
+        if (!key.equals(sharedKey)) {
+            releaseSharedConnections();
+            SHARED_CONNECTIONS.compute(key, (k, shared) -> {
+                SharedConnections connections = shared == null ? new SharedConnections() : shared;
+                connections.users++;
+                return connections;
+            });
+            sharedKey = key;
+        }
+        return SHARED_CONNECTIONS.get(key).get(host, port, connectTimeout, noDelay, decoder);
+    }
+
+    private void releaseSharedConnections() {
+        if (sharedKey == null) {
+            return;
+        }
+        SHARED_CONNECTIONS.computeIfPresent(sharedKey, (k, shared) -> {
+            if (--shared.users > 0) {
+                return shared;
+            }
+            shared.close();
+            return null;
+        });
+        sharedKey = null;
+    }
+
+    /**
+     * Close the connection of the thread, the shared connections stay open.
+     */
+    public void closeConnection() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    /**
+     * Cancel the request waiting for its response
+     *
+     * @return {@code true} if a request was cancelled
+     */
+    public boolean interrupt() {
+        NioConnection.Exchange exchange = currentExchange;
+        return exchange != null && exchange.cancel(false);
+    }
+
+    /**
+     * Closes the connection of the thread and releases the shared connections.
+     */
+    @Override
+    public void teardownTest() {
+        closeConnection();
+        releaseSharedConnections();
+    }
+
+    private byte[] toBytes(String request) throws UnsupportedEncodingException {
+        return BINARY ? BinaryTCPClientImpl.hexStringToByteArray(request) : request.getBytes(getCharset());
+    }
+
+    private String toString(byte[] response) throws UnsupportedEncodingException {
+        return BINARY ? JOrphanUtils.baToHexString(response) : new String(response, getCharset());
+    }
+
+    /**
+     * Writes the framed request on a blocking stream.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(OutputStream os, String s) throws IOException {
+        os.write(decoder.encode(toBytes(s)));
+        os.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(OutputStream os, InputStream is) throws IOException {
+        os.write(decoder.encode(IOUtils.toByteArray(is)));
+        os.flush();
+    }
+
+    @Deprecated
+    @Override
+    public String read(InputStream is) throws ReadException {
+        return read(is, new SampleResult());
+    }
+
+    /**
+     * Reads a framed response from a blocking stream.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String read(InputStream is, SampleResult sampleResult) throws ReadException {
+        ByteBuffer buffer = ByteBuffer.allocate(NioSelectorPool.BUFFER_SIZE);
+        try {
+            boolean first = true;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+                int x = is.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                if (x < 0) {
+                    throw new ReadException("End of stream before the end of the frame, bytes read: "
+                            + buffer.position(), null, partial(buffer));
+                }
+                if (first && x > 0) {
+                    sampleResult.latencyEnd();
+                    first = false;
+                }
+                buffer.position(buffer.position() + x);
+                buffer.flip();
+                byte[] message = decoder.decode(buffer);
+                if (message != null) {
+                    return toString(message);
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            throw new ReadException("Error reading from server, bytes read: " + buffer.position(), e, partial(buffer));
+        }
+    }
+
+    private String partial(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), buffer.arrayOffset(), bytes, 0, bytes.length);
+        try {
+            return toString(bytes);
+        } catch (UnsupportedEncodingException e) {
+            return "<Read bytes with bad encoding>";
+        }
+    }
+
+    /**
+     * Connections to a server shared by the threads
+     */
+    private static final class SharedConnections {
+        private final NioConnection[] connections = new NioConnection[Math.max(PIPELINING_CONNECTIONS, 1)];
+        private int next;
+        private int users;
+
+        private synchronized NioConnection get(String host, int port, int connectTimeout, boolean noDelay,
+                FrameDecoder decoder) throws IOException {
+            int index = next;
+            next = (next + 1) % connections.length;
+            NioConnection nioConnection = connections[index];
+            if (nioConnection == null || nioConnection.isClosed()) {
+                nioConnection = NioConnection.open(new InetSocketAddress(host, port), connectTimeout, noDelay, decoder);
+                connections[index] = nioConnection;
+                log.debug("Created new shared connection to {}:{}", host, port);
+            }
+            return nioConnection;
+        }
+
+        private synchronized void close() {
+            for (NioConnection nioConnection : connections) {
+                if (nioConnection != null) {
+                    nioConnection.close();
+                }
+            }
+        }
+    }
+}
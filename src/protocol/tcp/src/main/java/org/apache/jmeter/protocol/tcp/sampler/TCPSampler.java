@@ -43,6 +43,7 @@ import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.Interruptible;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
@@ -52,7 +53,7 @@ import org.slf4j.LoggerFactory;
  * A sampler which understands Tcp requests.
  *
  */
-public class TCPSampler extends AbstractSampler implements ThreadListener, Interruptible {
+public class TCPSampler extends AbstractSampler implements ThreadListener, TestStateListener, Interruptible {
     private static final long serialVersionUID = 280L;
 
     private static final Logger log = LoggerFactory.getLogger(TCPSampler.class);
@@ -137,6 +138,8 @@ public class TCPSampler extends AbstractSampler implements ThreadListener, Inter
 
     private transient volatile Socket currentSocket; // used for handling interrupt
 
+    private transient volatile NioTCPClientImpl currentNioClient; // used for handling interrupt
+
     public TCPSampler() {
         log.debug("Created {}", this); //$NON-NLS-1$
     }
@@ -373,6 +376,9 @@ public class TCPSampler extends AbstractSampler implements ThreadListener, Inter
                 " noDelay: " + getNoDelay() +
                 "]";
         res.setSamplerData(sb);
+        if (protocolHandler instanceof NioTCPClientImpl) {
+            return sampleNio((NioTCPClientImpl) protocolHandler, res, reUseConnection, closeConnection);
+        }
         res.sampleStart();
         try {
             Socket sock;
@@ -421,6 +427,37 @@ public class TCPSampler extends AbstractSampler implements ThreadListener, Inter
         return res;
     }
 
+    /**
+     * Sample through the non blocking connections of the {@link NioTCPClientImpl}
+     */
+    private SampleResult sampleNio(NioTCPClientImpl client, SampleResult res,
+            boolean reUseConnection, boolean closeConnection) {
+        boolean isSuccessful = false;
+        String req = getRequestData();
+        res.setSamplerData(req);
+        res.sampleStart();
+        try {
+            currentNioClient = client;
+            String in = client.sample(getServer(), getPort(), getConnectTimeout(), getTimeout(), getNoDelay(), req, res);
+            isSuccessful = setupSampleResult(res, in, null, client);
+        } catch (ReadException ex) {
+            log.error("", ex);
+            isSuccessful = setupSampleResult(res, ex.getPartialResponse(), ex, client);
+        } catch (Exception ex) {
+            log.error("", ex);
+            isSuccessful = setupSampleResult(res, "", ex, client);
+            client.closeConnection();
+        } finally {
+            currentNioClient = null;
+            res.sampleEnd();
+            res.setSuccessful(isSuccessful);
+            if (!reUseConnection || closeConnection) {
+                client.closeConnection();
+            }
+        }
+        return res;
+    }
+
     /**
      * Fills SampleResult object
      * @param sampleResult {@link SampleResult}
@@ -521,6 +558,38 @@ public class TCPSampler extends AbstractSampler implements ThreadListener, Inter
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testStarted() {
+        // NOOP, the selector threads are started by the first connection
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    /**
+     * Stops the selector threads of the non-blocking client
+     */
+    @Override
+    public void testEnded() {
+        NioSelectorPool.shutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
     /**
      * Closes all connections, clears Map and remove thread local Map
      */
@@ -550,6 +619,10 @@ public class TCPSampler extends AbstractSampler implements ThreadListener, Inter
 
     @Override
     public boolean interrupt() {
+        NioTCPClientImpl nioClient = currentNioClient;
+        if (nioClient != null) {
+            return nioClient.interrupt();
+        }
         Optional<Socket> sock = Optional.ofNullable(currentSocket); // fetch in case gets nulled later
         if (sock.isPresent()) {
             try {
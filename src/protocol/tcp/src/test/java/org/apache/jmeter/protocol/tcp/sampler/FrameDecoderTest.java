@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class FrameDecoderTest {
+
+    private static ByteBuffer buffer(byte... bytes) {
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testDelimiterFramesKeepTheDelimiter() throws IOException {
+        FrameDecoder decoder = new DelimiterFrameDecoder((byte) '\n');
+        ByteBuffer buffer = buffer(bytes("ab\ncd\ne"));
+        assertArrayEquals(bytes("ab\n"), decoder.decode(buffer));
+        assertArrayEquals(bytes("cd\n"), decoder.decode(buffer));
+        assertNull(decoder.decode(buffer));
+        assertEquals(1, buffer.remaining(), "incomplete frame is not consumed");
+    }
+
+    @Test
+    public void testLengthPrefixedFrames() throws IOException {
+        FrameDecoder decoder = new LengthPrefixedFrameDecoder(2);
+        byte[] frame = decoder.encode(bytes("abc"));
+        assertArrayEquals(new byte[]{0, 3, 'a', 'b', 'c'}, frame);
+        ByteBuffer partial = buffer(new byte[]{0, 3, 'a'});
+        assertNull(decoder.decode(partial));
+        assertEquals(0, partial.position());
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.put(frame).put(frame, 0, 2).flip();
+        assertArrayEquals(bytes("abc"), decoder.decode(buffer));
+        assertNull(decoder.decode(buffer));
+        assertEquals(2, buffer.remaining());
+    }
+
+    @Test
+    public void testFourBytesLengthPrefix() throws IOException {
+        FrameDecoder decoder = new LengthPrefixedFrameDecoder(4);
+        assertArrayEquals(bytes("ab"), decoder.decode(buffer(decoder.encode(bytes("ab")))));
+        assertThrows(IOException.class, () -> decoder.decode(buffer(new byte[]{(byte) 0xFF, 0, 0, 0})));
+        assertThrows(IllegalArgumentException.class, () -> new LengthPrefixedFrameDecoder(3));
+    }
+
+    @Test
+    public void testFixedLengthFrames() throws IOException {
+        FrameDecoder decoder = new FixedLengthFrameDecoder(2);
+        ByteBuffer buffer = buffer(bytes("abc"));
+        assertArrayEquals(bytes("ab"), decoder.decode(buffer));
+        assertNull(decoder.decode(buffer));
+        assertArrayEquals(bytes("xy"), decoder.encode(bytes("xy")));
+    }
+}
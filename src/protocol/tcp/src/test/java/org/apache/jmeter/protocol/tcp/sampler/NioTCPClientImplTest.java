@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jmeter.protocol.tcp.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NioTCPClientImplTest {
+
+    private ServerSocket server;
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+
+    /** Replies "echo:" + line to each line, after all the lines of a batch are received */
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverThreads.execute(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    accepted.incrementAndGet();
+                    serverThreads.execute(() -> echo(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    private static void echo(Socket socket) {
+        try (Socket s = socket; InputStream in = s.getInputStream(); OutputStream out = s.getOutputStream()) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) >= 0) {
+                line.write(b);
+                if (b == '\n') {
+                    out.write(("echo:" + line.toString("US-ASCII")).getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    line.reset();
+                }
+            }
+        } catch (IOException e) {
+            // connection closed by the client
+        }
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        server.close();
+        serverThreads.shutdownNow();
+    }
+
+    private String sample(NioTCPClientImpl client, String request, SampleResult result) throws Exception {
+        return client.sample(server.getInetAddress().getHostAddress(), server.getLocalPort(),
+                1000, 5000, true, request, result);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        NioTCPClientImpl client = new NioTCPClientImpl(false);
+        client.setEolByte('\n');
+        try {
+            SampleResult result = new SampleResult();
+            result.sampleStart();
+            assertEquals("echo:hello\n", sample(client, "hello\n", result));
+            assertEquals(6, result.getSentBytes());
+            assertEquals(11, result.getBytesAsLong());
+            assertEquals("echo:again\n", sample(client, "again\n", new SampleResult()));
+            assertEquals(1, accepted.get());
+        } finally {
+            client.teardownTest();
+        }
+    }
+
+    @Test
+    public void testSelectorThreadsStopWhenTestEnds() throws Exception {
+        NioTCPClientImpl client = new NioTCPClientImpl(false);
+        client.setEolByte('\n');
+        try {
+            assertEquals("echo:hello\n", sample(client, "hello\n", new SampleResult()));
+            assertTrue(NioSelectorPool.isStarted());
+            new TCPSampler().testEnded();
+            assertFalse(NioSelectorPool.isStarted());
+            assertFalse(Thread.getAllStackTraces().keySet().stream()
+                            .anyMatch(t -> t.getName().startsWith("TcpSelector-")),
+                    "selector threads are stopped");
+            // The next test starts new selector threads and reconnects
+            assertEquals("echo:again\n", sample(client, "again\n", new SampleResult()));
+            assertEquals(2, accepted.get());
+        } finally {
+            client.teardownTest();
+            NioSelectorPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPipelinedRequestsAreCorrelated() throws Exception {
+        int threads = 8;
+        int requests = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    NioTCPClientImpl client = new NioTCPClientImpl(true);
+                    client.setEolByte('\n');
+                    try {
+                        int ok = 0;
+                        for (int i = 0; i < requests; i++) {
+                            String request = "t" + thread + "-" + i + "\n";
+                            if (("echo:" + request).equals(sample(client, request, new SampleResult()))) {
+                                ok++;
+                            }
+                        }
+                        return ok;
+                    } finally {
+                        done.countDown();
+                        // Keep the shared connection open until all the threads are done
+                        done.await(10, TimeUnit.SECONDS);
+                        client.teardownTest();
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(requests, result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, accepted.get(), "threads share a single connection");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDecoderConfigurationsDoNotShareConnections() throws Exception {
+        NioTCPClientImpl lines = new NioTCPClientImpl(true);
+        lines.setEolByte('\n');
+        NioTCPClientImpl fields = new NioTCPClientImpl(true);
+        fields.setEolByte(';');
+        try {
+            assertEquals("echo:a;b\n", sample(lines, "a;b\n", new SampleResult()));
+            assertEquals("echo:a;", sample(fields, "a;b\n", new SampleResult()));
+            assertEquals(2, accepted.get(), "each EOL byte has its own connection");
+        } finally {
+            lines.teardownTest();
+            fields.teardownTest();
+        }
+    }
+
+    @Test
+    public void testIncompleteFrameTimesOut() throws Exception {
+        NioTCPClientImpl client = new NioTCPClientImpl(false);
+        // The server answers less than the frame length
+        client.setFrameDecoder(new FixedLengthFrameDecoder(100));
+        try {
+            ReadException e = assertThrows(ReadException.class,
+                    () -> client.sample(server.getInetAddress().getHostAddress(), server.getLocalPort(),
+                            1000, 200, true, "short\n", new SampleResult()));
+            assertTrue(e.getMessage().startsWith("Timeout"), e.getMessage());
+        } finally {
+            client.teardownTest();
+        }
+    }
+
+    @Test
+    public void testBlockingStreams() throws Exception {
+        NioTCPClientImpl client = new NioTCPClientImpl(false);
+        client.setFrameDecoder(new LengthPrefixedFrameDecoder(2));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        client.write(os, "abc");
+        byte[] frame = os.toByteArray();
+        assertEquals(5, frame.length);
+        assertEquals("abc", client.read(new ByteArrayInputStream(frame), new SampleResult()));
+        ReadException e = assertThrows(ReadException.class,
+                () -> client.read(new ByteArrayInputStream(new byte[]{0, 3, 'a'}), new SampleResult()));
+        assertTrue(e.getPartialResponse().endsWith("a"), "partial response contains the bytes read");
+    }
+}